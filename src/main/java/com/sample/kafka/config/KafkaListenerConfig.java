@@ -0,0 +1,93 @@
+package com.sample.kafka.config;
+
+import com.sample.kafka.consumer.ListenerRebalanceListener;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaConsumerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Slf4j
+@Configuration
+public class KafkaListenerConfig {
+
+    /**
+     * 리스너 그룹의 파티션 할당 전략 (쉼표로 여러 개)
+     * CooperativeStickyAssignor 는 옮겨지는 파티션만 회수하므로 나머지 파티션은 리밸런스 중에도 계속 처리된다.
+     */
+    @Value("${app.listeners.assignment-strategy:org.apache.kafka.clients.consumer.CooperativeStickyAssignor}")
+    private String assignmentStrategy;
+
+    /**
+     * 정적 멤버십 인스턴스 ID (비우면 동적 멤버십)
+     * 재시작해도 같고 인스턴스마다 달라야 한다 (StatefulSet 파드 이름 등).
+     * 리스너마다 그룹이 다르므로 같은 값을 써도 되고, concurrency 가 1보다 크면 컨테이너가 "-n" 을 붙인다.
+     */
+    @Value("${app.rebalance.group-instance-id:}")
+    private String groupInstanceId;
+
+    @Value("${app.rebalance.session-timeout:45s}")
+    private Duration sessionTimeout;
+
+    /**
+     * 리스너 컨슈머의 리밸런스 설정
+     * 정적 멤버는 종료 시 그룹을 떠나지 않으므로 session.timeout.ms 안에 같은 ID 로 돌아오면
+     * 리밸런스 없이 이전 파티션을 그대로 다시 받는다.
+     */
+    @Bean
+    public DefaultKafkaConsumerFactoryCustomizer rebalanceConsumerCustomizer() {
+        return consumerFactory -> {
+            Map<String, Object> configs = new HashMap<>();
+            configs.put(ConsumerConfig.PARTITION_ASSIGNMENT_STRATEGY_CONFIG, assignmentStrategy);
+            configs.put(ConsumerConfig.SESSION_TIMEOUT_MS_CONFIG, (int) sessionTimeout.toMillis());
+            if (!groupInstanceId.isBlank()) {
+                configs.put(ConsumerConfig.GROUP_INSTANCE_ID_CONFIG, groupInstanceId);
+            }
+            consumerFactory.updateConfigs(configs);
+            log.info("리스너 리밸런스 설정 - 할당 전략: {}, group.instance.id: {}, session.timeout: {}",
+                assignmentStrategy, groupInstanceId.isBlank() ? "(동적 멤버십)" : groupInstanceId, sessionTimeout);
+        };
+    }
+
+    /**
+     * 집계 결과 저장용 리스너 컨테이너 팩토리
+     * DB 반영(write-behind flush) 이후에 직접 ack 하므로 MANUAL 커밋을 사용한다.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> writeBehindListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> kafkaConsumerFactory,
+            ListenerRebalanceListener rebalanceListener) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, kafkaConsumerFactory);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.getContainerProperties().setConsumerRebalanceListener(rebalanceListener);
+        return factory;
+    }
+
+    /**
+     * 키 순서 병렬 처리 리스너 컨테이너 팩토리
+     * KeyOrderedDispatcher 가 연속으로 완료된 구간까지만 ack 하므로 MANUAL 커밋을 사용하고,
+     * 파티션이 회수되기 전에 처리 중 레코드를 기다려 완료 구간을 커밋한다 (ListenerRebalanceListener).
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> parallelListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> kafkaConsumerFactory,
+            ListenerRebalanceListener rebalanceListener) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, kafkaConsumerFactory);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.getContainerProperties().setConsumerRebalanceListener(rebalanceListener);
+        return factory;
+    }
+}
@@ -1,11 +1,59 @@
 package com.sample.kafka.config;
 
+import com.sample.kafka.dto.AggregationResultType;
+import com.sample.kafka.metrics.PipelineMetrics;
+import com.sample.kafka.service.FilterRuleService;
+import com.sample.kafka.service.ProductCategoryService;
+import com.sample.kafka.streams.Arrival;
+import com.sample.kafka.streams.AsciiUpperCase;
+import com.sample.kafka.streams.ArrivalClassifier;
+import com.sample.kafka.streams.CategoryEnricher;
+import com.sample.kafka.streams.EarlyEmitClock;
+import com.sample.kafka.streams.EarlyEmitProcessor;
+import com.sample.kafka.streams.EventWindowCounts;
+import com.sample.kafka.streams.EventWindowType;
+import com.sample.kafka.streams.FilterRuleUpdater;
+import com.sample.kafka.streams.Heartbeats;
+import com.sample.kafka.streams.HyperLogLog;
+import com.sample.kafka.streams.HyperLogLogSerde;
+import com.sample.kafka.streams.LatePolicy;
+import com.sample.kafka.streams.ProductCategoryUpdater;
+import com.sample.kafka.streams.ResultStatus;
+import com.sample.kafka.streams.SalesStats;
+import com.sample.kafka.streams.SalesStatsSerde;
+import com.sample.kafka.streams.SaltedSalesAggregation;
+import com.sample.kafka.streams.StateRestoreProgress;
+import com.sample.kafka.streams.StreamsRebalanceTimer;
+import com.sample.kafka.streams.TDigest;
+import com.sample.kafka.streams.TDigestSerde;
+import com.sample.kafka.streams.TraceEmitProcessor;
+import com.sample.kafka.streams.TopKProcessor;
+import com.sample.kafka.streams.TopKSketch;
+import com.sample.kafka.streams.TopKSketchSerde;
+import com.sample.kafka.streams.TraceIngestProcessor;
+import com.sample.kafka.streams.UserEvent;
+import com.sample.kafka.streams.UserSessionStats;
+import com.sample.kafka.streams.UserSessionStatsSerde;
+import com.sample.kafka.streams.WordCountEmitMode;
+import io.micrometer.core.instrument.Counter;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.config.TopicConfig;
 import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.utils.Bytes;
 import org.apache.kafka.streams.KeyValue;
 import org.apache.kafka.streams.StreamsBuilder;
 import org.apache.kafka.streams.StreamsConfig;
 import org.apache.kafka.streams.kstream.*;
+import org.apache.kafka.streams.processor.api.FixedKeyProcessorSupplier;
+import org.apache.kafka.streams.processor.api.ProcessorSupplier;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.apache.kafka.streams.state.SessionStore;
+import org.apache.kafka.streams.state.StoreBuilder;
+import org.apache.kafka.streams.state.Stores;
+import org.apache.kafka.streams.state.WindowStore;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import java.time.Duration;
 import org.springframework.context.annotation.Bean;
@@ -14,47 +62,341 @@ import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.annotation.EnableKafkaStreams;
 import org.springframework.kafka.annotation.KafkaStreamsDefaultConfiguration;
 import org.springframework.kafka.config.KafkaStreamsConfiguration;
+import org.springframework.kafka.config.StreamsBuilderFactoryBeanConfigurer;
+import org.springframework.util.unit.DataSize;
 
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.Arrays;
+import java.util.Base64;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Slf4j
 @Configuration
 @EnableKafka
 @EnableKafkaStreams
+@RequiredArgsConstructor
 public class KafkaStreamsConfig {
 
+    // Interactive Query 로 조회하는 상태 저장소 이름
+    public static final String WORD_COUNTS_STORE = "word-counts-store";
+    public static final String HOURLY_SALES_STORE = "hourly-sales-store";
+    public static final String DAILY_SALES_STORE = "daily-sales-store";
+    public static final String EVENT_COUNT_STORE = "event-count-store";
+    public static final String EVENT_COUNT_HOPPING_STORE = "event-count-hopping-store";
+    public static final String EVENT_COUNT_SLIDING_STORE = "event-count-sliding-store";
+    public static final String EVENT_UNIQUE_USERS_STORE = "event-unique-users-store";
+    public static final String HOURLY_SALE_PERCENTILES_STORE = "hourly-sale-percentiles-store";
+    public static final String USER_SESSIONS_STORE = "user-sessions-store";
+    public static final String FILTER_RULES_STORE = "filter-rules-store";
+    public static final String WORD_TOP_K_STORE = "word-top-k-store";
+    public static final String PRODUCT_TOP_K_STORE = "product-top-k-store";
+    public static final String PRODUCT_CATEGORIES_STORE = "product-categories-store";
+
+    // 상위 K 결과의 대상 이름 (출력 레코드 키, 조회 API 경로)
+    public static final String TOP_K_WORDS = "words";
+    public static final String TOP_K_PRODUCTS = "products";
+
+    // 정정 모드(LatePolicy.CORRECTION)에서 지각분만 집계하는 저장소
+    private static final String HOURLY_SALES_CORRECTION_STORE = "hourly-sales-correction-store";
+    private static final String DAILY_SALES_CORRECTION_STORE = "daily-sales-correction-store";
+    private static final String EVENT_COUNT_CORRECTION_STORE = "event-count-correction-store";
+
+    public static final String APPLICATION_ID = "kafka-streams-app";
+
+    // 윈도우 경계 표시용 타임존
+    public static final ZoneId ZONE = ZoneId.of("Asia/Seoul");
+
+    // 윈도우 크기
+    public static final Duration HOURLY_WINDOW_SIZE = Duration.ofHours(1);
+    public static final Duration DAILY_WINDOW_SIZE = Duration.ofDays(1);
+    public static final Duration EVENT_WINDOW_SIZE = Duration.ofMinutes(5);
+    public static final Duration TOP_K_WINDOW_SIZE = Duration.ofMinutes(5);
+
+    private final PipelineMetrics metrics;
+    private final FilterRuleService filterRuleService;
+    private final ProductCategoryService productCategoryService;
+
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
+    // 다른 인스턴스가 Interactive Query 를 전달할 이 인스턴스의 host:port
+    @Value("${app.streams.application-server:localhost:${server.port:8080}}")
+    private String applicationServer;
+
+    // 윈도우별 grace 기간 (늘릴수록 지각 레코드를 더 받지만 suppress 결과도 그만큼 늦게 나간다)
+    @Value("${app.streams.windows.hourly-sales.grace:0s}")
+    private Duration hourlySalesGrace;
+
+    @Value("${app.streams.windows.daily-sales.grace:0s}")
+    private Duration dailySalesGrace;
+
+    @Value("${app.streams.windows.event-count.grace:0s}")
+    private Duration eventCountGrace;
+
+    // grace 이후 도착한 지각 레코드 처리 정책
+    @Value("${app.streams.windows.hourly-sales.late-policy:SIDE_OUTPUT}")
+    private LatePolicy hourlySalesLatePolicy;
+
+    @Value("${app.streams.windows.daily-sales.late-policy:SIDE_OUTPUT}")
+    private LatePolicy dailySalesLatePolicy;
+
+    @Value("${app.streams.windows.event-count.late-policy:SIDE_OUTPUT}")
+    private LatePolicy eventCountLatePolicy;
+
+    // 잠정 결과 방출 주기 (0 이면 확정 결과만) 와 기준 시간 (STREAM_TIME | WALL_CLOCK)
+    @Value("${app.streams.windows.hourly-sales.early-emit.interval:0s}")
+    private Duration hourlySalesEarlyEmitInterval;
+
+    @Value("${app.streams.windows.hourly-sales.early-emit.clock:WALL_CLOCK}")
+    private EarlyEmitClock hourlySalesEarlyEmitClock;
+
+    @Value("${app.streams.windows.daily-sales.early-emit.interval:0s}")
+    private Duration dailySalesEarlyEmitInterval;
+
+    @Value("${app.streams.windows.daily-sales.early-emit.clock:WALL_CLOCK}")
+    private EarlyEmitClock dailySalesEarlyEmitClock;
+
+    @Value("${app.streams.windows.event-count.early-emit.interval:0s}")
+    private Duration eventCountEarlyEmitInterval;
+
+    @Value("${app.streams.windows.event-count.early-emit.clock:WALL_CLOCK}")
+    private EarlyEmitClock eventCountEarlyEmitClock;
+
+    // 이벤트 카운트 호핑 윈도우 시작 간격 (0 이면 사용 안 함) 과 슬라이딩 윈도우 사용 여부
+    @Value("${app.streams.windows.event-count.hopping.advance:0s}")
+    private Duration eventCountHoppingAdvance;
+
+    @Value("${app.streams.windows.event-count.sliding.enabled:false}")
+    private boolean eventCountSlidingEnabled;
+
+    // 대문자 변환 스트림을 byte[] 로 처리 (ASCII 는 디코딩 없이 변환, 레코드별 로그 생략)
+    @Value("${app.streams.uppercase.byte-path:false}")
+    private boolean upperCaseBytePath;
+
+    // 레코드 캐시: 커밋 주기마다 또는 캐시가 차면 같은 키의 갱신을 모아 마지막 값만 하위로 내보낸다
+    // commit-interval 은 단어 카운트 emit-mode 가 CACHED 일 때만 commit.interval.ms 로 적용 (비우면 Kafka 기본값)
+    @Value("${app.streams.commit-interval:#{null}}")
+    private Duration commitInterval;
+
+    @Value("${app.streams.cache-max-bytes:10MB}")
+    private DataSize cacheMaxBytes;
+
+    // 단어 카운트 출력 방식 (EVERY_UPDATE | CACHED | SUPPRESS) 과 SUPPRESS 주기 / 버퍼 크기
+    @Value("${app.streams.word-count.emit-mode:EVERY_UPDATE}")
+    private WordCountEmitMode wordCountEmitMode;
+
+    @Value("${app.streams.word-count.emit-interval:5s}")
+    private Duration wordCountEmitInterval;
+
+    @Value("${app.streams.word-count.suppress-max-records:100000}")
+    private long wordCountSuppressMaxRecords;
+
+    // 이벤트 타입별 고유 사용자 HyperLogLog precision (레지스터 2^precision 바이트, 오차 ≈ 1.04 / sqrt(2^precision))
+    @Value("${app.streams.windows.event-count.unique-users.precision:12}")
+    private int uniqueUsersPrecision;
+
+    // 상품별 시간당 판매 금액 분위수 t-digest compression (클수록 정확, 윈도우당 centroid 약 compression 개)
+    @Value("${app.streams.windows.hourly-sales.percentiles.compression:100}")
+    private int salePercentileCompression;
+
+    // 정정 모드에서 윈도우 종료 후 지각 레코드를 받아 주는 기간
+    @Value("${app.streams.windows.correction-horizon:1d}")
+    private Duration correctionHorizon;
+
+    // 사용자 세션: 이 시간 동안 이벤트가 없으면 세션 종료
+    @Value("${app.streams.sessions.inactivity-gap:30m}")
+    private Duration sessionInactivityGap;
+
+    @Value("${app.streams.sessions.grace:0s}")
+    private Duration sessionGrace;
+
+    // 세션 저장소 보관 기간 (inactivity-gap + grace 보다 짧으면 그 값으로 올림)
+    @Value("${app.streams.sessions.retention:0s}")
+    private Duration sessionRetention;
+
+    // 윈도우 하트비트 (WindowHeartbeatTicker): 켜져 있으면 suppress 로 닫는 집계 저장소의 캐시를 끄고,
+    // 키를 바꾸는 재파티셔닝에서 하트비트를 모든 파티션으로 복제한다 (Heartbeats)
+    @Value("${app.streams.heartbeat.enabled:false}")
+    private boolean heartbeatEnabled;
+
+    // 핫 키 2단계 집계 (매출 스트림): 유입률이 threshold(태스크당 초당 건수) 이상인 키를 salts 개 하위 키로 나눠
+    // flush-interval 마다 부분 집계한 뒤 원래 키로 병합한다. 병합 윈도우 grace 는 merge-grace 만큼 늘어난다.
+    @Value("${app.streams.hot-keys.enabled:false}")
+    private boolean hotKeysEnabled;
+
+    @Value("${app.streams.hot-keys.salts:8}")
+    private int hotKeySalts;
+
+    @Value("${app.streams.hot-keys.threshold:200}")
+    private double hotKeyThreshold;
+
+    @Value("${app.streams.hot-keys.flush-interval:1s}")
+    private Duration hotKeyFlushInterval;
+
+    @Value("${app.streams.hot-keys.merge-grace:30s}")
+    private Duration hotKeyMergeGrace;
+
+    // 시간별 매출(상품 키)을 상품 -> 카테고리 매핑으로 보강해 일별 집계(카테고리 키)에도 넣음
+    @Value("${app.streams.category-enrichment.enabled:false}")
+    private boolean categoryEnrichmentEnabled;
+
+    // 상위 K: 윈도우마다 K 개 후보 + depth x width Count-Min Sketch (윈도우당 약 8 x depth x width 바이트)
+    @Value("${app.streams.top-k.k:10}")
+    private int topK;
+
+    @Value("${app.streams.top-k.depth:4}")
+    private int topKDepth;
+
+    @Value("${app.streams.top-k.width:512}")
+    private int topKWidth;
+
+    @Value("${app.streams.top-k.grace:0s}")
+    private Duration topKGrace;
+
+    // 정적 멤버십 인스턴스 ID (비우면 동적 멤버십, 스트림 스레드마다 "-스레드번호" 가 붙는다)
+    @Value("${app.rebalance.group-instance-id:}")
+    private String groupInstanceId;
+
+    // 정적 멤버가 재시작 후 돌아올 때까지 기다리는 시간 (재시작 시간보다 길게)
+    @Value("${app.rebalance.session-timeout:45s}")
+    private Duration sessionTimeout;
+
+    // 태스크별 상태 저장소 복제본 수 (장애 시 복원 없이 넘겨받음)
+    @Value("${app.streams.standby.replicas:0}")
+    private int standbyReplicas;
+
+    // 새 인스턴스에 상태를 미리 복사하는 warmup 태스크 수 (따라잡은 뒤에 액티브 태스크를 옮김)
+    // 카프카는 0 을 허용하지 않으므로 0 이면 최솟값 1 로 둔다 (warmup 은 인스턴스가 여럿일 때만 생김)
+    @Value("${app.streams.standby.max-warmup-replicas:0}")
+    private int maxWarmupReplicas;
+
+    // 이 레코드 수 이하로 뒤처진 복제본은 따라잡은 것으로 보고 액티브 태스크를 맡길 수 있음
+    @Value("${app.streams.standby.acceptable-recovery-lag:10000}")
+    private long acceptableRecoveryLag;
+
+    // warmup 진행을 확인하는 probing 리밸런스 주기
+    @Value("${app.streams.standby.probing-rebalance-interval:10m}")
+    private Duration probingRebalanceInterval;
+
+    // 복원 전용 컨슈머: changelog 를 큰 배치로 읽어 복원 속도를 높임 (처리용 메인 컨슈머와 별도)
+    @Value("${app.streams.restore.max-poll-records:10000}")
+    private int restoreMaxPollRecords;
+
+    @Value("${app.streams.restore.max-partition-fetch-bytes:8MB}")
+    private DataSize restoreMaxPartitionFetchBytes;
+
+    // 복원 진행 로그 주기
+    @Value("${app.streams.restore.log-interval:5s}")
+    private Duration restoreLogInterval;
+
+    // changelog 토픽 compaction 설정 (스트림즈가 changelog 토픽을 만들 때만 적용, changelogConfig)
+    @Value("${app.streams.changelog.segment-bytes:64MB}")
+    private DataSize changelogSegmentBytes;
+
+    @Value("${app.streams.changelog.segment-ms:1h}")
+    private Duration changelogSegmentMs;
+
+    @Value("${app.streams.changelog.min-cleanable-dirty-ratio:0.1}")
+    private double changelogMinCleanableDirtyRatio;
+
     @Bean(name = KafkaStreamsDefaultConfiguration.DEFAULT_STREAMS_CONFIG_BEAN_NAME)
     public KafkaStreamsConfiguration kStreamsConfig() {
         Map<String, Object> props = new HashMap<>();
-        props.put(StreamsConfig.APPLICATION_ID_CONFIG, "kafka-streams-app");
+        props.put(StreamsConfig.APPLICATION_ID_CONFIG, APPLICATION_ID);
         props.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(StreamsConfig.APPLICATION_SERVER_CONFIG, applicationServer);
         props.put(StreamsConfig.DEFAULT_KEY_SERDE_CLASS_CONFIG, Serdes.String().getClass());
         props.put(StreamsConfig.DEFAULT_VALUE_SERDE_CLASS_CONFIG, Serdes.String().getClass());
-        
+        if (wordCountEmitMode == WordCountEmitMode.CACHED && commitInterval != null) {
+            props.put(StreamsConfig.COMMIT_INTERVAL_MS_CONFIG, commitInterval.toMillis());
+        }
+        props.put(StreamsConfig.STATESTORE_CACHE_MAX_BYTES_CONFIG, cacheMaxBytes.toBytes());
+
+        // 리밸런스 (스트림즈는 기본이 cooperative 리밸런스)
+        if (!groupInstanceId.isBlank()) {
+            props.put(ConsumerConfig.GROUP_INSTANCE_ID_CONFIG, groupInstanceId);
+        }
+        props.put(ConsumerConfig.SESSION_TIMEOUT_MS_CONFIG, (int) sessionTimeout.toMillis());
+        props.put(StreamsConfig.NUM_STANDBY_REPLICAS_CONFIG, standbyReplicas);
+        props.put(StreamsConfig.MAX_WARMUP_REPLICAS_CONFIG, Math.max(maxWarmupReplicas, 1));
+        props.put(StreamsConfig.ACCEPTABLE_RECOVERY_LAG_CONFIG, acceptableRecoveryLag);
+        props.put(StreamsConfig.PROBING_REBALANCE_INTERVAL_MS_CONFIG, probingRebalanceInterval.toMillis());
+
+        // 상태 복원
+        props.put(StreamsConfig.restoreConsumerPrefix(ConsumerConfig.MAX_POLL_RECORDS_CONFIG), restoreMaxPollRecords);
+        props.put(StreamsConfig.restoreConsumerPrefix(ConsumerConfig.MAX_PARTITION_FETCH_BYTES_CONFIG),
+            (int) restoreMaxPartitionFetchBytes.toBytes());
+
         return new KafkaStreamsConfiguration(props);
     }
 
+    /**
+     * changelog 토픽 설정 (저장소와 suppress 버퍼마다 withLoggingEnabled 로 붙임)
+     *
+     * changelog 는 활성 세그먼트가 닫혀야 compaction 되므로 세그먼트를 작게, 자주 정리해 복원할 레코드 수를 줄인다.
+     * topic.* 로 전역 설정하면 repartition 토픽까지 세그먼트가 잘게 쪼개지므로 changelog 에만 건다.
+     */
+    private Map<String, String> changelogConfig() {
+        return Map.of(
+            TopicConfig.SEGMENT_BYTES_CONFIG, String.valueOf(changelogSegmentBytes.toBytes()),
+            TopicConfig.SEGMENT_MS_CONFIG, String.valueOf(changelogSegmentMs.toMillis()),
+            TopicConfig.MIN_CLEANABLE_DIRTY_RATIO_CONFIG, String.valueOf(changelogMinCleanableDirtyRatio));
+    }
+
+    // 윈도우가 닫힐 때까지 결과를 모아 두는 suppress 버퍼 (changelog 로 복원)
+    private Suppressed.StrictBufferConfig unboundedBuffer() {
+        return Suppressed.BufferConfig.unbounded().withLoggingEnabled(changelogConfig());
+    }
+
+    /**
+     * 상태 저장소 복원 진행 상황 (로그, 조회 API, kafka.sample.streams.restore.*)
+     */
+    @Bean
+    public StateRestoreProgress stateRestoreProgress() {
+        return new StateRestoreProgress(metrics, restoreLogInterval);
+    }
+
+    /**
+     * 스트림즈 상태 전이로 리밸런스 처리 중단 시간을 기록 (kafka.sample.rebalance.pause{client="streams"})
+     * 상태 저장소 복원 진행 상황을 저장소/파티션별로 기록
+     */
+    @Bean
+    public StreamsBuilderFactoryBeanConfigurer streamsListenerConfigurer(StateRestoreProgress stateRestoreProgress) {
+        return factoryBean -> {
+            factoryBean.setStateListener(new StreamsRebalanceTimer(metrics, APPLICATION_ID));
+            factoryBean.setStateRestoreListener(stateRestoreProgress);
+        };
+    }
+
     /**
      * 스트림 1: 메시지 변환 (대문자로 변환)
      * input-topic -> 대문자 변환 -> output-topic
+     *
+     * app.streams.uppercase.byte-path 가 켜져 있으면 값을 byte[] 로 받아 ASCII 는 배열 안에서 바로 바꾸고,
+     * 한글 등 멀티바이트 문자가 섞인 값만 String 으로 디코딩한다 (AsciiUpperCase).
      */
     @Bean
-    public KStream<String, String> kStreamUpperCase(StreamsBuilder streamsBuilder) {
+    public KStream<String, ?> kStreamUpperCase(StreamsBuilder streamsBuilder) {
+        Counter recordsIn = metrics.streamRecordsIn("uppercase");
+        Counter recordsOut = metrics.streamRecordsOut("uppercase");
+        if (upperCaseBytePath) {
+            return upperCaseBytes(streamsBuilder, recordsIn, recordsOut);
+        }
+
         KStream<String, String> stream = streamsBuilder.stream("input-topic");
-        
         stream
-            .peek((key, value) -> log.info("[스트림-대문자변환] 입력 - Key: {}, Value: {}", key, value))
+            .peek((key, value) -> {
+                recordsIn.increment();
+                log.info("[스트림-대문자변환] 입력 - Key: {}, Value: {}", key, value);
+            })
             .mapValues(value -> {
                 String upperCase = value.toUpperCase();
                 log.info("[스트림-대문자변환] 변환 - {} -> {}", value, upperCase);
+                recordsOut.increment();
                 return upperCase;
             })
             .to("output-topic");
@@ -63,19 +405,63 @@ public class KafkaStreamsConfig {
     }
 
     /**
-     * 스트림 2: 메시지 필터링 (특정 키워드 포함된 메시지만)
+     * 바이트 경로: 레코드마다 String 디코딩/인코딩과 복사본 두 개를 만들지 않는다.
+     * 출력 바이트는 문자열 경로와 같아서 output-topic 소비자는 그대로 StringDeserializer 를 쓴다.
+     */
+    private KStream<String, byte[]> upperCaseBytes(StreamsBuilder streamsBuilder, Counter recordsIn, Counter recordsOut) {
+        KStream<String, byte[]> stream = streamsBuilder.stream("input-topic",
+                Consumed.with(Serdes.String(), Serdes.ByteArray()));
+
+        stream
+            .mapValues(value -> {
+                recordsIn.increment();
+                byte[] upperCase = AsciiUpperCase.apply(value);
+                if (log.isDebugEnabled()) {
+                    log.debug("[스트림-대문자변환] 변환 - {}바이트, ASCII: {}", value == null ? 0 : value.length, upperCase == value);
+                }
+                recordsOut.increment();
+                return upperCase;
+            })
+            .to("output-topic", Produced.with(Serdes.String(), Serdes.ByteArray()));
+
+        return stream;
+    }
+
+    /**
+     * 스트림 2: 메시지 필터링 (키워드 규칙 중 하나라도 포함된 메시지만)
      * filter-input-topic -> 필터링 -> filter-output-topic
+     *
+     * 규칙은 filter-rules-topic 으로 런타임에 추가/삭제하며 (없으면 기본 키워드 "중요"),
+     * Aho-Corasick 매처가 규칙 수와 관계없이 메시지를 한 번만 훑는다.
      */
     @Bean
     public KStream<String, String> kStreamFilter(StreamsBuilder streamsBuilder) {
         KStream<String, String> stream = streamsBuilder.stream("filter-input-topic");
+        Counter recordsIn = metrics.streamRecordsIn("filter");
+        Counter recordsOut = metrics.streamRecordsOut("filter");
         
+        // 규칙 토픽 -> 글로벌 저장소 -> 매처 재컴파일 (모든 인스턴스에 재시작 없이 반영)
+        streamsBuilder.addGlobalStore(
+            Stores.keyValueStoreBuilder(Stores.persistentKeyValueStore(FILTER_RULES_STORE), Serdes.String(), Serdes.String())
+                .withLoggingDisabled(),
+            "filter-rules-topic",
+            Consumed.with(Serdes.String(), Serdes.String()),
+            FilterRuleUpdater.supplier(FILTER_RULES_STORE, filterRuleService::replaceRules));
+
         stream
-            .peek((key, value) -> log.info("[스트림-필터] 입력 - Key: {}, Value: {}", key, value))
+            .peek((key, value) -> {
+                recordsIn.increment();
+                log.info("[스트림-필터] 입력 - Key: {}, Value: {}", key, value);
+            })
             .filter((key, value) -> {
-                boolean contains = value.contains("중요");
-                log.info("[스트림-필터] 필터링 - Value: {}, 통과: {}", value, contains);
-                return contains;
+                List<String> matched = filterRuleService.match(value);
+                log.info("[스트림-필터] 필터링 - Value: {}, 적중 규칙: {}", value, matched);
+                if (matched.isEmpty()) {
+                    return false;
+                }
+                filterRuleService.recordHits(matched);
+                recordsOut.increment();
+                return true;
             })
             .to("filter-output-topic");
         
@@ -85,18 +471,53 @@ public class KafkaStreamsConfig {
     /**
      * 스트림 3: 단어 카운트 (실시간 집계)
      * word-input-topic -> 단어별 카운트 -> word-count-output-topic
+     *
+     * 출력 방식 (app.streams.word-count.emit-mode):
+     * - EVERY_UPDATE: 카운트가 바뀔 때마다 방출
+     * - CACHED: 레코드 캐시가 commit-interval 동안 단어별 마지막 값만 남겨 방출
+     * - SUPPRESS: 단어마다 emit-interval 당 최대 한 번 방출 (버퍼가 차면 먼저 방출)
+     * 저장소(word-counts-store)는 방식과 관계없이 매번 갱신되므로 Interactive Query 결과는 같다.
      */
     @Bean
     public KStream<String, String> kStreamWordCount(StreamsBuilder streamsBuilder) {
         KStream<String, String> stream = streamsBuilder.stream("word-input-topic");
-        
-        stream
-            .peek((key, value) -> log.info("[스트림-단어카운트] 입력 - Key: {}, Value: {}", key, value))
+        Counter recordsIn = metrics.streamRecordsIn("word-count");
+        Counter recordsOut = metrics.streamRecordsOut("word-count");
+        Counter updates = metrics.streamUpdates("word-count");
+        log.info("[스트림-단어카운트] 출력 방식: {}", wordCountEmitMode);
+
+        Materialized<String, Long, KeyValueStore<Bytes, byte[]>> materialized =
+            Materialized.<String, Long, KeyValueStore<Bytes, byte[]>>as(WORD_COUNTS_STORE)
+                .withKeySerde(Serdes.String())
+                .withValueSerde(Serdes.Long())
+                .withLoggingEnabled(changelogConfig());
+        materialized = wordCountEmitMode == WordCountEmitMode.EVERY_UPDATE
+            ? materialized.withCachingDisabled()
+            : materialized.withCachingEnabled();
+
+        KTable<String, Long> wordCounts = stream
+            .peek((key, value) -> {
+                recordsIn.increment();
+                log.info("[스트림-단어카운트] 입력 - Key: {}, Value: {}", key, value);
+            })
             .flatMapValues(value -> Arrays.asList(value.toLowerCase().split("\\W+")))
+            .peek((key, word) -> updates.increment())
             .groupBy((key, word) -> word)
-            .count(Materialized.as("word-counts-store"))
+            .count(materialized);
+
+        if (wordCountEmitMode == WordCountEmitMode.SUPPRESS) {
+            wordCounts = wordCounts.suppress(Suppressed.<String>untilTimeLimit(wordCountEmitInterval,
+                    Suppressed.BufferConfig.maxRecords(wordCountSuppressMaxRecords).emitEarlyWhenFull()
+                    .withLoggingEnabled(changelogConfig()))
+                .withName("word-count-emit"));
+        }
+
+        wordCounts
             .toStream()
-            .peek((word, count) -> log.info("[스트림-단어카운트] 결과 - 단어: {}, 카운트: {}", word, count))
+            .peek((word, count) -> {
+                recordsOut.increment();
+                log.info("[스트림-단어카운트] 결과 - 단어: {}, 카운트: {}", word, count);
+            })
             .mapValues(String::valueOf)
             .to("word-count-output-topic", Produced.with(Serdes.String(), Serdes.String()));
         
@@ -115,45 +536,110 @@ public class KafkaStreamsConfig {
     @Bean
     public KStream<String, String> kStreamHourlyAggregation(StreamsBuilder streamsBuilder) {
         KStream<String, String> stream = streamsBuilder.stream("hourly-sales-topic");
+        Counter recordsIn = metrics.streamRecordsIn("hourly-sales");
+        Counter windowEmits = metrics.windowEmits("hourly-sales");
         
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:00")
-                .withZone(ZoneId.of("Asia/Seoul"));
+                .withZone(ZONE);
+        ResultFormat<SalesStats> resultFormat = (productName, windowStart, windowEnd, stats) ->
+            String.format("상품:%s, 시간대:%s~%s, 총매출:%d, 건수:%d, 최소:%d, 최대:%d", productName,
+                formatter.format(Instant.ofEpochMilli(windowStart)),
+                formatter.format(Instant.ofEpochMilli(windowEnd)),
+                stats.sum(), stats.count(), stats.min(), stats.max());
         
-        stream
-            .peek((key, value) -> log.info("[스트림-시간별집계] 입력 - 상품: {}, 금액: {}", key, value))
-            .groupByKey()
-            .windowedBy(TimeWindows.ofSizeWithNoGrace(Duration.ofHours(1)))
-            .aggregate(
-                () -> 0L,  // 초기값
-                (key, value, aggregate) -> {
-                    try {
-                        long amount = Long.parseLong(value);
-                        long newTotal = aggregate + amount;
-                        log.info("[스트림-시간별집계] 상품: {}, 금액: {}, 누적: {} -> {}", 
-                            key, amount, aggregate, newTotal);
-                        return newTotal;
-                    } catch (NumberFormatException e) {
-                        log.warn("[스트림-시간별집계] 숫자 파싱 실패: {}", value);
-                        return aggregate;
-                    }
-                },
-                Materialized.with(Serdes.String(), Serdes.Long())
-            )
-            .suppress(Suppressed.untilWindowCloses(Suppressed.BufferConfig.unbounded()))  // ← 추가!
+        // 하트비트는 윈도우를 닫는 집계로만 보내고, 입력 카운트와 반환 스트림에는 실제 레코드만 넘긴다
+        KStream<String, String> sales = Heartbeats.drop(stream)
+            .peek((key, value) -> {
+                recordsIn.increment();
+                log.info("[스트림-시간별집계] 입력 - 상품: {}, 금액: {}", key, value);
+            });
+
+        LateSplit arrivals = splitLateArrivals(stream
+            .processValues(TraceIngestProcessor.supplier(metrics, AggregationResultType.HOURLY_SALES)),
+            "hourly-sales", HOURLY_WINDOW_SIZE, hourlySalesGrace, "hourly-sales-late-topic");
+
+        // 핫 키 모드: 하위 키 부분 집계를 병합 (잠정 결과도 병합 단계 입력에서 방출)
+        KStream<String, ?> totalsInput = arrivals.onTime();
+        KTable<Windowed<String>, SalesStats> hourlyTotals;
+        if (hotKeysEnabled) {
+            KStream<String, SalesStats> partials = preAggregateSalted(streamsBuilder, arrivals.onTime(),
+                "hourly-sales", HOURLY_WINDOW_SIZE);
+            totalsInput = partials;
+            hourlyTotals = mergePartials(partials, "hourly-sales", HOURLY_WINDOW_SIZE, hourlySalesGrace,
+                HOURLY_SALES_STORE);
+        } else {
+            // 건수/합계/최소/최대를 한 번에 갱신 (통계마다 저장소를 따로 두지 않음)
+            hourlyTotals = arrivals.onTime()
+                .groupByKey()
+                .windowedBy(TimeWindows.ofSizeAndGrace(HOURLY_WINDOW_SIZE, hourlySalesGrace))
+                .aggregate(
+                    SalesStats::new,  // 초기값
+                    Heartbeats.skip((key, value, stats) -> {
+                        try {
+                            long amount = Long.parseLong(value);
+                            long previousTotal = stats.sum();
+                            stats.add(amount);
+                            log.info("[스트림-시간별집계] 상품: {}, 금액: {}, 누적: {} -> {} ({}건)", 
+                                key, amount, previousTotal, stats.sum(), stats.count());
+                            return stats;
+                        } catch (NumberFormatException e) {
+                            log.warn("[스트림-시간별집계] 숫자 파싱 실패: {}", value);
+                            return stats;
+                        }
+                    }),
+                    Heartbeats.closing(Materialized.<String, SalesStats, WindowStore<Bytes, byte[]>>as(HOURLY_SALES_STORE)
+                        .withKeySerde(Serdes.String())
+                        .withValueSerde(new SalesStatsSerde())
+                        .withLoggingEnabled(changelogConfig()), heartbeatEnabled)
+                );
+        }
+
+        hourlyTotals
+            .suppress(Suppressed.untilWindowCloses(unboundedBuffer()))  // ← 추가!
             .toStream()
+            .processValues(TraceEmitProcessor.supplier(metrics, AggregationResultType.HOURLY_SALES))
             .map((windowedKey, value) -> {
                 String productName = windowedKey.key();
-                String windowStart = formatter.format(Instant.ofEpochMilli(windowedKey.window().start()));
-                String windowEnd = formatter.format(Instant.ofEpochMilli(windowedKey.window().end()));
-                String result = String.format("상품:%s, 시간대:%s~%s, 총매출:%d", 
-                    productName, windowStart, windowEnd, value);
+                String result = resultFormat.format(productName,
+                    windowedKey.window().start(), windowedKey.window().end(), value) + ResultStatus.FINAL.suffix();
                 
                 log.info("✅ [시간별집계 결과] {}", result);
+                windowEmits.increment();
                 return KeyValue.pair(productName, result);
             })
             .to("hourly-sales-output-topic");
+
+        emitEarly(totalsInput, hourlyTotals, HOURLY_SALES_STORE, "hourly-sales",
+            HOURLY_WINDOW_SIZE, hourlySalesGrace, hourlySalesEarlyEmitInterval, hourlySalesEarlyEmitClock,
+            resultFormat, "hourly-sales-output-topic");
+
+        emitSalePercentiles(arrivals.onTime(), formatter);
+
+        if (hourlySalesLatePolicy == LatePolicy.CORRECTION) {
+            // 지각분만 따로 누적해 정정 결과로 내보낸다 (DB 는 같은 윈도우 행의 지각매출을 덮어씀)
+            arrivals.late()
+                .groupByKey()
+                .windowedBy(TimeWindows.ofSizeAndGrace(HOURLY_WINDOW_SIZE, correctionHorizon))
+                .aggregate(() -> 0L, lateSum("시간별집계"),
+                    Materialized.<String, Long, WindowStore<Bytes, byte[]>>as(HOURLY_SALES_CORRECTION_STORE)
+                        .withKeySerde(Serdes.String())
+                        .withValueSerde(Serdes.Long())
+                        .withLoggingEnabled(changelogConfig()))
+                .toStream()
+                .map((windowedKey, lateSales) -> {
+                    String productName = windowedKey.key();
+                    String windowStart = formatter.format(Instant.ofEpochMilli(windowedKey.window().start()));
+                    String windowEnd = formatter.format(Instant.ofEpochMilli(windowedKey.window().end()));
+                    String result = String.format("상품:%s, 시간대:%s~%s, 지각매출:%d",
+                        productName, windowStart, windowEnd, lateSales);
+
+                    log.info("🔁 [시간별집계 정정] {}", result);
+                    return KeyValue.pair(productName, result);
+                })
+                .to("hourly-sales-output-topic");
+        }
         
-        return stream;
+        return sales;
     }
 
     /**
@@ -168,44 +654,103 @@ public class KafkaStreamsConfig {
     @Bean
     public KStream<String, String> kStreamDailyAggregation(StreamsBuilder streamsBuilder) {
         KStream<String, String> stream = streamsBuilder.stream("daily-sales-topic");
+        Counter recordsIn = metrics.streamRecordsIn("daily-sales");
+        Counter windowEmits = metrics.windowEmits("daily-sales");
         
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd")
-                .withZone(ZoneId.of("Asia/Seoul"));
+                .withZone(ZONE);
+        ResultFormat<SalesStats> resultFormat = (category, windowStart, windowEnd, stats) ->
+            String.format("날짜:%s, 카테고리:%s, 일매출:%d, 건수:%d, 최소:%d, 최대:%d",
+                formatter.format(Instant.ofEpochMilli(windowStart)), category,
+                stats.sum(), stats.count(), stats.min(), stats.max());
         
-        stream
-            .peek((key, value) -> log.info("[스트림-일별집계] 입력 - 카테고리: {}, 금액: {}", key, value))
-            .groupByKey()
-            .windowedBy(TimeWindows.ofSizeWithNoGrace(Duration.ofDays(1)))
-            .aggregate(
-                () -> 0L,
-                (key, value, aggregate) -> {
-                    try {
-                        long amount = Long.parseLong(value);
-                        long newTotal = aggregate + amount;
-                        log.info("[스트림-일별집계] 카테고리: {}, 금액: {}, 일누적: {} -> {}", 
-                            key, amount, aggregate, newTotal);
-                        return newTotal;
-                    } catch (NumberFormatException e) {
-                        log.warn("[스트림-일별집계] 숫자 파싱 실패: {}", value);
-                        return aggregate;
-                    }
-                },
-                Materialized.with(Serdes.String(), Serdes.Long())
-            )
-            .suppress(Suppressed.untilWindowCloses(Suppressed.BufferConfig.unbounded()))  // ← 추가!
+        // 하트비트는 윈도우를 닫는 집계로만 보내고, 입력 카운트와 반환 스트림에는 실제 레코드만 넘긴다
+        KStream<String, String> sales = Heartbeats.drop(stream)
+            .peek((key, value) -> {
+                recordsIn.increment();
+                log.info("[스트림-일별집계] 입력 - 카테고리: {}, 금액: {}", key, value);
+            });
+
+        LateSplit arrivals = splitLateArrivals(stream
+            .processValues(TraceIngestProcessor.supplier(metrics, AggregationResultType.DAILY_SALES)),
+            "daily-sales", DAILY_WINDOW_SIZE, dailySalesGrace, "daily-sales-late-topic");
+
+        KStream<String, ?> totalsInput = arrivals.onTime();
+        KTable<Windowed<String>, SalesStats> dailyTotals;
+        if (hotKeysEnabled) {
+            KStream<String, SalesStats> partials = preAggregateSalted(streamsBuilder, arrivals.onTime(),
+                "daily-sales", DAILY_WINDOW_SIZE);
+            totalsInput = partials;
+            dailyTotals = mergePartials(partials, "daily-sales", DAILY_WINDOW_SIZE, dailySalesGrace,
+                DAILY_SALES_STORE);
+        } else {
+            dailyTotals = arrivals.onTime()
+                .groupByKey()
+                .windowedBy(TimeWindows.ofSizeAndGrace(DAILY_WINDOW_SIZE, dailySalesGrace))
+                .aggregate(
+                    SalesStats::new,
+                    Heartbeats.skip((key, value, stats) -> {
+                        try {
+                            long amount = Long.parseLong(value);
+                            long previousTotal = stats.sum();
+                            stats.add(amount);
+                            log.info("[스트림-일별집계] 카테고리: {}, 금액: {}, 일누적: {} -> {} ({}건)", 
+                                key, amount, previousTotal, stats.sum(), stats.count());
+                            return stats;
+                        } catch (NumberFormatException e) {
+                            log.warn("[스트림-일별집계] 숫자 파싱 실패: {}", value);
+                            return stats;
+                        }
+                    }),
+                    Heartbeats.closing(Materialized.<String, SalesStats, WindowStore<Bytes, byte[]>>as(DAILY_SALES_STORE)
+                        .withKeySerde(Serdes.String())
+                        .withValueSerde(new SalesStatsSerde())
+                        .withLoggingEnabled(changelogConfig()), heartbeatEnabled)
+                );
+        }
+
+        dailyTotals
+            .suppress(Suppressed.untilWindowCloses(unboundedBuffer()))  // ← 추가!
             .toStream()
+            .processValues(TraceEmitProcessor.supplier(metrics, AggregationResultType.DAILY_SALES))
             .map((windowedKey, value) -> {
                 String category = windowedKey.key();
-                String date = formatter.format(Instant.ofEpochMilli(windowedKey.window().start()));
-                String result = String.format("날짜:%s, 카테고리:%s, 일매출:%d", 
-                    date, category, value);
+                String result = resultFormat.format(category,
+                    windowedKey.window().start(), windowedKey.window().end(), value) + ResultStatus.FINAL.suffix();
                 
                 log.info("✅ [일별집계 결과] {}", result);
+                windowEmits.increment();
                 return KeyValue.pair(category, result);
             })
             .to("daily-sales-output-topic");
+
+        emitEarly(totalsInput, dailyTotals, DAILY_SALES_STORE, "daily-sales",
+            DAILY_WINDOW_SIZE, dailySalesGrace, dailySalesEarlyEmitInterval, dailySalesEarlyEmitClock,
+            resultFormat, "daily-sales-output-topic");
+
+        if (dailySalesLatePolicy == LatePolicy.CORRECTION) {
+            arrivals.late()
+                .groupByKey()
+                .windowedBy(TimeWindows.ofSizeAndGrace(DAILY_WINDOW_SIZE, correctionHorizon))
+                .aggregate(() -> 0L, lateSum("일별집계"),
+                    Materialized.<String, Long, WindowStore<Bytes, byte[]>>as(DAILY_SALES_CORRECTION_STORE)
+                        .withKeySerde(Serdes.String())
+                        .withValueSerde(Serdes.Long())
+                        .withLoggingEnabled(changelogConfig()))
+                .toStream()
+                .map((windowedKey, lateSales) -> {
+                    String category = windowedKey.key();
+                    String date = formatter.format(Instant.ofEpochMilli(windowedKey.window().start()));
+                    String result = String.format("날짜:%s, 카테고리:%s, 지각매출:%d",
+                        date, category, lateSales);
+
+                    log.info("🔁 [일별집계 정정] {}", result);
+                    return KeyValue.pair(category, result);
+                })
+                .to("daily-sales-output-topic");
+        }
         
-        return stream;
+        return sales;
     }
 
     /**
@@ -220,31 +765,487 @@ public class KafkaStreamsConfig {
     @Bean
     public KStream<String, String> kStreamEventCounting(StreamsBuilder streamsBuilder) {
         KStream<String, String> stream = streamsBuilder.stream("event-topic");
+        Counter recordsIn = metrics.streamRecordsIn("event-count");
+        Counter windowEmits = metrics.windowEmits("event-count");
+        // 윈도우 경계는 epoch millis 그대로 전달 (날짜 정보 손실 없음, 포맷은 조회 API 에서)
+        ResultFormat<Long> resultFormat = (eventType, windowStart, windowEnd, count) ->
+            String.format("이벤트:%s, 윈도우:%d~%d, 발생횟수:%d", eventType, windowStart, windowEnd, count);
         
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("HH:mm")
-                .withZone(ZoneId.of("Asia/Seoul"));
-        
-        stream
-            .peek((key, value) -> log.info("[스트림-이벤트카운팅] 입력 - 이벤트타입: {}, 데이터: {}", key, value))
-            .groupByKey()
-            .windowedBy(TimeWindows.ofSizeWithNoGrace(Duration.ofMinutes(5)))
-            .count(Materialized.with(Serdes.String(), Serdes.Long()))
-            .suppress(Suppressed.untilWindowCloses(Suppressed.BufferConfig.unbounded()))  // ← 추가!
+        // 하트비트는 윈도우를 닫는 집계(세션 포함)로만 보내고, 입력 카운트에는 실제 레코드만
+        Heartbeats.drop(stream)
+            .foreach((key, value) -> {
+                recordsIn.increment();
+                log.info("[스트림-이벤트카운팅] 입력 - 이벤트타입: {}, 데이터: {}", key, value);
+            });
+
+        KStream<String, String> events = stream
+            .processValues(TraceIngestProcessor.supplier(metrics, AggregationResultType.EVENT_COUNT));
+        LateSplit arrivals = splitLateArrivals(events, "event-count", EVENT_WINDOW_SIZE, eventCountGrace,
+            "event-late-topic");
+
+        // 텀블링 카운트와 고유 사용자 수는 같은 지각 판정을 공유한다 (호핑/슬라이딩은 윈도우 종류별로 판정)
+        KGroupedStream<String, String> eventsByType = arrivals.onTime().groupByKey();
+
+        KTable<Windowed<String>, Long> eventCounts = EventWindowCounts.count(eventsByType,
+            EventWindowType.TUMBLING, EVENT_WINDOW_SIZE, EVENT_WINDOW_SIZE, eventCountGrace, EVENT_COUNT_STORE,
+            heartbeatEnabled, changelogConfig());
+
+        eventCounts
+            .suppress(Suppressed.untilWindowCloses(unboundedBuffer()))  // ← 추가!
             .toStream()
+            .processValues(TraceEmitProcessor.supplier(metrics, AggregationResultType.EVENT_COUNT))
             .map((windowedKey, count) -> {
                 String eventType = windowedKey.key();
-                String timeStart = formatter.format(Instant.ofEpochMilli(windowedKey.window().start()));
-                String timeEnd = formatter.format(Instant.ofEpochMilli(windowedKey.window().end()));
-                String result = String.format("이벤트:%s, 시간:%s~%s, 발생횟수:%d", 
-                    eventType, timeStart, timeEnd, count);
+                String result = resultFormat.format(eventType,
+                    windowedKey.window().start(), windowedKey.window().end(), count) + ResultStatus.FINAL.suffix();
                 
                 log.info("✅ [5분간 이벤트 카운트] {}", result);
+                windowEmits.increment();
                 return KeyValue.pair(eventType, result);
             })
             .to("event-count-output-topic");
+
+        emitEarly(arrivals.onTime(), eventCounts, EVENT_COUNT_STORE, "event-count",
+            EVENT_WINDOW_SIZE, eventCountGrace, eventCountEarlyEmitInterval, eventCountEarlyEmitClock,
+            resultFormat, "event-count-output-topic");
+
+        emitUniqueUsers(eventsByType);
+
+        // 롤링 카운트 ("최근 5분, advance 마다 갱신") - 이상 탐지용
+        if (!eventCountHoppingAdvance.isZero()) {
+            emitRollingCounts(events, EventWindowType.HOPPING, eventCountHoppingAdvance,
+                EVENT_COUNT_HOPPING_STORE, "event-count-hopping-output-topic", resultFormat);
+        }
+        if (eventCountSlidingEnabled) {
+            emitRollingCounts(events, EventWindowType.SLIDING, EVENT_WINDOW_SIZE,
+                EVENT_COUNT_SLIDING_STORE, "event-count-sliding-output-topic", resultFormat);
+        }
+
+        if (eventCountLatePolicy == LatePolicy.CORRECTION) {
+            arrivals.late()
+                .groupByKey()
+                .windowedBy(TimeWindows.ofSizeAndGrace(EVENT_WINDOW_SIZE, correctionHorizon))
+                .count(Materialized.<String, Long, WindowStore<Bytes, byte[]>>as(EVENT_COUNT_CORRECTION_STORE)
+                    .withKeySerde(Serdes.String())
+                    .withValueSerde(Serdes.Long())
+                    .withLoggingEnabled(changelogConfig()))
+                .toStream()
+                .map((windowedKey, lateCount) -> {
+                    String eventType = windowedKey.key();
+                    String result = String.format("이벤트:%s, 윈도우:%d~%d, 지각발생:%d",
+                        eventType, windowedKey.window().start(), windowedKey.window().end(), lateCount);
+
+                    log.info("🔁 [이벤트 카운트 정정] {}", result);
+                    return KeyValue.pair(eventType, result);
+                })
+                .to("event-count-output-topic");
+        }
         
         return stream;
     }
-}
 
+    /**
+     * 스트림 7: 사용자 세션 집계 (Session Window)
+     * event-topic -> 사용자별 세션 (inactivity-gap 동안 이벤트가 없으면 종료) -> user-session-output-topic
+     *
+     * 같은 토픽은 한 토폴로지에 소스로 한 번만 등록할 수 있으므로 스트림 6 의 소스 스트림을 받아 쓴다.
+     * 값이 "userId|detail" 인 이벤트만 사용자 키로 리파티션해 세션을 만든다.
+     *
+     * 실무 활용 예시:
+     * - 세션 길이 / 세션당 페이지뷰
+     * - 세션 전환율 (구매가 있는 세션 비율)
+     */
+    @Bean
+    public KStream<String, String> kStreamUserSessions(@Qualifier("kStreamEventCounting") KStream<String, String> events) {
+        Counter recordsIn = metrics.streamRecordsIn("user-session");
+        Counter windowEmits = metrics.windowEmits("user-session");
+        UserSessionStatsSerde statsSerde = new UserSessionStatsSerde();
+        Duration retention = sessionRetention.compareTo(sessionInactivityGap.plus(sessionGrace)) < 0
+            ? sessionInactivityGap.plus(sessionGrace)
+            : sessionRetention;
+
+        events
+            .processValues(TraceIngestProcessor.supplier(metrics, AggregationResultType.USER_SESSION))
+            .<String, UserSessionStats>flatMap((eventType, value) -> {
+                if (Heartbeats.isHeartbeat(eventType)) {
+                    // 하트비트는 리파티션 토픽의 모든 파티션으로 복제돼 파티션마다 스트림 시간을 당긴다 (세션은 만들지 않음)
+                    return List.of(KeyValue.pair(Heartbeats.KEY, new UserSessionStats()));
+                }
+                UserEvent event = UserEvent.parse(eventType, value);
+                if (event == null) {
+                    return List.<KeyValue<String, UserSessionStats>>of();
+                }
+                recordsIn.increment();
+                return List.of(KeyValue.pair(event.userId(), UserSessionStats.of(eventType, event)));
+            })
+            .repartition(Heartbeats.fanOut(Repartitioned.<String, UserSessionStats>as("user-sessions")
+                .withKeySerde(Serdes.String())
+                .withValueSerde(statsSerde), heartbeatEnabled))
+            .groupByKey(Grouped.with(Serdes.String(), statsSerde))
+            .windowedBy(SessionWindows.ofInactivityGapAndGrace(sessionInactivityGap, sessionGrace))
+            .aggregate(
+                UserSessionStats::new,
+                Heartbeats.skip((userId, event, session) -> session.merge(event)),
+                (userId, left, right) -> left.merge(right),  // 두 세션 사이를 메우는 이벤트가 오면 병합
+                Heartbeats.closing(Materialized.<String, UserSessionStats, SessionStore<Bytes, byte[]>>as(USER_SESSIONS_STORE)
+                    .withKeySerde(Serdes.String())
+                    .withValueSerde(statsSerde)
+                    .withRetention(retention)
+                    .withLoggingEnabled(changelogConfig()), heartbeatEnabled))
+            .suppress(Suppressed.untilWindowCloses(unboundedBuffer()))
+            .toStream()
+            .processValues(TraceEmitProcessor.supplier(metrics, AggregationResultType.USER_SESSION))
+            .map((windowedKey, session) -> {
+                String userId = windowedKey.key();
+                long start = windowedKey.window().start();
+                long end = windowedKey.window().end();
+                String result = String.format(
+                    "사용자:%s, 세션:%d~%d, 지속:%d초, 이벤트:%d, 로그인:%d, 페이지뷰:%d, 구매:%d, 구매금액:%d",
+                    userId, start, end, Duration.ofMillis(end - start).toSeconds(), session.eventCount(),
+                    session.loginCount(), session.pageViewCount(), session.purchaseCount(), session.purchaseTotal())
+                    + ResultStatus.FINAL.suffix();
+
+                log.info("✅ [사용자 세션 결과] {}", result);
+                windowEmits.increment();
+                return KeyValue.pair(userId, result);
+            })
+            .to("user-session-output-topic", Produced.with(Serdes.String(), Serdes.String()));
+
+        return events;
+    }
+
+    /**
+     * 스트림 8: 윈도우별 상위 K (Count-Min Sketch + 힙)
+     * word-input-topic -> 5분 단위 출현 빈도 상위 K 단어 -> top-k-output-topic (키: words)
+     * hourly-sales-topic -> 5분 단위 매출 상위 K 상품 -> top-k-output-topic (키: products)
+     *
+     * 단어 카운트 저장소처럼 고유 항목마다 행을 두지 않고, 열린 윈도우마다 고정 크기 스케치 하나만 둔다.
+     * 결과는 윈도우가 닫힐 때 한 번만 나가므로 출력량도 윈도우 수에 비례한다.
+     * 태스크마다 스케치를 따로 두면 각자 자기 파티션 몫의 상위 K 만 내보내므로, 대상별로 파티션 하나짜리
+     * 토픽으로 재파티셔닝해 한 태스크가 전체 입력을 하나의 스케치로 집계한다 (레코드당 비용은 스케치 갱신뿐).
+     */
+    @Bean
+    public KStream<String, String> kStreamTopK(StreamsBuilder streamsBuilder,
+                                               @Qualifier("kStreamWordCount") KStream<String, String> sentences,
+                                               @Qualifier("kStreamHourlyAggregation") KStream<String, String> sales) {
+        streamsBuilder.addStateStore(topKStore(WORD_TOP_K_STORE));
+        streamsBuilder.addStateStore(topKStore(PRODUCT_TOP_K_STORE));
+
+        sentences
+            .<String, Long>flatMap((key, sentence) -> Arrays.stream(sentence.toLowerCase().split("\\W+"))
+                .filter(word -> !word.isEmpty())
+                .map(word -> KeyValue.pair(word, 1L))
+                .toList())
+            .repartition(topKRepartitioned(TOP_K_WORDS))
+            .process(topKProcessor(WORD_TOP_K_STORE, TOP_K_WORDS), WORD_TOP_K_STORE)
+            .peek((target, result) -> log.info("🏆 [상위K 단어] {}", result))
+            .to("top-k-output-topic", Produced.with(Serdes.String(), Serdes.String()));
+
+        sales
+            .flatMapValues(amount -> {
+                try {
+                    return List.of(Long.parseLong(amount));
+                } catch (NumberFormatException e) {
+                    return List.<Long>of();
+                }
+            })
+            .repartition(topKRepartitioned(TOP_K_PRODUCTS))
+            .process(topKProcessor(PRODUCT_TOP_K_STORE, TOP_K_PRODUCTS), PRODUCT_TOP_K_STORE)
+            .peek((target, result) -> log.info("🏆 [상위K 상품] {}", result))
+            .to("top-k-output-topic", Produced.with(Serdes.String(), Serdes.String()));
+
+        return sentences;
+    }
+
+    // 캐시를 켜 TopKProcessor 의 주기적 저장이 커밋마다 윈도우당 한 번만 changelog 로 나가게 함
+    private StoreBuilder<KeyValueStore<Long, TopKSketch>> topKStore(String storeName) {
+        return Stores.keyValueStoreBuilder(Stores.persistentKeyValueStore(storeName), Serdes.Long(), new TopKSketchSerde())
+            .withCachingEnabled()
+            .withLoggingEnabled(changelogConfig());
+    }
+
+    // 대상별 단일 파티션 (모든 항목이 같은 태스크의 스케치에 모임)
+    private static Repartitioned<String, Long> topKRepartitioned(String target) {
+        return Repartitioned.<String, Long>as("top-k-" + target)
+            .withKeySerde(Serdes.String())
+            .withValueSerde(Serdes.Long())
+            .withNumberOfPartitions(1);
+    }
+
+    private ProcessorSupplier<String, Long, String, String> topKProcessor(String storeName, String target) {
+        return TopKProcessor.supplier(storeName, target, TOP_K_WINDOW_SIZE, topKGrace, topK, topKDepth, topKWidth,
+            metrics.windowEmits("top-k-" + target));
+    }
+
+    /**
+     * 스트림 9: 매출 카테고리 보강 (GlobalKTable + LRU 캐시)
+     * hourly-sales-topic (키: 상품) -> 카테고리 조회 -> daily-sales-topic (키: 카테고리)
+     *
+     * 클라이언트가 매출 한 건을 상품 키와 카테고리 키로 두 번 보내지 않아도, 한 번 보낸 매출이 시간별(상품)과
+     * 일별(카테고리) 윈도우에 모두 들어간다. 매핑은 product-categories-topic 을 읽는 글로벌 저장소에 있어
+     * 모든 인스턴스가 재파티셔닝 없이 로컬에서 찾고, 자주 나오는 상품은 ProductCategoryService 캐시에서 바로 찾는다.
+     * 타임스탬프와 추적 헤더는 그대로 넘어가므로 일별 집계의 지각 판정과 지연 측정은 원래 매출 시각 기준이다.
+     * 켜면 클라이언트는 daily-sales-topic 으로 같은 매출을 보내지 않아야 한다 (이중 집계).
+     */
+    @Bean
+    public KStream<String, String> kStreamCategoryEnrichment(StreamsBuilder streamsBuilder,
+                                                             @Qualifier("kStreamHourlyAggregation") KStream<String, String> sales) {
+        if (!categoryEnrichmentEnabled) {
+            return sales;
+        }
+        streamsBuilder.addGlobalStore(
+            Stores.keyValueStoreBuilder(Stores.persistentKeyValueStore(PRODUCT_CATEGORIES_STORE), Serdes.String(), Serdes.String())
+                .withLoggingDisabled(),
+            "product-categories-topic",
+            Consumed.with(Serdes.String(), Serdes.String()),
+            ProductCategoryUpdater.supplier(PRODUCT_CATEGORIES_STORE, productCategoryService::invalidate));
+
+        sales
+            .process(CategoryEnricher.supplier(PRODUCT_CATEGORIES_STORE, productCategoryService::lookup,
+                metrics.categoryUnmappedRecords()))
+            .peek((category, value) -> log.debug("[스트림-카테고리보강] 카테고리: {}, 금액: {}", category, value))
+            .to("daily-sales-topic", Produced.with(Serdes.String(), Serdes.String()));
+
+        return sales;
+    }
+
+    /**
+     * 핫 키 1단계 (SaltedSalesAggregation.preAggregate)
+     */
+    private KStream<String, SalesStats> preAggregateSalted(StreamsBuilder streamsBuilder, KStream<String, String> onTime,
+                                                           String name, Duration windowSize) {
+        return SaltedSalesAggregation.preAggregate(streamsBuilder, onTime, name, windowSize,
+            hotKeySalts, hotKeyThreshold, hotKeyFlushInterval, metrics.hotKeyRecords(name), heartbeatEnabled, changelogConfig());
+    }
+
+    /**
+     * 핫 키 2단계 (SaltedSalesAggregation.merge), 병합 윈도우가 닫힌 뒤 도착한 부분 집계는 메트릭으로 센다
+     */
+    private KTable<Windowed<String>, SalesStats> mergePartials(KStream<String, SalesStats> partials, String name,
+                                                              Duration windowSize, Duration grace, String storeName) {
+        return SaltedSalesAggregation.merge(partials, name, windowSize, grace, hotKeyMergeGrace, storeName,
+            metrics.hotKeyMergeDropped(name), heartbeatEnabled, changelogConfig());
+    }
+
+    /**
+     * 상품별 시간당 판매 금액 분위수 (p50/p95/p99, t-digest)
+     *
+     * 금액을 모두 보관하지 않고 윈도우마다 크기가 제한된 다이제스트 하나만 저장한다.
+     * 분위수는 더하거나 평균낼 수 없으므로 다이제스트(Base64)도 hourly-sales-output-topic 으로 함께 보내고,
+     * DB 는 같은 시간대 행에 저장해 일별 분위수를 시간별 다이제스트 병합으로 계산한다.
+     */
+    private void emitSalePercentiles(KStream<String, String> onTime, DateTimeFormatter formatter) {
+        Counter windowEmits = metrics.windowEmits("hourly-sale-percentiles");
+
+        onTime
+            .groupByKey()
+            .windowedBy(TimeWindows.ofSizeAndGrace(HOURLY_WINDOW_SIZE, hourlySalesGrace))
+            .aggregate(
+                () -> new TDigest(salePercentileCompression),
+                Heartbeats.skip((productName, value, digest) -> {
+                    try {
+                        digest.add(Long.parseLong(value));
+                    } catch (NumberFormatException e) {
+                        // 파싱 실패는 매출 집계에서 로그를 남긴다
+                    }
+                    return digest;
+                }),
+                Heartbeats.closing(Materialized.<String, TDigest, WindowStore<Bytes, byte[]>>as(HOURLY_SALE_PERCENTILES_STORE)
+                    .withKeySerde(Serdes.String())
+                    .withValueSerde(new TDigestSerde())
+                    .withLoggingEnabled(changelogConfig()), heartbeatEnabled))
+            .suppress(Suppressed.<Windowed<String>>untilWindowCloses(unboundedBuffer())
+                .withName("hourly-sale-percentiles-suppress"))
+            .toStream()
+            .filter((windowedKey, digest) -> digest.count() > 0)
+            .map((windowedKey, digest) -> {
+                String productName = windowedKey.key();
+                long p50 = Math.round(digest.quantile(0.50));
+                long p95 = Math.round(digest.quantile(0.95));
+                long p99 = Math.round(digest.quantile(0.99));
+                String result = String.format("상품:%s, 시간대:%s~%s, p50:%d, p95:%d, p99:%d, 스케치:%s", productName,
+                    formatter.format(Instant.ofEpochMilli(windowedKey.window().start())),
+                    formatter.format(Instant.ofEpochMilli(windowedKey.window().end())),
+                    p50, p95, p99,
+                    Base64.getEncoder().encodeToString(TDigestSerde.toBytes(digest)));
+
+                log.info("✅ [시간별 판매 금액 분위수] 상품: {}, 윈도우: {}, p50: {}, p95: {}, p99: {} ({}건)", productName,
+                    formatter.format(Instant.ofEpochMilli(windowedKey.window().start())), p50, p95, p99, digest.count());
+                windowEmits.increment();
+                return KeyValue.pair(productName, result);
+            })
+            .to("hourly-sales-output-topic");
+    }
+
+    /**
+     * 이벤트 타입별 5분 윈도우 고유 사용자 수 (HyperLogLog)
+     *
+     * 키(이벤트 타입)마다 고정 크기 스케치 하나만 두므로 트래픽이 늘어도 상태 크기가 변하지 않는다.
+     * 윈도우가 닫히면 추정값과 스케치(Base64)를 event-count-output-topic 으로 보내고,
+     * DB 는 같은 윈도우 행에 함께 저장해 시간별/일별 고유 사용자 수를 스케치 병합으로 계산한다.
+     */
+    private void emitUniqueUsers(KGroupedStream<String, String> eventsByType) {
+        Counter windowEmits = metrics.windowEmits("event-unique-users");
+
+        eventsByType
+            .windowedBy(TimeWindows.ofSizeAndGrace(EVENT_WINDOW_SIZE, eventCountGrace))
+            .aggregate(
+                () -> new HyperLogLog(uniqueUsersPrecision),
+                Heartbeats.skip((eventType, value, sketch) -> {
+                    UserEvent event = UserEvent.parse(eventType, value);
+                    if (event != null) {
+                        sketch.add(event.userId());
+                    }
+                    return sketch;
+                }),
+                Heartbeats.closing(Materialized.<String, HyperLogLog, WindowStore<Bytes, byte[]>>as(EVENT_UNIQUE_USERS_STORE)
+                    .withKeySerde(Serdes.String())
+                    .withValueSerde(new HyperLogLogSerde())
+                    .withLoggingEnabled(changelogConfig()), heartbeatEnabled))
+            .suppress(Suppressed.<Windowed<String>>untilWindowCloses(unboundedBuffer())
+                .withName("event-unique-users-suppress"))
+            .toStream()
+            .map((windowedKey, sketch) -> {
+                String eventType = windowedKey.key();
+                String result = String.format("이벤트:%s, 윈도우:%d~%d, 고유사용자:%d, 스케치:%s",
+                    eventType, windowedKey.window().start(), windowedKey.window().end(), sketch.estimate(),
+                    Base64.getEncoder().encodeToString(HyperLogLogSerde.toBytes(sketch)));
+
+                log.info("✅ [5분간 고유 사용자] 이벤트: {}, 윈도우: {}~{}, 고유사용자: {}", eventType,
+                    windowedKey.window().start(), windowedKey.window().end(), sketch.estimate());
+                windowEmits.increment();
+                return KeyValue.pair(eventType, result);
+            })
+            .to("event-count-output-topic");
+    }
+
+    /**
+     * 호핑/슬라이딩 윈도우 이벤트 카운트를 윈도우가 닫힐 때마다 별도 출력 토픽으로 내보낸다
+     *
+     * 레코드가 텀블링 윈도우보다 늦게 닫히는 윈도우에도 들어가므로 지각 판정은 윈도우 종류별로 따로 한다.
+     * 여기서 지각인 레코드는 텀블링 기준으로도 지각이라 이미 event-late-topic 으로 갔으므로 카운트만 한다.
+     */
+    private void emitRollingCounts(KStream<String, String> events, EventWindowType type,
+                                   Duration advance, String storeName, String outputTopic, ResultFormat<Long> resultFormat) {
+        String name = "event-count-" + type.name().toLowerCase();
+        Counter windowEmits = metrics.windowEmits(name);
+        KGroupedStream<String, String> eventsByType = splitLateArrivals(events, name,
+            ArrivalClassifier.<String, String>supplier(type, EVENT_WINDOW_SIZE, advance, eventCountGrace), null)
+            .onTime()
+            .groupByKey();
+
+        EventWindowCounts.count(eventsByType, type, EVENT_WINDOW_SIZE, advance, eventCountGrace, storeName,
+                heartbeatEnabled, changelogConfig())
+            .suppress(Suppressed.<Windowed<String>>untilWindowCloses(unboundedBuffer())
+                .withName(name + "-suppress"))
+            .toStream()
+            .map((windowedKey, count) -> {
+                String result = resultFormat.format(windowedKey.key(),
+                    windowedKey.window().start(), windowedKey.window().end(), count) + ResultStatus.FINAL.suffix();
+
+                log.info("✅ [{} 이벤트 카운트] {}", type, result);
+                windowEmits.increment();
+                return KeyValue.pair(windowedKey.key(), result);
+            })
+            .to(outputTopic);
+    }
+
+    /**
+     * 텀블링 윈도우 종료 + grace 가 지난 지각 레코드를 분리
+     * 지각 레코드는 side output 토픽으로 보내고 카운트한 뒤, 정정 집계용으로 함께 반환한다.
+     */
+    private LateSplit splitLateArrivals(KStream<String, String> stream, String name,
+                                        Duration windowSize, Duration grace, String lateTopic) {
+        return splitLateArrivals(stream, name, ArrivalClassifier.<String, String>supplier(windowSize, grace), lateTopic);
+    }
+
+    /**
+     * @param lateTopic null 이면 지각 레코드를 토픽으로 보내지 않고 카운트만 한다
+     */
+    private LateSplit splitLateArrivals(KStream<String, String> stream, String name,
+                                        FixedKeyProcessorSupplier<String, String, Arrival<String>> classifier,
+                                        String lateTopic) {
+        Counter lateRecords = metrics.lateRecords(name);
+
+        Map<String, KStream<String, Arrival<String>>> branches = stream
+            .processValues(classifier)
+            .split(Named.as(name + "-"))
+            .branch((key, arrival) -> !arrival.late(), Branched.as("on-time"))
+            .defaultBranch(Branched.as("late"));
+
+        KStream<String, String> late = Heartbeats.drop(branches.get(name + "-late"))
+            .peek((key, arrival) -> {
+                lateRecords.increment();
+                log.warn("⏰ [스트림-지각] {} - Key: {}, Value: {}, 마감 후 {}ms 도착",
+                    name, key, arrival.value(), arrival.latenessMs());
+            })
+            .mapValues(Arrival::value);
+        if (lateTopic != null) {
+            late.to(lateTopic);
+        }
+
+        return new LateSplit(branches.get(name + "-on-time").mapValues(Arrival::value), late);
+    }
 
+    /**
+     * 열린 윈도우의 잠정 결과를 주기적으로 출력 토픽에 내보낸다 (interval 이 0 이면 사용 안 함)
+     *
+     * - STREAM_TIME: 집계 KTable 에 Suppressed.untilTimeLimit 을 한 번 더 걸어 스트림 시간 주기로 방출
+     * - WALL_CLOCK: 집계 저장소를 읽는 punctuator 로 입력이 없어도 벽시계 주기로 방출
+     *
+     * 잠정 결과는 "상태:잠정" 으로 표시되며, DB 는 확정 결과가 저장된 윈도우를 잠정 결과로 덮어쓰지 않는다.
+     */
+    private <V> void emitEarly(KStream<String, ?> onTime, KTable<Windowed<String>, V> totals,
+                               String storeName, String name, Duration windowSize, Duration grace,
+                               Duration interval, EarlyEmitClock clock, ResultFormat<V> resultFormat, String outputTopic) {
+        if (interval.isZero() || interval.isNegative()) {
+            return;
+        }
+        Counter provisionalEmits = metrics.provisionalEmits(name);
+
+        KStream<String, String> provisional = switch (clock) {
+            case STREAM_TIME -> totals
+                .suppress(Suppressed.<Windowed<String>>untilTimeLimit(interval, unboundedBuffer())
+                    .withName(name + "-early-emit"))
+                .toStream()
+                .filter((windowedKey, value) -> value != null)
+                .map((windowedKey, value) -> KeyValue.pair(windowedKey.key(), resultFormat.format(windowedKey.key(),
+                    windowedKey.window().start(), windowedKey.window().end(), value)));
+            case WALL_CLOCK -> onTime
+                .process(EarlyEmitProcessor.<V>supplier(storeName, windowSize, grace, interval), storeName)
+                .mapValues(window -> resultFormat.format(window.key(),
+                    window.windowStart(), window.windowEnd(), window.value()));
+        };
+
+        provisional
+            .mapValues(result -> result + ResultStatus.PROVISIONAL.suffix())
+            .peek((key, result) -> {
+                provisionalEmits.increment();
+                log.info("⏳ [{} 잠정 결과] {}", name, result);
+            })
+            .to(outputTopic);
+    }
+
+    /**
+     * 정정 모드에서 지각 매출 금액 누적
+     */
+    private static Aggregator<String, String, Long> lateSum(String name) {
+        return (key, value, aggregate) -> {
+            try {
+                return aggregate + Long.parseLong(value);
+            } catch (NumberFormatException e) {
+                log.warn("[스트림-{}] 지각 레코드 숫자 파싱 실패: {}", name, value);
+                return aggregate;
+            }
+        };
+    }
+
+    private record LateSplit(KStream<String, String> onTime, KStream<String, String> late) {
+    }
+
+    // 윈도우 집계 결과 메시지 본문 (상태 항목 제외)
+    @FunctionalInterface
+    private interface ResultFormat<V> {
+        String format(String key, long windowStart, long windowEnd, V value);
+    }
+}
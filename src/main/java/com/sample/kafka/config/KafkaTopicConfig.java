@@ -2,6 +2,7 @@ package com.sample.kafka.config;
 
 import org.apache.kafka.clients.admin.AdminClientConfig;
 import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.config.TopicConfig;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -70,6 +71,11 @@ public class KafkaTopicConfig {
         return new NewTopic("hourly-sales-output-topic", 1, (short) 1);
     }
 
+    @Bean
+    public NewTopic hourlySalesLateTopic() {
+        return new NewTopic("hourly-sales-late-topic", 1, (short) 1);
+    }
+
     // 일별 집계용 토픽
     @Bean
     public NewTopic dailySalesTopic() {
@@ -81,6 +87,11 @@ public class KafkaTopicConfig {
         return new NewTopic("daily-sales-output-topic", 1, (short) 1);
     }
 
+    @Bean
+    public NewTopic dailySalesLateTopic() {
+        return new NewTopic("daily-sales-late-topic", 1, (short) 1);
+    }
+
     // 이벤트 카운팅용 토픽
     @Bean
     public NewTopic eventTopic() {
@@ -91,5 +102,51 @@ public class KafkaTopicConfig {
     public NewTopic eventCountOutputTopic() {
         return new NewTopic("event-count-output-topic", 1, (short) 1);
     }
-}
 
+    @Bean
+    public NewTopic eventCountHoppingOutputTopic() {
+        return new NewTopic("event-count-hopping-output-topic", 1, (short) 1);
+    }
+
+    @Bean
+    public NewTopic eventCountSlidingOutputTopic() {
+        return new NewTopic("event-count-sliding-output-topic", 1, (short) 1);
+    }
+
+    @Bean
+    public NewTopic eventLateTopic() {
+        return new NewTopic("event-late-topic", 1, (short) 1);
+    }
+
+    // 사용자 세션 집계용 토픽
+    @Bean
+    public NewTopic userSessionOutputTopic() {
+        return new NewTopic("user-session-output-topic", 1, (short) 1);
+    }
+
+    // 윈도우별 상위 K 결과 토픽
+    @Bean
+    public NewTopic topKOutputTopic() {
+        return new NewTopic("top-k-output-topic", 1, (short) 1);
+    }
+
+    // 필터 키워드 규칙 (키: 규칙 ID, 값: 키워드) - 규칙별 최신 값만 남도록 compact
+    @Bean
+    public NewTopic filterRulesTopic() {
+        return new NewTopic("filter-rules-topic", 1, (short) 1)
+                .configs(Map.of(TopicConfig.CLEANUP_POLICY_CONFIG, TopicConfig.CLEANUP_POLICY_COMPACT));
+    }
+
+    // write-behind 버퍼가 저장하지 못한 집계 결과 (키: 결과 종류, 헤더: 원래 토픽-파티션, 예외)
+    @Bean
+    public NewTopic writeBehindDeadLetterTopic() {
+        return new NewTopic("write-behind-dlt-topic", 1, (short) 1);
+    }
+
+    // 상품 -> 카테고리 매핑 (키: 상품명, 값: 카테고리) - 상품별 최신 값만 남도록 compact
+    @Bean
+    public NewTopic productCategoriesTopic() {
+        return new NewTopic("product-categories-topic", 1, (short) 1)
+                .configs(Map.of(TopicConfig.CLEANUP_POLICY_CONFIG, TopicConfig.CLEANUP_POLICY_COMPACT));
+    }
+}
@@ -1,7 +1,9 @@
 package com.sample.kafka.consumer;
 
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.kafka.support.KafkaHeaders;
 import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.Payload;
@@ -9,15 +11,23 @@ import org.springframework.stereotype.Component;
 
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class KafkaConsumer {
 
-    @KafkaListener(topics = "test-topic", groupId = "test-group")
+    private final KeyOrderedDispatcher dispatcher;
+
+    @KafkaListener(topics = "test-topic", groupId = "test-group", containerFactory = "parallelListenerContainerFactory")
     public void listen(@Payload String message,
                       @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
                       @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
-                      @Header(KafkaHeaders.OFFSET) long offset) {
-        log.info("메시지 수신 - Topic: {}, Partition: {}, Offset: {}, Message: {}", 
-            topic, partition, offset, message);
+                      @Header(KafkaHeaders.OFFSET) long offset,
+                      @Header(name = KafkaHeaders.RECEIVED_KEY, required = false) String key,
+                      Acknowledgment acknowledgment) throws InterruptedException {
+        dispatcher.dispatch(topic, partition, offset, key, acknowledgment, done -> {
+            log.info("메시지 수신 - Topic: {}, Partition: {}, Offset: {}, Message: {}", 
+                topic, partition, offset, message);
+            done.acknowledge();
+        });
     }
 }
 
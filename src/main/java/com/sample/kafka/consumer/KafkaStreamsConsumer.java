@@ -1,7 +1,9 @@
 package com.sample.kafka.consumer;
 
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.kafka.support.KafkaHeaders;
 import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.Payload;
@@ -9,29 +11,60 @@ import org.springframework.stereotype.Component;
 
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class KafkaStreamsConsumer {
 
-    @KafkaListener(topics = "output-topic", groupId = "output-group")
+    private final KeyOrderedDispatcher dispatcher;
+
+    @KafkaListener(topics = "output-topic", groupId = "output-group", containerFactory = "parallelListenerContainerFactory")
     public void listenOutput(@Payload String message,
                             @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
-                            @Header(KafkaHeaders.OFFSET) long offset) {
-        log.info("✅ [대문자변환 결과] Topic: {}, Offset: {}, Message: {}", topic, offset, message);
+                            @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
+                            @Header(KafkaHeaders.OFFSET) long offset,
+                            @Header(name = KafkaHeaders.RECEIVED_KEY, required = false) String key,
+                            Acknowledgment acknowledgment) throws InterruptedException {
+        dispatcher.dispatch(topic, partition, offset, key, acknowledgment, done -> {
+            log.info("✅ [대문자변환 결과] Topic: {}, Offset: {}, Message: {}", topic, offset, message);
+            done.acknowledge();
+        });
     }
 
-    @KafkaListener(topics = "filter-output-topic", groupId = "filter-output-group")
+    @KafkaListener(topics = "filter-output-topic", groupId = "filter-output-group", containerFactory = "parallelListenerContainerFactory")
     public void listenFilterOutput(@Payload String message,
                                    @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
-                                   @Header(KafkaHeaders.OFFSET) long offset) {
-        log.info("✅ [필터링 결과] Topic: {}, Offset: {}, Message: {}", topic, offset, message);
+                                   @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
+                                   @Header(KafkaHeaders.OFFSET) long offset,
+                                   @Header(name = KafkaHeaders.RECEIVED_KEY, required = false) String key,
+                                   Acknowledgment acknowledgment) throws InterruptedException {
+        dispatcher.dispatch(topic, partition, offset, key, acknowledgment, done -> {
+            log.info("✅ [필터링 결과] Topic: {}, Offset: {}, Message: {}", topic, offset, message);
+            done.acknowledge();
+        });
     }
 
-    @KafkaListener(topics = "word-count-output-topic", groupId = "word-count-output-group")
+    @KafkaListener(topics = "word-count-output-topic", groupId = "word-count-output-group", containerFactory = "parallelListenerContainerFactory")
     public void listenWordCountOutput(@Payload String message,
                                       @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
+                                      @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
                                       @Header(KafkaHeaders.RECEIVED_KEY) String key,
-                                      @Header(KafkaHeaders.OFFSET) long offset) {
-        log.info("✅ [단어카운트 결과] Topic: {}, Offset: {}, 단어: {}, 카운트: {}", topic, offset, key, message);
+                                      @Header(KafkaHeaders.OFFSET) long offset,
+                                      Acknowledgment acknowledgment) throws InterruptedException {
+        dispatcher.dispatch(topic, partition, offset, key, acknowledgment, done -> {
+            log.info("✅ [단어카운트 결과] Topic: {}, Offset: {}, 단어: {}, 카운트: {}", topic, offset, key, message);
+            done.acknowledge();
+        });
     }
-}
-
 
+    @KafkaListener(topics = "top-k-output-topic", groupId = "top-k-output-group", containerFactory = "parallelListenerContainerFactory")
+    public void listenTopKOutput(@Payload String message,
+                                 @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
+                                 @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
+                                 @Header(KafkaHeaders.OFFSET) long offset,
+                                 @Header(name = KafkaHeaders.RECEIVED_KEY, required = false) String key,
+                                 Acknowledgment acknowledgment) throws InterruptedException {
+        dispatcher.dispatch(topic, partition, offset, key, acknowledgment, done -> {
+            log.info("🏆 [상위K 결과] Topic: {}, Offset: {}, Message: {}", topic, offset, message);
+            done.acknowledge();
+        });
+    }
+}
@@ -0,0 +1,155 @@
+package com.sample.kafka.consumer;
+
+import com.sample.kafka.metrics.PipelineMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * 리스너 레코드를 키 해시로 워커 스레드에 나눠 처리 (app.listeners.parallel.enabled)
+ *
+ * - 같은 키는 항상 같은 워커의 FIFO 큐로 가므로 키별 처리 순서가 유지된다.
+ * - 파티션 하나를 워커 수만큼 동시에 처리하므로, 느린 키 하나가 다른 키를 막지 않고 파티션 수보다 많이 병렬화된다.
+ * - 오프셋은 OffsetWatermark 가 연속으로 완료된 구간까지만 ack 하므로 커밋 위치 앞의 레코드는 모두 처리된 상태다.
+ * - 워커 큐가 차면 리스너 스레드가 기다리므로 poll 이 자연스럽게 늦춰진다 (max.poll.interval.ms 보다 짧게 잡을 것).
+ * - 파티션이 회수되기 전에 그 파티션의 처리 중 레코드를 drain-timeout 까지 기다리고 완료 구간을 직접 커밋한다.
+ *
+ * 꺼져 있으면 리스너 스레드에서 바로 처리하고 원래 ack 를 넘긴다 (기존 동작).
+ */
+@Slf4j
+@Component
+public class KeyOrderedDispatcher {
+
+    private final boolean enabled;
+    private final Duration drainTimeout;
+    private final OffsetWatermark watermark = new OffsetWatermark();
+    private final BlockingQueue<Runnable>[] queues;
+    private final Thread[] workers;
+    private volatile boolean running = true;
+
+    @SuppressWarnings("unchecked")
+    public KeyOrderedDispatcher(PipelineMetrics metrics,
+                                @Value("${app.listeners.parallel.enabled:false}") boolean enabled,
+                                @Value("${app.listeners.parallel.workers:8}") int workerCount,
+                                @Value("${app.listeners.parallel.worker-queue-capacity:500}") int queueCapacity,
+                                @Value("${app.listeners.parallel.drain-timeout:10s}") Duration drainTimeout) {
+        this.enabled = enabled;
+        this.drainTimeout = drainTimeout;
+        int threads = enabled ? workerCount : 0;
+        this.queues = new BlockingQueue[threads];
+        this.workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            BlockingQueue<Runnable> queue = new LinkedBlockingQueue<>(queueCapacity);
+            queues[i] = queue;
+            workers[i] = new Thread(() -> runWorker(queue), "listener-worker-" + i);
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+        if (enabled) {
+            metrics.gaugeListenerInFlight(watermark::inFlight);
+            log.info("키 순서 병렬 리스너 - 워커 {}개, 워커 큐 {}건", workerCount, queueCapacity);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        for (Thread worker : workers) {
+            worker.interrupt();
+            worker.join(drainTimeout.toMillis());
+        }
+    }
+
+    /**
+     * 레코드 처리를 키의 워커에 맡긴다 (리스너 스레드에서 호출)
+     *
+     * @param work 처리가 끝나면 (비동기라도) 넘겨받은 ack 를 호출해야 한다
+     */
+    public void dispatch(String topic, int partition, long offset, String key,
+                         Acknowledgment acknowledgment, RecordWork work) throws InterruptedException {
+        if (!enabled) {
+            work.process(acknowledgment);
+            return;
+        }
+        Acknowledgment done = watermark.register(topic, partition, offset, acknowledgment);
+        int hash = key == null ? Long.hashCode(offset) : key.hashCode();
+        queues[(hash & Integer.MAX_VALUE) % queues.length].put(() -> {
+            try {
+                work.process(done);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                // 기본 에러 핸들러처럼 로그를 남기고 건너뛴다 (막히면 뒤 레코드의 오프셋도 커밋되지 않음)
+                log.error("병렬 리스너 처리 실패, 건너뜀 - Topic: {}, Partition: {}, Offset: {}, Key: {}",
+                    topic, partition, offset, key, e);
+                done.acknowledge();
+            }
+        });
+    }
+
+    /**
+     * 파티션 회수 직전 (리스너 컨테이너 커밋 전) 호출
+     * 처리 중 레코드를 기다린 뒤 완료 구간을 직접 커밋하고 파티션 상태를 버린다.
+     */
+    public void drain(Consumer<?, ?> consumer, Collection<TopicPartition> revoked) {
+        if (!enabled || revoked.isEmpty()) {
+            return;
+        }
+        long deadline = System.nanoTime() + drainTimeout.toNanos();
+        while (watermark.inFlight(revoked) > 0 && System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        int abandoned = watermark.inFlight(revoked);
+        Map<TopicPartition, OffsetAndMetadata> offsets = watermark.committable(revoked);
+        if (!offsets.isEmpty()) {
+            consumer.commitSync(offsets);
+        }
+        watermark.forget(revoked);
+        if (abandoned > 0) {
+            log.warn("파티션 회수 - 처리 중 레코드 {}건을 기다리지 못함 (새 소유자가 다시 처리) - {}", abandoned, revoked);
+        }
+    }
+
+    /**
+     * 세션 만료 등으로 파티션을 잃었을 때 호출 (이미 다른 소유자가 있어 커밋할 수 없음)
+     */
+    public void discard(Collection<TopicPartition> lost) {
+        if (enabled) {
+            watermark.forget(lost);
+        }
+    }
+
+    private void runWorker(BlockingQueue<Runnable> queue) {
+        while (running) {
+            try {
+                queue.take().run();
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 레코드 한 건 처리 - 완료되면 ack 를 호출 (DB 저장 등 비동기 완료 시점에 호출해도 됨)
+     */
+    @FunctionalInterface
+    public interface RecordWork {
+        void process(Acknowledgment acknowledgment) throws InterruptedException;
+    }
+}
@@ -0,0 +1,81 @@
+package com.sample.kafka.consumer;
+
+import com.sample.kafka.metrics.PipelineMetrics;
+import com.sample.kafka.service.WriteBehindBuffer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 리스너 컨슈머 리밸런스 콜백 (리스너 컨테이너 팩토리에 공통으로 설정)
+ *
+ * - 회수 직전: 병렬 리스너의 처리 중 레코드를 기다리고 완료 구간을 커밋 (KeyOrderedDispatcher)
+ *   write-behind 버퍼에서 아직 저장하지 않은 그 파티션의 결과는 버린다 (새 소유자가 다시 받음)
+ * - 처리 중단 시간: 컨슈머별로 첫 파티션 회수(또는 유실) 시각부터 리밸런스가 끝나 할당을 받을 때까지
+ *   eager 리밸런스는 매번 모든 파티션을 회수하므로 그룹 전체가 멈추고,
+ *   cooperative-sticky 는 옮겨지는 파티션만 회수하므로 대부분의 리밸런스가 0ms 로 기록된다.
+ * 콜백은 컨슈머 스레드에서 호출되며, 컨테이너마다 컨슈머가 다르므로 컨슈머 인스턴스로 구분한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ListenerRebalanceListener implements ConsumerAwareRebalanceListener {
+
+    private final KeyOrderedDispatcher dispatcher;
+    private final WriteBehindBuffer writeBehindBuffer;
+    private final PipelineMetrics metrics;
+
+    // 컨슈머별 진행 중인 리밸런스의 첫 회수 시각과 회수 파티션 수
+    private final Map<Consumer<?, ?>, Revocation> revocations = new ConcurrentHashMap<>();
+
+    @Override
+    public void onPartitionsRevokedBeforeCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        markRevoked(consumer, partitions);
+        dispatcher.drain(consumer, partitions);
+        writeBehindBuffer.discard(partitions);
+    }
+
+    @Override
+    public void onPartitionsLost(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        markRevoked(consumer, partitions);
+        dispatcher.discard(partitions);
+        writeBehindBuffer.discard(partitions);
+    }
+
+    @Override
+    public void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        Revocation revocation = revocations.remove(consumer);
+        // 처음 그룹에 들어와 받은 할당은 리밸런스 중단이 아니므로 기록하지 않는다
+        if (revocation == null && consumer.assignment().size() == partitions.size()) {
+            return;
+        }
+        String group = consumer.groupMetadata().groupId();
+        long pauseMs = revocation == null ? 0 : TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - revocation.startNanos);
+        int revoked = revocation == null ? 0 : revocation.partitions;
+        metrics.recordRebalancePause("listener", group, pauseMs);
+        metrics.recordRebalanceRevoked(group, revoked);
+        if (revoked > 0) {
+            log.info("🔄 [리밸런스] Group: {}, 회수 {}개, 새로 할당 {}개, 처리 중단 {}ms",
+                group, revoked, partitions.size(), pauseMs);
+        }
+    }
+
+    private void markRevoked(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        if (partitions.isEmpty()) {
+            return;
+        }
+        revocations.merge(consumer, new Revocation(System.nanoTime(), partitions.size()),
+            (current, added) -> new Revocation(current.startNanos, current.partitions + added.partitions));
+    }
+
+    private record Revocation(long startNanos, int partitions) {
+    }
+}
@@ -0,0 +1,125 @@
+package com.sample.kafka.consumer;
+
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 파티션별 처리 완료 오프셋 워터마크
+ *
+ * 레코드를 받은 순서(파티션 안에서 오프셋 오름차순)대로 대기열에 넣고, 워커가 임의 순서로 완료를 알리면
+ * 대기열 앞에서부터 연속으로 완료된 구간만 잘라 그 마지막 레코드를 ack 한다.
+ * 따라서 커밋되는 오프셋 앞의 레코드는 모두 처리가 끝난 상태이고, 중간에 비어 있는 레코드가 있으면 그 앞에서 멈춘다.
+ * 오프셋이 연속(+1)이라고 가정하지 않으므로 compact 토픽이나 트랜잭션 마커로 빈 번호가 있어도 된다.
+ */
+public class OffsetWatermark {
+
+    private final Map<TopicPartition, ArrayDeque<Pending>> partitions = new ConcurrentHashMap<>();
+    // 파티션별 마지막으로 ack 한 (완료 구간 끝) 오프셋
+    private final Map<TopicPartition, Long> completed = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /**
+     * 처리 대기 레코드 등록 (리스너 스레드, 파티션 안에서 오프셋 순서대로 호출)
+     *
+     * @return 처리가 끝나면 호출할 완료 ack (여러 번 호출해도 한 번만 반영)
+     */
+    public Acknowledgment register(String topic, int partition, long offset, Acknowledgment acknowledgment) {
+        TopicPartition topicPartition = new TopicPartition(topic, partition);
+        ArrayDeque<Pending> pendings = partitions.computeIfAbsent(topicPartition, key -> new ArrayDeque<>());
+        Pending pending = new Pending(offset, acknowledgment);
+        synchronized (pendings) {
+            pendings.addLast(pending);
+        }
+        inFlight.incrementAndGet();
+        return () -> complete(topicPartition, pendings, pending);
+    }
+
+    private void complete(TopicPartition topicPartition, ArrayDeque<Pending> pendings, Pending pending) {
+        synchronized (pendings) {
+            if (pending.done) {
+                return;
+            }
+            pending.done = true;
+            Pending last = null;
+            while (!pendings.isEmpty() && pendings.peekFirst().done) {
+                last = pendings.pollFirst();
+                inFlight.decrementAndGet();
+            }
+            // 잠금 안에서 ack 해야 같은 파티션의 ack 가 오프셋 순서대로 들어간다
+            if (last != null) {
+                completed.put(topicPartition, last.offset);
+                last.acknowledgment.acknowledge();
+            }
+        }
+    }
+
+    /**
+     * 아직 완료 구간에 들어가지 못한 레코드 수 (완료됐지만 앞 레코드를 기다리는 레코드 포함)
+     */
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    public int inFlight(Collection<TopicPartition> topicPartitions) {
+        int count = 0;
+        for (TopicPartition topicPartition : topicPartitions) {
+            ArrayDeque<Pending> pendings = partitions.get(topicPartition);
+            if (pendings != null) {
+                synchronized (pendings) {
+                    count += pendings.size();
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 파티션별 커밋할 오프셋 (완료 구간 끝 + 1)
+     */
+    public Map<TopicPartition, OffsetAndMetadata> committable(Collection<TopicPartition> topicPartitions) {
+        Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+        for (TopicPartition topicPartition : topicPartitions) {
+            Long offset = completed.get(topicPartition);
+            if (offset != null) {
+                offsets.put(topicPartition, new OffsetAndMetadata(offset + 1));
+            }
+        }
+        return offsets;
+    }
+
+    /**
+     * 회수된 파티션의 상태를 버린다 (남은 레코드는 새 소유자가 다시 받는다)
+     */
+    public void forget(Collection<TopicPartition> topicPartitions) {
+        for (TopicPartition topicPartition : topicPartitions) {
+            ArrayDeque<Pending> pendings = partitions.remove(topicPartition);
+            if (pendings != null) {
+                synchronized (pendings) {
+                    inFlight.addAndGet(-pendings.size());
+                    pendings.forEach(pending -> pending.done = true);
+                    pendings.clear();
+                }
+            }
+            completed.remove(topicPartition);
+        }
+    }
+
+    private static final class Pending {
+        private final long offset;
+        private final Acknowledgment acknowledgment;
+        private boolean done;
+
+        private Pending(long offset, Acknowledgment acknowledgment) {
+            this.offset = offset;
+            this.acknowledgment = acknowledgment;
+        }
+    }
+}
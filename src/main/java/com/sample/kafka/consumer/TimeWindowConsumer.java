@@ -1,58 +1,107 @@
 package com.sample.kafka.consumer;
 
-import com.sample.kafka.service.AggregationStorageService;
+import com.sample.kafka.dto.AggregationResultType;
+import com.sample.kafka.metrics.LatencyTrace;
+import com.sample.kafka.service.WriteBehindBuffer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.kafka.support.KafkaHeaders;
 import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.Headers;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Component;
 
+import java.util.Map;
+
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class TimeWindowConsumer {
 
-    private final AggregationStorageService storageService;
+    // write-behind 버퍼가 backpressure 로 pause/resume 하는 리스너 ID
+    public static final String HOURLY_SALES_LISTENER_ID = "hourly-sales-result-listener";
+    public static final String DAILY_SALES_LISTENER_ID = "daily-sales-result-listener";
+    public static final String EVENT_COUNT_LISTENER_ID = "event-count-result-listener";
+    public static final String USER_SESSION_LISTENER_ID = "user-session-result-listener";
+
+    private final WriteBehindBuffer writeBehindBuffer;
 
     /**
-     * 시간별 매출 집계 결과를 수신하고 DB에 저장
+     * 시간별 매출 집계 결과를 수신하고 DB 저장 버퍼에 추가
+     * 오프셋은 DB 저장이 끝난 뒤 write-behind 버퍼가 커밋한다.
+     * 헤더의 추적 시각(origin-ts, stream-in-ts, emit-ts)은 DB 커밋 시 구간별 지연으로 기록된다.
      */
-    @KafkaListener(topics = "hourly-sales-output-topic", groupId = "hourly-sales-result-group")
+    @KafkaListener(id = HOURLY_SALES_LISTENER_ID, topics = "hourly-sales-output-topic",
+                   groupId = "hourly-sales-result-group", containerFactory = "writeBehindListenerContainerFactory")
     public void listenHourlySalesResult(@Payload String message,
                                         @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
-                                        @Header(KafkaHeaders.OFFSET) long offset) {
+                                        @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
+                                        @Header(KafkaHeaders.OFFSET) long offset,
+                                        @Header(KafkaHeaders.RECEIVED_TIMESTAMP) long timestamp,
+                                        @Headers Map<String, Object> headers,
+                                        Acknowledgment acknowledgment) {
         log.info("🕐 [시간별 집계 최종결과] Topic: {}, Offset: {}, 결과: {}", topic, offset, message);
         
-        // DB에 저장
-        storageService.saveHourlySalesResult(message);
+        // DB 저장 버퍼에 추가
+        writeBehindBuffer.submit(AggregationResultType.HOURLY_SALES, message, topic, partition, timestamp,
+            LatencyTrace.from(headers, System.currentTimeMillis()), acknowledgment);
     }
 
     /**
-     * 일별 매출 집계 결과를 수신하고 DB에 저장
+     * 일별 매출 집계 결과를 수신하고 DB 저장 버퍼에 추가
      */
-    @KafkaListener(topics = "daily-sales-output-topic", groupId = "daily-sales-result-group")
+    @KafkaListener(id = DAILY_SALES_LISTENER_ID, topics = "daily-sales-output-topic",
+                   groupId = "daily-sales-result-group", containerFactory = "writeBehindListenerContainerFactory")
     public void listenDailySalesResult(@Payload String message,
                                        @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
-                                       @Header(KafkaHeaders.OFFSET) long offset) {
+                                       @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
+                                       @Header(KafkaHeaders.OFFSET) long offset,
+                                       @Header(KafkaHeaders.RECEIVED_TIMESTAMP) long timestamp,
+                                       @Headers Map<String, Object> headers,
+                                       Acknowledgment acknowledgment) {
         log.info("📅 [일별 집계 최종결과] Topic: {}, Offset: {}, 결과: {}", topic, offset, message);
         
-        // DB에 저장
-        storageService.saveDailySalesResult(message);
+        // DB 저장 버퍼에 추가
+        writeBehindBuffer.submit(AggregationResultType.DAILY_SALES, message, topic, partition, timestamp,
+            LatencyTrace.from(headers, System.currentTimeMillis()), acknowledgment);
     }
 
     /**
-     * 이벤트 카운트 결과를 수신하고 DB에 저장
+     * 이벤트 카운트 결과를 수신하고 DB 저장 버퍼에 추가
      */
-    @KafkaListener(topics = "event-count-output-topic", groupId = "event-count-result-group")
+    @KafkaListener(id = EVENT_COUNT_LISTENER_ID, topics = "event-count-output-topic",
+                   groupId = "event-count-result-group", containerFactory = "writeBehindListenerContainerFactory")
     public void listenEventCountResult(@Payload String message,
                                        @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
-                                       @Header(KafkaHeaders.OFFSET) long offset) {
+                                       @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
+                                       @Header(KafkaHeaders.OFFSET) long offset,
+                                       @Header(KafkaHeaders.RECEIVED_TIMESTAMP) long timestamp,
+                                       @Headers Map<String, Object> headers,
+                                       Acknowledgment acknowledgment) {
         log.info("⚡ [이벤트 카운트 최종결과] Topic: {}, Offset: {}, 결과: {}", topic, offset, message);
         
-        // DB에 저장
-        storageService.saveEventCountResult(message);
+        // DB 저장 버퍼에 추가
+        writeBehindBuffer.submit(AggregationResultType.EVENT_COUNT, message, topic, partition, timestamp,
+            LatencyTrace.from(headers, System.currentTimeMillis()), acknowledgment);
     }
-}
 
+    /**
+     * 사용자 세션 집계 결과를 수신하고 DB 저장 버퍼에 추가
+     */
+    @KafkaListener(id = USER_SESSION_LISTENER_ID, topics = "user-session-output-topic",
+                   groupId = "user-session-result-group", containerFactory = "writeBehindListenerContainerFactory")
+    public void listenUserSessionResult(@Payload String message,
+                                        @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
+                                        @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
+                                        @Header(KafkaHeaders.OFFSET) long offset,
+                                        @Header(KafkaHeaders.RECEIVED_TIMESTAMP) long timestamp,
+                                        @Headers Map<String, Object> headers,
+                                        Acknowledgment acknowledgment) {
+        log.info("👤 [사용자 세션 최종결과] Topic: {}, Offset: {}, 결과: {}", topic, offset, message);
+
+        writeBehindBuffer.submit(AggregationResultType.USER_SESSION, message, topic, partition, timestamp,
+            LatencyTrace.from(headers, System.currentTimeMillis()), acknowledgment);
+    }
+}
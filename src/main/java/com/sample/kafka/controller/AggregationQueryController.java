@@ -1,11 +1,18 @@
 package com.sample.kafka.controller;
 
+import com.sample.kafka.dto.EventCountResponse;
+import com.sample.kafka.dto.SalePercentilesResponse;
+import com.sample.kafka.dto.UniqueUsersResponse;
 import com.sample.kafka.entity.DailySalesResult;
-import com.sample.kafka.entity.EventCountResult;
 import com.sample.kafka.entity.HourlySalesResult;
+import com.sample.kafka.entity.TimeBuckets;
+import com.sample.kafka.entity.UserSessionResult;
 import com.sample.kafka.repository.DailySalesResultRepository;
 import com.sample.kafka.repository.EventCountResultRepository;
 import com.sample.kafka.repository.HourlySalesResultRepository;
+import com.sample.kafka.repository.UserSessionResultRepository;
+import com.sample.kafka.service.SalePercentilesQueryService;
+import com.sample.kafka.service.UniqueUsersQueryService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -16,6 +23,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 @Tag(name = "집계 결과 조회 API", description = "DB에 저장된 집계 결과를 조회하는 API")
@@ -27,6 +35,9 @@ public class AggregationQueryController {
     private final HourlySalesResultRepository hourlySalesRepository;
     private final DailySalesResultRepository dailySalesRepository;
     private final EventCountResultRepository eventCountRepository;
+    private final UserSessionResultRepository userSessionRepository;
+    private final UniqueUsersQueryService uniqueUsersQueryService;
+    private final SalePercentilesQueryService salePercentilesQueryService;
 
     @Operation(
         summary = "최근 시간별 매출 조회",
@@ -48,6 +59,23 @@ public class AggregationQueryController {
         return ResponseEntity.ok(hourlySalesRepository.findByProductNameOrderByWindowStartDesc(productName));
     }
 
+    @Operation(
+        summary = "상품별 판매 금액 분위수 조회",
+        description = "시간대마다 저장된 t-digest 를 병합해 시간별(hourly) 또는 일별(daily) 건당 판매 금액 p50/p95/p99 를 추정합니다."
+    )
+    @GetMapping("/hourly-sales/percentiles")
+    public ResponseEntity<List<SalePercentilesResponse>> getSalePercentiles(
+            @Parameter(description = "상품명", required = true, example = "노트북")
+            @RequestParam String productName,
+            @Parameter(description = "집계 단위 (hourly | daily)", example = "daily")
+            @RequestParam(defaultValue = "hourly") String period,
+            @Parameter(description = "조회 시작 시간", required = true, example = "2025-11-13T00:00:00")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "조회 종료 시간", required = true, example = "2025-11-14T00:00:00")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return ResponseEntity.ok(salePercentilesQueryService.getPercentiles(productName, periodUnit(period), from, to));
+    }
+
     @Operation(
         summary = "특정 시간 이후 매출 조회",
         description = "특정 시간 이후의 시간별 매출 집계 결과를 조회합니다."
@@ -56,7 +84,7 @@ public class AggregationQueryController {
     public ResponseEntity<List<HourlySalesResult>> getHourlySalesSince(
             @Parameter(description = "조회 시작 시간", required = true, example = "2025-11-13T00:00:00")
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime) {
-        return ResponseEntity.ok(hourlySalesRepository.findRecentResults(startTime));
+        return ResponseEntity.ok(hourlySalesRepository.findRecentResults(TimeBuckets.monthOf(startTime), startTime));
     }
 
     @Operation(
@@ -87,7 +115,7 @@ public class AggregationQueryController {
     public ResponseEntity<List<DailySalesResult>> getDailySalesByDate(
             @Parameter(description = "조회 날짜", required = true, example = "2025-11-13")
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate salesDate) {
-        return ResponseEntity.ok(dailySalesRepository.findBySalesDate(salesDate));
+        return ResponseEntity.ok(dailySalesRepository.findByBucketMonthAndSalesDate(TimeBuckets.monthOf(salesDate), salesDate));
     }
 
     @Operation(
@@ -95,8 +123,10 @@ public class AggregationQueryController {
         description = "DB에 저장된 최근 이벤트 카운트 결과를 조회합니다."
     )
     @GetMapping("/event-count/recent")
-    public ResponseEntity<List<EventCountResult>> getRecentEventCounts() {
-        return ResponseEntity.ok(eventCountRepository.findTop10ByOrderByCreatedAtDesc());
+    public ResponseEntity<List<EventCountResponse>> getRecentEventCounts() {
+        return ResponseEntity.ok(eventCountRepository.findTop10ByOrderByCreatedAtDesc().stream()
+                .map(EventCountResponse::from)
+                .toList());
     }
 
     @Operation(
@@ -104,10 +134,49 @@ public class AggregationQueryController {
         description = "특정 이벤트 타입의 카운트 결과를 조회합니다."
     )
     @GetMapping("/event-count/by-type")
-    public ResponseEntity<List<EventCountResult>> getEventCountsByType(
+    public ResponseEntity<List<EventCountResponse>> getEventCountsByType(
             @Parameter(description = "이벤트 타입", required = true, example = "USER_LOGIN")
             @RequestParam String eventType) {
-        return ResponseEntity.ok(eventCountRepository.findByEventTypeOrderByWindowStartDesc(eventType));
+        return ResponseEntity.ok(eventCountRepository.findByEventTypeOrderByWindowStartMsDesc(eventType).stream()
+                .map(EventCountResponse::from)
+                .toList());
+    }
+
+    @Operation(
+        summary = "기간별 고유 사용자 수 조회",
+        description = "5분 윈도우마다 저장된 HyperLogLog 스케치를 병합해 시간별(hourly) 또는 일별(daily) 고유 사용자 수를 추정합니다."
+    )
+    @GetMapping("/event-count/unique-users")
+    public ResponseEntity<List<UniqueUsersResponse>> getUniqueUsers(
+            @Parameter(description = "이벤트 타입", required = true, example = "USER_LOGIN")
+            @RequestParam String eventType,
+            @Parameter(description = "집계 단위 (hourly | daily)", example = "hourly")
+            @RequestParam(defaultValue = "hourly") String period,
+            @Parameter(description = "조회 시작 시간", required = true, example = "2025-11-13T00:00:00")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "조회 종료 시간", required = true, example = "2025-11-14T00:00:00")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return ResponseEntity.ok(uniqueUsersQueryService.getUniqueUsers(eventType, periodUnit(period), from, to));
+    }
+
+    @Operation(
+        summary = "최근 사용자 세션 조회",
+        description = "DB에 저장된 최근 사용자 세션 집계 결과를 조회합니다."
+    )
+    @GetMapping("/sessions/recent")
+    public ResponseEntity<List<UserSessionResult>> getRecentSessions() {
+        return ResponseEntity.ok(userSessionRepository.findTop10ByOrderByCreatedAtDesc());
+    }
+
+    @Operation(
+        summary = "사용자별 세션 조회",
+        description = "특정 사용자의 세션 집계 결과를 최근 세션부터 조회합니다."
+    )
+    @GetMapping("/sessions/by-user")
+    public ResponseEntity<List<UserSessionResult>> getSessionsByUser(
+            @Parameter(description = "사용자 ID", required = true, example = "user-1")
+            @RequestParam String userId) {
+        return ResponseEntity.ok(userSessionRepository.findByUserIdOrderBySessionStartMsDesc(userId));
     }
 
     @Operation(
@@ -119,14 +188,28 @@ public class AggregationQueryController {
         long hourlySalesCount = hourlySalesRepository.count();
         long dailySalesCount = dailySalesRepository.count();
         long eventCountCount = eventCountRepository.count();
+        long userSessionCount = userSessionRepository.count();
 
         return ResponseEntity.ok(new Object() {
             public final String message = "집계 결과 통계";
             public final long 시간별매출집계건수 = hourlySalesCount;
             public final long 일별매출집계건수 = dailySalesCount;
             public final long 이벤트카운트건수 = eventCountCount;
-            public final long 총저장건수 = hourlySalesCount + dailySalesCount + eventCountCount;
+            public final long 사용자세션건수 = userSessionCount;
+            public final long 총저장건수 = hourlySalesCount + dailySalesCount + eventCountCount + userSessionCount;
         });
     }
-}
 
+    private static ChronoUnit periodUnit(String period) {
+        return switch (period) {
+            case "hourly" -> ChronoUnit.HOURS;
+            case "daily" -> ChronoUnit.DAYS;
+            default -> throw new IllegalArgumentException("지원하지 않는 집계 단위: " + period);
+        };
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+}
@@ -0,0 +1,203 @@
+package com.sample.kafka.controller;
+
+import com.sample.kafka.config.KafkaStreamsConfig;
+import com.sample.kafka.dto.DistributedQueryResult;
+import com.sample.kafka.dto.KeyedValue;
+import com.sample.kafka.dto.RestoreProgress;
+import com.sample.kafka.dto.TopKResult;
+import com.sample.kafka.dto.WindowedValue;
+import com.sample.kafka.service.DistributedQueryService;
+import com.sample.kafka.streams.StateRestoreProgress;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.streams.errors.InvalidStateStoreException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Slf4j
+@Tag(name = "실시간 상태 조회 API", description = "카프카 스트림즈 상태 저장소를 직접 조회하는 Interactive Query API")
+@RestController
+@RequestMapping("/api/interactive-query")
+@RequiredArgsConstructor
+public class InteractiveQueryController {
+
+    private final DistributedQueryService queryService;
+    private final StateRestoreProgress stateRestoreProgress;
+
+    @Operation(
+        summary = "단어 카운트 조회",
+        description = "word-counts-store 에서 특정 단어의 누적 카운트를 조회합니다. "
+                + "단어가 속한 파티션을 가진 인스턴스로 요청이 전달됩니다."
+    )
+    @GetMapping("/word-count")
+    public ResponseEntity<DistributedQueryResult<KeyedValue>> getWordCount(
+            @Parameter(description = "단어", required = true, example = "hello")
+            @RequestParam String word,
+            @Parameter(hidden = true)
+            @RequestParam(defaultValue = "false") boolean local) {
+        return ResponseEntity.ok(queryService.getWordCount(word, local));
+    }
+
+    @Operation(
+        summary = "단어 카운트 범위 조회",
+        description = "word-counts-store 에서 단어 범위(사전순)를 조회합니다. 범위를 생략하면 전체를 조회합니다. "
+                + "모든 인스턴스에 병렬로 조회한 뒤 병합합니다."
+    )
+    @GetMapping("/word-count/range")
+    public ResponseEntity<DistributedQueryResult<KeyedValue>> getWordCountRange(
+            @Parameter(description = "시작 단어 (포함)", example = "a")
+            @RequestParam(required = false) String from,
+            @Parameter(description = "끝 단어 (포함)", example = "z")
+            @RequestParam(required = false) String to,
+            @Parameter(hidden = true)
+            @RequestParam(defaultValue = "false") boolean local) {
+        return ResponseEntity.ok(queryService.getWordCountRange(from, to, local));
+    }
+
+    @Operation(
+        summary = "진행 중인 시간별 매출 조회",
+        description = "hourly-sales-store 에서 윈도우가 닫히기 전의 시간별 매출(합계, 건수, 최소, 최대, 평균)을 조회합니다. "
+                + "상품명을 생략하면 전체 상품, 기간을 생략하면 현재 윈도우를 조회합니다."
+    )
+    @GetMapping("/hourly-sales")
+    public ResponseEntity<DistributedQueryResult<WindowedValue>> getHourlySales(
+            @Parameter(description = "상품명", example = "노트북")
+            @RequestParam(required = false) String product,
+            @Parameter(description = "윈도우 시작 시각 하한", example = "2025-11-13T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "윈도우 시작 시각 상한", example = "2025-11-13T23:59:59")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(hidden = true)
+            @RequestParam(defaultValue = "false") boolean local) {
+        return ResponseEntity.ok(fetch(KafkaStreamsConfig.HOURLY_SALES_STORE, KafkaStreamsConfig.HOURLY_WINDOW_SIZE,
+                "/hourly-sales", "product", product, from, to, local));
+    }
+
+    @Operation(
+        summary = "진행 중인 일별 매출 조회",
+        description = "daily-sales-store 에서 윈도우가 닫히기 전의 일별 매출(합계, 건수, 최소, 최대, 평균)을 조회합니다. "
+                + "카테고리를 생략하면 전체 카테고리, 기간을 생략하면 현재 윈도우를 조회합니다."
+    )
+    @GetMapping("/daily-sales")
+    public ResponseEntity<DistributedQueryResult<WindowedValue>> getDailySales(
+            @Parameter(description = "카테고리", example = "전자제품")
+            @RequestParam(required = false) String category,
+            @Parameter(description = "윈도우 시작 시각 하한", example = "2025-11-13T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "윈도우 시작 시각 상한", example = "2025-11-13T23:59:59")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(hidden = true)
+            @RequestParam(defaultValue = "false") boolean local) {
+        return ResponseEntity.ok(fetch(KafkaStreamsConfig.DAILY_SALES_STORE, KafkaStreamsConfig.DAILY_WINDOW_SIZE,
+                "/daily-sales", "category", category, from, to, local));
+    }
+
+    @Operation(
+        summary = "진행 중인 이벤트 카운트 조회",
+        description = "event-count-store 에서 윈도우가 닫히기 전의 5분 단위 이벤트 카운트를 조회합니다. "
+                + "이벤트 타입을 생략하면 전체 타입, 기간을 생략하면 현재 윈도우를 조회합니다."
+    )
+    @GetMapping("/event-count")
+    public ResponseEntity<DistributedQueryResult<WindowedValue>> getEventCounts(
+            @Parameter(description = "이벤트 타입", example = "USER_LOGIN")
+            @RequestParam(required = false) String eventType,
+            @Parameter(description = "윈도우 시작 시각 하한", example = "2025-11-13T14:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "윈도우 시작 시각 상한", example = "2025-11-13T15:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(hidden = true)
+            @RequestParam(defaultValue = "false") boolean local) {
+        return ResponseEntity.ok(fetch(KafkaStreamsConfig.EVENT_COUNT_STORE, KafkaStreamsConfig.EVENT_WINDOW_SIZE,
+                "/event-count", "eventType", eventType, from, to, local));
+    }
+
+    @Operation(
+        summary = "롤링 이벤트 카운트 조회",
+        description = "호핑(event-count-hopping-store) 또는 슬라이딩(event-count-sliding-store) 윈도우의 "
+                + "최근 5분 이벤트 카운트를 조회합니다. 해당 윈도우 종류가 설정에서 꺼져 있으면 503 을 반환합니다."
+    )
+    @GetMapping("/event-count/{windowType}")
+    public ResponseEntity<DistributedQueryResult<WindowedValue>> getRollingEventCounts(
+            @Parameter(description = "윈도우 종류", example = "hopping")
+            @PathVariable String windowType,
+            @Parameter(description = "이벤트 타입", example = "USER_LOGIN")
+            @RequestParam(required = false) String eventType,
+            @Parameter(description = "윈도우 시작 시각 하한", example = "2025-11-13T14:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "윈도우 시작 시각 상한", example = "2025-11-13T15:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(hidden = true)
+            @RequestParam(defaultValue = "false") boolean local) {
+        String storeName = switch (windowType) {
+            case "hopping" -> KafkaStreamsConfig.EVENT_COUNT_HOPPING_STORE;
+            case "sliding" -> KafkaStreamsConfig.EVENT_COUNT_SLIDING_STORE;
+            default -> throw new IllegalArgumentException("지원하지 않는 윈도우 종류: " + windowType);
+        };
+        return ResponseEntity.ok(fetch(storeName, KafkaStreamsConfig.EVENT_WINDOW_SIZE,
+                "/event-count/" + windowType, "eventType", eventType, from, to, local));
+    }
+
+    @Operation(
+        summary = "윈도우별 상위 K 조회",
+        description = "Count-Min Sketch 로 추정한 열린 윈도우의 상위 K 단어(words) 또는 매출 상위 상품(products)을 조회합니다. "
+                + "빈도는 근사값이며 실제 값보다 작지 않습니다."
+    )
+    @GetMapping("/top-k/{target}")
+    public ResponseEntity<DistributedQueryResult<TopKResult>> getTopK(
+            @Parameter(description = "대상", example = "words")
+            @PathVariable String target,
+            @Parameter(hidden = true)
+            @RequestParam(defaultValue = "false") boolean local) {
+        String storeName = switch (target) {
+            case KafkaStreamsConfig.TOP_K_WORDS -> KafkaStreamsConfig.WORD_TOP_K_STORE;
+            case KafkaStreamsConfig.TOP_K_PRODUCTS -> KafkaStreamsConfig.PRODUCT_TOP_K_STORE;
+            default -> throw new IllegalArgumentException("지원하지 않는 상위 K 대상: " + target);
+        };
+        return ResponseEntity.ok(queryService.getTopK(storeName, target, KafkaStreamsConfig.TOP_K_WINDOW_SIZE, local));
+    }
+
+    @Operation(
+        summary = "상태 저장소 복원 진행 상황",
+        description = "이 인스턴스에서 changelog 로 복원 중인 저장소/파티션별 복원 건수, 진행률, 초당 건수, 남은 시간(ms)을 조회합니다. "
+                + "복원 중에는 저장소 조회가 503 을 반환하므로 언제 조회할 수 있는지 확인할 때 사용합니다."
+    )
+    @GetMapping("/restoration")
+    public ResponseEntity<List<RestoreProgress>> getRestoration() {
+        return ResponseEntity.ok(stateRestoreProgress.inProgress());
+    }
+
+    /**
+     * 리밸런싱 중이거나 스트림즈가 아직 RUNNING 이 아니면 저장소를 조회할 수 없다.
+     */
+    @ExceptionHandler(InvalidStateStoreException.class)
+    public ResponseEntity<String> handleStoreUnavailable(InvalidStateStoreException e) {
+        log.warn("상태 저장소 조회 불가: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    private DistributedQueryResult<WindowedValue> fetch(String storeName, Duration windowSize,
+                                                        String path, String keyParam, String key,
+                                                        LocalDateTime from, LocalDateTime to, boolean local) {
+        Instant now = Instant.now();
+        // 기간 미지정 시 현재 시각을 포함하는 윈도우만 조회
+        Instant timeFrom = from != null ? from.atZone(KafkaStreamsConfig.ZONE).toInstant() : now.minus(windowSize);
+        Instant timeTo = to != null ? to.atZone(KafkaStreamsConfig.ZONE).toInstant() : now;
+
+        return queryService.fetchWindows(storeName, path, keyParam, key, timeFrom, timeTo, local);
+    }
+}
@@ -1,6 +1,7 @@
 package com.sample.kafka.controller;
 
 import com.sample.kafka.producer.KafkaProducer;
+import com.sample.kafka.service.FilterRuleService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -8,6 +9,9 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.Map;
+
 @Tag(name = "카프카 스트림즈 API", description = "카프카 스트림즈 테스트를 위한 API")
 @RestController
 @RequestMapping("/api/kafka-streams")
@@ -15,6 +19,7 @@ import org.springframework.web.bind.annotation.*;
 public class KafkaStreamsController {
 
     private final KafkaProducer kafkaProducer;
+    private final FilterRuleService filterRuleService;
 
     @Operation(
         summary = "대문자 변환 스트림 테스트",
@@ -30,14 +35,49 @@ public class KafkaStreamsController {
 
     @Operation(
         summary = "필터링 스트림 테스트",
-        description = "filter-input-topic으로 메시지를 전송하면 '중요' 키워드가 포함된 메시지만 filter-output-topic으로 전송됩니다."
+        description = "filter-input-topic으로 메시지를 전송하면 필터 규칙 키워드(기본: '중요')가 포함된 메시지만 filter-output-topic으로 전송됩니다."
     )
     @PostMapping("/filter")
     public ResponseEntity<String> testFilter(
-            @Parameter(description = "필터링할 메시지 ('중요' 키워드 포함 시 통과)", required = true, example = "중요한 메시지입니다")
+            @Parameter(description = "필터링할 메시지 (규칙 키워드 포함 시 통과)", required = true, example = "중요한 메시지입니다")
             @RequestParam String message) {
         kafkaProducer.sendMessage("filter-input-topic", message);
-        return ResponseEntity.ok("메시지를 filter-input-topic으로 전송했습니다. '중요' 키워드 포함 여부: " + message.contains("중요"));
+        return ResponseEntity.ok("메시지를 filter-input-topic으로 전송했습니다. 적중 규칙: " + filterRuleService.match(message));
+    }
+
+    @Operation(
+        summary = "필터 규칙 조회",
+        description = "필터 스트림이 현재 사용 중인 키워드 규칙 (규칙 ID -> 키워드)을 조회합니다."
+    )
+    @GetMapping("/filter/rules")
+    public ResponseEntity<Map<String, String>> getFilterRules() {
+        return ResponseEntity.ok(filterRuleService.rules());
+    }
+
+    @Operation(
+        summary = "필터 규칙 등록/변경",
+        description = "filter-rules-topic 에 규칙을 보내면 모든 인스턴스의 필터 스트림에 재시작 없이 반영됩니다."
+    )
+    @PutMapping("/filter/rules/{ruleId}")
+    public ResponseEntity<String> putFilterRule(
+            @Parameter(description = "규칙 ID", required = true, example = "urgent")
+            @PathVariable String ruleId,
+            @Parameter(description = "키워드 (대소문자 구분 없음)", required = true, example = "긴급")
+            @RequestParam String keyword) {
+        kafkaProducer.sendMessage("filter-rules-topic", ruleId, keyword);
+        return ResponseEntity.ok(String.format("필터 규칙 전송 완료 - ID: %s, 키워드: %s", ruleId, keyword));
+    }
+
+    @Operation(
+        summary = "필터 규칙 삭제",
+        description = "filter-rules-topic 에 삭제 레코드(tombstone)를 보냅니다. 규칙이 모두 삭제되면 기본 키워드를 사용합니다."
+    )
+    @DeleteMapping("/filter/rules/{ruleId}")
+    public ResponseEntity<String> deleteFilterRule(
+            @Parameter(description = "규칙 ID", required = true, example = "urgent")
+            @PathVariable String ruleId) {
+        kafkaProducer.sendMessage("filter-rules-topic", ruleId, null);
+        return ResponseEntity.ok("필터 규칙 삭제 요청 완료 - ID: " + ruleId);
     }
 
     @Operation(
@@ -63,10 +103,11 @@ public class KafkaStreamsController {
         kafkaProducer.sendMessage("input-topic", message);
         kafkaProducer.sendMessage("filter-input-topic", message);
         kafkaProducer.sendMessage("word-input-topic", message);
+        List<String> matched = filterRuleService.match(message);
         
         return ResponseEntity.ok("모든 스트림에 메시지를 전송했습니다:\n" +
                 "1. 대문자 변환: input-topic -> output-topic\n" +
-                "2. 필터링: filter-input-topic -> filter-output-topic (중요 포함: " + message.contains("중요") + ")\n" +
+                "2. 필터링: filter-input-topic -> filter-output-topic (적중 규칙: " + matched + ")\n" +
                 "3. 단어 카운트: word-input-topic -> word-count-output-topic");
     }
 }
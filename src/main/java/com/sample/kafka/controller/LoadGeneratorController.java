@@ -0,0 +1,61 @@
+package com.sample.kafka.controller;
+
+import com.sample.kafka.dto.LoadProfile;
+import com.sample.kafka.dto.LoadReport;
+import com.sample.kafka.producer.LoadGenerator;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@Tag(name = "부하 생성 API", description = "입력 토픽에 목표 전송률로 합성 데이터를 보내고 처리량과 전송 지연을 측정하는 API")
+@RestController
+@RequestMapping("/api/load-generator")
+@RequiredArgsConstructor
+public class LoadGeneratorController {
+
+    private final LoadGenerator loadGenerator;
+
+    @Operation(
+        summary = "부하 생성 시작",
+        description = "target 토픽에 ratePerSecond 건/초로 durationSeconds 동안 보냅니다. 키는 keyCardinality 개를 Zipf(zipfExponent) 로, "
+            + "금액은 valueDistribution 으로 뽑고, outOfOrderRatio / lateRatio 비율만큼 이벤트 시각을 과거로 보냅니다. "
+            + "한 번에 하나만 실행됩니다."
+    )
+    @PostMapping("/start")
+    public ResponseEntity<LoadReport> start(@RequestBody LoadProfile profile) {
+        return ResponseEntity.ok(loadGenerator.start(profile));
+    }
+
+    @Operation(
+        summary = "부하 생성 진행/결과 조회",
+        description = "전송/ack/실패 건수, 실제 초당 처리량, 전송 지연(send ~ ack) p50/p95/p99/max 를 조회합니다."
+    )
+    @GetMapping("/status")
+    public ResponseEntity<LoadReport> status() {
+        LoadReport report = loadGenerator.status();
+        return report == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(report);
+    }
+
+    @Operation(
+        summary = "부하 생성 중지",
+        description = "전송을 멈추고 이미 보낸 레코드의 ack 를 기다린 뒤 종료합니다."
+    )
+    @PostMapping("/stop")
+    public ResponseEntity<LoadReport> stop() {
+        LoadReport report = loadGenerator.stop();
+        return report == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(report);
+    }
+
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<String> handleConflict(IllegalStateException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+}
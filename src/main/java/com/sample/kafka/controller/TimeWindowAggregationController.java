@@ -1,13 +1,23 @@
 package com.sample.kafka.controller;
 
+import com.sample.kafka.dto.LoadProfile;
+import com.sample.kafka.dto.LoadReport;
 import com.sample.kafka.producer.KafkaProducer;
+import com.sample.kafka.producer.LoadGenerator;
+import com.sample.kafka.producer.LoadTarget;
+import com.sample.kafka.service.ProductCategoryService;
+import com.sample.kafka.streams.UserEvent;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 @Tag(name = "시간 윈도우 집계 API", description = "시간별/일별 집계 및 실시간 이벤트 카운팅 API")
 @RestController
 @RequestMapping("/api/time-window")
@@ -15,6 +25,8 @@ import org.springframework.web.bind.annotation.*;
 public class TimeWindowAggregationController {
 
     private final KafkaProducer kafkaProducer;
+    private final LoadGenerator loadGenerator;
+    private final ProductCategoryService productCategoryService;
 
     @Operation(
         summary = "시간별 매출 집계 (1시간 단위)",
@@ -44,6 +56,47 @@ public class TimeWindowAggregationController {
         return ResponseEntity.ok(String.format("일별 매출 기록 완료 - 카테고리: %s, 금액: %d원", category, amount));
     }
 
+    @Operation(
+        summary = "상품 카테고리 등록/변경",
+        description = "product-categories-topic 에 매핑을 보냅니다. app.streams.category-enrichment.enabled 이면 "
+            + "시간별 매출(상품)이 이 카테고리의 일별 매출로도 집계됩니다."
+    )
+    @PutMapping("/product-categories/{productName}")
+    public ResponseEntity<String> putProductCategory(
+            @Parameter(description = "상품명", required = true, example = "노트북")
+            @PathVariable String productName,
+            @Parameter(description = "카테고리", required = true, example = "전자제품")
+            @RequestParam String category) {
+        kafkaProducer.sendMessage("product-categories-topic", productName, category);
+        return ResponseEntity.ok(String.format("상품 카테고리 등록 요청 완료 - 상품: %s, 카테고리: %s", productName, category));
+    }
+
+    @Operation(
+        summary = "상품 카테고리 삭제",
+        description = "product-categories-topic 에 삭제 레코드(tombstone)를 보냅니다. 매핑이 없는 상품의 매출은 일별 집계에 들어가지 않습니다."
+    )
+    @DeleteMapping("/product-categories/{productName}")
+    public ResponseEntity<String> deleteProductCategory(
+            @Parameter(description = "상품명", required = true, example = "노트북")
+            @PathVariable String productName) {
+        kafkaProducer.sendMessage("product-categories-topic", productName, null);
+        return ResponseEntity.ok("상품 카테고리 삭제 요청 완료 - 상품: " + productName);
+    }
+
+    @Operation(
+        summary = "상품 카테고리 캐시 통계",
+        description = "이 인스턴스의 상품 -> 카테고리 LRU 캐시 항목 수와 기동 이후 적중/미적중 수, 적중률을 조회합니다."
+    )
+    @GetMapping("/product-categories/cache")
+    public ResponseEntity<Map<String, Object>> getProductCategoryCacheStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", productCategoryService.cacheSize());
+        stats.put("hits", productCategoryService.hitCount());
+        stats.put("misses", productCategoryService.missCount());
+        stats.put("hitRate", productCategoryService.hitRate());
+        return ResponseEntity.ok(stats);
+    }
+
     @Operation(
         summary = "실시간 이벤트 카운팅 (5분 단위)",
         description = "이벤트 타입별 발생 횟수를 5분 단위로 실시간 카운팅합니다."
@@ -52,91 +105,77 @@ public class TimeWindowAggregationController {
     public ResponseEntity<String> recordEvent(
             @Parameter(description = "이벤트 타입", required = true, example = "USER_LOGIN")
             @RequestParam String eventType,
-            @Parameter(description = "이벤트 데이터", required = false, example = "user-123")
-            @RequestParam(required = false, defaultValue = "") String data) {
-        kafkaProducer.sendMessage("event-topic", eventType, data);
-        return ResponseEntity.ok(String.format("이벤트 기록 완료 - 타입: %s, 데이터: %s", eventType, data));
+            @Parameter(description = "이벤트 데이터 (PURCHASE 는 구매 금액)", required = false, example = "user-123")
+            @RequestParam(required = false, defaultValue = "") String data,
+            @Parameter(description = "사용자 ID (지정하면 \"userId|data\" 로 보내 사용자 세션 집계에 포함)", required = false, example = "user-1")
+            @RequestParam(required = false) String userId) {
+        String value = userId == null || userId.isBlank() ? data : userId + UserEvent.SEPARATOR + data;
+        kafkaProducer.sendMessage("event-topic", eventType, value);
+        return ResponseEntity.ok(String.format("이벤트 기록 완료 - 타입: %s, 데이터: %s", eventType, value));
     }
 
     @Operation(
         summary = "시간별 매출 대량 생성 (테스트용)",
-        description = "여러 상품의 매출을 한번에 생성하여 시간별 집계를 테스트합니다."
+        description = "부하 생성기 프리셋: 상품 5개(노트북, 마우스, ... Zipf 쏠림)에 초당 10건씩 10초 동안 매출을 보냅니다. "
+            + "규모를 바꾸려면 /api/load-generator/start 를 사용하세요."
     )
     @PostMapping("/hourly-sales/bulk")
     public ResponseEntity<String> bulkHourlySales() {
-        // 노트북 매출 3건
-        kafkaProducer.sendMessage("hourly-sales-topic", "노트북", "1500000");
-        kafkaProducer.sendMessage("hourly-sales-topic", "노트북", "1800000");
-        kafkaProducer.sendMessage("hourly-sales-topic", "노트북", "2000000");
-        
-        // 마우스 매출 2건
-        kafkaProducer.sendMessage("hourly-sales-topic", "마우스", "50000");
-        kafkaProducer.sendMessage("hourly-sales-topic", "마우스", "80000");
-        
-        // 키보드 매출 2건
-        kafkaProducer.sendMessage("hourly-sales-topic", "키보드", "120000");
-        kafkaProducer.sendMessage("hourly-sales-topic", "키보드", "150000");
-        
-        return ResponseEntity.ok("시간별 매출 데이터 7건 생성 완료\n" +
-                "- 노트북: 3건 (5,300,000원)\n" +
-                "- 마우스: 2건 (130,000원)\n" +
-                "- 키보드: 2건 (270,000원)\n" +
-                "콘솔에서 실시간 집계 결과를 확인하세요!");
+        return startPreset(LoadProfile.preset(LoadTarget.HOURLY_SALES, 5, 10, 10), "콘솔에서 실시간 집계 결과를 확인하세요!");
     }
 
     @Operation(
         summary = "일별 매출 대량 생성 (테스트용)",
-        description = "여러 카테고리의 매출을 한번에 생성하여 일별 집계를 테스트합니다."
+        description = "부하 생성기 프리셋: 카테고리 3개(전자제품, 의류, 식품)에 초당 10건씩 10초 동안 매출을 보냅니다. "
+            + "카테고리 보강을 켰다면 시간별 매출만 보내도 일별 집계에 반영됩니다."
     )
     @PostMapping("/daily-sales/bulk")
     public ResponseEntity<String> bulkDailySales() {
-        // 전자제품 매출 3건
-        kafkaProducer.sendMessage("daily-sales-topic", "전자제품", "1500000");
-        kafkaProducer.sendMessage("daily-sales-topic", "전자제품", "800000");
-        kafkaProducer.sendMessage("daily-sales-topic", "전자제품", "2200000");
-        
-        // 의류 매출 2건
-        kafkaProducer.sendMessage("daily-sales-topic", "의류", "150000");
-        kafkaProducer.sendMessage("daily-sales-topic", "의류", "200000");
-        
-        // 식품 매출 3건
-        kafkaProducer.sendMessage("daily-sales-topic", "식품", "50000");
-        kafkaProducer.sendMessage("daily-sales-topic", "식품", "30000");
-        kafkaProducer.sendMessage("daily-sales-topic", "식품", "70000");
-        
-        return ResponseEntity.ok("일별 매출 데이터 8건 생성 완료\n" +
-                "- 전자제품: 3건 (4,500,000원)\n" +
-                "- 의류: 2건 (350,000원)\n" +
-                "- 식품: 3건 (150,000원)\n" +
-                "콘솔에서 실시간 집계 결과를 확인하세요!");
+        return startPreset(LoadProfile.preset(LoadTarget.DAILY_SALES, 3, 10, 10), "콘솔에서 실시간 집계 결과를 확인하세요!");
     }
 
     @Operation(
         summary = "이벤트 대량 생성 (테스트용)",
-        description = "다양한 이벤트를 생성하여 5분 단위 카운팅을 테스트합니다."
+        description = "부하 생성기 프리셋: 이벤트 타입 3개(PAGE_VIEW/USER_LOGIN/PURCHASE)에 초당 20건씩 10초 동안 보냅니다."
     )
     @PostMapping("/event/bulk")
     public ResponseEntity<String> bulkEvents() {
-        // 로그인 이벤트 5건
-        for (int i = 1; i <= 5; i++) {
-            kafkaProducer.sendMessage("event-topic", "USER_LOGIN", "user-" + i);
-        }
-        
-        // 페이지뷰 이벤트 10건
-        for (int i = 1; i <= 10; i++) {
-            kafkaProducer.sendMessage("event-topic", "PAGE_VIEW", "/product/" + i);
-        }
-        
-        // 구매 이벤트 3건
-        for (int i = 1; i <= 3; i++) {
-            kafkaProducer.sendMessage("event-topic", "PURCHASE", "order-" + i);
+        return startPreset(LoadProfile.preset(LoadTarget.EVENT, 3, 20, 10), "콘솔에서 5분 단위 집계 결과를 확인하세요!");
+    }
+
+    @Operation(
+        summary = "사용자 세션 이벤트 생성 (테스트용)",
+        description = "사용자 3명의 로그인/페이지뷰/구매 이벤트를 생성합니다. inactivity-gap 동안 이벤트가 없으면 세션 결과가 나옵니다."
+    )
+    @PostMapping("/session/bulk")
+    public ResponseEntity<String> bulkSessionEvents() {
+        for (int user = 1; user <= 3; user++) {
+            String userId = "user-" + user;
+            kafkaProducer.sendMessage("event-topic", "USER_LOGIN", userId);
+            for (int page = 1; page <= user * 2; page++) {
+                kafkaProducer.sendMessage("event-topic", "PAGE_VIEW", userId + UserEvent.SEPARATOR + "/product/" + page);
+            }
+            kafkaProducer.sendMessage("event-topic", "PURCHASE", userId + UserEvent.SEPARATOR + (user * 10000));
         }
-        
-        return ResponseEntity.ok("이벤트 데이터 18건 생성 완료\n" +
-                "- USER_LOGIN: 5건\n" +
-                "- PAGE_VIEW: 10건\n" +
-                "- PURCHASE: 3건\n" +
-                "콘솔에서 5분 단위 집계 결과를 확인하세요!");
+
+        return ResponseEntity.ok("사용자 세션 이벤트 18건 생성 완료\n" +
+                "- user-1: 로그인 1, 페이지뷰 2, 구매 1 (10,000원)\n" +
+                "- user-2: 로그인 1, 페이지뷰 4, 구매 1 (20,000원)\n" +
+                "- user-3: 로그인 1, 페이지뷰 6, 구매 1 (30,000원)\n" +
+                "inactivity-gap 이 지난 뒤 콘솔에서 세션 결과를 확인하세요!");
     }
-}
 
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<String> handleConflict(IllegalStateException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+    }
+
+    private ResponseEntity<String> startPreset(LoadProfile profile, String hint) {
+        LoadReport report = loadGenerator.start(profile);
+        long total = (long) profile.getRatePerSecond() * profile.getDurationSeconds();
+        return ResponseEntity.ok(String.format("%s 데이터 %d건 생성 시작 (키 %d개, 초당 %d건 x %d초)\n"
+                + "진행/결과: GET /api/load-generator/status\n%s",
+            report.getTopic(), total, profile.getKeyCardinality(), profile.getRatePerSecond(),
+            profile.getDurationSeconds(), hint));
+    }
+}
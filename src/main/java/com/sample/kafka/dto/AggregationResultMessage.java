@@ -0,0 +1,16 @@
+package com.sample.kafka.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 출력 토픽에서 수신한 집계 결과 메시지 (DB 저장 대기)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AggregationResultMessage {
+    private AggregationResultType type;
+    private String message;
+}
@@ -0,0 +1,11 @@
+package com.sample.kafka.dto;
+
+/**
+ * 집계 결과 출력 토픽 종류
+ */
+public enum AggregationResultType {
+    HOURLY_SALES,
+    DAILY_SALES,
+    EVENT_COUNT,
+    USER_SESSION
+}
@@ -0,0 +1,20 @@
+package com.sample.kafka.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 여러 스트림즈 인스턴스에 걸친 Interactive Query 결과
+ * partial 이 true 이면 일부 인스턴스가 응답하지 않아 결과가 불완전하다.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DistributedQueryResult<T> {
+    private List<T> results;
+    private List<InstanceQueryStat> instances;
+    private boolean partial;
+}
@@ -0,0 +1,51 @@
+package com.sample.kafka.dto;
+
+import com.sample.kafka.entity.EventCountResult;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * 이벤트 카운트 조회 응답
+ * DB 에는 윈도우 경계를 epoch millis 로 저장하고, 사람이 읽는 시각은 응답을 만들 때만 포맷한다.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventCountResponse {
+
+    private static final DateTimeFormatter WINDOW_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")
+            .withZone(ZoneId.of("Asia/Seoul"));
+
+    private Long id;
+    private String eventType;
+    private String windowStart;
+    private String windowEnd;
+    private long windowStartMs;
+    private long windowEndMs;
+    private Long eventCount;
+    private Long lateCount;
+    private Long uniqueUsers;
+    private Boolean provisional;
+    private LocalDateTime createdAt;
+
+    public static EventCountResponse from(EventCountResult result) {
+        return new EventCountResponse(
+                result.getId(),
+                result.getEventType(),
+                WINDOW_FORMATTER.format(Instant.ofEpochMilli(result.getWindowStartMs())),
+                WINDOW_FORMATTER.format(Instant.ofEpochMilli(result.getWindowEndMs())),
+                result.getWindowStartMs(),
+                result.getWindowEndMs(),
+                result.getEventCount(),
+                result.getLateCount(),
+                result.getUniqueUsers(),
+                result.getProvisional(),
+                result.getCreatedAt());
+    }
+}
@@ -0,0 +1,19 @@
+package com.sample.kafka.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 분산 조회 시 인스턴스별 응답 시간과 결과 건수
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InstanceQueryStat {
+    private String host;
+    private boolean local;
+    private long latencyMs;
+    private int resultCount;
+    private String error;
+}
@@ -0,0 +1,16 @@
+package com.sample.kafka.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 키-값 상태 저장소(KTable) 조회 결과
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class KeyedValue {
+    private String key;
+    private Long value;
+}
@@ -0,0 +1,68 @@
+package com.sample.kafka.dto;
+
+import com.sample.kafka.producer.LoadTarget;
+import com.sample.kafka.producer.ValueDistribution;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 부하 생성 설정 (지정하지 않은 항목은 기본값)
+ *
+ * 지각 레코드는 이벤트 시각을 lateByMs 만큼 과거로, 순서 뒤바뀜 레코드는 0 ~ maxDisorderMs 만큼 과거로 보낸다.
+ * lateByMs 는 대상 윈도우 크기 + grace 보다 커야 실제로 지각 처리된다 (시간별 기본 2시간).
+ */
+@Data
+@NoArgsConstructor
+public class LoadProfile {
+    private LoadTarget target = LoadTarget.HOURLY_SALES;
+    private int ratePerSecond = 100;
+    private int durationSeconds = 60;
+    private int keyCardinality = 100;
+    private double zipfExponent = 1.0;
+    private ValueDistribution valueDistribution = ValueDistribution.LOG_NORMAL;
+    private double meanValue = 50_000;
+    private double stddevValue = 100_000;
+    private long minValue = 1_000;
+    private long maxValue = 5_000_000;
+    // 이벤트 값 "userId|금액" 의 사용자 수
+    private int userCardinality = 1_000;
+    private double outOfOrderRatio = 0.0;
+    private long maxDisorderMs = 60_000;
+    private double lateRatio = 0.0;
+    private long lateByMs = 2 * 60 * 60 * 1000L;
+    // 난수 시드 (0 이면 매번 다름)
+    private long seed = 0;
+
+    /**
+     * 테스트용 소량 프리셋 (몇 개 키에 몇 초 동안)
+     */
+    public static LoadProfile preset(LoadTarget target, int keyCardinality, int ratePerSecond, int durationSeconds) {
+        LoadProfile profile = new LoadProfile();
+        profile.setTarget(target);
+        profile.setKeyCardinality(keyCardinality);
+        profile.setRatePerSecond(ratePerSecond);
+        profile.setDurationSeconds(durationSeconds);
+        return profile;
+    }
+
+    public void validate() {
+        if (target == null || valueDistribution == null) {
+            throw new IllegalArgumentException("target 과 valueDistribution 은 필수입니다");
+        }
+        if (ratePerSecond < 1 || durationSeconds < 1 || keyCardinality < 1 || userCardinality < 1) {
+            throw new IllegalArgumentException("ratePerSecond, durationSeconds, keyCardinality, userCardinality 는 1 이상이어야 합니다");
+        }
+        if (zipfExponent < 0) {
+            throw new IllegalArgumentException("zipfExponent 는 0 이상이어야 합니다: " + zipfExponent);
+        }
+        if (minValue > maxValue || meanValue <= 0 || stddevValue < 0) {
+            throw new IllegalArgumentException("값 분포 설정 오류 - min ≤ max, mean > 0, stddev ≥ 0 이어야 합니다");
+        }
+        if (outOfOrderRatio < 0 || lateRatio < 0 || outOfOrderRatio + lateRatio > 1) {
+            throw new IllegalArgumentException("outOfOrderRatio + lateRatio 는 0 ~ 1 사이여야 합니다");
+        }
+        if (maxDisorderMs < 0 || lateByMs < 0) {
+            throw new IllegalArgumentException("maxDisorderMs, lateByMs 는 0 이상이어야 합니다");
+        }
+    }
+}
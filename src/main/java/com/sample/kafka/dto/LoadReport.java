@@ -0,0 +1,31 @@
+package com.sample.kafka.dto;
+
+import com.sample.kafka.producer.LoadTarget;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 부하 생성 진행/결과
+ * 전송 지연은 send 호출부터 브로커 ack 까지 (t-digest 추정, 밀리초)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoadReport {
+    private LoadTarget target;
+    private String topic;
+    private boolean running;
+    private int requestedRatePerSecond;
+    private long elapsedMs;
+    private long sent;
+    private long acked;
+    private long failed;
+    private long outOfOrder;
+    private long late;
+    private double achievedRatePerSecond;
+    private double sendLatencyP50Ms;
+    private double sendLatencyP95Ms;
+    private double sendLatencyP99Ms;
+    private double sendLatencyMaxMs;
+}
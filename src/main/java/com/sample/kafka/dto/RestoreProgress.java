@@ -0,0 +1,24 @@
+package com.sample.kafka.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 상태 저장소 파티션 하나의 복원 진행 상황
+ * 전체 건수는 changelog 오프셋 차이라 compaction 으로 빈 오프셋이 있으면 실제보다 크게 잡힌다.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RestoreProgress {
+    private String store;
+    private String topicPartition;
+    private long restoredRecords;
+    private long totalRecords;
+    private double progressPercent;
+    private double recordsPerSecond;
+    private long elapsedMs;
+    // 아직 복원 속도를 모르면 null
+    private Long etaMs;
+}
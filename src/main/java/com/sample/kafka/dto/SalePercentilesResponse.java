@@ -0,0 +1,23 @@
+package com.sample.kafka.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 기간(시간/일)별 판매 금액 분위수 조회 응답
+ * 분위수는 기간 안의 시간별 t-digest 를 병합한 추정값이고, salesCount 는 병합된 판매 건수
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalePercentilesResponse {
+    private String productName;
+    private String period;
+    private long periodStartMs;
+    private int windows;
+    private long salesCount;
+    private long p50;
+    private long p95;
+    private long p99;
+}
@@ -0,0 +1,22 @@
+package com.sample.kafka.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 윈도우별 상위 K 항목 조회 결과 (빈도는 Count-Min Sketch 추정값)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TopKResult {
+    private String target;
+    private long windowStart;
+    private long windowEnd;
+    // 윈도우 전체 가중치 합계 (추정 오차의 기준)
+    private long total;
+    private List<KeyedValue> items;
+}
@@ -0,0 +1,22 @@
+package com.sample.kafka.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 기간(시간/일)별 고유 사용자 수 조회 응답
+ * uniqueUsers 는 기간 안의 5분 윈도우 스케치를 병합한 추정값이고,
+ * windowSum 은 윈도우별 추정값의 단순 합 (여러 윈도우에 걸친 사용자를 중복 집계한 값, 비교용)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UniqueUsersResponse {
+    private String eventType;
+    private String period;
+    private long periodStartMs;
+    private int windows;
+    private long uniqueUsers;
+    private long windowSum;
+}
@@ -0,0 +1,28 @@
+package com.sample.kafka.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 윈도우 상태 저장소 조회 결과 (윈도우 경계는 epoch millis)
+ *
+ * 매출 저장소는 value 에 합계를, count / min / max / average 에 나머지 통계를 담는다 (카운트 저장소는 null).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WindowedValue {
+    private String key;
+    private long windowStart;
+    private long windowEnd;
+    private Long value;
+    private Long count;
+    private Long min;
+    private Long max;
+    private Double average;
+
+    public WindowedValue(String key, long windowStart, long windowEnd, Long value) {
+        this(key, windowStart, windowEnd, value, null, null, null, null);
+    }
+}
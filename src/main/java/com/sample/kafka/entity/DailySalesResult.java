@@ -10,7 +10,9 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "daily_sales_result")
+@Table(name = "daily_sales_result",
+       indexes = @Index(name = "idx_daily_sales_bucket", columnList = "bucketMonth, category"),
+       uniqueConstraints = @UniqueConstraint(name = "uk_daily_sales_window", columnNames = {"category", "salesDate"}))
 @Data
 @Builder
 @NoArgsConstructor
@@ -27,15 +29,42 @@ public class DailySalesResult {
     @Column(nullable = false)
     private LocalDate salesDate;
 
-    @Column(nullable = false)
+    // 확정/잠정 결과의 총매출 (정정 결과가 먼저 와서 만든 행이면 null)
     private Long totalSales;
 
+    // 판매 건수와 건당 최소/최대 금액 (확정/잠정 결과로 갱신, 지각분은 포함하지 않음)
+    private Long salesCount;
+
+    private Long minSale;
+
+    private Long maxSale;
+
+    // grace 이후 도착한 지각 매출 (정정 모드에서만 채워짐, 최종 매출 = totalSales + lateSales)
+    @Builder.Default
+    @Column(nullable = false)
+    private Long lateSales = 0L;
+
+    // 잠정 결과 여부 (early emit 중이면 true, 윈도우가 닫힌 확정 결과를 받으면 false, 아직 본 결과가 없으면 null)
+    private Boolean provisional;
+
+    // 월 단위 버킷 (yyyyMM) - 보관 기간 정리 및 기간 조회 범위 축소용
+    @Column(nullable = false)
+    private Integer bucketMonth;
+
     @Column(nullable = false)
     private LocalDateTime createdAt;
 
+    /**
+     * 건당 평균 금액 (totalSales / salesCount, 저장하지 않고 계산)
+     */
+    public Double getAverageSale() {
+        return salesCount == null || salesCount == 0 ? null : (double) totalSales / salesCount;
+    }
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
+        bucketMonth = TimeBuckets.monthOf(salesDate);
     }
 }
 
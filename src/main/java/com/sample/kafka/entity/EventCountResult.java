@@ -9,7 +9,9 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "event_count_result")
+@Table(name = "event_count_result",
+       indexes = @Index(name = "idx_event_count_bucket", columnList = "bucketMonth, eventType"),
+       uniqueConstraints = @UniqueConstraint(name = "uk_event_count_window", columnNames = {"eventType", "windowStartMs"}))
 @Data
 @Builder
 @NoArgsConstructor
@@ -23,21 +25,45 @@ public class EventCountResult {
     @Column(nullable = false)
     private String eventType;
 
+    // 윈도우 경계 (epoch millis, windowedKey.window() 값 그대로)
     @Column(nullable = false)
-    private LocalDateTime windowStart;
+    private Long windowStartMs;
 
     @Column(nullable = false)
-    private LocalDateTime windowEnd;
+    private Long windowEndMs;
 
-    @Column(nullable = false)
+    // 확정/잠정 결과의 발생횟수 (고유 사용자·정정 결과가 먼저 와서 만든 행이면 null)
     private Long eventCount;
 
+    // grace 이후 도착한 지각 이벤트 수 (정정 모드에서만 채워짐)
+    @Builder.Default
+    @Column(nullable = false)
+    private Long lateCount = 0L;
+
+    // 윈도우 내 고유 사용자 수 추정값 (HyperLogLog)
+    @Builder.Default
+    @Column(nullable = false)
+    private Long uniqueUsers = 0L;
+
+    // 고유 사용자 HyperLogLog 스케치 (HyperLogLogSerde 형식) - 여러 윈도우를 병합해 기간별 고유 사용자 수를 계산
+    @Lob
+    @Column(length = 65538)
+    private byte[] userSketch;
+
+    // 잠정 결과 여부 (early emit 중이면 true, 윈도우가 닫힌 확정 결과를 받으면 false, 아직 본 결과가 없으면 null)
+    private Boolean provisional;
+
+    // 월 단위 버킷 (yyyyMM) - 보관 기간 정리 및 기간 조회 범위 축소용
+    @Column(nullable = false)
+    private Integer bucketMonth;
+
     @Column(nullable = false)
     private LocalDateTime createdAt;
 
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
+        bucketMonth = TimeBuckets.monthOfEpochMilli(windowStartMs);
     }
 }
 
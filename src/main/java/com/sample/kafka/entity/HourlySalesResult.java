@@ -1,5 +1,6 @@
 package com.sample.kafka.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -9,7 +10,9 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "hourly_sales_result")
+@Table(name = "hourly_sales_result",
+       indexes = @Index(name = "idx_hourly_sales_bucket", columnList = "bucketMonth, productName"),
+       uniqueConstraints = @UniqueConstraint(name = "uk_hourly_sales_window", columnNames = {"productName", "windowStart"}))
 @Data
 @Builder
 @NoArgsConstructor
@@ -29,15 +32,55 @@ public class HourlySalesResult {
     @Column(nullable = false)
     private LocalDateTime windowEnd;
 
-    @Column(nullable = false)
+    // 확정/잠정 결과의 총매출 (분위수·정정 결과가 먼저 와서 만든 행이면 null)
     private Long totalSales;
 
+    // 판매 건수와 건당 최소/최대 금액 (확정/잠정 결과로 갱신, 지각분은 포함하지 않음)
+    private Long salesCount;
+
+    private Long minSale;
+
+    private Long maxSale;
+
+    // 건당 판매 금액 분위수 (t-digest 추정값, 윈도우가 닫힐 때 채워짐)
+    private Long p50Sale;
+
+    private Long p95Sale;
+
+    private Long p99Sale;
+
+    // 판매 금액 t-digest (TDigestSerde 형식) - 여러 시간대를 병합해 일별 분위수를 계산
+    @JsonIgnore
+    @Lob
+    @Column(length = 65536)
+    private byte[] saleDigest;
+
+    // grace 이후 도착한 지각 매출 (정정 모드에서만 채워짐, 최종 매출 = totalSales + lateSales)
+    @Builder.Default
+    @Column(nullable = false)
+    private Long lateSales = 0L;
+
+    // 잠정 결과 여부 (early emit 중이면 true, 윈도우가 닫힌 확정 결과를 받으면 false, 아직 본 결과가 없으면 null)
+    private Boolean provisional;
+
+    // 월 단위 버킷 (yyyyMM) - 보관 기간 정리 및 기간 조회 범위 축소용
+    @Column(nullable = false)
+    private Integer bucketMonth;
+
     @Column(nullable = false)
     private LocalDateTime createdAt;
 
+    /**
+     * 건당 평균 금액 (totalSales / salesCount, 저장하지 않고 계산)
+     */
+    public Double getAverageSale() {
+        return salesCount == null || salesCount == 0 ? null : (double) totalSales / salesCount;
+    }
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
+        bucketMonth = TimeBuckets.monthOf(windowStart);
     }
 }
 
@@ -0,0 +1,37 @@
+package com.sample.kafka.entity;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+
+/**
+ * 집계 결과 테이블의 월 단위 버킷 (yyyyMM)
+ *
+ * 보관 기간 정리는 버킷 단위로 한 번에 삭제하고,
+ * 기간 조회는 버킷 범위로 먼저 좁힌 뒤 시각 조건을 적용한다.
+ */
+public final class TimeBuckets {
+
+    private static final ZoneId ZONE = ZoneId.of("Asia/Seoul");
+
+    private TimeBuckets() {
+    }
+
+    public static int monthOf(YearMonth yearMonth) {
+        return yearMonth.getYear() * 100 + yearMonth.getMonthValue();
+    }
+
+    public static int monthOf(LocalDate date) {
+        return monthOf(YearMonth.from(date));
+    }
+
+    public static int monthOf(LocalDateTime dateTime) {
+        return monthOf(YearMonth.from(dateTime));
+    }
+
+    public static int monthOfEpochMilli(long epochMilli) {
+        return monthOf(YearMonth.from(Instant.ofEpochMilli(epochMilli).atZone(ZONE)));
+    }
+}
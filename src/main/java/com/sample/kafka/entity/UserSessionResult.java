@@ -0,0 +1,65 @@
+package com.sample.kafka.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "user_session_result",
+       indexes = @Index(name = "idx_user_session_bucket", columnList = "bucketMonth, userId"),
+       uniqueConstraints = @UniqueConstraint(name = "uk_user_session", columnNames = {"userId", "sessionStartMs"}))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSessionResult {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String userId;
+
+    // 세션 경계 (epoch millis, 첫 이벤트 ~ 마지막 이벤트 시각)
+    @Column(nullable = false)
+    private Long sessionStartMs;
+
+    @Column(nullable = false)
+    private Long sessionEndMs;
+
+    @Column(nullable = false)
+    private Long durationSeconds;
+
+    @Column(nullable = false)
+    private Long eventCount;
+
+    @Column(nullable = false)
+    private Long loginCount;
+
+    @Column(nullable = false)
+    private Long pageViewCount;
+
+    @Column(nullable = false)
+    private Long purchaseCount;
+
+    @Column(nullable = false)
+    private Long purchaseTotal;
+
+    // 월 단위 버킷 (yyyyMM) - 보관 기간 정리 및 기간 조회 범위 축소용
+    @Column(nullable = false)
+    private Integer bucketMonth;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        bucketMonth = TimeBuckets.monthOfEpochMilli(sessionStartMs);
+    }
+}
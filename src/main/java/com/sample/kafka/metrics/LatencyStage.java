@@ -0,0 +1,37 @@
+package com.sample.kafka.metrics;
+
+/**
+ * REST 수신부터 DB 저장까지의 지연 구간
+ *
+ * 각 구간은 레코드 헤더에 찍힌 시각(TraceHeaders)의 차이로 계산한다.
+ */
+public enum LatencyStage {
+
+    /** 프로듀서 전송 ~ 스트림즈 수신 (origin-ts → stream-in-ts) */
+    PRODUCE("produce"),
+
+    /** 스트림즈 수신 레코드 한 건의 집계/버퍼 반영 처리 시간 */
+    STREAM_PROCESSING("stream-processing"),
+
+    /** suppress 버퍼에서 윈도우가 닫히기를 기다린 시간 (stream-in-ts → emit-ts) */
+    SUPPRESSION_WAIT("suppression-wait"),
+
+    /** 집계 결과 방출 ~ 결과 리스너 수신 (emit-ts → 수신) */
+    OUTPUT_CONSUME("output-consume"),
+
+    /** 결과 리스너 수신 ~ DB 커밋 (write-behind 대기 포함) */
+    DB_COMMIT("db-commit"),
+
+    /** REST 수신 ~ DB 커밋 전체 (origin-ts → 커밋) */
+    TOTAL("total");
+
+    private final String tag;
+
+    LatencyStage(String tag) {
+        this.tag = tag;
+    }
+
+    public String tag() {
+        return tag;
+    }
+}
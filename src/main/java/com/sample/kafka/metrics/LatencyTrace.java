@@ -0,0 +1,18 @@
+package com.sample.kafka.metrics;
+
+import java.util.Map;
+
+/**
+ * 결과 리스너가 수신한 집계 결과의 추적 시각
+ * REST 를 거치지 않고 토픽에 직접 들어온 레코드는 헤더가 없어 null 이다.
+ */
+public record LatencyTrace(Long originTs, Long streamInTs, Long emitTs, long receivedAt) {
+
+    public static LatencyTrace from(Map<String, Object> headers, long receivedAt) {
+        return new LatencyTrace(
+                TraceHeaders.read(headers, TraceHeaders.ORIGIN_TS),
+                TraceHeaders.read(headers, TraceHeaders.STREAM_IN_TS),
+                TraceHeaders.read(headers, TraceHeaders.EMIT_TS),
+                receivedAt);
+    }
+}
@@ -0,0 +1,312 @@
+package com.sample.kafka.metrics;
+
+import com.sample.kafka.dto.AggregationResultType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 파이프라인 메트릭 (Prometheus: /actuator/prometheus)
+ *
+ * 레코드마다 호출되는 스트림 카운터는 호출자가 스트림 단위로 한 번 받아 두고 재사용한다.
+ * 전송/저장 단위 메트릭은 MeterRegistry 가 같은 이름과 태그의 미터를 재사용한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class PipelineMetrics {
+
+    private final MeterRegistry registry;
+
+    /**
+     * 스트림 입력 레코드 수 (rate 는 Prometheus 에서 계산)
+     */
+    public Counter streamRecordsIn(String stream) {
+        return Counter.builder("kafka.sample.stream.records")
+                .description("스트림 토폴로지 입출력 레코드 수")
+                .tag("stream", stream)
+                .tag("direction", "in")
+                .register(registry);
+    }
+
+    /**
+     * 스트림 출력 레코드 수
+     */
+    public Counter streamRecordsOut(String stream) {
+        return Counter.builder("kafka.sample.stream.records")
+                .description("스트림 토폴로지 입출력 레코드 수")
+                .tag("stream", stream)
+                .tag("direction", "out")
+                .register(registry);
+    }
+
+    /**
+     * 상태 저장소(KTable) 갱신 수 - 출력 레코드 수와 비교해 방출 억제 비율을 본다
+     */
+    public Counter streamUpdates(String stream) {
+        return Counter.builder("kafka.sample.stream.updates")
+                .description("스트림 집계 상태 갱신 수")
+                .tag("stream", stream)
+                .register(registry);
+    }
+
+    /**
+     * 윈도우 집계 결과 방출 수
+     */
+    public Counter windowEmits(String stream) {
+        return Counter.builder("kafka.sample.stream.window.emits")
+                .description("윈도우가 닫혀 방출된 집계 결과 수")
+                .tag("stream", stream)
+                .register(registry);
+    }
+
+    /**
+     * 윈도우가 열려 있는 동안 방출한 잠정 결과 수
+     */
+    public Counter provisionalEmits(String stream) {
+        return Counter.builder("kafka.sample.stream.window.provisional.emits")
+                .description("early emit 모드로 방출한 잠정 집계 결과 수")
+                .tag("stream", stream)
+                .register(registry);
+    }
+
+    /**
+     * 윈도우 종료 + grace 이후 도착해 side output 으로 보낸 지각 레코드 수
+     */
+    public Counter lateRecords(String stream) {
+        return Counter.builder("kafka.sample.stream.late.records")
+                .description("grace 이후 도착한 지각 레코드 수")
+                .tag("stream", stream)
+                .register(registry);
+    }
+
+    /**
+     * 핫 키로 판정돼 하위 키로 분산된 레코드 수
+     */
+    public Counter hotKeyRecords(String stream) {
+        return Counter.builder("kafka.sample.stream.hot.key.records")
+                .description("핫 키 2단계 집계에서 하위 키로 분산된 레코드 수")
+                .tag("stream", stream)
+                .register(registry);
+    }
+
+    /**
+     * 병합 윈도우가 닫힌 뒤 도착해 버려진 핫 키 부분 집계 수 (0 이 아니면 merge-grace 를 늘려야 함)
+     */
+    public Counter hotKeyMergeDropped(String stream) {
+        return Counter.builder("kafka.sample.stream.hot.key.merge.dropped")
+                .description("핫 키 2단계 집계에서 병합 윈도우가 닫힌 뒤 도착해 버려진 부분 집계 수")
+                .tag("stream", stream)
+                .register(registry);
+    }
+
+    /**
+     * 상품 -> 카테고리 캐시 조회 수 (적중률 = hit / 전체, Prometheus 에서 계산)
+     */
+    public Counter categoryCacheLookups(boolean hit) {
+        return Counter.builder("kafka.sample.category.cache.lookups")
+                .description("상품 카테고리 캐시 조회 수")
+                .tag("result", hit ? "hit" : "miss")
+                .register(registry);
+    }
+
+    /**
+     * 카테고리 매핑이 없어 카테고리 집계에 넣지 못한 매출 레코드 수
+     */
+    public Counter categoryUnmappedRecords() {
+        return Counter.builder("kafka.sample.category.unmapped.records")
+                .description("카테고리 매핑이 없는 상품의 매출 레코드 수")
+                .register(registry);
+    }
+
+    public void gaugeCategoryCacheSize(Supplier<Number> size) {
+        Gauge.builder("kafka.sample.category.cache.size", size)
+                .description("상품 카테고리 캐시 항목 수")
+                .register(registry);
+    }
+
+    /**
+     * 필터 규칙별 적중 수
+     */
+    public Counter filterRuleHits(String ruleId) {
+        return Counter.builder("kafka.sample.filter.rule.hits")
+                .description("필터 스트림 규칙별 적중 메시지 수")
+                .tag("rule", ruleId)
+                .register(registry);
+    }
+
+    /**
+     * 프로듀서 전송 지연 (send 호출 ~ 브로커 ack)
+     */
+    public void recordSend(String topic, long elapsedNanos, boolean success) {
+        Timer.builder("kafka.sample.producer.send")
+                .description("KafkaProducer 전송 지연")
+                .tag("topic", topic)
+                .tag("result", success ? "success" : "failure")
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        if (!success) {
+            Counter.builder("kafka.sample.producer.send.failures")
+                    .description("KafkaProducer 전송 실패 수")
+                    .tag("topic", topic)
+                    .register(registry)
+                    .increment();
+        }
+    }
+
+    /**
+     * 이벤트 시각(출력 레코드 타임스탬프)부터 DB 저장 완료까지의 지연
+     */
+    public void recordEndToEndLag(AggregationResultType pipeline, long lagMs) {
+        Timer.builder("kafka.sample.persistence.end.to.end.lag")
+                .description("이벤트 시각부터 DB 저장 완료까지의 지연")
+                .tag("pipeline", pipeline.name())
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(Math.max(lagMs, 0), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 집계 결과 일괄 저장 건수와 트랜잭션(커밋 포함) 소요 시간
+     */
+    public void recordPersistenceBatch(int batchSize, long elapsedNanos) {
+        DistributionSummary.builder("kafka.sample.persistence.batch.size")
+                .description("AggregationStorageService 일괄 저장 건수")
+                .register(registry)
+                .record(batchSize);
+        Timer.builder("kafka.sample.persistence.batch.commit")
+                .description("AggregationStorageService 일괄 저장 트랜잭션 소요 시간")
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 지연 구간별 타이머 (레코드마다 기록하는 스트림즈 프로세서가 받아 두고 재사용)
+     */
+    public Timer stageTimer(AggregationResultType pipeline, LatencyStage stage) {
+        return Timer.builder("kafka.sample.latency.stage")
+                .description("REST 수신부터 DB 저장까지의 구간별 지연")
+                .tag("pipeline", pipeline.name())
+                .tag("stage", stage.tag())
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    public void recordStage(AggregationResultType pipeline, LatencyStage stage, long millis) {
+        stageTimer(pipeline, stage).record(Math.max(millis, 0), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * DB 커밋 시점에 결과 리스너 이후 구간과 전체 지연을 기록
+     */
+    public void recordTrace(AggregationResultType pipeline, LatencyTrace trace, long committedAt) {
+        if (trace.emitTs() != null) {
+            recordStage(pipeline, LatencyStage.OUTPUT_CONSUME, trace.receivedAt() - trace.emitTs());
+        }
+        recordStage(pipeline, LatencyStage.DB_COMMIT, committedAt - trace.receivedAt());
+        if (trace.originTs() != null) {
+            recordStage(pipeline, LatencyStage.TOTAL, committedAt - trace.originTs());
+        }
+    }
+
+    /**
+     * 리밸런스 한 번의 처리 중단 시간
+     * 리스너는 첫 파티션 회수 ~ 할당 완료, 스트림즈는 REBALANCING ~ RUNNING 구간이다.
+     * cooperative 리밸런스에서 회수된 파티션이 없으면 처리가 멈추지 않으므로 0 으로 기록된다.
+     */
+    public void recordRebalancePause(String client, String group, long pauseMs) {
+        Timer.builder("kafka.sample.rebalance.pause")
+                .description("리밸런스 한 번의 처리 중단 시간")
+                .tag("client", client)
+                .tag("group", group)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(Math.max(pauseMs, 0), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 리스너 리밸런스 한 번에 회수된 파티션 수 (eager 는 매번 전체, cooperative 는 옮겨지는 파티션만)
+     */
+    public void recordRebalanceRevoked(String group, int partitions) {
+        DistributionSummary.builder("kafka.sample.rebalance.revoked.partitions")
+                .description("리스너 리밸런스 한 번에 회수된 파티션 수")
+                .tag("group", group)
+                .register(registry)
+                .record(partitions);
+    }
+
+    /**
+     * 저장소별 changelog 복원 레코드 수 (rate 로 복원 속도 확인)
+     */
+    public Counter restoredRecords(String store) {
+        return Counter.builder("kafka.sample.streams.restore.records")
+                .description("상태 저장소 changelog 복원 레코드 수")
+                .tag("store", store)
+                .register(registry);
+    }
+
+    /**
+     * 저장소 파티션 하나의 복원 소요 시간
+     */
+    public void recordRestore(String store, long elapsedMs) {
+        Timer.builder("kafka.sample.streams.restore")
+                .description("상태 저장소 파티션별 복원 소요 시간")
+                .tag("store", store)
+                .register(registry)
+                .record(Math.max(elapsedMs, 0), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 진행 중인 복원의 남은 레코드 수
+     */
+    public void gaugeRestoreRemaining(Supplier<Number> remaining) {
+        Gauge.builder("kafka.sample.streams.restore.remaining", remaining)
+                .description("진행 중인 상태 저장소 복원의 남은 레코드 수")
+                .register(registry);
+    }
+
+    /**
+     * 병렬 리스너에서 오프셋 커밋을 기다리는 레코드 수 (처리 중 + 앞 레코드를 기다리는 완료 레코드)
+     */
+    public void gaugeListenerInFlight(Supplier<Number> inFlight) {
+        Gauge.builder("kafka.sample.listener.parallel.in.flight", inFlight)
+                .description("병렬 리스너의 커밋 대기 레코드 수")
+                .register(registry);
+    }
+
+    /**
+     * write-behind 현재 배치의 연속 저장 실패 횟수 (0 보다 크게 유지되면 저장이 막혀 있는 것)
+     */
+    public void gaugeWriteBehindFailedAttempts(Supplier<Number> attempts) {
+        Gauge.builder("kafka.sample.persistence.write.behind.failed.attempts", attempts)
+                .description("write-behind 배치의 연속 저장 실패 횟수")
+                .register(registry);
+    }
+
+    /**
+     * 저장할 수 없어 dead letter 토픽으로 보낸 집계 결과 수
+     */
+    public Counter writeBehindDeadLetters(AggregationResultType type) {
+        return Counter.builder("kafka.sample.persistence.write.behind.dead.letters")
+                .description("저장 실패로 dead letter 토픽에 보낸 집계 결과 수")
+                .tag("pipeline", type.name())
+                .register(registry);
+    }
+
+    /**
+     * write-behind 큐 적재 건수
+     */
+    public void gaugeWriteBehindQueue(Collection<?> queue) {
+        registry.gaugeCollectionSize("kafka.sample.persistence.write.behind.queue", Tags.empty(), queue);
+    }
+}
@@ -0,0 +1,61 @@
+package com.sample.kafka.metrics;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * 지연 추적용 레코드 헤더
+ *
+ * 값은 epoch millis 를 10진 문자열로 저장한다 (콘솔 컨슈머로 바로 확인 가능).
+ * 스트림즈의 집계/suppress 는 마지막으로 반영된 레코드의 헤더를 결과 레코드에 그대로 실어 보내므로,
+ * 출력 토픽의 헤더는 해당 윈도우에 마지막으로 들어온 입력 레코드의 추적 정보가 된다.
+ */
+public final class TraceHeaders {
+
+    /** KafkaProducer 가 전송 시 찍는 시각 */
+    public static final String ORIGIN_TS = "origin-ts";
+
+    /** 스트림즈가 입력 레코드를 처음 처리한 시각 */
+    public static final String STREAM_IN_TS = "stream-in-ts";
+
+    /** suppress 가 집계 결과를 방출한 시각 */
+    public static final String EMIT_TS = "emit-ts";
+
+    private TraceHeaders() {
+    }
+
+    public static void stamp(Headers headers, String key, long epochMillis) {
+        headers.remove(key);
+        headers.add(key, Long.toString(epochMillis).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 카프카 레코드 헤더에서 시각 조회 (없거나 형식이 잘못되면 null)
+     */
+    public static Long read(Headers headers, String key) {
+        Header header = headers.lastHeader(key);
+        return header == null ? null : parse(header.value());
+    }
+
+    /**
+     * 스프링 메시지 헤더에서 시각 조회 (@KafkaListener 의 @Headers, 매핑되지 않은 헤더는 byte[])
+     */
+    public static Long read(Map<String, Object> headers, String key) {
+        Object value = headers.get(key);
+        return value instanceof byte[] bytes ? parse(bytes) : null;
+    }
+
+    private static Long parse(byte[] value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(new String(value, StandardCharsets.UTF_8));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package com.sample.kafka.producer;
 
+import com.sample.kafka.metrics.PipelineMetrics;
+import com.sample.kafka.metrics.TraceHeaders;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
@@ -14,13 +17,16 @@ import java.util.concurrent.CompletableFuture;
 public class KafkaProducer {
 
     private final KafkaTemplate<String, String> kafkaTemplate;
+    private final PipelineMetrics metrics;
 
     public void sendMessage(String topic, String message) {
         log.info("메시지 전송 시작 - Topic: {}, Message: {}", topic, message);
         
-        CompletableFuture<SendResult<String, String>> future = kafkaTemplate.send(topic, message);
+        long startNanos = System.nanoTime();
+        CompletableFuture<SendResult<String, String>> future = kafkaTemplate.send(traced(new ProducerRecord<>(topic, message)));
         
         future.whenComplete((result, ex) -> {
+            metrics.recordSend(topic, System.nanoTime() - startNanos, ex == null);
             if (ex == null) {
                 log.info("메시지 전송 성공 - Topic: {}, Offset: {}, Partition: {}", 
                     topic, 
@@ -35,9 +41,11 @@ public class KafkaProducer {
     public void sendMessage(String topic, String key, String message) {
         log.info("메시지 전송 시작 - Topic: {}, Key: {}, Message: {}", topic, key, message);
         
-        CompletableFuture<SendResult<String, String>> future = kafkaTemplate.send(topic, key, message);
+        long startNanos = System.nanoTime();
+        CompletableFuture<SendResult<String, String>> future = kafkaTemplate.send(traced(new ProducerRecord<>(topic, key, message)));
         
         future.whenComplete((result, ex) -> {
+            metrics.recordSend(topic, System.nanoTime() - startNanos, ex == null);
             if (ex == null) {
                 log.info("메시지 전송 성공 - Topic: {}, Key: {}, Offset: {}, Partition: {}", 
                     topic, 
@@ -49,6 +57,21 @@ public class KafkaProducer {
             }
         });
     }
-}
 
+    /**
+     * 대량 전송용: 레코드별 로그 없이 보내고 ack 완료 future 를 돌려준다 (이벤트 시각 등 레코드를 직접 구성)
+     */
+    public CompletableFuture<SendResult<String, String>> send(ProducerRecord<String, String> record) {
+        long startNanos = System.nanoTime();
+        return kafkaTemplate.send(traced(record))
+            .whenComplete((result, ex) -> metrics.recordSend(record.topic(), System.nanoTime() - startNanos, ex == null));
+    }
 
+    /**
+     * 지연 추적 시작 시각(origin-ts) 헤더를 찍는다
+     */
+    private ProducerRecord<String, String> traced(ProducerRecord<String, String> record) {
+        TraceHeaders.stamp(record.headers(), TraceHeaders.ORIGIN_TS, System.currentTimeMillis());
+        return record;
+    }
+}
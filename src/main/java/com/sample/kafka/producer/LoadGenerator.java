@@ -0,0 +1,207 @@
+package com.sample.kafka.producer;
+
+import com.sample.kafka.dto.LoadProfile;
+import com.sample.kafka.dto.LoadReport;
+import com.sample.kafka.streams.TDigest;
+import com.sample.kafka.streams.UserEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.stereotype.Component;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 입력 토픽용 합성 부하 생성기 (한 번에 하나만 실행)
+ *
+ * 목표 초당 건수로 durationSeconds 동안 KafkaProducer 로 보낸다. 1ms 마다 "지금까지 보냈어야 할 건수" 까지 몰아서
+ * 보내므로 높은 전송률에서도 레코드마다 잠들지 않고, 전송이 밀리면 다음 주기에 따라잡는다.
+ * 키는 Zipf 분포, 값은 ValueDistribution 으로 뽑고, 일부 레코드는 이벤트 시각을 과거로 보내 순서 뒤바뀜/지각을 만든다.
+ * 진행 중에도 status() 로 실제 처리량과 전송 지연 분위수를 볼 수 있다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LoadGenerator {
+
+    private static final long PACING_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long ACK_WAIT_NANOS = TimeUnit.SECONDS.toNanos(30);
+    private static final int LATENCY_COMPRESSION = 100;
+
+    private final KafkaProducer kafkaProducer;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "load-generator");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicReference<LoadRun> current = new AtomicReference<>();
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        stop();
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * @throws IllegalArgumentException 설정 오류
+     * @throws IllegalStateException    이미 실행 중
+     */
+    public LoadReport start(LoadProfile profile) {
+        profile.validate();
+        LoadRun run = new LoadRun(profile);
+        LoadRun previous = current.get();
+        if ((previous != null && previous.running) || !current.compareAndSet(previous, run)) {
+            throw new IllegalStateException("부하 생성이 이미 실행 중입니다");
+        }
+        log.info("🚀 [부하 생성 시작] 토픽: {}, 초당 {}건 x {}초, 키 {}개 (Zipf {}), 값 {}, 순서 뒤바뀜 {}, 지각 {}",
+            profile.getTarget().topic(), profile.getRatePerSecond(), profile.getDurationSeconds(),
+            profile.getKeyCardinality(), profile.getZipfExponent(), profile.getValueDistribution(),
+            profile.getOutOfOrderRatio(), profile.getLateRatio());
+        executor.execute(() -> generate(run));
+        return run.report();
+    }
+
+    /**
+     * 실행 중인 부하 생성을 멈춘다 (이미 보낸 레코드의 ack 는 기다린다)
+     */
+    public LoadReport stop() {
+        LoadRun run = current.get();
+        if (run == null) {
+            return null;
+        }
+        run.stopRequested = true;
+        return run.report();
+    }
+
+    /**
+     * 마지막(또는 진행 중인) 실행의 결과 (실행한 적이 없으면 null)
+     */
+    public LoadReport status() {
+        LoadRun run = current.get();
+        return run == null ? null : run.report();
+    }
+
+    private void generate(LoadRun run) {
+        LoadProfile profile = run.profile;
+        LoadTarget target = profile.getTarget();
+        Random random = profile.getSeed() == 0 ? new Random() : new Random(profile.getSeed());
+        ZipfSampler keys = new ZipfSampler(profile.getKeyCardinality(), profile.getZipfExponent());
+        long total = (long) profile.getRatePerSecond() * profile.getDurationSeconds();
+
+        try {
+            while (run.sent.get() < total && !run.stopRequested) {
+                double elapsedSeconds = (System.nanoTime() - run.startNanos) / 1e9;
+                long due = Math.min(total, (long) (elapsedSeconds * profile.getRatePerSecond()) + 1);
+                while (run.sent.get() < due && !run.stopRequested) {
+                    send(run, target, random, keys);
+                }
+                LockSupport.parkNanos(PACING_NANOS);
+            }
+
+            long ackDeadline = System.nanoTime() + ACK_WAIT_NANOS;
+            while (run.acked.get() + run.failed.get() < run.sent.get() && System.nanoTime() < ackDeadline) {
+                LockSupport.parkNanos(PACING_NANOS);
+            }
+        } catch (RuntimeException e) {
+            log.error("[부하 생성 중단] 토픽: {}", target.topic(), e);
+        } finally {
+            run.endNanos = System.nanoTime();
+            run.running = false;
+            LoadReport report = run.report();
+            log.info("🏁 [부하 생성 완료] 토픽: {}, 전송 {}건 (실패 {}), {}ms, 초당 {}건, 전송 지연 p50/p95/p99/max: {}/{}/{}/{}ms",
+                report.getTopic(), report.getSent(), report.getFailed(), report.getElapsedMs(),
+                Math.round(report.getAchievedRatePerSecond()),
+                report.getSendLatencyP50Ms(), report.getSendLatencyP95Ms(),
+                report.getSendLatencyP99Ms(), report.getSendLatencyMaxMs());
+        }
+    }
+
+    private void send(LoadRun run, LoadTarget target, Random random, ZipfSampler keys) {
+        LoadProfile profile = run.profile;
+        String key = target.key(keys.sample(random));
+        long amount = profile.getValueDistribution().sample(random, profile.getMeanValue(), profile.getStddevValue(),
+            profile.getMinValue(), profile.getMaxValue());
+        String value = target == LoadTarget.EVENT
+            ? "user-" + (random.nextInt(profile.getUserCardinality()) + 1) + UserEvent.SEPARATOR + amount
+            : Long.toString(amount);
+
+        long timestamp = System.currentTimeMillis();
+        double roll = random.nextDouble();
+        if (roll < profile.getLateRatio()) {
+            timestamp -= profile.getLateByMs();
+            run.late.incrementAndGet();
+        } else if (roll < profile.getLateRatio() + profile.getOutOfOrderRatio()) {
+            timestamp -= (long) (random.nextDouble() * profile.getMaxDisorderMs());
+            run.outOfOrder.incrementAndGet();
+        }
+
+        long sendNanos = System.nanoTime();
+        run.sent.incrementAndGet();
+        kafkaProducer.send(new ProducerRecord<>(target.topic(), null, timestamp, key, value))
+            .whenComplete((result, ex) -> run.complete(System.nanoTime() - sendNanos, ex == null));
+    }
+
+    /**
+     * 실행 한 번의 진행 상태 (생성 스레드와 프로듀서 콜백 스레드가 함께 갱신)
+     */
+    private static final class LoadRun {
+        private final LoadProfile profile;
+        private final long startNanos = System.nanoTime();
+        private final AtomicLong sent = new AtomicLong();
+        private final AtomicLong acked = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicLong outOfOrder = new AtomicLong();
+        private final AtomicLong late = new AtomicLong();
+        private final TDigest latencyMs = new TDigest(LATENCY_COMPRESSION);
+        private volatile boolean running = true;
+        private volatile boolean stopRequested;
+        private volatile long endNanos;
+
+        private LoadRun(LoadProfile profile) {
+            this.profile = profile;
+        }
+
+        private void complete(long elapsedNanos, boolean success) {
+            if (!success) {
+                failed.incrementAndGet();
+                return;
+            }
+            acked.incrementAndGet();
+            synchronized (latencyMs) {
+                latencyMs.add(elapsedNanos / 1e6);
+            }
+        }
+
+        private LoadReport report() {
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis((running ? System.nanoTime() : endNanos) - startNanos);
+            double achievedRate = elapsedMs == 0 ? 0 : acked.get() * 1000.0 / elapsedMs;
+            double p50;
+            double p95;
+            double p99;
+            double max;
+            synchronized (latencyMs) {
+                boolean empty = latencyMs.count() == 0;
+                p50 = empty ? 0 : round(latencyMs.quantile(0.50));
+                p95 = empty ? 0 : round(latencyMs.quantile(0.95));
+                p99 = empty ? 0 : round(latencyMs.quantile(0.99));
+                max = empty ? 0 : round(latencyMs.max());
+            }
+            return new LoadReport(profile.getTarget(), profile.getTarget().topic(), running, profile.getRatePerSecond(),
+                elapsedMs, sent.get(), acked.get(), failed.get(), outOfOrder.get(), late.get(), achievedRate,
+                p50, p95, p99, max);
+        }
+
+        private static double round(double millis) {
+            return Math.round(millis * 100) / 100.0;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.sample.kafka.producer;
+
+import com.sample.kafka.dto.LoadProfile;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 명령행 옵션으로 기동 직후 부하 생성 시작 (--load.target 이 있을 때만)
+ *
+ * 예: java -jar app.jar --load.target=HOURLY_SALES --load.rate=5000 --load.duration=300 --load.keys=10000 --load.zipf=1.1
+ * 나머지 옵션: load.values(UNIFORM|NORMAL|LOG_NORMAL), load.mean, load.stddev, load.min, load.max, load.users,
+ * load.out-of-order, load.max-disorder-ms, load.late, load.late-by-ms, load.seed
+ * 완료 결과는 로그로 남고, 진행 중에는 GET /api/load-generator/status 로도 볼 수 있다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LoadGeneratorRunner implements ApplicationRunner {
+
+    private static final String PREFIX = "load.";
+
+    private final LoadGenerator loadGenerator;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!args.containsOption(PREFIX + "target")) {
+            return;
+        }
+        LoadProfile profile = new LoadProfile();
+        option(args, "target", value -> profile.setTarget(LoadTarget.valueOf(value.toUpperCase())));
+        option(args, "rate", value -> profile.setRatePerSecond(Integer.parseInt(value)));
+        option(args, "duration", value -> profile.setDurationSeconds(Integer.parseInt(value)));
+        option(args, "keys", value -> profile.setKeyCardinality(Integer.parseInt(value)));
+        option(args, "zipf", value -> profile.setZipfExponent(Double.parseDouble(value)));
+        option(args, "values", value -> profile.setValueDistribution(ValueDistribution.valueOf(value.toUpperCase())));
+        option(args, "mean", value -> profile.setMeanValue(Double.parseDouble(value)));
+        option(args, "stddev", value -> profile.setStddevValue(Double.parseDouble(value)));
+        option(args, "min", value -> profile.setMinValue(Long.parseLong(value)));
+        option(args, "max", value -> profile.setMaxValue(Long.parseLong(value)));
+        option(args, "users", value -> profile.setUserCardinality(Integer.parseInt(value)));
+        option(args, "out-of-order", value -> profile.setOutOfOrderRatio(Double.parseDouble(value)));
+        option(args, "max-disorder-ms", value -> profile.setMaxDisorderMs(Long.parseLong(value)));
+        option(args, "late", value -> profile.setLateRatio(Double.parseDouble(value)));
+        option(args, "late-by-ms", value -> profile.setLateByMs(Long.parseLong(value)));
+        option(args, "seed", value -> profile.setSeed(Long.parseLong(value)));
+
+        loadGenerator.start(profile);
+    }
+
+    private static void option(ApplicationArguments args, String name, Consumer<String> setter) {
+        List<String> values = args.getOptionValues(PREFIX + name);
+        if (values != null && !values.isEmpty()) {
+            setter.accept(values.get(values.size() - 1));
+        }
+    }
+}
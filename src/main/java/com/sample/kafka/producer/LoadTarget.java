@@ -0,0 +1,32 @@
+package com.sample.kafka.producer;
+
+/**
+ * 부하 생성 대상 입력 토픽과 키 이름 규칙
+ *
+ * 키 순위(0 = 가장 자주 나오는 키)를 키 이름으로 바꾼다. 앞 순위는 예제와 같은 실제 이름(상품/카테고리/이벤트 타입)을 쓰고
+ * 나머지는 "접두사 + 순위" 로 만든다. 이벤트 타입을 실제 이름으로 두면 사용자 세션 집계(로그인/페이지뷰/구매)에도 들어간다.
+ */
+public enum LoadTarget {
+
+    HOURLY_SALES("hourly-sales-topic", "상품-", "노트북", "마우스", "키보드", "모니터", "헤드셋"),
+    DAILY_SALES("daily-sales-topic", "카테고리-", "전자제품", "의류", "식품"),
+    EVENT("event-topic", "EVENT_", "PAGE_VIEW", "USER_LOGIN", "PURCHASE");
+
+    private final String topic;
+    private final String keyPrefix;
+    private final String[] names;
+
+    LoadTarget(String topic, String keyPrefix, String... names) {
+        this.topic = topic;
+        this.keyPrefix = keyPrefix;
+        this.names = names;
+    }
+
+    public String topic() {
+        return topic;
+    }
+
+    public String key(int rank) {
+        return rank < names.length ? names[rank] : keyPrefix + (rank + 1);
+    }
+}
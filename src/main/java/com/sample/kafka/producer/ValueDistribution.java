@@ -0,0 +1,40 @@
+package com.sample.kafka.producer;
+
+import java.util.Random;
+
+/**
+ * 부하 생성 값(금액) 분포 - 결과는 [min, max] 로 자른다
+ *
+ * - UNIFORM: min ~ max 균등
+ * - NORMAL: 평균 mean, 표준편차 stddev
+ * - LOG_NORMAL: 평균 mean, 표준편차 stddev 인 로그정규 (소수의 큰 금액이 꼬리를 이루는 실제 매출에 가까움)
+ */
+public enum ValueDistribution {
+
+    UNIFORM {
+        @Override
+        double raw(Random random, double mean, double stddev, long min, long max) {
+            return min + random.nextDouble() * (max - min);
+        }
+    },
+    NORMAL {
+        @Override
+        double raw(Random random, double mean, double stddev, long min, long max) {
+            return mean + random.nextGaussian() * stddev;
+        }
+    },
+    LOG_NORMAL {
+        @Override
+        double raw(Random random, double mean, double stddev, long min, long max) {
+            double sigmaSquared = Math.log(1 + (stddev * stddev) / (mean * mean));
+            double mu = Math.log(mean) - sigmaSquared / 2;
+            return Math.exp(mu + random.nextGaussian() * Math.sqrt(sigmaSquared));
+        }
+    };
+
+    abstract double raw(Random random, double mean, double stddev, long min, long max);
+
+    public long sample(Random random, double mean, double stddev, long min, long max) {
+        return Math.max(min, Math.min(max, Math.round(raw(random, mean, stddev, min, max))));
+    }
+}
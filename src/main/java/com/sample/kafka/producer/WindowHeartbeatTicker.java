@@ -0,0 +1,66 @@
+package com.sample.kafka.producer;
+
+import com.sample.kafka.streams.Heartbeats;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.PartitionInfo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.FixedDelayTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 윈도우 집계 입력 토픽의 모든 파티션에 벽시계 시각의 하트비트 레코드를 보내는 티커
+ *
+ * suppress(untilWindowCloses) 는 스트림 시간으로만 윈도우를 닫기 때문에, 파티션이 조용해지면
+ * 마지막 윈도우가 다음 레코드가 올 때까지 방출되지 않는다. 하트비트는 예약 키로 집계를 거쳐
+ * suppress 의 스트림 시간을 현재 시각까지 밀어 주되, 집계 저장소와 결과에는 남지 않는다 (Heartbeats).
+ *
+ * 결과 지연 상한 ≈ grace + interval + 스트림즈 commit.interval.ms (캐시 flush)
+ * 이벤트 시각이 과거인 데이터를 재처리(backfill)하는 동안에는 하트비트가 그 데이터를 지각으로 만들 수 있으므로 끈다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.streams.heartbeat", name = "enabled", havingValue = "true")
+public class WindowHeartbeatTicker implements SchedulingConfigurer {
+
+    // 금액 파싱을 거치는 매출 집계에서도 합계에 영향이 없는 값
+    private static final String HEARTBEAT_VALUE = "0";
+
+    private final KafkaTemplate<String, String> kafkaTemplate;
+
+    @Value("${app.streams.heartbeat.topics:hourly-sales-topic,daily-sales-topic,event-topic}")
+    private List<String> topics;
+
+    // @Scheduled 의 문자열 주기는 "30s" 형식을 읽지 못하므로 Duration 으로 받아 직접 등록
+    @Value("${app.streams.heartbeat.interval:30s}")
+    private Duration interval;
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        registrar.addFixedDelayTask(new FixedDelayTask(this::tick, interval, interval));
+    }
+
+    public void tick() {
+        long now = System.currentTimeMillis();
+        for (String topic : topics) {
+            List<PartitionInfo> partitions = kafkaTemplate.partitionsFor(topic);
+            for (PartitionInfo partition : partitions) {
+                kafkaTemplate.send(topic, partition.partition(), now, Heartbeats.KEY, HEARTBEAT_VALUE)
+                    .whenComplete((result, ex) -> {
+                        if (ex != null) {
+                            log.warn("하트비트 전송 실패 - Topic: {}, Partition: {}", topic, partition.partition(), ex);
+                        }
+                    });
+            }
+            log.debug("💓 하트비트 전송 - Topic: {}, 파티션 수: {}", topic, partitions.size());
+        }
+    }
+}
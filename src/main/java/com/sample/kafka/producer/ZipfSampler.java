@@ -0,0 +1,39 @@
+package com.sample.kafka.producer;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * 0 ~ n-1 순위를 Zipf 분포(P(k) ∝ 1 / (k+1)^s)로 뽑는다
+ *
+ * s = 0 이면 균등, 1 이면 상위 1% 키가 대략 절반 가까이를 차지하는 전형적인 쏠림이다.
+ * 누적 분포를 미리 계산해 두고 이진 탐색하므로 한 번 뽑는 데 O(log n) 이다.
+ */
+public final class ZipfSampler {
+
+    private final double[] cumulative;
+
+    public ZipfSampler(int n, double exponent) {
+        if (n < 1) {
+            throw new IllegalArgumentException("키 수는 1 이상이어야 합니다: " + n);
+        }
+        if (exponent < 0) {
+            throw new IllegalArgumentException("Zipf 지수는 0 이상이어야 합니다: " + exponent);
+        }
+        this.cumulative = new double[n];
+        double sum = 0;
+        for (int k = 0; k < n; k++) {
+            sum += 1 / Math.pow(k + 1, exponent);
+            cumulative[k] = sum;
+        }
+        for (int k = 0; k < n; k++) {
+            cumulative[k] /= sum;
+        }
+    }
+
+    public int sample(Random random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        int rank = index >= 0 ? index : -index - 1;
+        return Math.min(rank, cumulative.length - 1);
+    }
+}
@@ -1,19 +1,26 @@
 package com.sample.kafka.repository;
 
 import com.sample.kafka.entity.DailySalesResult;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface DailySalesResultRepository extends JpaRepository<DailySalesResult, Long> {
 
     List<DailySalesResult> findByCategoryOrderBySalesDateDesc(String category);
 
-    List<DailySalesResult> findBySalesDate(LocalDate salesDate);
+    Optional<DailySalesResult> findByCategoryAndSalesDate(String category, LocalDate salesDate);
+
+    List<DailySalesResult> findByBucketMonthAndSalesDate(int bucketMonth, LocalDate salesDate);
 
     List<DailySalesResult> findTop10ByOrderByCreatedAtDesc();
-}
 
+    @Query("SELECT d.id FROM DailySalesResult d WHERE d.bucketMonth < :cutoffBucket")
+    List<Long> findIdsInBucketsBefore(int cutoffBucket, Pageable pageable);
+}
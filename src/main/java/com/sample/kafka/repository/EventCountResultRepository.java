@@ -1,16 +1,26 @@
 package com.sample.kafka.repository;
 
 import com.sample.kafka.entity.EventCountResult;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface EventCountResultRepository extends JpaRepository<EventCountResult, Long> {
 
-    List<EventCountResult> findByEventTypeOrderByWindowStartDesc(String eventType);
+    List<EventCountResult> findByEventTypeOrderByWindowStartMsDesc(String eventType);
+
+    Optional<EventCountResult> findByEventTypeAndWindowStartMs(String eventType, Long windowStartMs);
 
     List<EventCountResult> findTop10ByOrderByCreatedAtDesc();
-}
 
+    List<EventCountResult> findByEventTypeAndWindowStartMsBetweenOrderByWindowStartMs(String eventType,
+                                                                                    Long fromMs, Long toMs);
+
+    @Query("SELECT e.id FROM EventCountResult e WHERE e.bucketMonth < :cutoffBucket")
+    List<Long> findIdsInBucketsBefore(int cutoffBucket, Pageable pageable);
+}
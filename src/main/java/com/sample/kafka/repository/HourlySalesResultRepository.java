@@ -1,21 +1,31 @@
 package com.sample.kafka.repository;
 
 import com.sample.kafka.entity.HourlySalesResult;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface HourlySalesResultRepository extends JpaRepository<HourlySalesResult, Long> {
 
     List<HourlySalesResult> findByProductNameOrderByWindowStartDesc(String productName);
 
-    @Query("SELECT h FROM HourlySalesResult h WHERE h.windowStart >= :startTime ORDER BY h.windowStart DESC")
-    List<HourlySalesResult> findRecentResults(LocalDateTime startTime);
+    Optional<HourlySalesResult> findByProductNameAndWindowStart(String productName, LocalDateTime windowStart);
+
+    List<HourlySalesResult> findByProductNameAndWindowStartBetweenOrderByWindowStart(String productName,
+                                                                                   LocalDateTime from,
+                                                                                   LocalDateTime to);
+
+    @Query("SELECT h FROM HourlySalesResult h WHERE h.bucketMonth >= :fromBucket AND h.windowStart >= :startTime ORDER BY h.windowStart DESC")
+    List<HourlySalesResult> findRecentResults(int fromBucket, LocalDateTime startTime);
 
     List<HourlySalesResult> findTop10ByOrderByCreatedAtDesc();
-}
 
+    @Query("SELECT h.id FROM HourlySalesResult h WHERE h.bucketMonth < :cutoffBucket")
+    List<Long> findIdsInBucketsBefore(int cutoffBucket, Pageable pageable);
+}
@@ -0,0 +1,23 @@
+package com.sample.kafka.repository;
+
+import com.sample.kafka.entity.UserSessionResult;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface UserSessionResultRepository extends JpaRepository<UserSessionResult, Long> {
+
+    List<UserSessionResult> findByUserIdOrderBySessionStartMsDesc(String userId);
+
+    Optional<UserSessionResult> findByUserIdAndSessionStartMs(String userId, Long sessionStartMs);
+
+    List<UserSessionResult> findTop10ByOrderByCreatedAtDesc();
+
+    @Query("SELECT s.id FROM UserSessionResult s WHERE s.bucketMonth < :cutoffBucket")
+    List<Long> findIdsInBucketsBefore(int cutoffBucket, Pageable pageable);
+}
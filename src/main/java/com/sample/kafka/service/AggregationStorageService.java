@@ -1,11 +1,15 @@
 package com.sample.kafka.service;
 
+import com.sample.kafka.dto.AggregationResultMessage;
 import com.sample.kafka.entity.DailySalesResult;
 import com.sample.kafka.entity.EventCountResult;
 import com.sample.kafka.entity.HourlySalesResult;
+import com.sample.kafka.entity.UserSessionResult;
 import com.sample.kafka.repository.DailySalesResultRepository;
 import com.sample.kafka.repository.EventCountResultRepository;
 import com.sample.kafka.repository.HourlySalesResultRepository;
+import com.sample.kafka.repository.UserSessionResultRepository;
+import com.sample.kafka.streams.ResultStatus;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -14,6 +18,9 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -25,106 +32,289 @@ public class AggregationStorageService {
     private final HourlySalesResultRepository hourlySalesRepository;
     private final DailySalesResultRepository dailySalesRepository;
     private final EventCountResultRepository eventCountRepository;
+    private final UserSessionResultRepository userSessionRepository;
 
     private static final DateTimeFormatter HOURLY_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
     private static final DateTimeFormatter DAILY_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
+    // 건수/최소/최대가 없는 메시지(이전 형식)는 합계만 저장한다
+    private static final Pattern HOURLY_PATTERN = Pattern.compile(
+            "상품:([^,]+), 시간대:([^~]+)~([^,]+), 총매출:(\\d+)(?:, 건수:(\\d+), 최소:(-?\\d+), 최대:(-?\\d+))?");
+    private static final Pattern DAILY_PATTERN = Pattern.compile(
+            "날짜:([^,]+), 카테고리:([^,]+), 일매출:(\\d+)(?:, 건수:(\\d+), 최소:(-?\\d+), 최대:(-?\\d+))?");
+    private static final Pattern EVENT_PATTERN = Pattern.compile("이벤트:([^,]+), 윈도우:(\\d+)~(\\d+), 발생횟수:(\\d+)");
+
+    private static final Pattern HOURLY_PERCENTILES_PATTERN = Pattern.compile(
+            "상품:([^,]+), 시간대:([^~]+)~([^,]+), p50:(-?\\d+), p95:(-?\\d+), p99:(-?\\d+), 스케치:([A-Za-z0-9+/=]+)");
+
+    private static final Pattern EVENT_UNIQUE_USERS_PATTERN = Pattern.compile(
+            "이벤트:([^,]+), 윈도우:(\\d+)~(\\d+), 고유사용자:(\\d+), 스케치:([A-Za-z0-9+/=]+)");
+    private static final Pattern SESSION_PATTERN = Pattern.compile(
+            "사용자:([^,]+), 세션:(\\d+)~(\\d+), 지속:(\\d+)초, 이벤트:(\\d+), 로그인:(\\d+), 페이지뷰:(\\d+), 구매:(\\d+), 구매금액:(\\d+)");
+
+    // 정정 모드(LatePolicy.CORRECTION)의 지각분 누적 결과
+    private static final Pattern HOURLY_CORRECTION_PATTERN = Pattern.compile("상품:([^,]+), 시간대:([^~]+)~([^,]+), 지각매출:(\\d+)");
+    private static final Pattern DAILY_CORRECTION_PATTERN = Pattern.compile("날짜:([^,]+), 카테고리:([^,]+), 지각매출:(\\d+)");
+    private static final Pattern EVENT_CORRECTION_PATTERN = Pattern.compile("이벤트:([^,]+), 윈도우:(\\d+)~(\\d+), 지각발생:(\\d+)");
+
+    private static final String PROVISIONAL_SUFFIX = ResultStatus.PROVISIONAL.suffix();
+
     /**
-     * 시간별 매출 집계 결과를 DB에 저장
-     * 형식: "상품:노트북, 시간대:2025-11-13 14:00~2025-11-13 15:00, 총매출:5300000"
+     * write-behind 버퍼에 모인 집계 결과를 하나의 트랜잭션으로 저장
+     * 형식이 잘못된 메시지는 건너뛰고, DB 오류는 호출자에게 전파해 재시도하게 한다.
+     *
+     * (키, 윈도우) 단위로 upsert 하므로 같은 결과를 다시 받아도 행이 늘지 않는다.
+     * 최종 결과는 총매출/발생횟수를, 정정 결과는 지각매출/지각발생을 덮어쓴다 (정정 값은 지각분 누적값).
+     * 잠정 결과는 같은 행을 갱신하되, 확정 결과가 이미 저장된 윈도우는 건드리지 않는다.
+     * 분위수/고유 사용자/정정 결과가 먼저 오면 집계값과 잠정 여부가 비어 있는(null) 행을 만들고 자기 컬럼만 채운다.
+     *
+     * 메시지 형식:
+     * - 시간별: "상품:노트북, 시간대:2025-11-13 14:00~2025-11-13 15:00, 총매출:5300000, 건수:3, 최소:300000, 최대:3500000"
+     * - 시간별 분위수: "상품:노트북, 시간대:...~..., p50:1800000, p95:2000000, p99:2000000, 스케치:<Base64>" (같은 시간대 행의 분위수 컬럼만 갱신)
+     * - 일별: "날짜:2025-11-13, 카테고리:전자제품, 일매출:4500000, 건수:2, 최소:1500000, 최대:3000000"
+     * - 이벤트: "이벤트:USER_LOGIN, 윈도우:1763011800000~1763012100000, 발생횟수:5" (윈도우 경계는 epoch millis)
+     * - 고유 사용자: "이벤트:USER_LOGIN, 윈도우:...~..., 고유사용자:3, 스케치:<Base64>" (같은 윈도우 행의 고유 사용자 컬럼만 갱신)
+     * - 세션: "사용자:user-1, 세션:1763011800000~1763012400000, 지속:600초, 이벤트:7, 로그인:1, 페이지뷰:5, 구매:1, 구매금액:30000"
+     * - 확정/잠정: 위 형식 끝의 ", 상태:확정" / ", 상태:잠정" (없으면 확정)
+     * - 정정: 위 형식에서 마지막 항목이 "지각매출:" / "지각발생:"
      */
     @Transactional
-    public void saveHourlySalesResult(String message) {
+    public void saveBatch(List<AggregationResultMessage> messages) {
+        int hourly = 0;
+        int daily = 0;
+        int event = 0;
+        int session = 0;
+
+        for (AggregationResultMessage message : messages) {
+            switch (message.getType()) {
+                case HOURLY_SALES -> hourly += upsertHourlySales(message.getMessage()) ? 1 : 0;
+                case DAILY_SALES -> daily += upsertDailySales(message.getMessage()) ? 1 : 0;
+                case EVENT_COUNT -> event += upsertEventCount(message.getMessage()) ? 1 : 0;
+                case USER_SESSION -> session += upsertUserSession(message.getMessage()) ? 1 : 0;
+            }
+        }
+
+        log.info("💾 [DB 일괄 저장 완료] 시간별: {}건, 일별: {}건, 이벤트: {}건, 세션: {}건", hourly, daily, event, session);
+    }
+
+    private boolean upsertHourlySales(String message) {
         try {
-            Pattern pattern = Pattern.compile("상품:([^,]+), 시간대:([^~]+)~([^,]+), 총매출:(\\d+)");
-            Matcher matcher = pattern.matcher(message);
+            Matcher percentiles = HOURLY_PERCENTILES_PATTERN.matcher(message);
+            if (percentiles.find()) {
+                return upsertHourlySalePercentiles(percentiles);
+            }
 
-            if (matcher.find()) {
-                String productName = matcher.group(1).trim();
-                LocalDateTime windowStart = LocalDateTime.parse(matcher.group(2).trim(), HOURLY_FORMATTER);
-                LocalDateTime windowEnd = LocalDateTime.parse(matcher.group(3).trim(), HOURLY_FORMATTER);
-                Long totalSales = Long.parseLong(matcher.group(4).trim());
+            Matcher matcher = HOURLY_PATTERN.matcher(message);
+            boolean correction = !matcher.find();
+            if (correction) {
+                matcher = HOURLY_CORRECTION_PATTERN.matcher(message);
+                if (!matcher.find()) {
+                    log.error("시간별 매출 형식 불일치: {}", message);
+                    return false;
+                }
+            }
+
+            String productName = matcher.group(1).trim();
+            LocalDateTime windowStart = LocalDateTime.parse(matcher.group(2).trim(), HOURLY_FORMATTER);
+            LocalDateTime windowEnd = LocalDateTime.parse(matcher.group(3).trim(), HOURLY_FORMATTER);
+            Long amount = Long.parseLong(matcher.group(4).trim());
+
+            HourlySalesResult result = hourlySalesRepository.findByProductNameAndWindowStart(productName, windowStart)
+                    .orElseGet(() -> HourlySalesResult.builder()
+                            .productName(productName)
+                            .windowStart(windowStart)
+                            .windowEnd(windowEnd)
+                            .build());
+            if (correction) {
+                result.setLateSales(amount);
+            } else {
+                boolean provisional = isProvisional(message);
+                if (provisional && Boolean.FALSE.equals(result.getProvisional())) {
+                    // suppress 의 확정 결과보다 늦게 나온 잠정 결과는 무시
+                    return false;
+                }
+                result.setTotalSales(amount);
+                if (matcher.group(5) != null) {
+                    result.setSalesCount(Long.parseLong(matcher.group(5)));
+                    result.setMinSale(Long.parseLong(matcher.group(6)));
+                    result.setMaxSale(Long.parseLong(matcher.group(7)));
+                }
+                result.setProvisional(provisional);
+            }
+            hourlySalesRepository.save(result);
+            return true;
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            log.error("시간별 매출 파싱 실패: {}", message, e);
+            return false;
+        }
+    }
 
-                HourlySalesResult result = HourlySalesResult.builder()
+    private boolean upsertHourlySalePercentiles(Matcher matcher) {
+        String productName = matcher.group(1).trim();
+        LocalDateTime windowStart = LocalDateTime.parse(matcher.group(2).trim(), HOURLY_FORMATTER);
+        LocalDateTime windowEnd = LocalDateTime.parse(matcher.group(3).trim(), HOURLY_FORMATTER);
+        byte[] digest = Base64.getDecoder().decode(matcher.group(7));
+
+        HourlySalesResult result = hourlySalesRepository.findByProductNameAndWindowStart(productName, windowStart)
+                .orElseGet(() -> HourlySalesResult.builder()
                         .productName(productName)
                         .windowStart(windowStart)
                         .windowEnd(windowEnd)
-                        .totalSales(totalSales)
-                        .build();
+                        .build());
+        result.setP50Sale(Long.parseLong(matcher.group(4)));
+        result.setP95Sale(Long.parseLong(matcher.group(5)));
+        result.setP99Sale(Long.parseLong(matcher.group(6)));
+        result.setSaleDigest(digest);
+        hourlySalesRepository.save(result);
+        return true;
+    }
+
+    private boolean upsertDailySales(String message) {
+        try {
+            Matcher matcher = DAILY_PATTERN.matcher(message);
+            boolean correction = !matcher.find();
+            if (correction) {
+                matcher = DAILY_CORRECTION_PATTERN.matcher(message);
+                if (!matcher.find()) {
+                    log.error("일별 매출 형식 불일치: {}", message);
+                    return false;
+                }
+            }
 
-                hourlySalesRepository.save(result);
-                log.info("💾 [DB 저장 완료] 시간별 매출 - 상품: {}, 매출: {}원", productName, totalSales);
+            LocalDate salesDate = LocalDate.parse(matcher.group(1).trim(), DAILY_FORMATTER);
+            String category = matcher.group(2).trim();
+            Long amount = Long.parseLong(matcher.group(3).trim());
+
+            DailySalesResult result = dailySalesRepository.findByCategoryAndSalesDate(category, salesDate)
+                    .orElseGet(() -> DailySalesResult.builder()
+                            .category(category)
+                            .salesDate(salesDate)
+                            .build());
+            if (correction) {
+                result.setLateSales(amount);
+            } else {
+                boolean provisional = isProvisional(message);
+                if (provisional && Boolean.FALSE.equals(result.getProvisional())) {
+                    // suppress 의 확정 결과보다 늦게 나온 잠정 결과는 무시
+                    return false;
+                }
+                result.setTotalSales(amount);
+                if (matcher.group(4) != null) {
+                    result.setSalesCount(Long.parseLong(matcher.group(4)));
+                    result.setMinSale(Long.parseLong(matcher.group(5)));
+                    result.setMaxSale(Long.parseLong(matcher.group(6)));
+                }
+                result.setProvisional(provisional);
             }
-        } catch (Exception e) {
-            log.error("시간별 매출 저장 실패: {}", message, e);
+            dailySalesRepository.save(result);
+            return true;
+        } catch (DateTimeParseException | NumberFormatException e) {
+            log.error("일별 매출 파싱 실패: {}", message, e);
+            return false;
         }
     }
 
-    /**
-     * 일별 매출 집계 결과를 DB에 저장
-     * 형식: "날짜:2025-11-13, 카테고리:전자제품, 일매출:4500000"
-     */
-    @Transactional
-    public void saveDailySalesResult(String message) {
+    private boolean upsertEventCount(String message) {
         try {
-            Pattern pattern = Pattern.compile("날짜:([^,]+), 카테고리:([^,]+), 일매출:(\\d+)");
-            Matcher matcher = pattern.matcher(message);
-
-            if (matcher.find()) {
-                LocalDate salesDate = LocalDate.parse(matcher.group(1).trim(), DAILY_FORMATTER);
-                String category = matcher.group(2).trim();
-                Long totalSales = Long.parseLong(matcher.group(3).trim());
-
-                DailySalesResult result = DailySalesResult.builder()
-                        .category(category)
-                        .salesDate(salesDate)
-                        .totalSales(totalSales)
-                        .build();
-
-                dailySalesRepository.save(result);
-                log.info("💾 [DB 저장 완료] 일별 매출 - 카테고리: {}, 매출: {}원", category, totalSales);
+            Matcher uniqueUsers = EVENT_UNIQUE_USERS_PATTERN.matcher(message);
+            if (uniqueUsers.find()) {
+                return upsertEventUniqueUsers(uniqueUsers);
+            }
+
+            Matcher matcher = EVENT_PATTERN.matcher(message);
+            boolean correction = !matcher.find();
+            if (correction) {
+                matcher = EVENT_CORRECTION_PATTERN.matcher(message);
+                if (!matcher.find()) {
+                    log.error("이벤트 카운트 형식 불일치: {}", message);
+                    return false;
+                }
             }
-        } catch (Exception e) {
-            log.error("일별 매출 저장 실패: {}", message, e);
+
+            String eventType = matcher.group(1).trim();
+            long windowStartMs = Long.parseLong(matcher.group(2));
+            long windowEndMs = Long.parseLong(matcher.group(3));
+            Long count = Long.parseLong(matcher.group(4).trim());
+
+            EventCountResult result = eventCountRepository.findByEventTypeAndWindowStartMs(eventType, windowStartMs)
+                    .orElseGet(() -> EventCountResult.builder()
+                            .eventType(eventType)
+                            .windowStartMs(windowStartMs)
+                            .windowEndMs(windowEndMs)
+                            .build());
+            if (correction) {
+                result.setLateCount(count);
+            } else {
+                boolean provisional = isProvisional(message);
+                if (provisional && Boolean.FALSE.equals(result.getProvisional())) {
+                    // suppress 의 확정 결과보다 늦게 나온 잠정 결과는 무시
+                    return false;
+                }
+                result.setEventCount(count);
+                result.setProvisional(provisional);
+            }
+            eventCountRepository.save(result);
+            return true;
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException 및 Base64 디코딩 실패 포함
+            log.error("이벤트 카운트 파싱 실패: {}", message, e);
+            return false;
         }
     }
 
+    private boolean upsertEventUniqueUsers(Matcher matcher) {
+        String eventType = matcher.group(1).trim();
+        long windowStartMs = Long.parseLong(matcher.group(2));
+        long windowEndMs = Long.parseLong(matcher.group(3));
+        byte[] sketch = Base64.getDecoder().decode(matcher.group(5));
+
+        EventCountResult result = eventCountRepository.findByEventTypeAndWindowStartMs(eventType, windowStartMs)
+                .orElseGet(() -> EventCountResult.builder()
+                        .eventType(eventType)
+                        .windowStartMs(windowStartMs)
+                        .windowEndMs(windowEndMs)
+                        .build());
+        result.setUniqueUsers(Long.parseLong(matcher.group(4)));
+        result.setUserSketch(sketch);
+        eventCountRepository.save(result);
+        return true;
+    }
+
     /**
-     * 이벤트 카운트 결과를 DB에 저장
-     * 형식: "이벤트:USER_LOGIN, 시간:14:30~14:35, 발생횟수:5"
+     * 세션은 윈도우가 닫힌 뒤 한 번만 방출되므로 (사용자, 세션 시작) 단위로 덮어쓰기만 한다.
      */
-    @Transactional
-    public void saveEventCountResult(String message) {
+    private boolean upsertUserSession(String message) {
         try {
-            Pattern pattern = Pattern.compile("이벤트:([^,]+), 시간:([^~]+)~([^,]+), 발생횟수:(\\d+)");
-            Matcher matcher = pattern.matcher(message);
-
-            if (matcher.find()) {
-                String eventType = matcher.group(1).trim();
-                String timeStart = matcher.group(2).trim();
-                String timeEnd = matcher.group(3).trim();
-                Long eventCount = Long.parseLong(matcher.group(4).trim());
-
-                // 시간만 있으므로 오늘 날짜를 붙여서 LocalDateTime 생성
-                LocalDate today = LocalDate.now();
-                LocalDateTime windowStart = LocalDateTime.parse(today + " " + timeStart, 
-                    DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm"));
-                LocalDateTime windowEnd = LocalDateTime.parse(today + " " + timeEnd, 
-                    DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm"));
-
-                EventCountResult result = EventCountResult.builder()
-                        .eventType(eventType)
-                        .windowStart(windowStart)
-                        .windowEnd(windowEnd)
-                        .eventCount(eventCount)
-                        .build();
-
-                eventCountRepository.save(result);
-                log.info("💾 [DB 저장 완료] 이벤트 카운트 - 타입: {}, 횟수: {}회", eventType, eventCount);
+            Matcher matcher = SESSION_PATTERN.matcher(message);
+            if (!matcher.find()) {
+                log.error("사용자 세션 형식 불일치: {}", message);
+                return false;
             }
-        } catch (Exception e) {
-            log.error("이벤트 카운트 저장 실패: {}", message, e);
+
+            String userId = matcher.group(1).trim();
+            long sessionStartMs = Long.parseLong(matcher.group(2));
+
+            UserSessionResult result = userSessionRepository.findByUserIdAndSessionStartMs(userId, sessionStartMs)
+                    .orElseGet(() -> UserSessionResult.builder()
+                            .userId(userId)
+                            .sessionStartMs(sessionStartMs)
+                            .build());
+            result.setSessionEndMs(Long.parseLong(matcher.group(3)));
+            result.setDurationSeconds(Long.parseLong(matcher.group(4)));
+            result.setEventCount(Long.parseLong(matcher.group(5)));
+            result.setLoginCount(Long.parseLong(matcher.group(6)));
+            result.setPageViewCount(Long.parseLong(matcher.group(7)));
+            result.setPurchaseCount(Long.parseLong(matcher.group(8)));
+            result.setPurchaseTotal(Long.parseLong(matcher.group(9)));
+            userSessionRepository.save(result);
+            return true;
+        } catch (NumberFormatException e) {
+            log.error("사용자 세션 파싱 실패: {}", message, e);
+            return false;
         }
     }
-}
 
+    private static boolean isProvisional(String message) {
+        return message.endsWith(PROVISIONAL_SUFFIX);
+    }
+}
@@ -0,0 +1,245 @@
+package com.sample.kafka.service;
+
+import com.sample.kafka.config.KafkaStreamsConfig;
+import com.sample.kafka.dto.DistributedQueryResult;
+import com.sample.kafka.dto.InstanceQueryStat;
+import com.sample.kafka.dto.KeyedValue;
+import com.sample.kafka.dto.TopKResult;
+import com.sample.kafka.dto.WindowedValue;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.streams.StreamsMetadata;
+import org.apache.kafka.streams.state.HostInfo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 여러 스트림즈 인스턴스에 나뉘어 있는 상태 저장소를 조회하는 라우팅 서비스
+ *
+ * - 키 조회: queryMetadataForKey 로 파티션 소유 인스턴스를 찾아 로컬 조회 또는 HTTP 전달
+ * - 범위 조회: 저장소를 가진 모든 인스턴스에 병렬로 조회(scatter) 후 병합(gather)
+ *
+ * 전달받은 인스턴스는 local=true 로 호출되어 자기 저장소만 조회한다.
+ */
+@Slf4j
+@Service
+public class DistributedQueryService {
+
+    private static final String BASE_PATH = "/api/interactive-query";
+
+    private static final ParameterizedTypeReference<DistributedQueryResult<KeyedValue>> KEYED_RESULT =
+            new ParameterizedTypeReference<>() {};
+    private static final ParameterizedTypeReference<DistributedQueryResult<WindowedValue>> WINDOWED_RESULT =
+            new ParameterizedTypeReference<>() {};
+
+    private static final ParameterizedTypeReference<DistributedQueryResult<TopKResult>> TOP_K_RESULT =
+            new ParameterizedTypeReference<>() {};
+
+    private static final Comparator<KeyedValue> KEYED_ORDER = Comparator.comparing(KeyedValue::getKey);
+    private static final Comparator<WindowedValue> WINDOWED_ORDER =
+            Comparator.comparing(WindowedValue::getKey).thenComparingLong(WindowedValue::getWindowStart);
+    private static final Comparator<TopKResult> TOP_K_ORDER = Comparator.comparingLong(TopKResult::getWindowStart);
+
+    private final InteractiveQueryService localQueryService;
+    private final RestTemplate restTemplate;
+    private final HostInfo self;
+    private final ExecutorService scatterExecutor;
+
+    public DistributedQueryService(InteractiveQueryService localQueryService,
+                                   RestTemplateBuilder restTemplateBuilder,
+                                   @Value("${app.streams.application-server:localhost:${server.port:8080}}") String applicationServer,
+                                   @Value("${app.streams.query.remote-timeout:3s}") Duration remoteTimeout,
+                                   @Value("${app.streams.query.scatter-threads:4}") int scatterThreads) {
+        this.localQueryService = localQueryService;
+        this.restTemplate = restTemplateBuilder
+                .setConnectTimeout(remoteTimeout)
+                .setReadTimeout(remoteTimeout)
+                .build();
+        this.self = HostInfo.buildFromEndpoint(applicationServer);
+        this.scatterExecutor = Executors.newFixedThreadPool(scatterThreads, runnable -> {
+            Thread thread = new Thread(runnable, "iq-scatter");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        scatterExecutor.shutdown();
+        scatterExecutor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    public DistributedQueryResult<KeyedValue> getWordCount(String word, boolean localOnly) {
+        Supplier<List<KeyedValue>> localQuery = () -> {
+            Long count = localQueryService.getWordCount(word);
+            return count == null ? List.of() : List.of(new KeyedValue(word, count));
+        };
+        if (localOnly) {
+            return combine(List.of(queryLocal(localQuery)), KEYED_ORDER);
+        }
+        return routeByKey(KafkaStreamsConfig.WORD_COUNTS_STORE, word, localQuery,
+                path("/word-count").queryParam("word", word), KEYED_RESULT, KEYED_ORDER);
+    }
+
+    public DistributedQueryResult<KeyedValue> getWordCountRange(String from, String to, boolean localOnly) {
+        Supplier<List<KeyedValue>> localQuery = () -> from == null && to == null
+                ? localQueryService.getAllWordCounts()
+                : localQueryService.getWordCountRange(from, to);
+        if (localOnly) {
+            return combine(List.of(queryLocal(localQuery)), KEYED_ORDER);
+        }
+        return scatterGather(KafkaStreamsConfig.WORD_COUNTS_STORE, localQuery,
+                path("/word-count/range")
+                        .queryParamIfPresent("from", Optional.ofNullable(from))
+                        .queryParamIfPresent("to", Optional.ofNullable(to)),
+                KEYED_RESULT, KEYED_ORDER);
+    }
+
+    /**
+     * 윈도우 저장소 조회. key 가 없으면 전체 인스턴스 범위 조회, 있으면 소유 인스턴스로 라우팅한다.
+     *
+     * @param path     이 저장소를 조회하는 REST 경로 (전달 시 사용)
+     * @param keyParam REST 경로에서 키를 받는 파라미터 이름
+     */
+    public DistributedQueryResult<WindowedValue> fetchWindows(String storeName, String path, String keyParam,
+                                                              String key, Instant from, Instant to,
+                                                              boolean localOnly) {
+        boolean allKeys = key == null || key.isBlank();
+        Supplier<List<WindowedValue>> localQuery = () -> allKeys
+                ? localQueryService.fetchAllWindows(storeName, from, to)
+                : localQueryService.fetchWindows(storeName, key, from, to);
+        if (localOnly) {
+            return combine(List.of(queryLocal(localQuery)), WINDOWED_ORDER);
+        }
+
+        UriComponentsBuilder remotePath = path(path)
+                .queryParam("from", LocalDateTime.ofInstant(from, KafkaStreamsConfig.ZONE))
+                .queryParam("to", LocalDateTime.ofInstant(to, KafkaStreamsConfig.ZONE));
+        if (allKeys) {
+            return scatterGather(storeName, localQuery, remotePath, WINDOWED_RESULT, WINDOWED_ORDER);
+        }
+        return routeByKey(storeName, key, localQuery, remotePath.queryParam(keyParam, key),
+                WINDOWED_RESULT, WINDOWED_ORDER);
+    }
+
+    /**
+     * 상위 K 조회. 상위 K 저장소는 대상별 단일 파티션이라 전체 입력의 스케치를 한 인스턴스만 가지므로,
+     * 그 인스턴스의 결과가 곧 전체 상위 K 다 (할당 정보가 없거나 이동 중이면 빈 결과).
+     */
+    public DistributedQueryResult<TopKResult> getTopK(String storeName, String target, Duration windowSize,
+                                                      boolean localOnly) {
+        Supplier<List<TopKResult>> localQuery = () -> localQueryService.getTopK(storeName, target, windowSize);
+        if (localOnly) {
+            return combine(List.of(queryLocal(localQuery)), TOP_K_ORDER);
+        }
+        return scatterGather(storeName, localQuery, path("/top-k/" + target), TOP_K_RESULT, TOP_K_ORDER);
+    }
+
+    private <T> DistributedQueryResult<T> routeByKey(String storeName, String key, Supplier<List<T>> localQuery,
+                                                     UriComponentsBuilder remotePath,
+                                                     ParameterizedTypeReference<DistributedQueryResult<T>> type,
+                                                     Comparator<T> order) {
+        HostInfo owner = localQueryService.keyMetadata(storeName, key).activeHost();
+        InstanceResult<T> result = self.equals(owner)
+                ? queryLocal(localQuery)
+                : queryRemote(owner, remotePath, type);
+        return combine(List.of(result), order);
+    }
+
+    private <T> DistributedQueryResult<T> scatterGather(String storeName, Supplier<List<T>> localQuery,
+                                                        UriComponentsBuilder remotePath,
+                                                        ParameterizedTypeReference<DistributedQueryResult<T>> type,
+                                                        Comparator<T> order) {
+        Collection<StreamsMetadata> metadata = localQueryService.storeMetadata(storeName);
+        if (metadata.isEmpty()) {
+            // 아직 파티션 할당 정보가 없으면 로컬 저장소만 조회
+            return combine(List.of(queryLocal(localQuery)), order);
+        }
+
+        List<CompletableFuture<InstanceResult<T>>> futures = metadata.stream()
+                .map(StreamsMetadata::hostInfo)
+                .distinct()
+                .map(host -> CompletableFuture.supplyAsync(() -> self.equals(host)
+                        ? queryLocal(localQuery)
+                        : queryRemote(host, remotePath, type), scatterExecutor))
+                .toList();
+
+        return combine(futures.stream().map(CompletableFuture::join).toList(), order);
+    }
+
+    private <T> InstanceResult<T> queryLocal(Supplier<List<T>> localQuery) {
+        long startNanos = System.nanoTime();
+        try {
+            List<T> results = localQuery.get();
+            return new InstanceResult<>(stat(self, true, startNanos, results.size(), null), results);
+        } catch (RuntimeException e) {
+            log.warn("로컬 저장소 조회 실패 - Host: {}, 원인: {}", self, e.getMessage());
+            return new InstanceResult<>(stat(self, true, startNanos, 0, e.getMessage()), List.of());
+        }
+    }
+
+    private <T> InstanceResult<T> queryRemote(HostInfo host, UriComponentsBuilder remotePath,
+                                              ParameterizedTypeReference<DistributedQueryResult<T>> type) {
+        URI uri = remotePath.cloneBuilder()
+                .scheme("http")
+                .host(host.host())
+                .port(host.port())
+                .encode()
+                .build()
+                .toUri();
+        long startNanos = System.nanoTime();
+        try {
+            DistributedQueryResult<T> response = restTemplate.exchange(uri, HttpMethod.GET, null, type).getBody();
+            List<T> results = response == null || response.getResults() == null ? List.of() : response.getResults();
+            return new InstanceResult<>(stat(host, false, startNanos, results.size(), null), results);
+        } catch (RuntimeException e) {
+            log.warn("원격 인스턴스 조회 실패 - Host: {}, URI: {}, 원인: {}", host, uri, e.getMessage());
+            return new InstanceResult<>(stat(host, false, startNanos, 0, e.getMessage()), List.of());
+        }
+    }
+
+    private <T> DistributedQueryResult<T> combine(List<InstanceResult<T>> instanceResults, Comparator<T> order) {
+        List<T> merged = new ArrayList<>();
+        List<InstanceQueryStat> stats = new ArrayList<>();
+        boolean partial = false;
+        for (InstanceResult<T> instanceResult : instanceResults) {
+            merged.addAll(instanceResult.results());
+            stats.add(instanceResult.stat());
+            partial |= instanceResult.stat().getError() != null;
+        }
+        merged.sort(order);
+        return new DistributedQueryResult<>(merged, stats, partial);
+    }
+
+    private static InstanceQueryStat stat(HostInfo host, boolean local, long startNanos, int resultCount, String error) {
+        long latencyMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        return new InstanceQueryStat(host.host() + ":" + host.port(), local, latencyMs, resultCount, error);
+    }
+
+    private static UriComponentsBuilder path(String path) {
+        return UriComponentsBuilder.fromPath(BASE_PATH + path).queryParam("local", true);
+    }
+
+    private record InstanceResult<T>(InstanceQueryStat stat, List<T> results) {
+    }
+}
@@ -0,0 +1,71 @@
+package com.sample.kafka.service;
+
+import com.sample.kafka.metrics.PipelineMetrics;
+import com.sample.kafka.streams.KeywordMatcher;
+import io.micrometer.core.instrument.Counter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 필터 스트림의 키워드 규칙
+ *
+ * 규칙은 filter-rules-topic (compact, 키: 규칙 ID, 값: 키워드, 값이 없으면 삭제) 을 읽는 글로벌 저장소에서 갱신된다.
+ * 규칙이 바뀔 때마다 새 매처를 컴파일해 AtomicReference 로 교체하므로,
+ * 스트림 스레드는 잠금 없이 항상 완성된 규칙 집합 하나로 매칭한다.
+ * 규칙 토픽이 비어 있으면 기본 키워드(app.streams.filter.default-keywords)를 규칙으로 쓴다.
+ */
+@Slf4j
+@Service
+public class FilterRuleService {
+
+    private final PipelineMetrics metrics;
+    private final Map<String, String> defaultRules;
+    private final AtomicReference<KeywordMatcher> matcher;
+    private final Map<String, Counter> hitCounters = new ConcurrentHashMap<>();
+
+    public FilterRuleService(PipelineMetrics metrics,
+                             @Value("${app.streams.filter.default-keywords:중요}") List<String> defaultKeywords) {
+        this.metrics = metrics;
+        this.defaultRules = defaultKeywords.stream()
+                .filter(keyword -> !keyword.isBlank())
+                .collect(Collectors.toUnmodifiableMap(Function.identity(), Function.identity(), (a, b) -> a));
+        this.matcher = new AtomicReference<>(KeywordMatcher.compile(defaultRules));
+    }
+
+    /**
+     * 메시지에 포함된 규칙 ID 목록 (없으면 빈 목록)
+     */
+    public List<String> match(String message) {
+        return matcher.get().match(message);
+    }
+
+    /**
+     * 스트림에서 통과시킨 메시지의 규칙별 적중 수 기록
+     */
+    public void recordHits(List<String> ruleIds) {
+        for (String ruleId : ruleIds) {
+            hitCounters.computeIfAbsent(ruleId, metrics::filterRuleHits).increment();
+        }
+    }
+
+    /**
+     * 규칙 전체를 교체 (글로벌 저장소 갱신 시 호출)
+     */
+    public void replaceRules(Map<String, String> rules) {
+        KeywordMatcher compiled = KeywordMatcher.compile(rules.isEmpty() ? defaultRules : rules);
+        matcher.set(compiled);
+        log.info("🔁 [필터 규칙 교체] 규칙 {}개{}", compiled.size(), rules.isEmpty() ? " (기본 규칙)" : "");
+    }
+
+    public Map<String, String> rules() {
+        return matcher.get().rules();
+    }
+}
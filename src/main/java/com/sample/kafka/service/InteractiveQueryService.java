@@ -0,0 +1,176 @@
+package com.sample.kafka.service;
+
+import com.sample.kafka.config.KafkaStreamsConfig;
+import com.sample.kafka.dto.KeyedValue;
+import com.sample.kafka.dto.TopKResult;
+import com.sample.kafka.dto.WindowedValue;
+import com.sample.kafka.streams.SalesStats;
+import com.sample.kafka.streams.TopKSketch;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.KeyQueryMetadata;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.StoreQueryParameters;
+import org.apache.kafka.streams.StreamsMetadata;
+import org.apache.kafka.streams.errors.InvalidStateStoreException;
+import org.apache.kafka.streams.kstream.Windowed;
+import org.apache.kafka.streams.state.KeyValueIterator;
+import org.apache.kafka.streams.state.QueryableStoreTypes;
+import org.apache.kafka.streams.state.ReadOnlyKeyValueStore;
+import org.apache.kafka.streams.state.ReadOnlyWindowStore;
+import org.springframework.kafka.config.StreamsBuilderFactoryBean;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 카프카 스트림즈 상태 저장소를 직접 조회하는 Interactive Query 서비스
+ *
+ * suppress 로 윈도우가 닫히기를 기다리거나 DB 를 거치지 않고,
+ * 진행 중인 윈도우의 집계값과 단어 카운트를 로컬 저장소에서 바로 읽는다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class InteractiveQueryService {
+
+    private final StreamsBuilderFactoryBean streamsBuilderFactoryBean;
+
+    /**
+     * 단어 하나의 누적 카운트 조회 (없으면 null)
+     */
+    public Long getWordCount(String word) {
+        return wordCountStore().get(word);
+    }
+
+    /**
+     * 전체 단어 카운트 조회
+     */
+    public List<KeyedValue> getAllWordCounts() {
+        try (KeyValueIterator<String, Long> iterator = wordCountStore().all()) {
+            return toKeyedValues(iterator);
+        }
+    }
+
+    /**
+     * 단어 범위 조회 (from ~ to, 사전순, 양끝 포함)
+     */
+    public List<KeyedValue> getWordCountRange(String from, String to) {
+        try (KeyValueIterator<String, Long> iterator = wordCountStore().range(from, to)) {
+            return toKeyedValues(iterator);
+        }
+    }
+
+    /**
+     * 특정 키의 윈도우 집계 조회 (윈도우 시작 시각이 from ~ to 사이인 윈도우)
+     */
+    public List<WindowedValue> fetchWindows(String storeName, String key, Instant from, Instant to) {
+        try (KeyValueIterator<Windowed<String>, Object> iterator = windowStore(storeName).fetch(key, key, from, to)) {
+            return toWindowedValues(iterator);
+        }
+    }
+
+    /**
+     * 모든 키의 윈도우 집계 조회 (윈도우 시작 시각이 from ~ to 사이인 윈도우)
+     */
+    public List<WindowedValue> fetchAllWindows(String storeName, Instant from, Instant to) {
+        try (KeyValueIterator<Windowed<String>, Object> iterator = windowStore(storeName).fetchAll(from, to)) {
+            return toWindowedValues(iterator);
+        }
+    }
+
+    /**
+     * 열린 윈도우별 상위 K 항목 조회
+     * 이 인스턴스의 태스크마다 스케치가 따로 있으므로 같은 윈도우의 스케치를 병합한 뒤 상위 K 를 고른다.
+     */
+    public List<TopKResult> getTopK(String storeName, String target, Duration windowSize) {
+        Map<Long, TopKSketch> merged = new TreeMap<>();
+        ReadOnlyKeyValueStore<Long, TopKSketch> store = kafkaStreams().store(StoreQueryParameters.fromNameAndType(
+                storeName, QueryableStoreTypes.keyValueStore()));
+        try (KeyValueIterator<Long, TopKSketch> iterator = store.all()) {
+            while (iterator.hasNext()) {
+                KeyValue<Long, TopKSketch> window = iterator.next();
+                merged.merge(window.key, window.value, (left, right) -> {
+                    left.merge(right);
+                    return left;
+                });
+            }
+        }
+        return merged.entrySet().stream()
+                .map(window -> new TopKResult(target, window.getKey(), window.getKey() + windowSize.toMillis(),
+                        window.getValue().total(), window.getValue().top()))
+                .toList();
+    }
+
+    /**
+     * 키가 속한 파티션을 소유한 인스턴스 조회
+     */
+    public KeyQueryMetadata keyMetadata(String storeName, String key) {
+        KeyQueryMetadata metadata = kafkaStreams().queryMetadataForKey(storeName, key, Serdes.String().serializer());
+        if (metadata == null || KeyQueryMetadata.NOT_AVAILABLE.equals(metadata)) {
+            throw new InvalidStateStoreException("키 소유 인스턴스를 찾을 수 없습니다 - Store: " + storeName + ", Key: " + key);
+        }
+        return metadata;
+    }
+
+    /**
+     * 저장소 파티션을 나눠 가진 전체 인스턴스 조회
+     */
+    public Collection<StreamsMetadata> storeMetadata(String storeName) {
+        return kafkaStreams().streamsMetadataForStore(storeName);
+    }
+
+    private ReadOnlyKeyValueStore<String, Long> wordCountStore() {
+        return kafkaStreams().store(StoreQueryParameters.fromNameAndType(
+                KafkaStreamsConfig.WORD_COUNTS_STORE, QueryableStoreTypes.keyValueStore()));
+    }
+
+    // 카운트 저장소는 Long, 매출 저장소는 SalesStats
+    private ReadOnlyWindowStore<String, Object> windowStore(String storeName) {
+        return kafkaStreams().store(StoreQueryParameters.fromNameAndType(
+                storeName, QueryableStoreTypes.windowStore()));
+    }
+
+    private KafkaStreams kafkaStreams() {
+        KafkaStreams kafkaStreams = streamsBuilderFactoryBean.getKafkaStreams();
+        if (kafkaStreams == null || kafkaStreams.state() != KafkaStreams.State.RUNNING) {
+            throw new InvalidStateStoreException("카프카 스트림즈가 아직 조회 가능한 상태가 아닙니다: "
+                    + (kafkaStreams == null ? "NOT_STARTED" : kafkaStreams.state()));
+        }
+        return kafkaStreams;
+    }
+
+    private List<KeyedValue> toKeyedValues(KeyValueIterator<String, Long> iterator) {
+        List<KeyedValue> results = new ArrayList<>();
+        while (iterator.hasNext()) {
+            KeyValue<String, Long> entry = iterator.next();
+            results.add(new KeyedValue(entry.key, entry.value));
+        }
+        return results;
+    }
+
+    private List<WindowedValue> toWindowedValues(KeyValueIterator<Windowed<String>, Object> iterator) {
+        List<WindowedValue> results = new ArrayList<>();
+        while (iterator.hasNext()) {
+            KeyValue<Windowed<String>, Object> entry = iterator.next();
+            String key = entry.key.key();
+            long windowStart = entry.key.window().start();
+            long windowEnd = entry.key.window().end();
+            if (entry.value instanceof SalesStats stats) {
+                results.add(new WindowedValue(key, windowStart, windowEnd,
+                        stats.sum(), stats.count(), stats.min(), stats.max(), stats.average()));
+            } else {
+                results.add(new WindowedValue(key, windowStart, windowEnd, (Long) entry.value));
+            }
+        }
+        return results;
+    }
+}
@@ -0,0 +1,132 @@
+package com.sample.kafka.service;
+
+import com.sample.kafka.metrics.PipelineMetrics;
+import io.micrometer.core.instrument.Counter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * 상품 -> 카테고리 조회 LRU 캐시
+ *
+ * 원본은 product-categories-topic (compact, 키: 상품명, 값: 카테고리) 을 읽는 글로벌 저장소이고,
+ * 매출 보강 프로세서는 이 캐시를 거쳐 조회한다. 카테고리가 없는 상품도 빈 값으로 캐시해 저장소를 다시 읽지 않는다.
+ * 모든 스트림 스레드가 레코드마다 조회하므로 캐시를 상품명 해시로 나눈 구획(구획마다 LRU)으로 두고,
+ * 잠금은 구획 하나에서 맵을 읽고 쓰는 동안만 잡는다 (저장소 조회는 잠금 밖).
+ * 글로벌 저장소 갱신 시 저장소에 먼저 쓰고 invalidate 하며, invalidate 는 버전을 올린다.
+ * 조회는 적재 전에 읽은 버전이 그대로일 때만 캐시에 넣으므로, 갱신 전 값을 읽어 온 조회가 갱신 후에 캐시를 덮어쓰지 않는다.
+ */
+@Service
+public class ProductCategoryService {
+
+    private static final String UNCATEGORIZED = "";
+    private static final int MAX_SEGMENTS = 16;
+
+    private final Segment[] segments;
+    private final AtomicLong version = new AtomicLong();
+    private final Counter hits;
+    private final Counter misses;
+
+    public ProductCategoryService(PipelineMetrics metrics,
+                                  @Value("${app.streams.category-enrichment.cache-size:10000}") int cacheSize) {
+        int segmentCount = Math.max(1, Math.min(MAX_SEGMENTS, cacheSize));
+        int segmentCapacity = Math.max(1, cacheSize / segmentCount);
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(segmentCapacity);
+        }
+        this.hits = metrics.categoryCacheLookups(true);
+        this.misses = metrics.categoryCacheLookups(false);
+        metrics.gaugeCategoryCacheSize(this::cacheSize);
+    }
+
+    /**
+     * @param loader 캐시에 없을 때 글로벌 저장소에서 읽는 함수 (없으면 null)
+     * @return 카테고리 (매핑이 없으면 null)
+     */
+    public String lookup(String productName, Function<String, String> loader) {
+        Segment segment = segmentFor(productName);
+        String category;
+        synchronized (segment) {
+            category = segment.get(productName);
+        }
+        if (category != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            long observed = version.get();
+            String loaded = loader.apply(productName);
+            category = loaded == null ? UNCATEGORIZED : loaded;
+            synchronized (segment) {
+                // 적재하는 동안 invalidate 가 있었으면 읽은 값이 이미 낡았을 수 있으므로 넣지 않음
+                if (version.get() == observed) {
+                    segment.put(productName, category);
+                }
+            }
+        }
+        return category.isEmpty() ? null : category;
+    }
+
+    /**
+     * 글로벌 저장소에서 매핑이 바뀐 상품을 캐시에서 제거
+     */
+    public void invalidate(String productName) {
+        Segment segment = segmentFor(productName);
+        synchronized (segment) {
+            version.incrementAndGet();
+            segment.remove(productName);
+        }
+    }
+
+    public int cacheSize() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * 기동 이후 캐시 적중률 (조회가 없으면 0)
+     */
+    public double hitRate() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0 : hits.count() / total;
+    }
+
+    public long hitCount() {
+        return (long) hits.count();
+    }
+
+    public long missCount() {
+        return (long) misses.count();
+    }
+
+    private Segment segmentFor(String productName) {
+        return segments[Math.floorMod(productName.hashCode(), segments.length)];
+    }
+
+    /**
+     * 접근 순서 LRU 구획 (호출하는 쪽이 구획 자체로 동기화)
+     */
+    private static final class Segment extends LinkedHashMap<String, String> {
+
+        private final int capacity;
+
+        private Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > capacity;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.sample.kafka.service;
+
+import com.sample.kafka.config.KafkaStreamsConfig;
+import com.sample.kafka.entity.TimeBuckets;
+import com.sample.kafka.repository.DailySalesResultRepository;
+import com.sample.kafka.repository.EventCountResultRepository;
+import com.sample.kafka.repository.HourlySalesResultRepository;
+import com.sample.kafka.repository.UserSessionResultRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 집계 결과 보관 기간 관리
+ *
+ * 보관 기간(월)이 지난 버킷을 테이블별로 batch-size 건씩 나눠 삭제한다.
+ * H2 에는 테이블 파티션이 없어 만료된 월 파티션을 O(1) 로 떼어내는 방식은 쓸 수 없으므로,
+ * 버킷 인덱스로 만료 행의 id 만 읽어 배치마다 별도 트랜잭션으로 지운다 (잠금과 undo 로그가 배치 크기로 제한됨).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ResultRetentionService {
+
+    private final HourlySalesResultRepository hourlySalesRepository;
+    private final DailySalesResultRepository dailySalesRepository;
+    private final EventCountResultRepository eventCountRepository;
+    private final UserSessionResultRepository userSessionRepository;
+
+    @Value("${app.persistence.retention.hourly-months:3}")
+    private int hourlyRetentionMonths;
+
+    @Value("${app.persistence.retention.daily-months:24}")
+    private int dailyRetentionMonths;
+
+    @Value("${app.persistence.retention.event-months:1}")
+    private int eventRetentionMonths;
+
+    @Value("${app.persistence.retention.session-months:1}")
+    private int sessionRetentionMonths;
+
+    @Value("${app.persistence.retention.batch-size:1000}")
+    private int batchSize;
+
+    /**
+     * 보관 기간이 지난 버킷 정리 (기본: 매일 00:10)
+     */
+    @Scheduled(cron = "${app.persistence.retention.cron:0 10 0 * * *}", zone = "Asia/Seoul")
+    public void dropExpiredBuckets() {
+        YearMonth now = YearMonth.now(KafkaStreamsConfig.ZONE);
+
+        int hourlyDeleted = deleteInBatches(hourlySalesRepository,
+            page -> hourlySalesRepository.findIdsInBucketsBefore(cutoff(now, hourlyRetentionMonths), page));
+        int dailyDeleted = deleteInBatches(dailySalesRepository,
+            page -> dailySalesRepository.findIdsInBucketsBefore(cutoff(now, dailyRetentionMonths), page));
+        int eventDeleted = deleteInBatches(eventCountRepository,
+            page -> eventCountRepository.findIdsInBucketsBefore(cutoff(now, eventRetentionMonths), page));
+        int sessionDeleted = deleteInBatches(userSessionRepository,
+            page -> userSessionRepository.findIdsInBucketsBefore(cutoff(now, sessionRetentionMonths), page));
+
+        log.info("🧹 [보관 기간 정리] 시간별: {}건, 일별: {}건, 이벤트: {}건, 세션: {}건 삭제",
+            hourlyDeleted, dailyDeleted, eventDeleted, sessionDeleted);
+    }
+
+    /**
+     * 만료 행이 없을 때까지 batchSize 건씩 삭제 (지운 행은 다음 조회에서 빠지므로 항상 첫 페이지를 읽음)
+     */
+    private int deleteInBatches(JpaRepository<?, Long> repository, Function<Pageable, List<Long>> expiredIds) {
+        Pageable firstPage = PageRequest.of(0, batchSize);
+        int deleted = 0;
+        List<Long> ids;
+        while (!(ids = expiredIds.apply(firstPage)).isEmpty()) {
+            repository.deleteAllByIdInBatch(ids);
+            deleted += ids.size();
+        }
+        return deleted;
+    }
+
+    /**
+     * 이번 달과 지난 retentionMonths 개월(최소 1개월)을 온전히 남기고 그 이전 버킷을 삭제 대상으로 한다.
+     * 지난달을 항상 남기므로 매월 1일에 돌아도 막 확정된 전날 윈도우(일별 윈도우 + grace 포함)를 지우지 않는다.
+     */
+    private static int cutoff(YearMonth now, int retentionMonths) {
+        return TimeBuckets.monthOf(now.minusMonths(Math.max(retentionMonths, 1)));
+    }
+}
@@ -0,0 +1,97 @@
+package com.sample.kafka.service;
+
+import com.sample.kafka.config.KafkaStreamsConfig;
+import com.sample.kafka.dto.SalePercentilesResponse;
+import com.sample.kafka.entity.HourlySalesResult;
+import com.sample.kafka.repository.HourlySalesResultRepository;
+import com.sample.kafka.streams.TDigest;
+import com.sample.kafka.streams.TDigestSerde;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.errors.SerializationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 저장된 시간별 t-digest 를 병합해 시간별/일별 판매 금액 분위수를 계산
+ *
+ * 분위수는 시간대별 값을 평균내면 틀리므로 (건수와 분포가 시간대마다 다름) 다이제스트를 병합한 뒤 다시 추정한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SalePercentilesQueryService {
+
+    private static final DateTimeFormatter HOURLY_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:00");
+    private static final DateTimeFormatter DAILY_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    private final HourlySalesResultRepository hourlySalesRepository;
+
+    /**
+     * @param unit HOURS 또는 DAYS
+     */
+    @Transactional(readOnly = true)
+    public List<SalePercentilesResponse> getPercentiles(String productName, ChronoUnit unit,
+                                                        LocalDateTime from, LocalDateTime to) {
+        DateTimeFormatter formatter = switch (unit) {
+            case HOURS -> HOURLY_FORMATTER;
+            case DAYS -> DAILY_FORMATTER;
+            default -> throw new IllegalArgumentException("지원하지 않는 기간 단위: " + unit);
+        };
+
+        Map<LocalDateTime, Period> periods = new LinkedHashMap<>();
+        for (HourlySalesResult window : hourlySalesRepository
+                .findByProductNameAndWindowStartBetweenOrderByWindowStart(productName, from.truncatedTo(unit), to)) {
+            if (window.getSaleDigest() == null) {
+                continue;
+            }
+            TDigest digest;
+            try {
+                digest = TDigestSerde.fromBytes(window.getSaleDigest());
+            } catch (SerializationException e) {
+                log.warn("판매 금액 다이제스트 해석 실패 - 상품: {}, 시간대: {}", productName, window.getWindowStart(), e);
+                continue;
+            }
+            LocalDateTime periodStart = window.getWindowStart().truncatedTo(unit);
+            Period period = periods.get(periodStart);
+            if (period == null) {
+                periods.put(periodStart, new Period(digest));
+            } else if (period.digest.compression() != digest.compression()) {
+                // compression 설정이 바뀐 구간은 병합할 수 없으므로 건너뛴다
+                log.warn("compression 이 다른 다이제스트 제외 - 상품: {}, 시간대: {}", productName, window.getWindowStart());
+            } else {
+                period.digest.merge(digest);
+                period.windows++;
+            }
+        }
+
+        List<SalePercentilesResponse> responses = new ArrayList<>(periods.size());
+        periods.forEach((periodStart, period) -> responses.add(new SalePercentilesResponse(
+                productName,
+                formatter.format(periodStart),
+                periodStart.atZone(KafkaStreamsConfig.ZONE).toInstant().toEpochMilli(),
+                period.windows,
+                period.digest.count(),
+                Math.round(period.digest.quantile(0.50)),
+                Math.round(period.digest.quantile(0.95)),
+                Math.round(period.digest.quantile(0.99)))));
+        return responses;
+    }
+
+    private static final class Period {
+        private final TDigest digest;
+        private int windows = 1;
+
+        private Period(TDigest digest) {
+            this.digest = digest;
+        }
+    }
+}
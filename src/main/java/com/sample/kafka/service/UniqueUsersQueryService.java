@@ -0,0 +1,102 @@
+package com.sample.kafka.service;
+
+import com.sample.kafka.config.KafkaStreamsConfig;
+import com.sample.kafka.dto.UniqueUsersResponse;
+import com.sample.kafka.entity.EventCountResult;
+import com.sample.kafka.repository.EventCountResultRepository;
+import com.sample.kafka.streams.HyperLogLog;
+import com.sample.kafka.streams.HyperLogLogSerde;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.errors.SerializationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 저장된 5분 윈도우 HyperLogLog 스케치를 병합해 시간별/일별 고유 사용자 수를 계산
+ *
+ * 고유 수는 더할 수 없으므로 (같은 사용자가 여러 윈도우에 나타남) 스케치 레지스터를 병합한 뒤 다시 추정한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UniqueUsersQueryService {
+
+    private static final DateTimeFormatter HOURLY_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:00");
+    private static final DateTimeFormatter DAILY_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    private final EventCountResultRepository eventCountRepository;
+
+    /**
+     * @param unit HOURS 또는 DAYS
+     */
+    @Transactional(readOnly = true)
+    public List<UniqueUsersResponse> getUniqueUsers(String eventType, ChronoUnit unit,
+                                                    LocalDateTime from, LocalDateTime to) {
+        DateTimeFormatter formatter = switch (unit) {
+            case HOURS -> HOURLY_FORMATTER;
+            case DAYS -> DAILY_FORMATTER;
+            default -> throw new IllegalArgumentException("지원하지 않는 기간 단위: " + unit);
+        };
+        long fromMs = from.truncatedTo(unit).atZone(KafkaStreamsConfig.ZONE).toInstant().toEpochMilli();
+        long toMs = to.atZone(KafkaStreamsConfig.ZONE).toInstant().toEpochMilli();
+
+        Map<LocalDateTime, Period> periods = new LinkedHashMap<>();
+        for (EventCountResult window : eventCountRepository
+                .findByEventTypeAndWindowStartMsBetweenOrderByWindowStartMs(eventType, fromMs, toMs)) {
+            if (window.getUserSketch() == null) {
+                continue;
+            }
+            HyperLogLog sketch;
+            try {
+                sketch = HyperLogLogSerde.fromBytes(window.getUserSketch());
+            } catch (SerializationException e) {
+                log.warn("고유 사용자 스케치 해석 실패 - 이벤트: {}, 윈도우: {}", eventType, window.getWindowStartMs(), e);
+                continue;
+            }
+            LocalDateTime periodStart = LocalDateTime.ofInstant(Instant.ofEpochMilli(window.getWindowStartMs()),
+                    KafkaStreamsConfig.ZONE).truncatedTo(unit);
+            Period period = periods.get(periodStart);
+            if (period == null) {
+                periods.put(periodStart, new Period(sketch, window.getUniqueUsers()));
+            } else if (period.sketch.precision() != sketch.precision()) {
+                // precision 설정이 바뀐 구간은 병합할 수 없으므로 건너뛴다
+                log.warn("precision 이 다른 스케치 제외 - 이벤트: {}, 윈도우: {}", eventType, window.getWindowStartMs());
+            } else {
+                period.sketch.merge(sketch);
+                period.windows++;
+                period.windowSum += window.getUniqueUsers();
+            }
+        }
+
+        List<UniqueUsersResponse> responses = new ArrayList<>(periods.size());
+        periods.forEach((periodStart, period) -> responses.add(new UniqueUsersResponse(
+                eventType,
+                formatter.format(periodStart),
+                periodStart.atZone(KafkaStreamsConfig.ZONE).toInstant().toEpochMilli(),
+                period.windows,
+                period.sketch.estimate(),
+                period.windowSum)));
+        return responses;
+    }
+
+    private static final class Period {
+        private final HyperLogLog sketch;
+        private int windows = 1;
+        private long windowSum;
+
+        private Period(HyperLogLog sketch, long windowSum) {
+            this.sketch = sketch;
+            this.windowSum = windowSum;
+        }
+    }
+}
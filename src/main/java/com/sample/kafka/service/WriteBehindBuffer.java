@@ -0,0 +1,352 @@
+package com.sample.kafka.service;
+
+import com.sample.kafka.consumer.TimeWindowConsumer;
+import com.sample.kafka.dto.AggregationResultMessage;
+import com.sample.kafka.dto.AggregationResultType;
+import com.sample.kafka.metrics.LatencyTrace;
+import com.sample.kafka.metrics.PipelineMetrics;
+import com.sample.kafka.producer.KafkaProducer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * 집계 결과 리스너와 DB 사이의 write-behind 버퍼
+ *
+ * - 리스너 스레드는 큐에 넣기만 하고 바로 다음 레코드를 처리한다.
+ * - 전용 writer 스레드가 batchSize 또는 flushInterval 단위로 모아 한 트랜잭션으로 저장한다.
+ * - 저장이 성공한 뒤에만 ack 하므로 오프셋은 DB 반영 이후에 커밋된다 (at-least-once).
+ * - 큐가 highWatermark 이상 차면 리스너 컨테이너를 pause 하고, lowWatermark 이하로 비면 resume 한다.
+ *   리스너 스레드는 절대 기다리지 않는다 (막히면 poll 이 멈춰 pause 가 적용되지 않고 max.poll.interval.ms 초과로 그룹에서 빠진다).
+ *   pause 는 다음 poll 부터 적용되므로 이미 받은 레코드만큼 capacity 를 넘을 수 있다.
+ * - 일괄 저장이 maxAttempts 번 실패하면 한 건씩 저장해 원인 레코드를 찾는다.
+ *   DB 장애(일시적 오류)가 아닌 오류로 실패한 레코드는 dead letter 토픽으로 보내고 ack 한다 (한 건 때문에 전체가 멈추지 않도록).
+ * - 회수되거나 잃은 파티션의 대기 결과는 버린다 (새 소유자가 커밋 위치부터 다시 받음).
+ */
+@Slf4j
+@Service
+public class WriteBehindBuffer implements SmartLifecycle {
+
+    // 리스너 컨테이너보다 먼저 시작하고 나중에 멈춘다 (컨테이너 기본 phase: Integer.MAX_VALUE - 100)
+    private static final int PHASE = Integer.MAX_VALUE - 200;
+
+    private static final Duration MAX_RETRY_BACKOFF = Duration.ofSeconds(10);
+
+    private static final List<String> LISTENER_IDS = List.of(
+            TimeWindowConsumer.HOURLY_SALES_LISTENER_ID,
+            TimeWindowConsumer.DAILY_SALES_LISTENER_ID,
+            TimeWindowConsumer.EVENT_COUNT_LISTENER_ID,
+            TimeWindowConsumer.USER_SESSION_LISTENER_ID);
+
+    private final AggregationStorageService storageService;
+    private final KafkaListenerEndpointRegistry listenerRegistry;
+    private final PipelineMetrics metrics;
+    private final KafkaProducer kafkaProducer;
+    private final BlockingQueue<PendingResult> queue = new LinkedBlockingQueue<>();
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final int highWatermark;
+    private final int lowWatermark;
+    private final int maxAttempts;
+    private final String deadLetterTopic;
+
+    // 현재 배치의 연속 저장 실패 횟수 (0 이 아니면 재시도 중)
+    private final AtomicInteger failedAttempts = new AtomicInteger();
+    private final AtomicBoolean paused = new AtomicBoolean(false);
+    private volatile boolean running;
+    private Thread writer;
+
+    public WriteBehindBuffer(AggregationStorageService storageService,
+                             KafkaListenerEndpointRegistry listenerRegistry,
+                             PipelineMetrics metrics,
+                             KafkaProducer kafkaProducer,
+                             @Value("${app.persistence.write-behind.capacity:10000}") int capacity,
+                             @Value("${app.persistence.write-behind.batch-size:200}") int batchSize,
+                             @Value("${app.persistence.write-behind.flush-interval:500ms}") Duration flushInterval,
+                             @Value("${app.persistence.write-behind.max-attempts:5}") int maxAttempts,
+                             @Value("${app.persistence.write-behind.dead-letter-topic:write-behind-dlt-topic}") String deadLetterTopic) {
+        this.storageService = storageService;
+        this.listenerRegistry = listenerRegistry;
+        this.metrics = metrics;
+        this.kafkaProducer = kafkaProducer;
+        metrics.gaugeWriteBehindQueue(queue);
+        metrics.gaugeWriteBehindFailedAttempts(failedAttempts::get);
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.highWatermark = capacity * 8 / 10;
+        this.lowWatermark = capacity * 2 / 10;
+        this.maxAttempts = maxAttempts;
+        this.deadLetterTopic = deadLetterTopic;
+    }
+
+    /**
+     * 집계 결과를 버퍼에 추가 (리스너 스레드에서 호출, 기다리지 않음)
+     * 큐가 highWatermark 이상이면 리스너를 pause 해 다음 poll 부터 새 레코드를 받지 않는다.
+     *
+     * @param timestamp 집계 결과 레코드의 타임스탬프 (end-to-end 지연 측정용)
+     * @param trace     레코드 헤더의 구간별 추적 시각
+     */
+    public void submit(AggregationResultType type, String message, String topic, int partition, long timestamp,
+                       LatencyTrace trace, Acknowledgment acknowledgment) {
+        queue.add(new PendingResult(new AggregationResultMessage(type, message),
+                new TopicPartition(topic, partition), timestamp, trace, acknowledgment));
+        if (queue.size() >= highWatermark) {
+            pauseListeners();
+        }
+    }
+
+    /**
+     * 회수되거나 잃은 파티션의 대기 결과를 버린다 (컨슈머 스레드의 리밸런스 콜백에서 호출)
+     * 이미 writer 가 가져간 배치는 그대로 저장된다 (upsert 라 새 소유자가 다시 저장해도 같은 결과).
+     */
+    public void discard(Collection<TopicPartition> partitions) {
+        if (partitions.isEmpty()) {
+            return;
+        }
+        int before = queue.size();
+        queue.removeIf(pending -> partitions.contains(pending.topicPartition()));
+        int discarded = before - queue.size();
+        if (discarded > 0) {
+            log.info("write-behind 대기 결과 {}건 버림 - 회수된 파티션: {}", discarded, partitions);
+        }
+    }
+
+    public int size() {
+        return queue.size();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writer = new Thread(this::runWriter, "write-behind-writer");
+        writer.setDaemon(true);
+        writer.start();
+        log.info("write-behind 버퍼 시작 - batchSize: {}, flushInterval: {}, highWatermark: {}, lowWatermark: {}",
+            batchSize, flushInterval, highWatermark, lowWatermark);
+    }
+
+    @Override
+    public void stop() {
+        // 남은 결과를 모두 flush 한 뒤 writer 종료
+        running = false;
+        try {
+            writer.join(MAX_RETRY_BACKOFF.toMillis() + flushInterval.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            log.warn("write-behind 버퍼 종료 - 저장하지 못한 결과 {}건 (ack 하지 않았으므로 재시작 후 다시 수신)", queue.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void runWriter() {
+        List<PendingResult> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingResult first = queue.poll(flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                // 첫 결과를 받은 시점부터 flushInterval 동안 batchSize 까지 모은다
+                long deadline = System.nanoTime() + flushInterval.toNanos();
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    PendingResult next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                if (!flushWithRetry(batch)) {
+                    return;
+                }
+                batch.clear();
+
+                if (queue.size() <= lowWatermark) {
+                    resumeListeners();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * 저장이 성공할 때까지 재시도한 뒤 순서대로 ack
+     * maxAttempts 번 실패하면 한 건씩 저장하며 일시적이지 않은 오류로 실패한 레코드를 dead letter 로 보낸다.
+     * 종료 중 저장에 실패하면 남은 결과는 ack 하지 않고 포기한다 (재시작 후 재수신).
+     */
+    private boolean flushWithRetry(List<PendingResult> batch) throws InterruptedException {
+        long backoffMs = 100;
+        int attempts = 0;
+        try {
+            while (true) {
+                try {
+                    saveAndAck(batch);
+                    return true;
+                } catch (RuntimeException e) {
+                    attempts++;
+                    failedAttempts.set(attempts);
+                    log.error("write-behind 저장 실패 ({}번째) - {}건", attempts, batch.size(), e);
+                }
+                if (attempts >= maxAttempts && saveOneByOne(batch)) {
+                    return true;
+                }
+                if (!running) {
+                    return false;
+                }
+                // 재시도 중에는 큐가 차서 리스너가 pause 된다
+                log.warn("write-behind 저장 재시도 - {}건, {}ms 후", batch.size(), backoffMs);
+                Thread.sleep(backoffMs);
+                backoffMs = Math.min(backoffMs * 2, MAX_RETRY_BACKOFF.toMillis());
+            }
+        } finally {
+            failedAttempts.set(0);
+        }
+    }
+
+    /**
+     * 한 건씩 저장 (ack 순서를 지키려고 앞에서부터 처리)
+     * 일시적 오류(DB 연결 실패 등)를 만나면 거기서 멈추고 남은 결과를 batch 에 둔 채 false 를 돌려준다.
+     *
+     * @return batch 의 모든 결과를 저장하거나 dead letter 로 보냈으면 true
+     */
+    private boolean saveOneByOne(List<PendingResult> batch) {
+        Iterator<PendingResult> iterator = batch.iterator();
+        while (iterator.hasNext()) {
+            PendingResult pending = iterator.next();
+            try {
+                saveAndAck(List.of(pending));
+            } catch (RuntimeException e) {
+                if (isTransient(e)) {
+                    log.warn("write-behind 단건 저장 중 일시적 오류 - 남은 {}건은 재시도", batch.size(), e);
+                    return false;
+                }
+                deadLetter(pending, e);
+            }
+            iterator.remove();
+        }
+        return true;
+    }
+
+    private void saveAndAck(List<PendingResult> batch) {
+        List<AggregationResultMessage> messages = batch.stream().map(PendingResult::message).toList();
+        long startNanos = System.nanoTime();
+        storageService.saveBatch(messages);
+        metrics.recordPersistenceBatch(batch.size(), System.nanoTime() - startNanos);
+
+        long committedAt = System.currentTimeMillis();
+        batch.forEach(pending -> {
+            pending.acknowledgment().acknowledge();
+            metrics.recordEndToEndLag(pending.message().getType(), committedAt - pending.timestamp());
+            metrics.recordTrace(pending.message().getType(), pending.trace(), committedAt);
+        });
+    }
+
+    /**
+     * 저장할 수 없는 결과를 dead letter 토픽으로 보내고 ack (전송도 실패하면 로그만 남긴다)
+     */
+    private void deadLetter(PendingResult pending, RuntimeException cause) {
+        AggregationResultType type = pending.message().getType();
+        log.error("☠️ write-behind 저장 불가 - dead letter 로 보냄 - Type: {}, {}, 결과: {}",
+            type, pending.topicPartition(), pending.message().getMessage(), cause);
+        ProducerRecord<String, String> record = new ProducerRecord<>(deadLetterTopic, type.name(), pending.message().getMessage());
+        record.headers().add("dlt-source", pending.topicPartition().toString().getBytes(StandardCharsets.UTF_8));
+        record.headers().add("dlt-exception", String.valueOf(cause).getBytes(StandardCharsets.UTF_8));
+        try {
+            kafkaProducer.send(record).get(MAX_RETRY_BACKOFF.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            log.error("dead letter 전송 실패 - 로그로만 남기고 ack: {}", pending.message().getMessage(), e);
+        }
+        metrics.writeBehindDeadLetters(type).increment();
+        pending.acknowledgment().acknowledge();
+    }
+
+    /**
+     * DB 장애처럼 기다리면 풀리는 오류인지 (이 경우 레코드 탓이 아니므로 dead letter 로 보내지 않는다)
+     */
+    private static boolean isTransient(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TransientDataAccessException
+                    || cause instanceof RecoverableDataAccessException
+                    || cause instanceof DataAccessResourceFailureException
+                    || cause instanceof CannotCreateTransactionException
+                    || cause instanceof SQLTransientException
+                    || cause instanceof SQLRecoverableException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void pauseListeners() {
+        if (paused.compareAndSet(false, true)) {
+            log.warn("⏸ write-behind 큐 적체 ({}건) - 집계 결과 리스너 pause", queue.size());
+            LISTENER_IDS.forEach(id -> withContainer(id, MessageListenerContainer::pause));
+        }
+    }
+
+    private void resumeListeners() {
+        if (paused.compareAndSet(true, false)) {
+            log.info("▶ write-behind 큐 해소 ({}건) - 집계 결과 리스너 resume", queue.size());
+            LISTENER_IDS.forEach(id -> withContainer(id, MessageListenerContainer::resume));
+        }
+    }
+
+    private void withContainer(String listenerId, Consumer<MessageListenerContainer> action) {
+        MessageListenerContainer container = listenerRegistry.getListenerContainer(listenerId);
+        if (container != null) {
+            action.accept(container);
+        }
+    }
+
+    private record PendingResult(AggregationResultMessage message, TopicPartition topicPartition, long timestamp,
+                                 LatencyTrace trace, Acknowledgment acknowledgment) {
+    }
+}
@@ -0,0 +1,10 @@
+package com.sample.kafka.streams;
+
+/**
+ * 지각 여부가 판정된 입력 레코드 값
+ *
+ * @param late       윈도우 종료 + grace 가 이미 지나 윈도우 집계에서 버려질 레코드인지
+ * @param latenessMs 윈도우 종료 + grace 시점보다 늦은 정도 (정시 레코드는 0)
+ */
+public record Arrival<V>(V value, boolean late, long latenessMs) {
+}
@@ -0,0 +1,73 @@
+package com.sample.kafka.streams;
+
+import org.apache.kafka.streams.processor.api.FixedKeyProcessor;
+import org.apache.kafka.streams.processor.api.FixedKeyProcessorContext;
+import org.apache.kafka.streams.processor.api.FixedKeyProcessorSupplier;
+import org.apache.kafka.streams.processor.api.FixedKeyRecord;
+
+import java.time.Duration;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * 윈도우 집계 앞에서 지각 레코드를 판정하는 프로세서
+ *
+ * 윈도우 집계 프로세서와 같은 태스크에서 같은 순서로 레코드를 보므로,
+ * 같은 규칙(윈도우 종료 + grace <= 스트림 시간이면 버림)으로 관측한 스트림 시간을 따라가면
+ * 집계가 조용히 버릴 레코드를 미리 골라낼 수 있다.
+ * 호핑/슬라이딩처럼 레코드가 여러 윈도우에 들어가면 그중 가장 늦게 닫히는 윈도우 기준으로 판정한다
+ * (그 윈도우까지 닫혀야 집계가 레코드를 통째로 버림).
+ */
+public class ArrivalClassifier<K, V> implements FixedKeyProcessor<K, V, Arrival<V>> {
+
+    // 레코드 시각 -> 레코드가 들어가는 윈도우 중 가장 늦은 종료 시각
+    private final LongUnaryOperator lastWindowEnd;
+    private final long graceMs;
+    private FixedKeyProcessorContext<K, Arrival<V>> context;
+    private long observedStreamTime = -1L;
+
+    private ArrivalClassifier(LongUnaryOperator lastWindowEnd, Duration grace) {
+        this.lastWindowEnd = lastWindowEnd;
+        this.graceMs = grace.toMillis();
+    }
+
+    /**
+     * 텀블링 윈도우 기준
+     */
+    public static <K, V> FixedKeyProcessorSupplier<K, V, Arrival<V>> supplier(Duration windowSize, Duration grace) {
+        return supplier(EventWindowType.TUMBLING, windowSize, windowSize, grace);
+    }
+
+    /**
+     * @param advance HOPPING 에서만 사용 (윈도우 시작 간격)
+     */
+    public static <K, V> FixedKeyProcessorSupplier<K, V, Arrival<V>> supplier(EventWindowType type, Duration size,
+                                                                             Duration advance, Duration grace) {
+        long sizeMs = size.toMillis();
+        long advanceMs = advance.toMillis();
+        LongUnaryOperator lastWindowEnd = switch (type) {
+            case TUMBLING -> timestamp -> timestamp - (timestamp % sizeMs) + sizeMs;
+            // 레코드를 포함하는 마지막 윈도우는 레코드 직전 advance 경계에서 시작
+            case HOPPING -> timestamp -> timestamp - (timestamp % advanceMs) + sizeMs;
+            // 레코드에서 시작하는 윈도우 [t, t + size] 가 마지막 (종료 시각 포함이라 +1)
+            case SLIDING -> timestamp -> timestamp + sizeMs + 1;
+        };
+        return () -> new ArrivalClassifier<>(lastWindowEnd, grace);
+    }
+
+    @Override
+    public void init(FixedKeyProcessorContext<K, Arrival<V>> context) {
+        this.context = context;
+    }
+
+    @Override
+    public void process(FixedKeyRecord<K, V> record) {
+        long timestamp = record.timestamp();
+        observedStreamTime = Math.max(observedStreamTime, timestamp);
+
+        long windowEnd = lastWindowEnd.applyAsLong(timestamp);
+        long lateness = observedStreamTime - (windowEnd + graceMs);
+        boolean late = lateness >= 0;
+
+        context.forward(record.withValue(new Arrival<>(record.value(), late, late ? lateness : 0L)));
+    }
+}
@@ -0,0 +1,49 @@
+package com.sample.kafka.streams;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * UTF-8 바이트 배열 대문자 변환
+ *
+ * 모든 바이트가 ASCII(0x00~0x7F)이면 디코딩 없이 배열 안에서 a~z 만 바꾸고 같은 배열을 반환한다.
+ * 멀티바이트 문자가 하나라도 있으면 String 으로 디코딩해 toUpperCase() 한 뒤 다시 인코딩한다 (기존 문자열 경로와 같은 결과).
+ * 입력 배열을 수정하므로 다른 곳에서 참조하지 않는 배열(역직렬화 직후의 레코드 값 등)에만 쓴다.
+ */
+public final class AsciiUpperCase {
+
+    private static final int CASE_BIT = 'a' - 'A';
+
+    private AsciiUpperCase() {
+    }
+
+    /**
+     * @return ASCII 면 변환된 입력 배열 자체, 아니면 새 배열 (null 은 그대로)
+     */
+    public static byte[] apply(byte[] value) {
+        if (value == null) {
+            return null;
+        }
+        if (!isAscii(value)) {
+            return new String(value, StandardCharsets.UTF_8).toUpperCase().getBytes(StandardCharsets.UTF_8);
+        }
+        for (int i = 0; i < value.length; i++) {
+            byte b = value[i];
+            if (b >= 'a' && b <= 'z') {
+                value[i] = (byte) (b - CASE_BIT);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * UTF-8 멀티바이트 문자의 모든 바이트는 최상위 비트가 1 이므로 음수 바이트가 없으면 ASCII 다.
+     */
+    public static boolean isAscii(byte[] value) {
+        for (byte b : value) {
+            if (b < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
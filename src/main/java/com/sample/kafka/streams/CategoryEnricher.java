@@ -0,0 +1,66 @@
+package com.sample.kafka.streams;
+
+import io.micrometer.core.instrument.Counter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.streams.processor.api.Processor;
+import org.apache.kafka.streams.processor.api.ProcessorContext;
+import org.apache.kafka.streams.processor.api.ProcessorSupplier;
+import org.apache.kafka.streams.processor.api.Record;
+import org.apache.kafka.streams.state.KeyValueStore;
+
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * 상품 키 매출 레코드를 카테고리 키로 바꾸는 프로세서
+ *
+ * 입력: 키 = 상품명, 값 = 금액 / 출력: 키 = 카테고리, 값 = 금액 (타임스탬프, 헤더 유지)
+ * 카테고리는 글로벌 저장소(product-categories-topic)에서 찾되 lookup(캐시)을 거친다.
+ * 글로벌 저장소는 모든 태스크에서 읽을 수 있으므로 process 의 저장소 이름에 넣지 않는다.
+ * 매핑이 없는 상품은 내보내지 않고 unmapped 카운터만 올린다.
+ */
+@Slf4j
+public class CategoryEnricher implements Processor<String, String, String, String> {
+
+    private final String storeName;
+    private final BiFunction<String, Function<String, String>, String> lookup;
+    private final Counter unmappedRecords;
+
+    private ProcessorContext<String, String> context;
+    private KeyValueStore<String, String> store;
+
+    private CategoryEnricher(String storeName, BiFunction<String, Function<String, String>, String> lookup,
+                             Counter unmappedRecords) {
+        this.storeName = storeName;
+        this.lookup = lookup;
+        this.unmappedRecords = unmappedRecords;
+    }
+
+    /**
+     * @param lookup (상품명, 저장소 조회 함수) -> 카테고리 (없으면 null)
+     */
+    public static ProcessorSupplier<String, String, String, String> supplier(
+            String storeName, BiFunction<String, Function<String, String>, String> lookup, Counter unmappedRecords) {
+        return () -> new CategoryEnricher(storeName, lookup, unmappedRecords);
+    }
+
+    @Override
+    public void init(ProcessorContext<String, String> context) {
+        this.context = context;
+        this.store = context.getStateStore(storeName);
+    }
+
+    @Override
+    public void process(Record<String, String> record) {
+        if (record.key() == null) {
+            return;
+        }
+        String category = lookup.apply(record.key(), store::get);
+        if (category == null) {
+            unmappedRecords.increment();
+            log.debug("[스트림-카테고리보강] 카테고리 매핑 없음 - 상품: {}", record.key());
+            return;
+        }
+        context.forward(record.withKey(category));
+    }
+}
@@ -0,0 +1,101 @@
+package com.sample.kafka.streams;
+
+import org.apache.kafka.common.utils.Utils;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Count-Min Sketch (빈도 근사 카운터)
+ *
+ * depth x width 카운터 배열만 쓰므로 고유 항목 수와 관계없이 크기가 고정된다.
+ * 추정값은 실제 값 이상이며, 오차는 대략 전체 합계 x e / width 이내 (확률 1 - e^-depth).
+ * 같은 크기의 스케치끼리는 카운터를 더해 병합할 수 있다.
+ */
+public final class CountMinSketch {
+
+    private final int depth;
+    private final int width;
+    private final long[] counters;
+    private long total;
+
+    public CountMinSketch(int depth, int width) {
+        this(depth, width, new long[depth * width], 0L);
+    }
+
+    CountMinSketch(int depth, int width, long[] counters, long total) {
+        if (depth <= 0 || width <= 0 || counters.length != depth * width) {
+            throw new IllegalArgumentException("잘못된 스케치 크기 - depth: " + depth + ", width: " + width);
+        }
+        this.depth = depth;
+        this.width = width;
+        this.counters = counters;
+        this.total = total;
+    }
+
+    /**
+     * item 빈도에 count 를 더하고 갱신된 추정값을 반환
+     */
+    public long add(String item, long count) {
+        int h1 = Utils.murmur2(item.getBytes(StandardCharsets.UTF_8));
+        int h2 = secondHash(h1);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int index = row * width + bucket(h1, h2, row);
+            counters[index] += count;
+            estimate = Math.min(estimate, counters[index]);
+        }
+        total += count;
+        return estimate;
+    }
+
+    public long estimate(String item) {
+        int h1 = Utils.murmur2(item.getBytes(StandardCharsets.UTF_8));
+        int h2 = secondHash(h1);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters[row * width + bucket(h1, h2, row)]);
+        }
+        return estimate;
+    }
+
+    public void merge(CountMinSketch other) {
+        if (other.depth != depth || other.width != width) {
+            throw new IllegalArgumentException("크기가 다른 스케치는 병합할 수 없습니다");
+        }
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] += other.counters[i];
+        }
+        total += other.total;
+    }
+
+    public int depth() {
+        return depth;
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public long total() {
+        return total;
+    }
+
+    long[] counters() {
+        return counters;
+    }
+
+    // 행마다 다른 해시 대신 h1 + row * h2 (Kirsch-Mitzenmacher) 로 버킷을 고른다
+    private int bucket(int h1, int h2, int row) {
+        return Utils.toPositive(h1 + row * h2) % width;
+    }
+
+    private static int secondHash(int h1) {
+        int h = h1 ^ 0x9E3779B9;
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h | 1;
+    }
+}
@@ -0,0 +1,13 @@
+package com.sample.kafka.streams;
+
+/**
+ * 잠정 결과(early emit) 방출 주기의 기준 시간
+ */
+public enum EarlyEmitClock {
+
+    /** 스트림 시간 기준 - Suppressed.untilTimeLimit (레코드가 들어와야 시간이 흐름) */
+    STREAM_TIME,
+
+    /** 벽시계 기준 - 윈도우 저장소를 읽는 punctuator (입력이 없어도 주기적으로 방출) */
+    WALL_CLOCK
+}
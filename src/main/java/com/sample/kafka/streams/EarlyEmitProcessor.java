@@ -0,0 +1,89 @@
+package com.sample.kafka.streams;
+
+import org.apache.kafka.streams.processor.PunctuationType;
+import org.apache.kafka.streams.processor.api.Processor;
+import org.apache.kafka.streams.processor.api.ProcessorContext;
+import org.apache.kafka.streams.processor.api.ProcessorSupplier;
+import org.apache.kafka.streams.processor.api.Record;
+import org.apache.kafka.streams.state.TimestampedWindowStore;
+import org.apache.kafka.streams.state.ValueAndTimestamp;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * 벽시계 주기로 열린 윈도우의 현재 집계값을 잠정 결과로 내보내는 프로세서
+ *
+ * 윈도우 집계와 같은 입력(값은 보지 않음)을 받아 갱신된 (키, 윈도우)만 기록해 두고,
+ * punctuate 시점에 집계 저장소에서 현재 값을 읽어 방출한다.
+ * 이미 닫힌 윈도우는 suppress 의 확정 결과가 담당하므로 건너뛴다.
+ *
+ * @param <V> 집계 저장소 값 타입 (카운트는 Long, 매출은 SalesStats)
+ */
+public class EarlyEmitProcessor<V> implements Processor<String, Object, String, EarlyEmitProcessor.OpenWindow<V>> {
+
+    private final String storeName;
+    private final long windowSizeMs;
+    private final long graceMs;
+    private final Duration interval;
+
+    private final Set<DirtyWindow> dirtyWindows = new LinkedHashSet<>();
+    private ProcessorContext<String, OpenWindow<V>> context;
+    private TimestampedWindowStore<String, V> store;
+    private long observedStreamTime = -1L;
+
+    private EarlyEmitProcessor(String storeName, Duration windowSize, Duration grace, Duration interval) {
+        this.storeName = storeName;
+        this.windowSizeMs = windowSize.toMillis();
+        this.graceMs = grace.toMillis();
+        this.interval = interval;
+    }
+
+    public static <V> ProcessorSupplier<String, Object, String, OpenWindow<V>> supplier(String storeName,
+                                                                                     Duration windowSize,
+                                                                                     Duration grace,
+                                                                                     Duration interval) {
+        return () -> new EarlyEmitProcessor<>(storeName, windowSize, grace, interval);
+    }
+
+    @Override
+    public void init(ProcessorContext<String, OpenWindow<V>> context) {
+        this.context = context;
+        this.store = context.getStateStore(storeName);
+        context.schedule(interval, PunctuationType.WALL_CLOCK_TIME, now -> emitDirtyWindows());
+    }
+
+    @Override
+    public void process(Record<String, Object> record) {
+        long timestamp = record.timestamp();
+        observedStreamTime = Math.max(observedStreamTime, timestamp);
+        dirtyWindows.add(new DirtyWindow(record.key(), timestamp - (timestamp % windowSizeMs)));
+    }
+
+    private void emitDirtyWindows() {
+        for (DirtyWindow window : dirtyWindows) {
+            long windowEnd = window.start() + windowSizeMs;
+            if (windowEnd + graceMs <= observedStreamTime) {
+                continue;
+            }
+            ValueAndTimestamp<V> current = store.fetch(window.key(), window.start());
+            if (current == null) {
+                continue;
+            }
+            context.forward(new Record<>(window.key(),
+                    new OpenWindow<>(window.key(), window.start(), windowEnd, current.value()),
+                    Math.max(observedStreamTime, window.start())));
+        }
+        dirtyWindows.clear();
+    }
+
+    private record DirtyWindow(String key, long start) {
+    }
+
+    /**
+     * 아직 닫히지 않은 윈도우의 현재 집계값
+     */
+    public record OpenWindow<V>(String key, long windowStart, long windowEnd, V value) {
+    }
+}
@@ -0,0 +1,61 @@
+package com.sample.kafka.streams;
+
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.utils.Bytes;
+import org.apache.kafka.streams.kstream.Aggregator;
+import org.apache.kafka.streams.kstream.KGroupedStream;
+import org.apache.kafka.streams.kstream.KTable;
+import org.apache.kafka.streams.kstream.Materialized;
+import org.apache.kafka.streams.kstream.SlidingWindows;
+import org.apache.kafka.streams.kstream.TimeWindows;
+import org.apache.kafka.streams.kstream.Windowed;
+import org.apache.kafka.streams.state.WindowStore;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * 윈도우 종류별 이벤트 카운트 집계
+ *
+ * 하나의 groupByKey 스트림에서 윈도우 종류만 바꿔 붙이므로 소스 읽기와 지각 판정은 공유하고,
+ * 윈도우 구간이 서로 달라 집계 저장소는 윈도우 종류마다 따로 둔다.
+ * KafkaStreamsConfig 와 벤치마크가 같은 집계 경로를 쓰도록 분리해 두었다.
+ * count() 대신 aggregate 로 세어 하트비트는 윈도우를 만들지 않고 스트림 시간만 올린다.
+ * 하트비트가 켜져 있으면 저장소 캐시를 꺼서 하트비트 갱신이 suppress 까지 내려가게 한다 (Heartbeats.closing).
+ */
+public final class EventWindowCounts {
+
+    private EventWindowCounts() {
+    }
+
+    /**
+     * @param advance         HOPPING 에서만 사용 (윈도우 시작 간격)
+     * @param heartbeats      하트비트로 윈도우를 닫는지 여부
+     * @param changelogConfig 집계 저장소 changelog 토픽 설정
+     */
+    public static KTable<Windowed<String>, Long> count(KGroupedStream<String, String> grouped,
+                                                       EventWindowType type, Duration size,
+                                                       Duration advance, Duration grace, String storeName,
+                                                       boolean heartbeats, Map<String, String> changelogConfig) {
+        Materialized<String, Long, WindowStore<Bytes, byte[]>> materialized = Heartbeats.closing(
+                Materialized.<String, Long, WindowStore<Bytes, byte[]>>as(storeName)
+                        .withKeySerde(Serdes.String())
+                        .withValueSerde(Serdes.Long())
+                        .withLoggingEnabled(changelogConfig),
+                heartbeats);
+
+        Aggregator<String, String, Long> counter = Heartbeats.skip((key, value, count) -> count + 1);
+
+        return switch (type) {
+            case TUMBLING -> grouped
+                    .windowedBy(TimeWindows.ofSizeAndGrace(size, grace))
+                    .aggregate(() -> 0L, counter, materialized);
+            case HOPPING -> grouped
+                    .windowedBy(TimeWindows.ofSizeAndGrace(size, grace).advanceBy(advance))
+                    .aggregate(() -> 0L, counter, materialized);
+            case SLIDING -> grouped
+                    .windowedBy(SlidingWindows.ofTimeDifferenceAndGrace(size, grace))
+                    .aggregate(() -> 0L, counter, materialized);
+        };
+    }
+}
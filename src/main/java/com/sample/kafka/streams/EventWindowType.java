@@ -0,0 +1,16 @@
+package com.sample.kafka.streams;
+
+/**
+ * 이벤트 카운팅 윈도우 종류
+ */
+public enum EventWindowType {
+
+    /** 겹치지 않는 고정 윈도우 - 레코드 하나가 윈도우 하나에 들어감 */
+    TUMBLING,
+
+    /** advanceBy 간격으로 시작하는 겹치는 고정 윈도우 - 레코드 하나가 size / advance 개 윈도우에 들어감 */
+    HOPPING,
+
+    /** 레코드 시각 기준으로 끝나는 윈도우 - 레코드마다 윈도우가 생기고, 겹치는 윈도우도 함께 갱신됨 */
+    SLIDING
+}
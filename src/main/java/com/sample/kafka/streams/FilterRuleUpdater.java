@@ -0,0 +1,69 @@
+package com.sample.kafka.streams;
+
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.processor.api.Processor;
+import org.apache.kafka.streams.processor.api.ProcessorContext;
+import org.apache.kafka.streams.processor.api.ProcessorSupplier;
+import org.apache.kafka.streams.processor.api.Record;
+import org.apache.kafka.streams.state.KeyValueIterator;
+import org.apache.kafka.streams.state.KeyValueStore;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * filter-rules-topic 을 글로벌 저장소에 반영하고 필터 규칙을 다시 컴파일하는 프로세서
+ *
+ * 모든 인스턴스가 같은 규칙 토픽 전체를 읽으므로 규칙 변경이 재시작 없이 전체에 퍼진다.
+ * 재시작 시 저장소 복원은 이 프로세서를 거치지 않으므로 init 에서 저장소 전체로 한 번 컴파일한다.
+ */
+public class FilterRuleUpdater implements Processor<String, String, Void, Void> {
+
+    private final String storeName;
+    private final Consumer<Map<String, String>> onRulesChanged;
+    private KeyValueStore<String, String> store;
+
+    private FilterRuleUpdater(String storeName, Consumer<Map<String, String>> onRulesChanged) {
+        this.storeName = storeName;
+        this.onRulesChanged = onRulesChanged;
+    }
+
+    /**
+     * @param onRulesChanged 갱신된 전체 규칙 (규칙 ID -> 키워드) 을 받는 콜백
+     */
+    public static ProcessorSupplier<String, String, Void, Void> supplier(String storeName,
+                                                                     Consumer<Map<String, String>> onRulesChanged) {
+        return () -> new FilterRuleUpdater(storeName, onRulesChanged);
+    }
+
+    @Override
+    public void init(ProcessorContext<Void, Void> context) {
+        this.store = context.getStateStore(storeName);
+        onRulesChanged.accept(snapshot());
+    }
+
+    @Override
+    public void process(Record<String, String> record) {
+        if (record.key() == null) {
+            return;
+        }
+        if (record.value() == null || record.value().isBlank()) {
+            store.delete(record.key());
+        } else {
+            store.put(record.key(), record.value());
+        }
+        onRulesChanged.accept(snapshot());
+    }
+
+    private Map<String, String> snapshot() {
+        Map<String, String> rules = new LinkedHashMap<>();
+        try (KeyValueIterator<String, String> iterator = store.all()) {
+            while (iterator.hasNext()) {
+                KeyValue<String, String> rule = iterator.next();
+                rules.put(rule.key, rule.value);
+            }
+        }
+        return rules;
+    }
+}
@@ -0,0 +1,88 @@
+package com.sample.kafka.streams;
+
+import org.apache.kafka.streams.kstream.Aggregator;
+import org.apache.kafka.streams.kstream.KStream;
+import org.apache.kafka.streams.kstream.Materialized;
+import org.apache.kafka.streams.kstream.Repartitioned;
+import org.apache.kafka.streams.processor.StateStore;
+import org.apache.kafka.streams.processor.StreamPartitioner;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * 윈도우 하트비트 레코드 처리 (WindowHeartbeatTicker 가 보내는 예약 키)
+ *
+ * suppress 와 윈도우 집계는 자기가 받은 레코드로만 스트림 시간을 올리므로, 하트비트는 닫아야 할 윈도우 집계까지는
+ * 들어가야 한다. 대신 집계 함수가 하트비트에 null 을 돌려 저장소에는 아무것도 남기지 않고(null 은 삭제),
+ * suppress(untilWindowCloses) 는 null 결과를 방출하지 않으므로 결과 쪽에서 따로 거를 필요가 없다.
+ * 윈도우를 닫지 않는 소비자(상위 K, 카테고리 보강, 입력 카운트, 지각 분리)는 소스 경계에서 drop 으로 뺀다.
+ *
+ * 하트비트가 켜져 있을 때 (enabled)
+ * - 레코드 캐시는 저장소에 없던 키의 삭제(새 값/이전 값 모두 null)를 아래로 내려보내지 않으므로 집계 저장소의 캐시를 끈다
+ * - 중간에 키를 바꾸는 재파티셔닝(세션, 핫 키 하위 키/병합)은 하트비트를 모든 파티션으로 복제해 파티션마다 윈도우가 닫히게 한다
+ */
+public final class Heartbeats {
+
+    /** 하트비트 레코드의 예약 키 (실제 상품/카테고리/이벤트 타입으로 쓰지 않는다) */
+    public static final String KEY = "__heartbeat__";
+
+    private Heartbeats() {
+    }
+
+    public static boolean isHeartbeat(String key) {
+        return KEY.equals(key);
+    }
+
+    /**
+     * 하트비트를 뺀 실제 레코드만
+     */
+    public static <V> KStream<String, V> drop(KStream<String, V> stream) {
+        return stream.filterNot((key, value) -> isHeartbeat(key));
+    }
+
+    /**
+     * 하트비트는 집계하지 않고 null 을 돌려 윈도우/세션을 만들지 않는다 (스트림 시간만 올림)
+     */
+    public static <V, A> Aggregator<String, V, A> skip(Aggregator<String, V, A> aggregator) {
+        return (key, value, aggregate) -> isHeartbeat(key) ? null : aggregator.apply(key, value, aggregate);
+    }
+
+    /**
+     * suppress 로 닫는 집계 저장소 (하트비트가 켜져 있으면 캐시를 꺼서 하트비트 갱신이 suppress 까지 가게 함)
+     */
+    public static <K, V, S extends StateStore> Materialized<K, V, S> closing(Materialized<K, V, S> materialized,
+                                                                            boolean enabled) {
+        return enabled ? materialized.withCachingDisabled() : materialized;
+    }
+
+    /**
+     * 하트비트가 켜져 있으면 하트비트를 재파티셔닝 토픽의 모든 파티션으로 보낸다 (다른 키는 기본 파티셔닝)
+     */
+    public static <V> Repartitioned<String, V> fanOut(Repartitioned<String, V> repartitioned, boolean enabled) {
+        return enabled ? repartitioned.withStreamPartitioner(partitioner()) : repartitioned;
+    }
+
+    public static <V> StreamPartitioner<String, V> partitioner() {
+        return new FanOutPartitioner<>();
+    }
+
+    private static final class FanOutPartitioner<V> implements StreamPartitioner<String, V> {
+
+        @Override
+        @Deprecated
+        public Integer partition(String topic, String key, V value, int numPartitions) {
+            return null;
+        }
+
+        @Override
+        public Optional<Set<Integer>> partitions(String topic, String key, V value, int numPartitions) {
+            if (!isHeartbeat(key)) {
+                return Optional.empty();
+            }
+            return Optional.of(IntStream.range(0, numPartitions).boxed().collect(Collectors.toSet()));
+        }
+    }
+}
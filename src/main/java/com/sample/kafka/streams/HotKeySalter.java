@@ -0,0 +1,100 @@
+package com.sample.kafka.streams;
+
+import io.micrometer.core.instrument.Counter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.streams.processor.PunctuationType;
+import org.apache.kafka.streams.processor.api.Processor;
+import org.apache.kafka.streams.processor.api.ProcessorContext;
+import org.apache.kafka.streams.processor.api.ProcessorSupplier;
+import org.apache.kafka.streams.processor.api.Record;
+
+import java.time.Duration;
+
+/**
+ * 핫 키 2단계 집계의 키 분산 프로세서
+ *
+ * KeyRateTracker 로 키별 유입률을 보고, 핫 키로 판정된 키의 레코드만 "키 + 구분자 + 순번" 하위 키로 바꿔
+ * 다음 재파티셔닝에서 여러 파티션(스레드)으로 나눠지게 한다. 그 외 키는 그대로 보낸다.
+ * 하위 키는 2단계에서 unsalt 로 원래 키로 되돌려 병합하므로, 핫 키 판정 시점이 달라도 집계 결과는 같다.
+ */
+@Slf4j
+public class HotKeySalter implements Processor<String, String, String, String> {
+
+    // 상품명/카테고리에 쓰이지 않는 제어 문자 (Unit Separator)
+    public static final char SALT_SEPARATOR = '\u001F';
+
+    private static final Duration RATE_INTERVAL = Duration.ofSeconds(1);
+
+    private final String name;
+    private final int salts;
+    private final KeyRateTracker tracker;
+    private final Counter saltedRecords;
+
+    private ProcessorContext<String, String> context;
+    private long lastRollMs;
+
+    private HotKeySalter(String name, int salts, double threshold, Counter saltedRecords) {
+        this.name = name;
+        this.salts = salts;
+        this.tracker = new KeyRateTracker(threshold);
+        this.saltedRecords = saltedRecords;
+    }
+
+    /**
+     * @param salts     핫 키 하나를 나눌 하위 키 수
+     * @param threshold 핫 키 판정 기준 (태스크 기준 초당 레코드 수)
+     */
+    public static ProcessorSupplier<String, String, String, String> supplier(String name, int salts, double threshold,
+                                                                         Counter saltedRecords) {
+        if (salts < 2) {
+            throw new IllegalArgumentException("하위 키 수는 2 이상이어야 합니다: " + salts);
+        }
+        return () -> new HotKeySalter(name, salts, threshold, saltedRecords);
+    }
+
+    public static String salt(String key, int salt) {
+        return key + SALT_SEPARATOR + salt;
+    }
+
+    /**
+     * 하위 키를 원래 키로 (하위 키가 아니면 그대로)
+     */
+    public static String unsalt(String key) {
+        int separator = key.lastIndexOf(SALT_SEPARATOR);
+        return separator < 0 ? key : key.substring(0, separator);
+    }
+
+    @Override
+    public void init(ProcessorContext<String, String> context) {
+        this.context = context;
+        this.lastRollMs = context.currentSystemTimeMs();
+        context.schedule(RATE_INTERVAL, PunctuationType.WALL_CLOCK_TIME, this::roll);
+    }
+
+    @Override
+    public void process(Record<String, String> record) {
+        String key = record.key();
+        if (key == null) {
+            context.forward(record);
+            return;
+        }
+        KeyRateTracker.KeyRate rate = tracker.record(key);
+        if (!rate.hot()) {
+            context.forward(record);
+            return;
+        }
+        saltedRecords.increment();
+        context.forward(record.withKey(salt(key, rate.nextSalt(salts))));
+    }
+
+    private void roll(long now) {
+        tracker.roll(now - lastRollMs, (key, hot, perSecond) -> {
+            if (hot) {
+                log.info("🔥 [{} 핫 키] {} - 초당 {}건, 하위 키 {}개로 분산", name, key, Math.round(perSecond), salts);
+            } else {
+                log.info("[{} 핫 키 해제] {} - 초당 {}건", name, key, Math.round(perSecond));
+            }
+        });
+        lastRollMs = now;
+    }
+}
@@ -0,0 +1,109 @@
+package com.sample.kafka.streams;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * HyperLogLog (고유 항목 수 근사)
+ *
+ * 2^precision 개의 1바이트 레지스터만 쓰므로 항목이 몇 개가 들어와도 크기가 고정된다.
+ * 표준 오차는 약 1.04 / sqrt(2^precision) (precision 12 → 4KB, 약 1.6%).
+ * 같은 precision 의 스케치끼리는 레지스터 최댓값으로 병합되어, 윈도우 여러 개를 합친 고유 수를 다시 셀 필요가 없다.
+ */
+public final class HyperLogLog {
+
+    public static final int MIN_PRECISION = 4;
+    public static final int MAX_PRECISION = 16;
+
+    private final int precision;
+    private final byte[] registers;
+
+    public HyperLogLog(int precision) {
+        this(precision, new byte[1 << checkPrecision(precision)]);
+    }
+
+    HyperLogLog(int precision, byte[] registers) {
+        if (registers.length != 1 << checkPrecision(precision)) {
+            throw new IllegalArgumentException("레지스터 수가 precision 과 맞지 않습니다: " + registers.length);
+        }
+        this.precision = precision;
+        this.registers = registers;
+    }
+
+    public void add(String item) {
+        long hash = hash64(item.getBytes(StandardCharsets.UTF_8));
+        int index = (int) (hash >>> (Long.SIZE - precision));
+        // 남은 비트의 선행 0 개수 + 1 (모두 0 이어도 64 - precision + 1 에서 멈추도록 보초 비트를 둔다)
+        int rank = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+        if (rank > registers[index]) {
+            registers[index] = (byte) rank;
+        }
+    }
+
+    public long estimate() {
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = alpha(m) * m * m / sum;
+        if (estimate <= 2.5 * m && zeros > 0) {
+            // 작은 범위 보정 (linear counting)
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    public void merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("precision 이 다른 스케치는 병합할 수 없습니다: " + precision + " / " + other.precision);
+        }
+        for (int i = 0; i < registers.length; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    public int precision() {
+        return precision;
+    }
+
+    byte[] registers() {
+        return registers;
+    }
+
+    private static double alpha(int m) {
+        return switch (m) {
+            case 16 -> 0.673;
+            case 32 -> 0.697;
+            case 64 -> 0.709;
+            default -> 0.7213 / (1 + 1.079 / m);
+        };
+    }
+
+    // FNV-1a 64 + MurmurHash3 fmix64 (64비트 해시라 큰 범위 보정이 필요 없다)
+    private static long hash64(byte[] bytes) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : bytes) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static int checkPrecision(int precision) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("precision 은 " + MIN_PRECISION + "~" + MAX_PRECISION + " 사이여야 합니다: " + precision);
+        }
+        return precision;
+    }
+}
@@ -0,0 +1,50 @@
+package com.sample.kafka.streams;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.util.Arrays;
+
+/**
+ * HyperLogLog 바이너리 Serde
+ *
+ * 형식: [버전 1][precision 1][레지스터 2^precision]
+ * 윈도우 저장소와 DB(event_count_result.user_sketch)가 같은 형식을 쓴다.
+ */
+public class HyperLogLogSerde implements Serde<HyperLogLog> {
+
+    private static final byte VERSION = 1;
+    private static final int HEADER_SIZE = 2;
+
+    @Override
+    public Serializer<HyperLogLog> serializer() {
+        return (topic, sketch) -> sketch == null ? null : toBytes(sketch);
+    }
+
+    @Override
+    public Deserializer<HyperLogLog> deserializer() {
+        return (topic, bytes) -> bytes == null ? null : fromBytes(bytes);
+    }
+
+    public static byte[] toBytes(HyperLogLog sketch) {
+        byte[] registers = sketch.registers();
+        byte[] bytes = new byte[HEADER_SIZE + registers.length];
+        bytes[0] = VERSION;
+        bytes[1] = (byte) sketch.precision();
+        System.arraycopy(registers, 0, bytes, HEADER_SIZE, registers.length);
+        return bytes;
+    }
+
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        if (bytes.length < HEADER_SIZE || bytes[0] != VERSION) {
+            throw new SerializationException("HyperLogLog 형식 불일치 - 길이: " + bytes.length);
+        }
+        try {
+            return new HyperLogLog(bytes[1], Arrays.copyOfRange(bytes, HEADER_SIZE, bytes.length));
+        } catch (IllegalArgumentException e) {
+            throw new SerializationException("HyperLogLog 형식 불일치", e);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.sample.kafka.streams;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * 키별 초당 유입률을 추적해 핫 키를 판정
+ *
+ * 구간(roll 호출 사이) 동안 키별 건수를 세고, 구간이 끝나면 초당 건수를 지수 이동 평균(EWMA)으로 반영한다.
+ * 평균이 threshold 이상이면 핫 키, threshold 의 절반 아래로 내려가면 해제한다 (경계에서 자주 바뀌지 않도록).
+ * 한동안 들어오지 않아 평균이 1 미만이 된 키는 버려서 추적 대상이 최근 키로 제한된다.
+ * 스트림 태스크 스레드 하나에서만 쓴다.
+ */
+public final class KeyRateTracker {
+
+    // 최근 구간 가중치 (클수록 급증에 빨리 반응)
+    private static final double ALPHA = 0.5;
+
+    private final double threshold;
+    private final Map<String, KeyRate> rates = new HashMap<>();
+
+    public KeyRateTracker(double threshold) {
+        if (threshold <= 0) {
+            throw new IllegalArgumentException("핫 키 기준 유입률은 0 보다 커야 합니다: " + threshold);
+        }
+        this.threshold = threshold;
+    }
+
+    /**
+     * 레코드 하나를 기록
+     *
+     * @return 키의 현재 상태 (핫 키 판정은 roll 에서만 바뀜)
+     */
+    public KeyRate record(String key) {
+        KeyRate rate = rates.computeIfAbsent(key, k -> new KeyRate());
+        rate.count++;
+        return rate;
+    }
+
+    /**
+     * 구간을 마감하고 키별 평균 유입률과 핫 키 여부를 갱신
+     *
+     * @param elapsedMs 직전 roll 이후 경과 시간
+     * @param listener  핫 키 여부가 바뀐 키를 받는다
+     */
+    public void roll(long elapsedMs, HotKeyListener listener) {
+        if (elapsedMs <= 0) {
+            return;
+        }
+        Iterator<Map.Entry<String, KeyRate>> iterator = rates.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, KeyRate> entry = iterator.next();
+            KeyRate rate = entry.getValue();
+            double perSecond = rate.count * 1000.0 / elapsedMs;
+            rate.average = ALPHA * perSecond + (1 - ALPHA) * rate.average;
+            rate.count = 0;
+
+            boolean hot = rate.hot ? rate.average >= threshold / 2 : rate.average >= threshold;
+            if (hot != rate.hot) {
+                rate.hot = hot;
+                listener.onChange(entry.getKey(), hot, rate.average);
+            }
+            if (!rate.hot && rate.average < 1) {
+                iterator.remove();
+            }
+        }
+    }
+
+    public int hotKeyCount() {
+        int count = 0;
+        for (KeyRate rate : rates.values()) {
+            if (rate.hot) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public int trackedKeyCount() {
+        return rates.size();
+    }
+
+    @FunctionalInterface
+    public interface HotKeyListener {
+        void onChange(String key, boolean hot, double perSecond);
+    }
+
+    /**
+     * 키 하나의 구간 건수, 평균 유입률, 핫 키 여부와 하위 키 순번
+     */
+    public static final class KeyRate {
+        private long count;
+        private double average;
+        private boolean hot;
+        private int nextSalt;
+
+        public boolean hot() {
+            return hot;
+        }
+
+        /**
+         * 하위 키 순번을 0 ~ salts-1 로 돌려 가며 반환 (핫 키 레코드를 하위 키에 고르게 나눔)
+         */
+        public int nextSalt(int salts) {
+            int salt = nextSalt;
+            nextSalt = (nextSalt + 1) % salts;
+            return salt;
+        }
+    }
+}
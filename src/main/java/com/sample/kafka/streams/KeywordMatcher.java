@@ -0,0 +1,164 @@
+package com.sample.kafka.streams;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 여러 키워드를 한 번에 찾는 Aho-Corasick 매처 (불변)
+ *
+ * 규칙 수와 관계없이 메시지를 한 번만 훑는다 (메시지 길이 + 매칭 수에 비례).
+ * 대소문자는 구분하지 않으며, 규칙이 바뀌면 새 매처를 컴파일해 통째로 교체한다.
+ */
+public final class KeywordMatcher {
+
+    private static final int ROOT = 0;
+    private static final int[] NO_OUTPUT = new int[0];
+
+    private final String[] ruleIds;
+    private final Map<String, String> rules;
+    // 노드별 전이 (labels 는 정렬되어 있어 이진 탐색)
+    private final char[][] labels;
+    private final int[][] targets;
+    private final int[] fail;
+    // 노드에 도달했을 때 끝나는 규칙 인덱스 (fail 경로의 출력까지 합쳐 둠)
+    private final int[][] outputs;
+
+    private KeywordMatcher(String[] ruleIds, Map<String, String> rules, char[][] labels, int[][] targets,
+                           int[] fail, int[][] outputs) {
+        this.ruleIds = ruleIds;
+        this.rules = rules;
+        this.labels = labels;
+        this.targets = targets;
+        this.fail = fail;
+        this.outputs = outputs;
+    }
+
+    /**
+     * @param rules 규칙 ID -> 키워드 (빈 키워드는 무시)
+     */
+    public static KeywordMatcher compile(Map<String, String> rules) {
+        List<String> ids = new ArrayList<>();
+        Map<String, String> accepted = new LinkedHashMap<>();
+        List<TreeMap<Character, Integer>> children = new ArrayList<>();
+        List<List<Integer>> nodeOutputs = new ArrayList<>();
+        children.add(new TreeMap<>());
+        nodeOutputs.add(new ArrayList<>());
+
+        // 1. 트라이 구성
+        rules.forEach((id, keyword) -> {
+            if (keyword == null || keyword.isEmpty()) {
+                return;
+            }
+            int node = ROOT;
+            for (int i = 0; i < keyword.length(); i++) {
+                char c = Character.toLowerCase(keyword.charAt(i));
+                Integer next = children.get(node).get(c);
+                if (next == null) {
+                    next = children.size();
+                    children.get(node).put(c, next);
+                    children.add(new TreeMap<>());
+                    nodeOutputs.add(new ArrayList<>());
+                }
+                node = next;
+            }
+            nodeOutputs.get(node).add(ids.size());
+            ids.add(id);
+            accepted.put(id, keyword);
+        });
+
+        // 2. BFS 로 실패 링크를 만들고 출력 병합
+        int size = children.size();
+        int[] fail = new int[size];
+        Deque<Integer> queue = new ArrayDeque<>(children.get(ROOT).values());
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            for (Map.Entry<Character, Integer> edge : children.get(node).entrySet()) {
+                int child = edge.getValue();
+                int f = fail[node];
+                while (f != ROOT && !children.get(f).containsKey(edge.getKey())) {
+                    f = fail[f];
+                }
+                Integer target = children.get(f).get(edge.getKey());
+                fail[child] = target == null || target == child ? ROOT : target;
+                nodeOutputs.get(child).addAll(nodeOutputs.get(fail[child]));
+                queue.add(child);
+            }
+        }
+
+        // 3. 배열로 고정
+        char[][] labels = new char[size][];
+        int[][] targets = new int[size][];
+        int[][] outputs = new int[size][];
+        for (int node = 0; node < size; node++) {
+            TreeMap<Character, Integer> edges = children.get(node);
+            labels[node] = new char[edges.size()];
+            targets[node] = new int[edges.size()];
+            int i = 0;
+            for (Map.Entry<Character, Integer> edge : edges.entrySet()) {
+                labels[node][i] = edge.getKey();
+                targets[node][i++] = edge.getValue();
+            }
+            List<Integer> out = nodeOutputs.get(node);
+            outputs[node] = out.isEmpty() ? NO_OUTPUT : out.stream().mapToInt(Integer::intValue).toArray();
+        }
+        return new KeywordMatcher(ids.toArray(String[]::new), Collections.unmodifiableMap(accepted),
+                labels, targets, fail, outputs);
+    }
+
+    /**
+     * 메시지에 포함된 규칙 ID 목록 (규칙 등록 순, 중복 없음)
+     */
+    public List<String> match(String text) {
+        if (text == null || ruleIds.length == 0) {
+            return List.of();
+        }
+        BitSet matched = null;
+        int state = ROOT;
+        for (int i = 0; i < text.length(); i++) {
+            state = next(state, Character.toLowerCase(text.charAt(i)));
+            if (outputs[state].length > 0) {
+                if (matched == null) {
+                    matched = new BitSet(ruleIds.length);
+                }
+                for (int rule : outputs[state]) {
+                    matched.set(rule);
+                }
+            }
+        }
+        if (matched == null) {
+            return List.of();
+        }
+        List<String> ids = new ArrayList<>(matched.cardinality());
+        matched.stream().forEach(rule -> ids.add(ruleIds[rule]));
+        return ids;
+    }
+
+    public Map<String, String> rules() {
+        return rules;
+    }
+
+    public int size() {
+        return ruleIds.length;
+    }
+
+    private int next(int state, char c) {
+        while (true) {
+            int index = Arrays.binarySearch(labels[state], c);
+            if (index >= 0) {
+                return targets[state][index];
+            }
+            if (state == ROOT) {
+                return ROOT;
+            }
+            state = fail[state];
+        }
+    }
+}
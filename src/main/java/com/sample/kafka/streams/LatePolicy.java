@@ -0,0 +1,13 @@
+package com.sample.kafka.streams;
+
+/**
+ * 윈도우 종료 + grace 이후 도착한 지각 레코드 처리 정책
+ */
+public enum LatePolicy {
+
+    /** 지각 레코드를 side output 토픽으로만 보낸다 (집계 결과는 바뀌지 않음) */
+    SIDE_OUTPUT,
+
+    /** side output 에 더해, 지각분만 따로 집계한 정정 결과를 출력 토픽으로 보낸다 */
+    CORRECTION
+}
@@ -0,0 +1,52 @@
+package com.sample.kafka.streams;
+
+import org.apache.kafka.streams.processor.api.Processor;
+import org.apache.kafka.streams.processor.api.ProcessorContext;
+import org.apache.kafka.streams.processor.api.ProcessorSupplier;
+import org.apache.kafka.streams.processor.api.Record;
+import org.apache.kafka.streams.state.KeyValueStore;
+
+import java.util.function.Consumer;
+
+/**
+ * product-categories-topic 을 글로벌 저장소에 반영하는 프로세서
+ *
+ * 모든 인스턴스가 매핑 전체를 가지므로 매출 레코드를 카테고리 기준으로 보강할 때 재파티셔닝이나 조인 토픽이 필요 없다.
+ * 저장소를 먼저 바꾸고 onChanged 로 알려 조회 캐시에서 해당 상품을 지운다.
+ */
+public class ProductCategoryUpdater implements Processor<String, String, Void, Void> {
+
+    private final String storeName;
+    private final Consumer<String> onChanged;
+    private KeyValueStore<String, String> store;
+
+    private ProductCategoryUpdater(String storeName, Consumer<String> onChanged) {
+        this.storeName = storeName;
+        this.onChanged = onChanged;
+    }
+
+    /**
+     * @param onChanged 매핑이 바뀌거나 삭제된 상품명을 받는 콜백
+     */
+    public static ProcessorSupplier<String, String, Void, Void> supplier(String storeName, Consumer<String> onChanged) {
+        return () -> new ProductCategoryUpdater(storeName, onChanged);
+    }
+
+    @Override
+    public void init(ProcessorContext<Void, Void> context) {
+        this.store = context.getStateStore(storeName);
+    }
+
+    @Override
+    public void process(Record<String, String> record) {
+        if (record.key() == null) {
+            return;
+        }
+        if (record.value() == null || record.value().isBlank()) {
+            store.delete(record.key());
+        } else {
+            store.put(record.key(), record.value());
+        }
+        onChanged.accept(record.key());
+    }
+}
@@ -0,0 +1,30 @@
+package com.sample.kafka.streams;
+
+/**
+ * 윈도우 집계 결과의 확정 여부 (결과 메시지 끝의 "상태:" 항목)
+ */
+public enum ResultStatus {
+
+    /** 윈도우가 닫힌 뒤 suppress 가 내보낸 최종 결과 */
+    FINAL("확정"),
+
+    /** 윈도우가 열려 있는 동안 주기적으로 내보낸 잠정 결과 */
+    PROVISIONAL("잠정");
+
+    private final String label;
+
+    ResultStatus(String label) {
+        this.label = label;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    /**
+     * 결과 메시지에 붙이는 상태 항목
+     */
+    public String suffix() {
+        return ", 상태:" + label;
+    }
+}
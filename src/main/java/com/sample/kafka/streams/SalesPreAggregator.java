@@ -0,0 +1,102 @@
+package com.sample.kafka.streams;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.processor.PunctuationType;
+import org.apache.kafka.streams.processor.api.Processor;
+import org.apache.kafka.streams.processor.api.ProcessorContext;
+import org.apache.kafka.streams.processor.api.ProcessorSupplier;
+import org.apache.kafka.streams.processor.api.Record;
+import org.apache.kafka.streams.state.KeyValueIterator;
+import org.apache.kafka.streams.state.TimestampedKeyValueStore;
+import org.apache.kafka.streams.state.ValueAndTimestamp;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 핫 키 2단계 집계의 1단계 부분 집계 프로세서
+ *
+ * 입력: 키 = (하위) 키, 값 = 금액
+ * 저장소: "윈도우 시작:키" -> 부분 SalesStats (타임스탬프 = 부분 집계에 들어간 레코드의 최대 시각)
+ * 벽시계와 스트림 시간 양쪽으로 flush-interval 마다 부분 집계를 원래 키로 내보내고 비운다.
+ * 벽시계만 쓰면 재처리/백필처럼 스트림 시간이 빠르게 흐를 때 부분 집계가 병합 윈도우가 닫힌 뒤에 도착하므로,
+ * 스트림 시간이 flush-interval 만큼 흐를 때마다도 내보내 부분 집계가 입력보다 크게 뒤처지지 않게 한다.
+ * 레코드 하나는 정확히 한 부분 집계에만 들어가므로
+ * 2단계에서 부분 집계를 병합하면 (건수/합계는 더하고 최소/최대는 비교) 단일 단계 집계와 결과가 같다.
+ * 저장소는 changelog 로 복구되므로 재시작해도 아직 내보내지 않은 부분 집계를 잃지 않는다.
+ * 하트비트는 저장하지 않는다. 먼저 쌓인 부분 집계를 내보낸 뒤 빈 부분 집계로 넘겨 병합 단계의 스트림 시간만 올리므로,
+ * 하트비트가 병합 윈도우를 닫기 전에 그 윈도우의 부분 집계가 먼저 도착한다.
+ */
+@Slf4j
+public class SalesPreAggregator implements Processor<String, String, String, SalesStats> {
+
+    private static final char KEY_SEPARATOR = ':';
+
+    private final String storeName;
+    private final long windowSizeMs;
+    private final Duration flushInterval;
+
+    private ProcessorContext<String, SalesStats> context;
+    private TimestampedKeyValueStore<String, SalesStats> store;
+
+    private SalesPreAggregator(String storeName, Duration windowSize, Duration flushInterval) {
+        this.storeName = storeName;
+        this.windowSizeMs = windowSize.toMillis();
+        this.flushInterval = flushInterval;
+    }
+
+    public static ProcessorSupplier<String, String, String, SalesStats> supplier(String storeName, Duration windowSize,
+                                                                             Duration flushInterval) {
+        return () -> new SalesPreAggregator(storeName, windowSize, flushInterval);
+    }
+
+    @Override
+    public void init(ProcessorContext<String, SalesStats> context) {
+        this.context = context;
+        this.store = context.getStateStore(storeName);
+        context.schedule(flushInterval, PunctuationType.WALL_CLOCK_TIME, now -> flush());
+        context.schedule(flushInterval, PunctuationType.STREAM_TIME, streamTime -> flush());
+    }
+
+    @Override
+    public void process(Record<String, String> record) {
+        if (record.key() == null || record.value() == null) {
+            return;
+        }
+        if (Heartbeats.isHeartbeat(record.key())) {
+            flush();
+            context.forward(record.withValue(new SalesStats()));
+            return;
+        }
+        long amount;
+        try {
+            amount = Long.parseLong(record.value());
+        } catch (NumberFormatException e) {
+            log.warn("[스트림-부분집계] 숫자 파싱 실패: {}", record.value());
+            return;
+        }
+        long windowStart = record.timestamp() - (record.timestamp() % windowSizeMs);
+        String partialKey = windowStart + String.valueOf(KEY_SEPARATOR) + record.key();
+
+        ValueAndTimestamp<SalesStats> partial = store.get(partialKey);
+        SalesStats stats = partial == null ? new SalesStats() : partial.value();
+        long timestamp = partial == null ? record.timestamp() : Math.max(partial.timestamp(), record.timestamp());
+        store.put(partialKey, ValueAndTimestamp.make(stats.add(amount), timestamp));
+    }
+
+    private void flush() {
+        List<String> flushed = new ArrayList<>();
+        try (KeyValueIterator<String, ValueAndTimestamp<SalesStats>> iterator = store.all()) {
+            while (iterator.hasNext()) {
+                KeyValue<String, ValueAndTimestamp<SalesStats>> partial = iterator.next();
+                String saltedKey = partial.key.substring(partial.key.indexOf(KEY_SEPARATOR) + 1);
+                context.forward(new Record<>(HotKeySalter.unsalt(saltedKey), partial.value.value(),
+                        partial.value.timestamp()));
+                flushed.add(partial.key);
+            }
+        }
+        flushed.forEach(store::delete);
+    }
+}
@@ -0,0 +1,76 @@
+package com.sample.kafka.streams;
+
+/**
+ * 윈도우 매출 집계값 (건수, 합계, 최소, 최대 - 평균은 합계 / 건수)
+ *
+ * 금액 하나가 들어올 때마다 네 값을 함께 갱신하므로, 통계마다 집계를 따로 두지 않고
+ * 저장소와 changelog 하나로 끝난다. 필드가 고정 길이 long 뿐이라 직렬화 크기도 일정하다.
+ */
+public final class SalesStats {
+
+    private long count;
+    private long sum;
+    private long min = Long.MAX_VALUE;
+    private long max = Long.MIN_VALUE;
+
+    public SalesStats() {
+    }
+
+    SalesStats(long count, long sum, long min, long max) {
+        this.count = count;
+        this.sum = sum;
+        this.min = min;
+        this.max = max;
+    }
+
+    /**
+     * 금액 하나를 더하고 자신을 반환 (aggregator 용)
+     */
+    public SalesStats add(long amount) {
+        count++;
+        sum += amount;
+        min = Math.min(min, amount);
+        max = Math.max(max, amount);
+        return this;
+    }
+
+    /**
+     * other 를 이 집계값에 합치고 자신을 반환
+     */
+    public SalesStats merge(SalesStats other) {
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        return this;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public long sum() {
+        return sum;
+    }
+
+    /**
+     * @return 건수가 0 이면 0
+     */
+    public long min() {
+        return count == 0 ? 0L : min;
+    }
+
+    /**
+     * @return 건수가 0 이면 0
+     */
+    public long max() {
+        return count == 0 ? 0L : max;
+    }
+
+    /**
+     * @return 건수가 0 이면 0
+     */
+    public double average() {
+        return count == 0 ? 0.0 : (double) sum / count;
+    }
+}
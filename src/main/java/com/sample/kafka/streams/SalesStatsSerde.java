@@ -0,0 +1,51 @@
+package com.sample.kafka.streams;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.nio.ByteBuffer;
+
+/**
+ * SalesStats 바이너리 Serde
+ *
+ * 형식: [버전 1바이트][count][sum][min][max] (long 8바이트 x 4, 총 33바이트)
+ * 윈도우 저장소, changelog, suppress 버퍼 모두 같은 형식을 쓴다.
+ */
+public class SalesStatsSerde implements Serde<SalesStats> {
+
+    private static final byte VERSION = 1;
+    static final int SIZE = 1 + Long.BYTES * 4;
+
+    @Override
+    public Serializer<SalesStats> serializer() {
+        return (topic, stats) -> {
+            if (stats == null) {
+                return null;
+            }
+            return ByteBuffer.allocate(SIZE)
+                    .put(VERSION)
+                    .putLong(stats.count())
+                    .putLong(stats.sum())
+                    // 건수 0 의 min/max 센티널을 그대로 보존
+                    .putLong(stats.count() == 0 ? Long.MAX_VALUE : stats.min())
+                    .putLong(stats.count() == 0 ? Long.MIN_VALUE : stats.max())
+                    .array();
+        };
+    }
+
+    @Override
+    public Deserializer<SalesStats> deserializer() {
+        return (topic, bytes) -> {
+            if (bytes == null) {
+                return null;
+            }
+            if (bytes.length != SIZE || bytes[0] != VERSION) {
+                throw new SerializationException("SalesStats 형식 불일치 - 길이: " + bytes.length);
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(bytes, 1, SIZE - 1);
+            return new SalesStats(buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getLong());
+        };
+    }
+}
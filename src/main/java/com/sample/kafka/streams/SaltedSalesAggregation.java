@@ -0,0 +1,107 @@
+package com.sample.kafka.streams;
+
+import io.micrometer.core.instrument.Counter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.utils.Bytes;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.kstream.Grouped;
+import org.apache.kafka.streams.kstream.KStream;
+import org.apache.kafka.streams.kstream.KTable;
+import org.apache.kafka.streams.kstream.Materialized;
+import org.apache.kafka.streams.kstream.Repartitioned;
+import org.apache.kafka.streams.kstream.TimeWindows;
+import org.apache.kafka.streams.kstream.Windowed;
+import org.apache.kafka.streams.state.Stores;
+import org.apache.kafka.streams.state.WindowStore;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * 핫 키 2단계 매출 집계 (하위 키 부분 집계 -> 원래 키로 병합)
+ *
+ * 병합 결과는 같은 입력을 단일 단계로 집계한 결과와 같아야 하므로, 병합 윈도우가 닫힌 뒤 도착해
+ * 집계가 조용히 버릴 부분 집계는 미리 골라내 카운터와 로그로 남긴다.
+ * KafkaStreamsConfig 와 테스트가 같은 집계 경로를 쓰도록 분리해 두었다.
+ */
+@Slf4j
+public final class SaltedSalesAggregation {
+
+    private SaltedSalesAggregation() {
+    }
+
+    /**
+     * 1단계: 핫 키만 하위 키로 나눠 재파티셔닝하고, 하위 키별로 flush-interval 동안 부분 집계
+     *
+     * 한 상품/카테고리에 레코드가 몰려도 집계 부하가 salts 개 파티션(스레드)으로 나뉘고,
+     * 병합 단계에는 flush-interval 마다 하위 키당 부분 집계 하나만 넘어간다.
+     * 반환 스트림의 키는 원래 키이고 값은 부분 SalesStats 다.
+     *
+     * @param salts     핫 키 하나를 나눌 하위 키 수 (하위 키 재파티셔닝 토픽의 파티션 수)
+     * @param threshold 핫 키 판정 기준 (태스크 기준 초당 레코드 수)
+     * @param heartbeats      하트비트를 두 재파티셔닝 토픽의 모든 파티션으로 복제할지 여부 (Heartbeats.fanOut)
+     * @param changelogConfig 부분 집계 저장소 changelog 토픽 설정
+     */
+    public static KStream<String, SalesStats> preAggregate(StreamsBuilder streamsBuilder, KStream<String, String> onTime,
+                                                           String name, Duration windowSize, int salts, double threshold,
+                                                           Duration flushInterval, Counter saltedRecords,
+                                                           boolean heartbeats, Map<String, String> changelogConfig) {
+        String storeName = name + "-partials-store";
+        streamsBuilder.addStateStore(Stores.timestampedKeyValueStoreBuilder(
+            Stores.persistentTimestampedKeyValueStore(storeName), Serdes.String(), new SalesStatsSerde())
+            .withLoggingEnabled(changelogConfig));
+
+        return onTime
+            .process(HotKeySalter.supplier(name, salts, threshold, saltedRecords))
+            .repartition(Heartbeats.fanOut(Repartitioned.<String, String>as(name + "-salted")
+                .withKeySerde(Serdes.String())
+                .withValueSerde(Serdes.String())
+                .withNumberOfPartitions(salts), heartbeats))
+            .process(SalesPreAggregator.supplier(storeName, windowSize, flushInterval), storeName)
+            .repartition(Heartbeats.fanOut(Repartitioned.<String, SalesStats>as(name + "-merge")
+                .withKeySerde(Serdes.String())
+                .withValueSerde(new SalesStatsSerde()), heartbeats));
+    }
+
+    /**
+     * 2단계: 원래 키로 모인 부분 집계를 윈도우별로 병합
+     *
+     * 부분 집계는 flush-interval 만큼 늦게, 파티션마다 다른 시점에 도착하므로 grace 에 mergeGrace 를 더한다.
+     * 1단계가 스트림 시간으로도 flush 하므로 mergeGrace 가 flush-interval 이상이면 재처리 중에도 버려지지 않고,
+     * 그래도 늦은 부분 집계(벽시계로만 밀려난 파티션 등)는 droppedPartials 로 센다.
+     *
+     * @param heartbeats      하트비트로 병합 윈도우를 닫는지 여부 (켜져 있으면 병합 저장소 캐시를 끈다)
+     * @param changelogConfig 병합 저장소 changelog 토픽 설정
+     */
+    public static KTable<Windowed<String>, SalesStats> merge(KStream<String, SalesStats> partials, String name,
+                                                             Duration windowSize, Duration grace, Duration mergeGrace,
+                                                             String storeName, Counter droppedPartials,
+                                                             boolean heartbeats, Map<String, String> changelogConfig) {
+        Duration mergeWindowGrace = grace.plus(mergeGrace);
+        KStream<String, Arrival<SalesStats>> arrivals = partials
+            .processValues(ArrivalClassifier.<String, SalesStats>supplier(windowSize, mergeWindowGrace));
+
+        arrivals
+            .filter((key, arrival) -> arrival.late())
+            .foreach((key, arrival) -> {
+                droppedPartials.increment();
+                log.error("❌ [{} 병합 지각] 병합 윈도우가 닫힌 뒤 도착한 부분 집계 - 키: {}, 건수: {}, 합계: {}, {}ms 늦음",
+                    name, key, arrival.value().count(), arrival.value().sum(), arrival.latenessMs());
+            });
+
+        return arrivals
+            .filterNot((key, arrival) -> arrival.late())
+            .mapValues(Arrival::value)
+            .groupByKey(Grouped.with(Serdes.String(), new SalesStatsSerde()))
+            .windowedBy(TimeWindows.ofSizeAndGrace(windowSize, mergeWindowGrace))
+            .aggregate(
+                SalesStats::new,
+                Heartbeats.skip((key, partial, stats) -> stats.merge(partial)),
+                Heartbeats.closing(Materialized.<String, SalesStats, WindowStore<Bytes, byte[]>>as(storeName)
+                    .withKeySerde(Serdes.String())
+                    .withValueSerde(new SalesStatsSerde())
+                    .withLoggingEnabled(changelogConfig), heartbeats)
+            );
+    }
+}
@@ -0,0 +1,141 @@
+package com.sample.kafka.streams;
+
+import com.sample.kafka.dto.RestoreProgress;
+import com.sample.kafka.metrics.PipelineMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.streams.processor.StateRestoreListener;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 상태 저장소 복원 진행 상황 (KafkaStreams 전역 StateRestoreListener)
+ *
+ * 장애나 재배포 뒤 changelog 로 저장소를 다시 채우는 동안 저장소/파티션별 복원 건수, 진행률, 속도,
+ * 남은 시간(남은 건수 / 지금까지의 평균 속도)을 log-interval 마다 로그로 남기고 조회 API 로 보여 준다.
+ * 복원이 끝나면 소요 시간을 kafka.sample.streams.restore 타이머로 기록한다.
+ * 콜백은 여러 스트림 스레드에서 호출되므로 진행 상황은 동시 맵에 두고, 파티션 하나는 한 스레드만 갱신한다.
+ */
+@Slf4j
+public class StateRestoreProgress implements StateRestoreListener {
+
+    private final PipelineMetrics metrics;
+    private final long logIntervalNanos;
+    private final Map<String, Restoration> restorations = new ConcurrentHashMap<>();
+
+    public StateRestoreProgress(PipelineMetrics metrics, Duration logInterval) {
+        this.metrics = metrics;
+        this.logIntervalNanos = logInterval.toNanos();
+        metrics.gaugeRestoreRemaining(this::remainingRecords);
+    }
+
+    @Override
+    public void onRestoreStart(TopicPartition topicPartition, String storeName, long startingOffset, long endingOffset) {
+        long total = Math.max(endingOffset - startingOffset, 0);
+        restorations.put(key(storeName, topicPartition), new Restoration(storeName, topicPartition, total, System.nanoTime()));
+        log.info("♻️ [복원 시작] Store: {}, {}, 오프셋 {} ~ {} (약 {}건)",
+            storeName, topicPartition, startingOffset, endingOffset, total);
+    }
+
+    @Override
+    public void onBatchRestored(TopicPartition topicPartition, String storeName, long batchEndOffset, long numRestored) {
+        Restoration restoration = restorations.get(key(storeName, topicPartition));
+        if (restoration == null) {
+            return;
+        }
+        restoration.restored += numRestored;
+        metrics.restoredRecords(storeName).increment(numRestored);
+
+        long now = System.nanoTime();
+        if (now - restoration.lastLogNanos >= logIntervalNanos) {
+            restoration.lastLogNanos = now;
+            RestoreProgress progress = restoration.progress(now);
+            log.info("♻️ [복원 중] Store: {}, {}, {}/{}건 ({}%), {}건/초, 남은 시간 {}",
+                storeName, topicPartition, progress.getRestoredRecords(), progress.getTotalRecords(),
+                String.format("%.1f", progress.getProgressPercent()),
+                String.format("%.0f", progress.getRecordsPerSecond()),
+                progress.getEtaMs() == null ? "계산 중" : Duration.ofMillis(progress.getEtaMs()));
+        }
+    }
+
+    @Override
+    public void onRestoreEnd(TopicPartition topicPartition, String storeName, long totalRestored) {
+        Restoration restoration = restorations.remove(key(storeName, topicPartition));
+        if (restoration == null) {
+            return;
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - restoration.startNanos);
+        metrics.recordRestore(storeName, elapsedMs);
+        log.info("✅ [복원 완료] Store: {}, {}, {}건, {}ms ({}건/초)", storeName, topicPartition, totalRestored,
+            elapsedMs, elapsedMs == 0 ? totalRestored : totalRestored * 1000 / elapsedMs);
+    }
+
+    /**
+     * 태스크가 다른 인스턴스로 옮겨져 복원이 중간에 멈춘 경우
+     */
+    @Override
+    public void onRestoreSuspended(TopicPartition topicPartition, String storeName, long totalRestored) {
+        if (restorations.remove(key(storeName, topicPartition)) != null) {
+            log.info("⏸️ [복원 중단] Store: {}, {}, {}건 복원 후 태스크 이동", storeName, topicPartition, totalRestored);
+        }
+    }
+
+    /**
+     * 진행 중인 복원 목록 (저장소, 파티션 순)
+     */
+    public List<RestoreProgress> inProgress() {
+        long now = System.nanoTime();
+        return restorations.values().stream()
+                .map(restoration -> restoration.progress(now))
+                .sorted(Comparator.comparing(RestoreProgress::getStore)
+                        .thenComparing(RestoreProgress::getTopicPartition))
+                .toList();
+    }
+
+    /**
+     * 진행 중인 복원의 남은 레코드 수 합계
+     */
+    public long remainingRecords() {
+        long remaining = 0;
+        for (Restoration restoration : restorations.values()) {
+            remaining += Math.max(restoration.total - restoration.restored, 0);
+        }
+        return remaining;
+    }
+
+    private static String key(String storeName, TopicPartition topicPartition) {
+        return storeName + "/" + topicPartition;
+    }
+
+    private static final class Restoration {
+        private final String store;
+        private final TopicPartition topicPartition;
+        private final long total;
+        private final long startNanos;
+        private volatile long restored;
+        private long lastLogNanos;
+
+        private Restoration(String store, TopicPartition topicPartition, long total, long startNanos) {
+            this.store = store;
+            this.topicPartition = topicPartition;
+            this.total = total;
+            this.startNanos = startNanos;
+            this.lastLogNanos = startNanos;
+        }
+
+        private RestoreProgress progress(long now) {
+            long restoredSoFar = restored;
+            long elapsedNanos = Math.max(now - startNanos, 1);
+            double perSecond = restoredSoFar * 1e9 / elapsedNanos;
+            double percent = total == 0 ? 100.0 : Math.min(100.0, restoredSoFar * 100.0 / total);
+            Long etaMs = perSecond > 0 ? (long) (Math.max(total - restoredSoFar, 0) / perSecond * 1000) : null;
+            return new RestoreProgress(store, topicPartition.toString(), restoredSoFar, total, percent, perSecond,
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos), etaMs);
+        }
+    }
+}
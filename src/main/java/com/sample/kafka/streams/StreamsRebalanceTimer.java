@@ -0,0 +1,41 @@
+package com.sample.kafka.streams;
+
+import com.sample.kafka.metrics.PipelineMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.streams.KafkaStreams;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 스트림즈 상태 전이로 리밸런스 처리 중단 시간 측정 (KafkaStreams.StateListener)
+ *
+ * REBALANCING 진입부터 RUNNING 복귀까지를 한 번의 리밸런스로 기록한다.
+ * 새로 받은 액티브 태스크의 상태 복원 시간도 이 구간에 들어가므로, standby/warmup 복제본이
+ * 미리 따라잡아 두면 이 값이 짧아진다. 처음 시작(CREATED -> REBALANCING)은 기록하지 않는다.
+ */
+@Slf4j
+public class StreamsRebalanceTimer implements KafkaStreams.StateListener {
+
+    private final PipelineMetrics metrics;
+    private final String applicationId;
+    private volatile long rebalanceStartNanos = -1;
+
+    public StreamsRebalanceTimer(PipelineMetrics metrics, String applicationId) {
+        this.metrics = metrics;
+        this.applicationId = applicationId;
+    }
+
+    @Override
+    public void onChange(KafkaStreams.State newState, KafkaStreams.State oldState) {
+        if (newState == KafkaStreams.State.REBALANCING && oldState == KafkaStreams.State.RUNNING) {
+            rebalanceStartNanos = System.nanoTime();
+        } else if (newState == KafkaStreams.State.RUNNING && rebalanceStartNanos >= 0) {
+            long pauseMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - rebalanceStartNanos);
+            rebalanceStartNanos = -1;
+            metrics.recordRebalancePause("streams", applicationId, pauseMs);
+            log.info("🔄 [스트림즈 리밸런스] {} -> RUNNING, 소요 {}ms", applicationId, pauseMs);
+        } else if (newState != KafkaStreams.State.REBALANCING) {
+            rebalanceStartNanos = -1;
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.sample.kafka.streams;
+
+import java.util.Arrays;
+
+/**
+ * 분위수(p50/p95/p99 등) 근사용 t-digest (merging 방식)
+ *
+ * 값을 (평균, 가중치) centroid 로 묶어 보관하며, 크기 함수 k(q) = compression / 2π · asin(2q - 1) 에서
+ * centroid 하나가 k 구간 1 을 넘지 않도록 합친다. 양 끝(q ≈ 0, 1)일수록 centroid 가 작아져
+ * p99 같은 꼬리 분위수가 정확하고, centroid 수는 입력 수와 관계없이 대략 compression 이하로 유지된다.
+ * 같은 compression 의 t-digest 끼리는 centroid 를 다시 넣는 방식으로 병합할 수 있다 (시간별 -> 일별).
+ */
+public final class TDigest {
+
+    public static final int MIN_COMPRESSION = 10;
+    public static final int MAX_COMPRESSION = 1000;
+
+    private static final int INITIAL_BUFFER_SIZE = 16;
+
+    private final int compression;
+
+    // 정렬·병합된 centroid
+    private double[] means;
+    private long[] weights;
+    private int centroids;
+
+    // 아직 병합하지 않은 입력 (bufferCapacity 에 닿거나 조회 시 병합)
+    // 윈도우 저장소에서 복원한 다이제스트는 값 하나만 더하고 다시 직렬화되므로 처음 쓸 때 작게 만들고 필요한 만큼 늘린다
+    private final int bufferCapacity;
+    private double[] bufferMeans = new double[0];
+    private long[] bufferWeights = new long[0];
+    private int buffered;
+
+    private long count;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public TDigest(int compression) {
+        if (compression < MIN_COMPRESSION || compression > MAX_COMPRESSION) {
+            throw new IllegalArgumentException("compression 은 " + MIN_COMPRESSION + "~" + MAX_COMPRESSION
+                    + " 사이여야 합니다: " + compression);
+        }
+        this.compression = compression;
+        this.means = new double[0];
+        this.weights = new long[0];
+        this.bufferCapacity = compression * 5;
+    }
+
+    /**
+     * 직렬화된 centroid 로 복원 (means 는 오름차순)
+     */
+    TDigest(int compression, double min, double max, double[] means, long[] weights) {
+        this(compression);
+        if (means.length != weights.length) {
+            throw new IllegalArgumentException("centroid 평균/가중치 수 불일치");
+        }
+        this.means = means;
+        this.weights = weights;
+        this.centroids = means.length;
+        for (long weight : weights) {
+            if (weight <= 0) {
+                throw new IllegalArgumentException("centroid 가중치는 양수여야 합니다: " + weight);
+            }
+            count += weight;
+        }
+        if (count > 0) {
+            this.min = min;
+            this.max = max;
+        }
+    }
+
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        count++;
+        buffer(value, 1);
+    }
+
+    /**
+     * other 의 centroid 를 이 다이제스트에 더한다 (other 는 변경하지 않음)
+     */
+    public void merge(TDigest other) {
+        if (other.compression != compression) {
+            throw new IllegalArgumentException("compression 이 다른 t-digest 는 병합할 수 없습니다: "
+                    + compression + " != " + other.compression);
+        }
+        if (other.count == 0) {
+            return;
+        }
+        // 버퍼가 차서 중간에 compress() 되더라도 전체 가중치와 양 끝 값이 맞도록 먼저 반영
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        count += other.count;
+        for (int i = 0; i < other.centroids; i++) {
+            buffer(other.means[i], other.weights[i]);
+        }
+        for (int i = 0; i < other.buffered; i++) {
+            buffer(other.bufferMeans[i], other.bufferWeights[i]);
+        }
+    }
+
+    /**
+     * @param q 0 ~ 1
+     * @return 값이 없으면 NaN
+     */
+    public double quantile(double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("분위는 0~1 사이여야 합니다: " + q);
+        }
+        compress();
+        if (centroids == 0) {
+            return Double.NaN;
+        }
+        if (centroids == 1) {
+            return means[0];
+        }
+
+        // centroid 평균을 가중치 중앙 위치에 두고 인접 centroid 사이를 선형 보간
+        double index = q * count;
+        double firstHalf = weights[0] / 2.0;
+        if (index <= firstHalf) {
+            return min + (means[0] - min) * (index / firstHalf);
+        }
+        double position = firstHalf;
+        for (int i = 0; i < centroids - 1; i++) {
+            double gap = (weights[i] + weights[i + 1]) / 2.0;
+            if (index <= position + gap) {
+                return means[i] + (means[i + 1] - means[i]) * ((index - position) / gap);
+            }
+            position += gap;
+        }
+        int last = centroids - 1;
+        double fraction = Math.min(1.0, (index - position) / (weights[last] / 2.0));
+        return means[last] + (max - means[last]) * fraction;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public int compression() {
+        return compression;
+    }
+
+    /**
+     * @return 값이 없으면 NaN
+     */
+    public double min() {
+        return count == 0 ? Double.NaN : min;
+    }
+
+    /**
+     * @return 값이 없으면 NaN
+     */
+    public double max() {
+        return count == 0 ? Double.NaN : max;
+    }
+
+    /**
+     * 버퍼를 병합한 뒤의 centroid 수
+     */
+    public int centroidCount() {
+        compress();
+        return centroids;
+    }
+
+    /**
+     * 버퍼를 병합한 뒤의 centroid 평균 (오름차순, 복사본)
+     */
+    double[] centroidMeans() {
+        compress();
+        return Arrays.copyOf(means, centroids);
+    }
+
+    /**
+     * 버퍼를 병합한 뒤의 centroid 가중치 (복사본)
+     */
+    long[] centroidWeights() {
+        compress();
+        return Arrays.copyOf(weights, centroids);
+    }
+
+    private void buffer(double mean, long weight) {
+        if (buffered == bufferMeans.length) {
+            int size = Math.min(bufferCapacity, Math.max(INITIAL_BUFFER_SIZE, buffered * 2));
+            bufferMeans = Arrays.copyOf(bufferMeans, size);
+            bufferWeights = Arrays.copyOf(bufferWeights, size);
+        }
+        bufferMeans[buffered] = mean;
+        bufferWeights[buffered] = weight;
+        buffered++;
+        if (buffered == bufferCapacity) {
+            compress();
+        }
+    }
+
+    private void compress() {
+        if (buffered == 0) {
+            return;
+        }
+        int total = centroids + buffered;
+        double[] allMeans = Arrays.copyOf(means, total);
+        long[] allWeights = Arrays.copyOf(weights, total);
+        System.arraycopy(bufferMeans, 0, allMeans, centroids, buffered);
+        System.arraycopy(bufferWeights, 0, allWeights, centroids, buffered);
+        buffered = 0;
+
+        // 병합 도중(merge 의 버퍼링 중)에도 맞도록 count 대신 지금 가진 가중치 합으로 분위를 계산
+        long totalWeight = 0;
+        for (int i = 0; i < total; i++) {
+            totalWeight += allWeights[i];
+        }
+
+        Integer[] order = new Integer[total];
+        for (int i = 0; i < total; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (left, right) -> Double.compare(allMeans[left], allMeans[right]));
+
+        double[] mergedMeans = new double[total];
+        long[] mergedWeights = new long[total];
+        int merged = 0;
+
+        double currentMean = allMeans[order[0]];
+        long currentWeight = allWeights[order[0]];
+        long weightBefore = 0;
+        double kLeft = scale(0);
+        for (int i = 1; i < total; i++) {
+            int next = order[i];
+            double qRight = (double) (weightBefore + currentWeight + allWeights[next]) / totalWeight;
+            if (scale(qRight) - kLeft <= 1) {
+                currentWeight += allWeights[next];
+                currentMean += (allMeans[next] - currentMean) * allWeights[next] / currentWeight;
+            } else {
+                mergedMeans[merged] = currentMean;
+                mergedWeights[merged] = currentWeight;
+                merged++;
+                weightBefore += currentWeight;
+                kLeft = scale((double) weightBefore / totalWeight);
+                currentMean = allMeans[next];
+                currentWeight = allWeights[next];
+            }
+        }
+        mergedMeans[merged] = currentMean;
+        mergedWeights[merged] = currentWeight;
+        merged++;
+
+        means = Arrays.copyOf(mergedMeans, merged);
+        weights = Arrays.copyOf(mergedWeights, merged);
+        centroids = merged;
+    }
+
+    private double scale(double q) {
+        return compression / (2 * Math.PI) * Math.asin(2 * Math.min(1.0, q) - 1);
+    }
+}
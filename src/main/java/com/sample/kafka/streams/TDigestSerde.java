@@ -0,0 +1,77 @@
+package com.sample.kafka.streams;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.utils.ByteUtils;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * TDigest 바이너리 Serde
+ *
+ * 형식: [버전 1][compression 2][min 8][max 8][centroid 수 4] + centroid 마다 [평균 8][가중치 varint]
+ * compression 100 이면 centroid 가 100개 안팎이라 윈도우당 1~2KB 이다.
+ * 윈도우 저장소와 DB(hourly_sales_result.sale_digest)가 같은 형식을 쓴다.
+ */
+public class TDigestSerde implements Serde<TDigest> {
+
+    private static final byte VERSION = 1;
+    private static final int HEADER_SIZE = 1 + Short.BYTES + Double.BYTES * 2 + Integer.BYTES;
+    private static final int MAX_VARLONG_SIZE = 10;
+
+    @Override
+    public Serializer<TDigest> serializer() {
+        return (topic, digest) -> digest == null ? null : toBytes(digest);
+    }
+
+    @Override
+    public Deserializer<TDigest> deserializer() {
+        return (topic, bytes) -> bytes == null ? null : fromBytes(bytes);
+    }
+
+    public static byte[] toBytes(TDigest digest) {
+        double[] means = digest.centroidMeans();
+        long[] weights = digest.centroidWeights();
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + means.length * (Double.BYTES + MAX_VARLONG_SIZE))
+                .put(VERSION)
+                .putShort((short) digest.compression())
+                .putDouble(digest.min())
+                .putDouble(digest.max())
+                .putInt(means.length);
+        for (int i = 0; i < means.length; i++) {
+            buffer.putDouble(means[i]);
+            ByteUtils.writeVarlong(weights[i], buffer);
+        }
+        byte[] bytes = new byte[buffer.position()];
+        buffer.flip().get(bytes);
+        return bytes;
+    }
+
+    public static TDigest fromBytes(byte[] bytes) {
+        if (bytes.length < HEADER_SIZE || bytes[0] != VERSION) {
+            throw new SerializationException("TDigest 형식 불일치 - 길이: " + bytes.length);
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes, 1, bytes.length - 1);
+            int compression = buffer.getShort();
+            double min = buffer.getDouble();
+            double max = buffer.getDouble();
+            int centroids = buffer.getInt();
+            if (centroids < 0 || centroids > buffer.remaining() / (Double.BYTES + 1)) {
+                throw new SerializationException("TDigest centroid 수 오류: " + centroids);
+            }
+            double[] means = new double[centroids];
+            long[] weights = new long[centroids];
+            for (int i = 0; i < centroids; i++) {
+                means[i] = buffer.getDouble();
+                weights[i] = ByteUtils.readVarlong(buffer);
+            }
+            return new TDigest(compression, min, max, means, weights);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new SerializationException("TDigest 형식 불일치", e);
+        }
+    }
+}
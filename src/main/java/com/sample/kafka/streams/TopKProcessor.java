@@ -0,0 +1,138 @@
+package com.sample.kafka.streams;
+
+import com.sample.kafka.dto.KeyedValue;
+import io.micrometer.core.instrument.Counter;
+import org.apache.kafka.streams.processor.PunctuationType;
+import org.apache.kafka.streams.processor.api.Processor;
+import org.apache.kafka.streams.processor.api.ProcessorContext;
+import org.apache.kafka.streams.processor.api.ProcessorSupplier;
+import org.apache.kafka.streams.processor.api.Record;
+import org.apache.kafka.streams.state.KeyValueIterator;
+import org.apache.kafka.streams.state.KeyValueStore;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * 텀블링 윈도우별 상위 K 항목(heavy hitter) 프로세서
+ *
+ * 입력: 키 = 항목(단어, 상품명), 값 = 가중치(출현 1회, 매출 금액 등)
+ * 저장소: 윈도우 시작 시각 -> TopKSketch (열린 윈도우 수만큼만 유지)
+ * 스트림 시간이 윈도우 종료 + grace 를 지나면 상위 K 를 "대상:..., 윈도우:..., 상위:..." 로 내보내고 삭제한다.
+ *
+ * 스케치는 수십 KB 라 레코드마다 저장소에서 읽고 쓰면 (역)직렬화와 changelog 쓰기가 입력 건수만큼 생긴다.
+ * 열린 윈도우의 스케치는 프로세서 메모리에 두고 갱신하고, 바뀐 윈도우만 PERSIST_INTERVAL(벽시계)마다 저장소에 쓴다.
+ * 저장소는 캐시를 켜 두어 커밋 사이의 여러 번 저장도 changelog 에는 한 번만 나간다 (topKStore).
+ * 시작/재할당 시 저장소의 열린 윈도우를 메모리로 읽어 이어서 집계하며, 장애 시에는 마지막 저장 이후
+ * 최대 PERSIST_INTERVAL 만큼의 갱신을 잃을 수 있다 (대화형 조회도 그만큼 늦게 보임).
+ */
+public class TopKProcessor implements Processor<String, Long, String, String> {
+
+    // 닫힌 윈도우를 확인하는 스트림 시간 주기
+    private static final Duration CLOSE_CHECK_INTERVAL = Duration.ofSeconds(1);
+
+    // 메모리의 바뀐 스케치를 저장소에 쓰는 벽시계 주기
+    private static final Duration PERSIST_INTERVAL = Duration.ofSeconds(1);
+
+    private final String storeName;
+    private final String target;
+    private final long windowSizeMs;
+    private final long graceMs;
+    private final int k;
+    private final int depth;
+    private final int width;
+    private final Counter windowEmits;
+
+    private ProcessorContext<String, String> context;
+    private KeyValueStore<Long, TopKSketch> store;
+
+    // 열린 윈도우 시작 시각 -> 스케치, 마지막 저장 이후 바뀐 윈도우
+    private final Map<Long, TopKSketch> openWindows = new TreeMap<>();
+    private final Set<Long> dirtyWindows = new HashSet<>();
+
+    private TopKProcessor(String storeName, String target, Duration windowSize, Duration grace,
+                          int k, int depth, int width, Counter windowEmits) {
+        this.storeName = storeName;
+        this.target = target;
+        this.windowSizeMs = windowSize.toMillis();
+        this.graceMs = grace.toMillis();
+        this.k = k;
+        this.depth = depth;
+        this.width = width;
+        this.windowEmits = windowEmits;
+    }
+
+    /**
+     * @param target 출력 레코드 키이자 결과의 대상 이름 (예: words, products)
+     */
+    public static ProcessorSupplier<String, Long, String, String> supplier(String storeName, String target,
+                                                                       Duration windowSize, Duration grace,
+                                                                       int k, int depth, int width,
+                                                                       Counter windowEmits) {
+        return () -> new TopKProcessor(storeName, target, windowSize, grace, k, depth, width, windowEmits);
+    }
+
+    @Override
+    public void init(ProcessorContext<String, String> context) {
+        this.context = context;
+        this.store = context.getStateStore(storeName);
+        try (KeyValueIterator<Long, TopKSketch> iterator = store.all()) {
+            iterator.forEachRemaining(window -> openWindows.put(window.key, window.value));
+        }
+        context.schedule(CLOSE_CHECK_INTERVAL, PunctuationType.STREAM_TIME, this::emitClosedWindows);
+        context.schedule(PERSIST_INTERVAL, PunctuationType.WALL_CLOCK_TIME, now -> persist());
+    }
+
+    @Override
+    public void process(Record<String, Long> record) {
+        if (record.key() == null || record.key().isBlank() || record.value() == null) {
+            return;
+        }
+        long windowStart = record.timestamp() - (record.timestamp() % windowSizeMs);
+        if (windowStart + windowSizeMs + graceMs <= context.currentStreamTimeMs()) {
+            // 이미 방출한 윈도우의 지각 레코드
+            return;
+        }
+        openWindows.computeIfAbsent(windowStart, start -> new TopKSketch(k, depth, width))
+                .add(record.key(), record.value());
+        dirtyWindows.add(windowStart);
+    }
+
+    private void persist() {
+        for (Long windowStart : dirtyWindows) {
+            store.put(windowStart, openWindows.get(windowStart));
+        }
+        dirtyWindows.clear();
+    }
+
+    private void emitClosedWindows(long streamTime) {
+        Iterator<Map.Entry<Long, TopKSketch>> iterator = openWindows.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Long, TopKSketch> window = iterator.next();
+            if (window.getKey() + windowSizeMs + graceMs > streamTime) {
+                break;  // 시작 시각 순이므로 이후 윈도우도 열려 있음
+            }
+            long windowEnd = window.getKey() + windowSizeMs;
+            context.forward(new Record<>(target, format(target, window.getKey(), windowEnd, window.getValue().top()),
+                    windowEnd - 1));
+            windowEmits.increment();
+            store.delete(window.getKey());
+            dirtyWindows.remove(window.getKey());
+            iterator.remove();
+        }
+    }
+
+    /**
+     * 예: "대상:words, 윈도우:1763011800000~1763012100000, 상위:kafka=12,hello=7"
+     */
+    public static String format(String target, long windowStart, long windowEnd, List<KeyedValue> top) {
+        return String.format("대상:%s, 윈도우:%d~%d, 상위:%s", target, windowStart, windowEnd,
+                top.stream().map(entry -> entry.getKey() + "=" + entry.getValue()).collect(Collectors.joining(",")));
+    }
+}
@@ -0,0 +1,109 @@
+package com.sample.kafka.streams;
+
+import com.sample.kafka.dto.KeyedValue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Count-Min Sketch + 상위 K 후보 힙으로 만든 heavy hitter 추적기
+ *
+ * 빈도는 스케치로 근사하고, 추정값이 큰 K 개 항목만 최소 힙에 후보로 남긴다.
+ * 메모리는 스케치 크기 + K 개 후보로 고정되어 고유 항목 수가 늘어도 커지지 않는다.
+ */
+public final class TopKSketch {
+
+    // 직렬화 시 항목 길이를 2바이트로 기록하므로 이보다 긴 항목은 추적하지 않는다
+    static final int MAX_ITEM_LENGTH = 1024;
+
+    private static final Comparator<Candidate> BY_ESTIMATE = Comparator.comparingLong(Candidate::estimate);
+
+    private final int k;
+    private final CountMinSketch sketch;
+    private final Map<String, Candidate> candidates;
+    private final PriorityQueue<Candidate> heap;
+
+    public TopKSketch(int k, int depth, int width) {
+        this(k, new CountMinSketch(depth, width));
+    }
+
+    TopKSketch(int k, CountMinSketch sketch) {
+        this.k = k;
+        this.sketch = sketch;
+        this.candidates = new HashMap<>(k * 2);
+        this.heap = new PriorityQueue<>(k, BY_ESTIMATE);
+    }
+
+    public void add(String item, long count) {
+        if (item.length() > MAX_ITEM_LENGTH) {
+            return;
+        }
+        offer(item, sketch.add(item, count));
+    }
+
+    /**
+     * 다른 스케치(같은 크기)를 합친 뒤 양쪽 후보를 합친 스케치 기준으로 다시 고른다
+     */
+    public void merge(TopKSketch other) {
+        sketch.merge(other.sketch);
+        List<String> items = new ArrayList<>(candidates.keySet());
+        items.addAll(other.candidates.keySet());
+        candidates.clear();
+        heap.clear();
+        for (String item : items) {
+            if (!candidates.containsKey(item)) {
+                offer(item, sketch.estimate(item));
+            }
+        }
+    }
+
+    /**
+     * 추정값 내림차순 상위 K 개
+     */
+    public List<KeyedValue> top() {
+        return heap.stream()
+                .sorted(BY_ESTIMATE.reversed())
+                .map(candidate -> new KeyedValue(candidate.item(), candidate.estimate()))
+                .toList();
+    }
+
+    public int k() {
+        return k;
+    }
+
+    public long total() {
+        return sketch.total();
+    }
+
+    CountMinSketch sketch() {
+        return sketch;
+    }
+
+    void restoreCandidate(String item, long estimate) {
+        Candidate candidate = new Candidate(item, estimate);
+        candidates.put(item, candidate);
+        heap.add(candidate);
+    }
+
+    private void offer(String item, long estimate) {
+        Candidate existing = candidates.get(item);
+        if (existing != null) {
+            heap.remove(existing);
+        } else if (candidates.size() >= k) {
+            if (estimate <= heap.peek().estimate()) {
+                return;
+            }
+            candidates.remove(heap.poll().item());
+        }
+        Candidate candidate = new Candidate(item, estimate);
+        candidates.put(item, candidate);
+        heap.add(candidate);
+    }
+
+    private record Candidate(String item, long estimate) {
+    }
+}
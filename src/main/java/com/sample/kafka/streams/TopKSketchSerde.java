@@ -0,0 +1,91 @@
+package com.sample.kafka.streams;
+
+import com.sample.kafka.dto.KeyedValue;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * TopKSketch 바이너리 Serde
+ *
+ * 형식: [버전 1][k 4][depth 4][width 4][total 8][카운터 8 x depth x width]
+ *       [후보 수 4][(항목 길이 2, 항목 UTF-8, 추정값 8) x 후보 수]
+ */
+public class TopKSketchSerde implements Serde<TopKSketch> {
+
+    private static final byte VERSION = 1;
+    private static final int HEADER_SIZE = 1 + Integer.BYTES * 3 + Long.BYTES;
+    private static final int MAX_ITEM_BYTES = 0xFFFF;
+
+    @Override
+    public Serializer<TopKSketch> serializer() {
+        return (topic, topK) -> {
+            if (topK == null) {
+                return null;
+            }
+            CountMinSketch sketch = topK.sketch();
+            List<KeyedValue> top = topK.top();
+            List<byte[]> items = new ArrayList<>(top.size());
+            int size = HEADER_SIZE + Long.BYTES * sketch.counters().length + Integer.BYTES;
+            for (KeyedValue entry : top) {
+                byte[] item = entry.getKey().getBytes(StandardCharsets.UTF_8);
+                if (item.length > MAX_ITEM_BYTES) {
+                    throw new SerializationException("TopKSketch 항목이 너무 깁니다 - " + item.length + " bytes");
+                }
+                items.add(item);
+                size += Short.BYTES + item.length + Long.BYTES;
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocate(size)
+                    .put(VERSION)
+                    .putInt(topK.k())
+                    .putInt(sketch.depth())
+                    .putInt(sketch.width())
+                    .putLong(sketch.total());
+            buffer.asLongBuffer().put(sketch.counters());
+            buffer.position(buffer.position() + Long.BYTES * sketch.counters().length);
+            buffer.putInt(top.size());
+            for (int i = 0; i < top.size(); i++) {
+                buffer.putShort((short) items.get(i).length)
+                        .put(items.get(i))
+                        .putLong(top.get(i).getValue());
+            }
+            return buffer.array();
+        };
+    }
+
+    @Override
+    public Deserializer<TopKSketch> deserializer() {
+        return (topic, bytes) -> {
+            if (bytes == null) {
+                return null;
+            }
+            if (bytes.length < HEADER_SIZE || bytes[0] != VERSION) {
+                throw new SerializationException("TopKSketch 형식 불일치 - 길이: " + bytes.length);
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(bytes, 1, bytes.length - 1);
+            int k = buffer.getInt();
+            int depth = buffer.getInt();
+            int width = buffer.getInt();
+            long total = buffer.getLong();
+            long[] counters = new long[depth * width];
+            buffer.asLongBuffer().get(counters);
+            buffer.position(buffer.position() + Long.BYTES * counters.length);
+
+            TopKSketch topK = new TopKSketch(k, new CountMinSketch(depth, width, counters, total));
+            int candidates = buffer.getInt();
+            for (int i = 0; i < candidates; i++) {
+                byte[] item = new byte[Short.toUnsignedInt(buffer.getShort())];
+                buffer.get(item);
+                topK.restoreCandidate(new String(item, StandardCharsets.UTF_8), buffer.getLong());
+            }
+            return topK;
+        };
+    }
+}
@@ -0,0 +1,47 @@
+package com.sample.kafka.streams;
+
+import com.sample.kafka.dto.AggregationResultType;
+import com.sample.kafka.metrics.LatencyStage;
+import com.sample.kafka.metrics.PipelineMetrics;
+import com.sample.kafka.metrics.TraceHeaders;
+import org.apache.kafka.streams.processor.api.FixedKeyProcessor;
+import org.apache.kafka.streams.processor.api.FixedKeyProcessorContext;
+import org.apache.kafka.streams.processor.api.FixedKeyProcessorSupplier;
+import org.apache.kafka.streams.processor.api.FixedKeyRecord;
+
+/**
+ * suppress 직후의 추적 프로세서
+ * emit-ts 헤더를 찍고 suppression-wait 구간(stream-in-ts → emit-ts)을 기록한다.
+ */
+public class TraceEmitProcessor<K, V> implements FixedKeyProcessor<K, V, V> {
+
+    private final PipelineMetrics metrics;
+    private final AggregationResultType pipeline;
+    private FixedKeyProcessorContext<K, V> context;
+
+    private TraceEmitProcessor(PipelineMetrics metrics, AggregationResultType pipeline) {
+        this.metrics = metrics;
+        this.pipeline = pipeline;
+    }
+
+    public static <K, V> FixedKeyProcessorSupplier<K, V, V> supplier(PipelineMetrics metrics,
+                                                                   AggregationResultType pipeline) {
+        return () -> new TraceEmitProcessor<>(metrics, pipeline);
+    }
+
+    @Override
+    public void init(FixedKeyProcessorContext<K, V> context) {
+        this.context = context;
+    }
+
+    @Override
+    public void process(FixedKeyRecord<K, V> record) {
+        long now = System.currentTimeMillis();
+        Long streamInTs = TraceHeaders.read(record.headers(), TraceHeaders.STREAM_IN_TS);
+        if (streamInTs != null) {
+            metrics.recordStage(pipeline, LatencyStage.SUPPRESSION_WAIT, now - streamInTs);
+        }
+        TraceHeaders.stamp(record.headers(), TraceHeaders.EMIT_TS, now);
+        context.forward(record);
+    }
+}
@@ -0,0 +1,58 @@
+package com.sample.kafka.streams;
+
+import com.sample.kafka.dto.AggregationResultType;
+import com.sample.kafka.metrics.LatencyStage;
+import com.sample.kafka.metrics.PipelineMetrics;
+import com.sample.kafka.metrics.TraceHeaders;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.streams.processor.api.FixedKeyProcessor;
+import org.apache.kafka.streams.processor.api.FixedKeyProcessorContext;
+import org.apache.kafka.streams.processor.api.FixedKeyProcessorSupplier;
+import org.apache.kafka.streams.processor.api.FixedKeyRecord;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 윈도우 집계 입력 지점의 추적 프로세서
+ *
+ * - stream-in-ts 헤더를 찍고 produce 구간(origin-ts → stream-in-ts)을 기록한다.
+ * - 하위 집계/suppress 버퍼 반영은 forward 안에서 동기로 실행되므로 forward 시간을 stream-processing 으로 기록한다.
+ *   (이 레코드로 스트림 시간이 전진해 닫힌 윈도우의 방출 비용도 함께 포함된다)
+ */
+public class TraceIngestProcessor<K, V> implements FixedKeyProcessor<K, V, V> {
+
+    private final PipelineMetrics metrics;
+    private final AggregationResultType pipeline;
+    private final Timer processingTimer;
+    private FixedKeyProcessorContext<K, V> context;
+
+    private TraceIngestProcessor(PipelineMetrics metrics, AggregationResultType pipeline) {
+        this.metrics = metrics;
+        this.pipeline = pipeline;
+        this.processingTimer = metrics.stageTimer(pipeline, LatencyStage.STREAM_PROCESSING);
+    }
+
+    public static <K, V> FixedKeyProcessorSupplier<K, V, V> supplier(PipelineMetrics metrics,
+                                                                   AggregationResultType pipeline) {
+        return () -> new TraceIngestProcessor<>(metrics, pipeline);
+    }
+
+    @Override
+    public void init(FixedKeyProcessorContext<K, V> context) {
+        this.context = context;
+    }
+
+    @Override
+    public void process(FixedKeyRecord<K, V> record) {
+        long now = System.currentTimeMillis();
+        Long originTs = TraceHeaders.read(record.headers(), TraceHeaders.ORIGIN_TS);
+        if (originTs != null) {
+            metrics.recordStage(pipeline, LatencyStage.PRODUCE, now - originTs);
+        }
+        TraceHeaders.stamp(record.headers(), TraceHeaders.STREAM_IN_TS, now);
+
+        long startNanos = System.nanoTime();
+        context.forward(record);
+        processingTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+}
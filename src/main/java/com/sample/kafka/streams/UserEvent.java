@@ -0,0 +1,44 @@
+package com.sample.kafka.streams;
+
+/**
+ * event-topic 값에서 사용자 정보를 꺼낸 이벤트
+ *
+ * 값 형식은 "userId|detail" 이며 PURCHASE 의 detail 은 구매 금액이다.
+ * 구분자가 없으면 USER_LOGIN 은 값 전체를 userId 로 보고, 나머지 이벤트는 사용자 정보가 없는 것으로 본다.
+ */
+public record UserEvent(String userId, String detail) {
+
+    public static final char SEPARATOR = '|';
+
+    public static final String USER_LOGIN = "USER_LOGIN";
+    public static final String PAGE_VIEW = "PAGE_VIEW";
+    public static final String PURCHASE = "PURCHASE";
+
+    /**
+     * @return 사용자 정보가 없으면 null
+     */
+    public static UserEvent parse(String eventType, String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        int separator = value.indexOf(SEPARATOR);
+        if (separator < 0) {
+            return USER_LOGIN.equals(eventType) ? new UserEvent(value, "") : null;
+        }
+        if (separator == 0) {
+            return null;
+        }
+        return new UserEvent(value.substring(0, separator), value.substring(separator + 1));
+    }
+
+    /**
+     * 구매 금액 (숫자가 아니면 0)
+     */
+    public long amount() {
+        try {
+            return Long.parseLong(detail);
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.sample.kafka.streams;
+
+/**
+ * 사용자 세션 집계값 (이벤트 타입별 건수와 구매 금액 합계)
+ *
+ * 세션 윈도우는 새 이벤트가 두 세션 사이를 메우면 기존 세션들을 merger 로 합친다.
+ * 필드가 고정 길이 long 뿐이라 merge 는 덧셈 몇 번이고, 직렬화 크기도 세션마다 일정하다.
+ */
+public final class UserSessionStats {
+
+    private long loginCount;
+    private long pageViewCount;
+    private long purchaseCount;
+    private long otherCount;
+    private long purchaseTotal;
+
+    public UserSessionStats() {
+    }
+
+    UserSessionStats(long loginCount, long pageViewCount, long purchaseCount, long otherCount, long purchaseTotal) {
+        this.loginCount = loginCount;
+        this.pageViewCount = pageViewCount;
+        this.purchaseCount = purchaseCount;
+        this.otherCount = otherCount;
+        this.purchaseTotal = purchaseTotal;
+    }
+
+    /**
+     * 이벤트 하나로 이루어진 집계값
+     */
+    public static UserSessionStats of(String eventType, UserEvent event) {
+        UserSessionStats stats = new UserSessionStats();
+        switch (eventType) {
+            case UserEvent.USER_LOGIN -> stats.loginCount = 1;
+            case UserEvent.PAGE_VIEW -> stats.pageViewCount = 1;
+            case UserEvent.PURCHASE -> {
+                stats.purchaseCount = 1;
+                stats.purchaseTotal = event.amount();
+            }
+            default -> stats.otherCount = 1;
+        }
+        return stats;
+    }
+
+    /**
+     * other 를 이 집계값에 더하고 자신을 반환 (aggregator / merger 공용)
+     */
+    public UserSessionStats merge(UserSessionStats other) {
+        loginCount += other.loginCount;
+        pageViewCount += other.pageViewCount;
+        purchaseCount += other.purchaseCount;
+        otherCount += other.otherCount;
+        purchaseTotal += other.purchaseTotal;
+        return this;
+    }
+
+    public long eventCount() {
+        return loginCount + pageViewCount + purchaseCount + otherCount;
+    }
+
+    public long loginCount() {
+        return loginCount;
+    }
+
+    public long pageViewCount() {
+        return pageViewCount;
+    }
+
+    public long purchaseCount() {
+        return purchaseCount;
+    }
+
+    public long otherCount() {
+        return otherCount;
+    }
+
+    public long purchaseTotal() {
+        return purchaseTotal;
+    }
+}
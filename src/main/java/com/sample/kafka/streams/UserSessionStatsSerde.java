@@ -0,0 +1,52 @@
+package com.sample.kafka.streams;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.nio.ByteBuffer;
+
+/**
+ * UserSessionStats 바이너리 Serde
+ *
+ * 형식: [버전 1바이트][login][pageView][purchase][other][purchaseTotal] (long 8바이트 x 5, 총 41바이트)
+ * 리파티션 토픽, 세션 저장소, changelog 모두 같은 형식을 쓴다.
+ */
+public class UserSessionStatsSerde implements Serde<UserSessionStats> {
+
+    private static final byte VERSION = 1;
+    static final int SIZE = 1 + Long.BYTES * 5;
+
+    @Override
+    public Serializer<UserSessionStats> serializer() {
+        return (topic, stats) -> {
+            if (stats == null) {
+                return null;
+            }
+            return ByteBuffer.allocate(SIZE)
+                    .put(VERSION)
+                    .putLong(stats.loginCount())
+                    .putLong(stats.pageViewCount())
+                    .putLong(stats.purchaseCount())
+                    .putLong(stats.otherCount())
+                    .putLong(stats.purchaseTotal())
+                    .array();
+        };
+    }
+
+    @Override
+    public Deserializer<UserSessionStats> deserializer() {
+        return (topic, bytes) -> {
+            if (bytes == null) {
+                return null;
+            }
+            if (bytes.length != SIZE || bytes[0] != VERSION) {
+                throw new SerializationException("UserSessionStats 형식 불일치 - 길이: " + bytes.length);
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(bytes, 1, SIZE - 1);
+            return new UserSessionStats(buffer.getLong(), buffer.getLong(), buffer.getLong(),
+                    buffer.getLong(), buffer.getLong());
+        };
+    }
+}
@@ -0,0 +1,13 @@
+package com.sample.kafka.streams;
+
+/**
+ * 단어 카운트 KTable 갱신을 출력 토픽으로 내보내는 방식
+ */
+public enum WordCountEmitMode {
+    // 갱신마다 방출 (레코드 캐시 끔) - 입력 토큰 수만큼 출력
+    EVERY_UPDATE,
+    // 레코드 캐시가 같은 단어의 갱신을 모아 커밋(commit.interval.ms) 또는 캐시가 찰 때 마지막 값만 방출
+    CACHED,
+    // Suppressed.untilTimeLimit - 단어마다 interval(스트림 시간) 동안 최대 한 번 방출
+    SUPPRESS
+}
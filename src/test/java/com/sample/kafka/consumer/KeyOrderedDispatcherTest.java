@@ -0,0 +1,145 @@
+package com.sample.kafka.consumer;
+
+import com.sample.kafka.metrics.PipelineMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class KeyOrderedDispatcherTest {
+
+    private static final String TOPIC = "sales";
+    private static final int WORKERS = 4;
+
+    private final List<Long> acked = Collections.synchronizedList(new ArrayList<>());
+    private KeyOrderedDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (dispatcher != null) {
+            dispatcher.shutdown();
+        }
+    }
+
+    @Test
+    void keepsPerKeyOrderAndAcksContiguousOffsets() throws InterruptedException {
+        dispatcher = dispatcher(true, Duration.ofSeconds(5));
+        int records = 500;
+        Map<String, List<Long>> processed = new ConcurrentHashMap<>();
+        CountDownLatch lastAcked = new CountDownLatch(1);
+
+        for (long offset = 0; offset < records; offset++) {
+            String key = "product-" + (offset % 7);
+            long current = offset;
+            dispatcher.dispatch(TOPIC, 0, offset, key, () -> {
+                acked.add(current);
+                if (current == records - 1) {
+                    lastAcked.countDown();
+                }
+            }, done -> {
+                processed.computeIfAbsent(key, k -> Collections.synchronizedList(new ArrayList<>())).add(current);
+                if (current % 13 == 0) {
+                    // 느린 레코드가 있어도 다른 키는 앞서 나가고, 커밋은 완료 구간까지만
+                    Thread.sleep(2);
+                }
+                done.acknowledge();
+            });
+        }
+
+        assertThat(lastAcked.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(processed).hasSize(7);
+        processed.values().forEach(offsets -> assertThat(offsets).isSorted().doesNotHaveDuplicates());
+        assertThat(processed.values().stream().mapToInt(List::size).sum()).isEqualTo(records);
+        assertThat(acked).isSorted().doesNotHaveDuplicates();
+    }
+
+    @Test
+    void failedRecordIsSkippedSoLaterOffsetsStillCommit() throws InterruptedException {
+        dispatcher = dispatcher(true, Duration.ofSeconds(5));
+        CountDownLatch lastAcked = new CountDownLatch(1);
+
+        for (long offset = 0; offset < 3; offset++) {
+            long current = offset;
+            dispatcher.dispatch(TOPIC, 0, offset, "key-" + offset, () -> {
+                acked.add(current);
+                if (current == 2) {
+                    lastAcked.countDown();
+                }
+            }, done -> {
+                if (current == 1) {
+                    throw new IllegalStateException("처리 실패");
+                }
+                done.acknowledge();
+            });
+        }
+
+        assertThat(lastAcked.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void drainCommitsCompletedPrefixAndDropsUnfinishedRecords() throws InterruptedException {
+        dispatcher = dispatcher(true, Duration.ofMillis(200));
+        TopicPartition partition = new TopicPartition(TOPIC, 0);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch processed = new CountDownLatch(2);
+
+        // 워커 4개 기준 "a", "b", "c" 는 서로 다른 워커로 간다 (hashCode 97, 98, 99)
+        dispatcher.dispatch(TOPIC, 0, 0, "a", () -> acked.add(0L), done -> {
+            done.acknowledge();
+            processed.countDown();
+        });
+        dispatcher.dispatch(TOPIC, 0, 1, "b", () -> acked.add(1L), done -> {
+            release.await();
+            done.acknowledge();
+        });
+        dispatcher.dispatch(TOPIC, 0, 2, "c", () -> acked.add(2L), done -> {
+            done.acknowledge();
+            processed.countDown();
+        });
+        assertThat(processed.await(5, TimeUnit.SECONDS)).isTrue();
+
+        Consumer<?, ?> consumer = mock(Consumer.class);
+        dispatcher.drain(consumer, List.of(partition));
+        release.countDown();
+
+        // 오프셋 1 이 끝나지 않았으므로 1 부터 새 소유자가 다시 처리
+        verify(consumer).commitSync(Map.of(partition, new OffsetAndMetadata(1)));
+        Thread.sleep(50);
+        assertThat(acked).containsExactly(0L);
+    }
+
+    @Test
+    void disabledDispatcherProcessesOnListenerThread() throws InterruptedException {
+        dispatcher = dispatcher(false, Duration.ofSeconds(1));
+        Thread listenerThread = Thread.currentThread();
+        List<Thread> workThreads = new ArrayList<>();
+
+        dispatcher.dispatch(TOPIC, 0, 0, "key", () -> acked.add(0L), done -> {
+            workThreads.add(Thread.currentThread());
+            done.acknowledge();
+        });
+
+        assertThat(workThreads).containsExactly(listenerThread);
+        assertThat(acked).containsExactly(0L);
+    }
+
+    private static KeyOrderedDispatcher dispatcher(boolean enabled, Duration drainTimeout) {
+        return new KeyOrderedDispatcher(new PipelineMetrics(new SimpleMeterRegistry()), enabled, WORKERS, 100,
+                drainTimeout);
+    }
+}
@@ -0,0 +1,123 @@
+package com.sample.kafka.consumer;
+
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OffsetWatermarkTest {
+
+    private static final TopicPartition PARTITION = new TopicPartition("sales", 0);
+
+    private final OffsetWatermark watermark = new OffsetWatermark();
+    private final List<Long> acked = Collections.synchronizedList(new ArrayList<>());
+
+    @Test
+    void outOfOrderCompletionAcksOnlyContiguousPrefix() {
+        // 12 는 compact 로 빠진 번호 (오프셋이 연속이라고 가정하지 않음)
+        Acknowledgment done10 = register(10);
+        Acknowledgment done11 = register(11);
+        Acknowledgment done13 = register(13);
+        Acknowledgment done14 = register(14);
+
+        done11.acknowledge();
+        done14.acknowledge();
+        assertThat(acked).isEmpty();
+        assertThat(watermark.inFlight()).isEqualTo(4);
+        assertThat(watermark.committable(List.of(PARTITION))).isEmpty();
+
+        done10.acknowledge();
+        assertThat(acked).containsExactly(11L);
+        assertThat(watermark.inFlight()).isEqualTo(2);
+        assertThat(watermark.committable(List.of(PARTITION)))
+                .containsEntry(PARTITION, new OffsetAndMetadata(12));
+
+        done13.acknowledge();
+        assertThat(acked).containsExactly(11L, 14L);
+        assertThat(watermark.inFlight()).isZero();
+        assertThat(watermark.committable(List.of(PARTITION)))
+                .containsEntry(PARTITION, new OffsetAndMetadata(15));
+    }
+
+    @Test
+    void repeatedCompletionIsCountedOnce() {
+        Acknowledgment done0 = register(0);
+        Acknowledgment done1 = register(1);
+
+        done1.acknowledge();
+        done1.acknowledge();
+        assertThat(watermark.inFlight()).isEqualTo(2);
+
+        done0.acknowledge();
+        done0.acknowledge();
+        assertThat(acked).containsExactly(1L);
+        assertThat(watermark.inFlight()).isZero();
+    }
+
+    @Test
+    void partitionsAdvanceIndependently() {
+        TopicPartition other = new TopicPartition("sales", 1);
+        Acknowledgment blocked = register(0);
+        Acknowledgment done = watermark.register(other.topic(), other.partition(), 0, () -> acked.add(100L));
+
+        done.acknowledge();
+
+        assertThat(acked).containsExactly(100L);
+        assertThat(watermark.inFlight(List.of(PARTITION))).isEqualTo(1);
+        assertThat(watermark.inFlight(List.of(other))).isZero();
+        assertThat(watermark.committable(List.of(PARTITION, other)))
+                .containsOnlyKeys(other)
+                .containsEntry(other, new OffsetAndMetadata(1));
+        blocked.acknowledge();
+    }
+
+    @Test
+    void forgottenPartitionIgnoresLateCompletion() {
+        Acknowledgment done0 = register(0);
+        register(1);
+
+        watermark.forget(List.of(PARTITION));
+        done0.acknowledge();
+
+        assertThat(acked).isEmpty();
+        assertThat(watermark.inFlight()).isZero();
+        assertThat(watermark.committable(List.of(PARTITION))).isEmpty();
+    }
+
+    @Test
+    void concurrentOutOfOrderCompletionAcksInOffsetOrder() throws InterruptedException {
+        int records = 2_000;
+        List<Acknowledgment> completions = new ArrayList<>();
+        for (int offset = 0; offset < records; offset++) {
+            completions.add(register(offset));
+        }
+        Collections.shuffle(completions, new Random(11));
+
+        ExecutorService workers = Executors.newFixedThreadPool(8);
+        completions.forEach(done -> workers.execute(done::acknowledge));
+        workers.shutdown();
+        assertThat(workers.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        // 잘린 구간마다 끝 오프셋 하나만 ack 하고, ack 는 항상 오프셋 오름차순이다
+        assertThat(acked).isNotEmpty().isSorted().doesNotHaveDuplicates();
+        assertThat(acked.get(acked.size() - 1)).isEqualTo(records - 1L);
+        assertThat(watermark.inFlight()).isZero();
+        assertThat(watermark.committable(List.of(PARTITION)))
+                .isEqualTo(Map.of(PARTITION, new OffsetAndMetadata(records)));
+    }
+
+    private Acknowledgment register(long offset) {
+        return watermark.register(PARTITION.topic(), PARTITION.partition(), offset, () -> acked.add(offset));
+    }
+}
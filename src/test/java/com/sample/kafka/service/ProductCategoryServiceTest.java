@@ -0,0 +1,99 @@
+package com.sample.kafka.service;
+
+import com.sample.kafka.metrics.PipelineMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductCategoryServiceTest {
+
+    private final Map<String, String> store = new ConcurrentHashMap<>();
+    private final AtomicInteger storeReads = new AtomicInteger();
+
+    @Test
+    void cachesMappedAndUnmappedProducts() {
+        ProductCategoryService service = service(100);
+        store.put("keyboard", "electronics");
+
+        assertThat(service.lookup("keyboard", this::load)).isEqualTo("electronics");
+        assertThat(service.lookup("keyboard", this::load)).isEqualTo("electronics");
+        assertThat(service.lookup("unknown", this::load)).isNull();
+        assertThat(service.lookup("unknown", this::load)).isNull();
+
+        assertThat(storeReads).hasValue(2);
+        assertThat(service.hitCount()).isEqualTo(2);
+        assertThat(service.missCount()).isEqualTo(2);
+        assertThat(service.cacheSize()).isEqualTo(2);
+    }
+
+    @Test
+    void invalidateDuringLoadKeepsStaleValueOutOfCache() {
+        ProductCategoryService service = service(100);
+        store.put("keyboard", "electronics");
+
+        // 저장소를 읽은 직후 글로벌 저장소 갱신 + invalidate 가 끼어든 경우
+        String loaded = service.lookup("keyboard", productName -> {
+            String category = load(productName);
+            store.put("keyboard", "office");
+            service.invalidate("keyboard");
+            return category;
+        });
+
+        assertThat(loaded).isEqualTo("electronics");
+        assertThat(service.lookup("keyboard", this::load)).isEqualTo("office");
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedWithinCapacity() {
+        ProductCategoryService service = service(16);
+        for (int i = 0; i < 1_000; i++) {
+            store.put("product-" + i, "category-" + i % 10);
+            service.lookup("product-" + i, this::load);
+        }
+
+        assertThat(service.cacheSize()).isLessThanOrEqualTo(16);
+    }
+
+    @Test
+    void concurrentLookupsReturnStoreValues() throws InterruptedException {
+        ProductCategoryService service = service(10_000);
+        for (int i = 0; i < 500; i++) {
+            store.put("product-" + i, "category-" + i % 10);
+        }
+        AtomicInteger mismatches = new AtomicInteger();
+
+        ExecutorService threads = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            threads.execute(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    int product = i % 500;
+                    if (!("category-" + product % 10).equals(service.lookup("product-" + product, this::load))) {
+                        mismatches.incrementAndGet();
+                    }
+                }
+            });
+        }
+        threads.shutdown();
+
+        assertThat(threads.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(mismatches).hasValue(0);
+        assertThat(service.cacheSize()).isEqualTo(500);
+    }
+
+    private String load(String productName) {
+        storeReads.incrementAndGet();
+        return store.get(productName);
+    }
+
+    private static ProductCategoryService service(int cacheSize) {
+        return new ProductCategoryService(new PipelineMetrics(new SimpleMeterRegistry()), cacheSize);
+    }
+}
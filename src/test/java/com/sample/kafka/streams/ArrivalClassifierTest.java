@@ -0,0 +1,80 @@
+package com.sample.kafka.streams;
+
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.TestInputTopic;
+import org.apache.kafka.streams.TestOutputTopic;
+import org.apache.kafka.streams.TopologyTestDriver;
+import org.apache.kafka.streams.kstream.Consumed;
+import org.apache.kafka.streams.kstream.Produced;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 윈도우 종류별로 레코드가 들어가는 가장 늦은 윈도우 기준으로 지각을 판정하는지 확인
+ */
+class ArrivalClassifierTest {
+
+    private static final Duration SIZE = Duration.ofMinutes(5);
+    private static final Duration ADVANCE = Duration.ofSeconds(30);
+    private static final Duration GRACE = Duration.ofSeconds(10);
+
+    @Test
+    void recordAfterTumblingBoundaryIsLateOnlyForTumbling() {
+        // 스트림 시간 00:05:20 에서 00:04:50 레코드: 텀블링 [00:00, 00:05) 는 grace 까지 닫혔지만
+        // 호핑 [00:04:30, 00:09:30) 과 슬라이딩 [00:04:50, 00:09:50] 은 아직 열려 있다
+        List<String> arrivals = List.of("00:05:20", "00:04:50");
+
+        assertThat(classify(EventWindowType.TUMBLING, arrivals)).containsExactly("on-time", "late:10000");
+        assertThat(classify(EventWindowType.HOPPING, arrivals)).containsExactly("on-time", "on-time");
+        assertThat(classify(EventWindowType.SLIDING, arrivals)).containsExactly("on-time", "on-time");
+    }
+
+    @Test
+    void recordIsLateOnceItsLastWindowCloses() {
+        // 00:00:10 레코드의 마지막 윈도우 종료 + grace: 호핑 00:05:10, 슬라이딩 00:05:20.001
+        assertThat(classify(EventWindowType.HOPPING, List.of("00:05:09.999", "00:00:10")))
+                .containsExactly("on-time", "on-time");
+        assertThat(classify(EventWindowType.HOPPING, List.of("00:05:10", "00:00:10")))
+                .containsExactly("on-time", "late:0");
+        assertThat(classify(EventWindowType.SLIDING, List.of("00:05:20", "00:00:10")))
+                .containsExactly("on-time", "on-time");
+        assertThat(classify(EventWindowType.SLIDING, List.of("00:05:20.001", "00:00:10")))
+                .containsExactly("on-time", "late:0");
+    }
+
+    private static List<String> classify(EventWindowType type, List<String> times) {
+        StreamsBuilder builder = new StreamsBuilder();
+        builder.stream("input", Consumed.with(Serdes.String(), Serdes.String()))
+                .processValues(ArrivalClassifier.<String, String>supplier(type, SIZE, ADVANCE, GRACE))
+                .mapValues(arrival -> arrival.late() ? "late:" + arrival.latenessMs() : "on-time")
+                .to("output", Produced.with(Serdes.String(), Serdes.String()));
+
+        Properties props = new Properties();
+        props.put(StreamsConfig.APPLICATION_ID_CONFIG, "arrival-classifier-test");
+        props.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, "dummy:9092");
+        try (TopologyTestDriver driver = new TopologyTestDriver(builder.build(), props)) {
+            TestInputTopic<String, String> input = driver.createInputTopic("input",
+                    new StringSerializer(), new StringSerializer());
+            TestOutputTopic<String, String> output = driver.createOutputTopic("output",
+                    new StringDeserializer(), new StringDeserializer());
+            for (String time : times) {
+                input.pipeInput("LOGIN", "user-1|web", at(time));
+            }
+            return output.readValuesToList();
+        }
+    }
+
+    private static Instant at(String time) {
+        return Instant.parse("2026-01-01T" + time + "Z");
+    }
+}
@@ -0,0 +1,117 @@
+package com.sample.kafka.streams;
+
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.TestInputTopic;
+import org.apache.kafka.streams.TestOutputTopic;
+import org.apache.kafka.streams.TopologyTestDriver;
+import org.apache.kafka.streams.kstream.Consumed;
+import org.apache.kafka.streams.kstream.KGroupedStream;
+import org.apache.kafka.streams.kstream.Produced;
+import org.apache.kafka.streams.kstream.Suppressed;
+import org.apache.kafka.streams.kstream.Windowed;
+import org.apache.kafka.streams.state.KeyValueIterator;
+import org.apache.kafka.streams.state.ValueAndTimestamp;
+import org.apache.kafka.streams.state.WindowStore;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 윈도우 종류별 이벤트 카운트 벤치마크 (상태 크기, 레코드당 처리 비용)
+ *
+ * 기본 test 태스크에서는 제외되며 ./gradlew benchmark 로 실행한다.
+ * 운영과 같은 조건(5분 윈도우, 30초 advance)으로 EventWindowCounts 집계 경로를 TopologyTestDriver 에서 돌린다.
+ */
+@Tag("benchmark")
+class EventWindowBenchmarkTest {
+
+    private static final String INPUT_TOPIC = "event-topic";
+    private static final String OUTPUT_TOPIC = "event-count-output-topic";
+    private static final String STORE = "event-count-benchmark-store";
+
+    private static final Duration WINDOW_SIZE = Duration.ofMinutes(5);
+    private static final Duration ADVANCE = Duration.ofSeconds(30);
+    private static final Duration GRACE = Duration.ZERO;
+
+    private static final int EVENT_TYPES = 20;
+    private static final int WARMUP_RECORDS = 20_000;
+    private static final int MEASURED_RECORDS = 200_000;
+    // 전체 초당 20건 (이벤트 타입당 초당 1건)
+    private static final long RECORD_SPACING_MS = 50;
+
+    @ParameterizedTest
+    @EnumSource(EventWindowType.class)
+    void benchmarkEventWindow(EventWindowType type) {
+        StreamsBuilder builder = new StreamsBuilder();
+        KGroupedStream<String, String> grouped = builder
+                .stream(INPUT_TOPIC, Consumed.with(Serdes.String(), Serdes.String()))
+                .groupByKey();
+        EventWindowCounts.count(grouped, type, WINDOW_SIZE, ADVANCE, GRACE, STORE, false, Map.of())
+                .suppress(Suppressed.untilWindowCloses(Suppressed.BufferConfig.unbounded()))
+                .toStream()
+                .map((windowedKey, count) -> KeyValue.pair(windowedKey.key(), String.valueOf(count)))
+                .to(OUTPUT_TOPIC, Produced.with(Serdes.String(), Serdes.String()));
+
+        Properties props = new Properties();
+        props.put(StreamsConfig.APPLICATION_ID_CONFIG, "event-window-benchmark");
+        props.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, "dummy:9092");
+
+        try (TopologyTestDriver driver = new TopologyTestDriver(builder.build(), props)) {
+            TestInputTopic<String, String> input = driver.createInputTopic(
+                    INPUT_TOPIC, new StringSerializer(), new StringSerializer());
+            TestOutputTopic<String, String> output = driver.createOutputTopic(
+                    OUTPUT_TOPIC, new StringDeserializer(), new StringDeserializer());
+
+            Instant base = Instant.parse("2025-11-13T00:00:00Z");
+            pipe(input, base, 0, WARMUP_RECORDS);
+            output.readValuesToList();
+
+            long startNanos = System.nanoTime();
+            pipe(input, base, WARMUP_RECORDS, MEASURED_RECORDS);
+            long elapsedNanos = System.nanoTime() - startNanos;
+            long emitted = output.getQueueSize();
+
+            long entries = 0;
+            long approxBytes = 0;
+            WindowStore<String, ValueAndTimestamp<Long>> store = driver.getTimestampedWindowStore(STORE);
+            try (KeyValueIterator<Windowed<String>, ValueAndTimestamp<Long>> iterator = store.all()) {
+                while (iterator.hasNext()) {
+                    KeyValue<Windowed<String>, ValueAndTimestamp<Long>> entry = iterator.next();
+                    entries++;
+                    // 키 + 윈도우 시작(8) + 시퀀스(4) + 타임스탬프(8) + 값(8)
+                    approxBytes += entry.key.key().getBytes(StandardCharsets.UTF_8).length + 28;
+                }
+            }
+
+            System.out.printf("[%s] 레코드당 %.2f µs, 방출 %d건 (입력 대비 %.2f배), 윈도우 저장소 %d개 엔트리 (약 %d KB)%n",
+                    type,
+                    elapsedNanos / 1_000.0 / MEASURED_RECORDS,
+                    emitted,
+                    (double) emitted / MEASURED_RECORDS,
+                    entries,
+                    approxBytes / 1024);
+
+            assertThat(entries).isPositive();
+            assertThat(emitted).isPositive();
+        }
+    }
+
+    private static void pipe(TestInputTopic<String, String> input, Instant base, int from, int count) {
+        for (int i = from; i < from + count; i++) {
+            input.pipeInput("EVENT_" + (i % EVENT_TYPES), "data-" + i, base.plusMillis(i * RECORD_SPACING_MS));
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.sample.kafka.streams;
+
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.kstream.Consumed;
+import org.apache.kafka.streams.kstream.Repartitioned;
+import org.apache.kafka.streams.processor.api.FixedKeyProcessor;
+import org.apache.kafka.streams.processor.api.FixedKeyProcessorContext;
+import org.apache.kafka.streams.processor.api.FixedKeyRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 키를 바꾸는 재파티셔닝에서 하트비트가 모든 파티션에 도착하고, 실제 레코드는 한 파티션에만 가는지 확인
+ * (TopologyTestDriver 는 파티션이 하나뿐이라 내장 브로커와 실제 KafkaStreams 로 확인한다)
+ */
+@EmbeddedKafka(partitions = 1, topics = HeartbeatFanOutTest.INPUT_TOPIC)
+class HeartbeatFanOutTest {
+
+    static final String INPUT_TOPIC = "heartbeat-fan-out-input-topic";
+
+    private static final int PARTITIONS = 4;
+
+    @Test
+    void heartbeatReachesEveryRepartitionPartition(EmbeddedKafkaBroker broker, @TempDir Path stateDir)
+            throws Exception {
+        BlockingQueue<String> arrivals = new LinkedBlockingQueue<>();
+
+        StreamsBuilder builder = new StreamsBuilder();
+        builder.stream(INPUT_TOPIC, Consumed.with(Serdes.String(), Serdes.String()))
+                .repartition(Heartbeats.fanOut(Repartitioned.<String, String>as("fan-out")
+                        .withKeySerde(Serdes.String())
+                        .withValueSerde(Serdes.String())
+                        .withNumberOfPartitions(PARTITIONS), true))
+                .processValues(() -> new FixedKeyProcessor<String, String, String>() {
+                    private FixedKeyProcessorContext<String, String> context;
+
+                    @Override
+                    public void init(FixedKeyProcessorContext<String, String> context) {
+                        this.context = context;
+                    }
+
+                    @Override
+                    public void process(FixedKeyRecord<String, String> record) {
+                        int partition = context.recordMetadata().orElseThrow().partition();
+                        arrivals.add(record.key() + "@" + partition);
+                    }
+                });
+
+        Properties props = new Properties();
+        props.put(StreamsConfig.APPLICATION_ID_CONFIG, "heartbeat-fan-out-test");
+        props.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        props.put(StreamsConfig.STATE_DIR_CONFIG, stateDir.toString());
+        props.put(StreamsConfig.consumerPrefix("auto.offset.reset"), "earliest");
+
+        try (KafkaStreams streams = new KafkaStreams(builder.build(), props);
+             KafkaProducer<String, String> producer = new KafkaProducer<>(Map.of(
+                     ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString(),
+                     ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class,
+                     ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class))) {
+            streams.start();
+            producer.send(new ProducerRecord<>(INPUT_TOPIC, "user-1", "LOGIN")).get();
+            producer.send(new ProducerRecord<>(INPUT_TOPIC, Heartbeats.KEY, "0")).get();
+
+            List<String> received = new ArrayList<>();
+            while (received.size() < PARTITIONS + 1) {
+                String arrival = arrivals.poll(30, TimeUnit.SECONDS);
+                assertThat(arrival).as("received so far: %s", received).isNotNull();
+                received.add(arrival);
+            }
+
+            List<String> heartbeats = received.stream().filter(arrival -> arrival.startsWith(Heartbeats.KEY)).toList();
+            assertThat(heartbeats).containsExactlyInAnyOrder(
+                    Heartbeats.KEY + "@0", Heartbeats.KEY + "@1", Heartbeats.KEY + "@2", Heartbeats.KEY + "@3");
+            assertThat(received).filteredOn(arrival -> arrival.startsWith("user-1")).hasSize(1);
+            assertThat(arrivals.poll(2, TimeUnit.SECONDS)).isNull();
+        }
+    }
+}
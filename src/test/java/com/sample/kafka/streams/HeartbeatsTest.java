@@ -0,0 +1,141 @@
+package com.sample.kafka.streams;
+
+import org.apache.kafka.common.serialization.LongDeserializer;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.TestInputTopic;
+import org.apache.kafka.streams.TopologyTestDriver;
+import org.apache.kafka.streams.kstream.Consumed;
+import org.apache.kafka.streams.kstream.Grouped;
+import org.apache.kafka.streams.kstream.KGroupedStream;
+import org.apache.kafka.streams.kstream.Produced;
+import org.apache.kafka.streams.kstream.Suppressed;
+import org.apache.kafka.streams.kstream.Windowed;
+import org.apache.kafka.streams.state.KeyValueIterator;
+import org.apache.kafka.streams.state.ValueAndTimestamp;
+import org.apache.kafka.streams.state.WindowStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 하트비트가 윈도우를 닫기만 하고 집계 저장소와 확정 결과에는 남지 않는지 확인
+ * (레코드 캐시가 켜져 있어도 하트비트 갱신이 suppress 까지 내려가야 한다)
+ */
+class HeartbeatsTest {
+
+    private static final String INPUT_TOPIC = "event-topic";
+
+    private static final Duration WINDOW_SIZE = Duration.ofMinutes(5);
+    private static final Duration ADVANCE = Duration.ofMinutes(1);
+    private static final Duration GRACE = Duration.ofSeconds(30);
+
+    private static final Instant START = Instant.parse("2026-01-01T00:00:00Z");
+
+    private TopologyTestDriver driver;
+    private TestInputTopic<String, String> input;
+
+    private void start(long cacheMaxBytes) {
+        StreamsBuilder builder = new StreamsBuilder();
+        KGroupedStream<String, String> events = builder
+                .stream(INPUT_TOPIC, Consumed.with(Serdes.String(), Serdes.String()))
+                .groupByKey(Grouped.with(Serdes.String(), Serdes.String()));
+
+        for (EventWindowType type : EventWindowType.values()) {
+            EventWindowCounts.count(events, type, WINDOW_SIZE, ADVANCE, GRACE, storeName(type), true, Map.of())
+                    .suppress(Suppressed.<Windowed<String>>untilWindowCloses(Suppressed.BufferConfig.unbounded())
+                            .withName(type.name().toLowerCase() + "-suppress"))
+                    .toStream()
+                    .map((windowedKey, count) -> KeyValue.pair(windowedKey.key(), count))
+                    .to(outputTopic(type), Produced.with(Serdes.String(), Serdes.Long()));
+        }
+
+        Properties props = new Properties();
+        props.put(StreamsConfig.APPLICATION_ID_CONFIG, "heartbeats-test");
+        props.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, "dummy:9092");
+        props.put(StreamsConfig.STATESTORE_CACHE_MAX_BYTES_CONFIG, cacheMaxBytes);
+        driver = new TopologyTestDriver(builder.build(), props, START);
+        input = driver.createInputTopic(INPUT_TOPIC, new StringSerializer(), new StringSerializer());
+    }
+
+    @AfterEach
+    void tearDown() {
+        driver.close();
+    }
+
+    @ParameterizedTest(name = "cache.max.bytes={0}")
+    @ValueSource(longs = {10 * 1024 * 1024L, 0L})
+    void heartbeatClosesWindowsWithoutLeavingState(long cacheMaxBytes) {
+        start(cacheMaxBytes);
+        input.pipeInput("LOGIN", "user-1|web", START.plusSeconds(10));
+        input.pipeInput("LOGIN", "user-2|web", START.plusSeconds(20));
+        input.pipeInput(Heartbeats.KEY, "0", START.plusSeconds(40));
+
+        for (EventWindowType type : EventWindowType.values()) {
+            assertThat(storedKeys(type)).as(type.name()).contains("LOGIN").doesNotContain(Heartbeats.KEY);
+        }
+
+        // 실제 레코드가 더 오지 않아도 하트비트만으로 스트림 시간이 윈도우 종료 + grace 를 넘는다
+        input.pipeInput(Heartbeats.KEY, "0", START.plus(WINDOW_SIZE).plus(ADVANCE).plus(GRACE).plusSeconds(30));
+
+        for (EventWindowType type : EventWindowType.values()) {
+            List<KeyValue<String, Long>> results = driver.createOutputTopic(outputTopic(type),
+                    new StringDeserializer(), new LongDeserializer()).readKeyValuesToList();
+
+            assertThat(results).as(type.name()).isNotEmpty()
+                    .allSatisfy(result -> assertThat(result.key).isEqualTo("LOGIN"));
+            assertThat(results).as(type.name()).contains(KeyValue.pair("LOGIN", 2L));
+            assertThat(storedKeys(type)).as(type.name()).doesNotContain(Heartbeats.KEY);
+        }
+    }
+
+    @Test
+    void aggregatorSkipsOnlyHeartbeats() {
+        assertThat(Heartbeats.<String, Long>skip((key, value, count) -> count + 1).apply("LOGIN", "x", 1L))
+                .isEqualTo(2L);
+        assertThat(Heartbeats.<String, Long>skip((key, value, count) -> count + 1).apply(Heartbeats.KEY, "0", 0L))
+                .isNull();
+        assertThat(Heartbeats.isHeartbeat(null)).isFalse();
+    }
+
+    @Test
+    void partitionerFansOutOnlyHeartbeats() {
+        var partitioner = Heartbeats.<String>partitioner();
+
+        assertThat(partitioner.partitions("topic", Heartbeats.KEY, "0", 4)).contains(Set.of(0, 1, 2, 3));
+        assertThat(partitioner.partitions("topic", "user-1", "x", 4)).isEqualTo(Optional.empty());
+    }
+
+    private List<String> storedKeys(EventWindowType type) {
+        WindowStore<String, ValueAndTimestamp<Long>> store = driver.getTimestampedWindowStore(storeName(type));
+        List<String> keys = new ArrayList<>();
+        try (KeyValueIterator<Windowed<String>, ValueAndTimestamp<Long>> iterator = store.all()) {
+            iterator.forEachRemaining(entry -> keys.add(entry.key.key()));
+        }
+        return keys;
+    }
+
+    private static String storeName(EventWindowType type) {
+        return "event-count-" + type.name().toLowerCase() + "-store";
+    }
+
+    private static String outputTopic(EventWindowType type) {
+        return "event-count-" + type.name().toLowerCase() + "-output-topic";
+    }
+}
@@ -0,0 +1,106 @@
+package com.sample.kafka.streams;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class HyperLogLogTest {
+
+    private static final int PRECISION = 12;
+    // 표준 오차 1.04 / sqrt(4096) ≈ 1.6% 의 3배
+    private static final double MAX_RELATIVE_ERROR = 0.05;
+
+    @Test
+    void estimateStaysWithinErrorBound() {
+        for (int cardinality : new int[]{1_000, 10_000, 100_000}) {
+            HyperLogLog sketch = sketch(0, cardinality);
+
+            assertThat((double) sketch.estimate())
+                    .as("고유 %d건", cardinality)
+                    .isCloseTo(cardinality, within(cardinality * MAX_RELATIVE_ERROR));
+        }
+    }
+
+    @Test
+    void smallCardinalityUsesLinearCounting() {
+        assertThat(new HyperLogLog(PRECISION).estimate()).isZero();
+        assertThat((double) sketch(0, 100).estimate()).isCloseTo(100, within(3.0));
+    }
+
+    @Test
+    void duplicatesDoNotChangeEstimate() {
+        HyperLogLog sketch = sketch(0, 5_000);
+        long estimate = sketch.estimate();
+
+        for (int i = 0; i < 5_000; i++) {
+            sketch.add("user-" + i);
+        }
+
+        assertThat(sketch.estimate()).isEqualTo(estimate);
+    }
+
+    @Test
+    void mergeEqualsSketchOfUnion() {
+        // 겹치는 두 윈도우 (0~60000, 40000~100000) 의 병합은 합집합 스케치와 레지스터까지 같아야 한다
+        HyperLogLog left = sketch(0, 60_000);
+        HyperLogLog right = sketch(40_000, 100_000);
+        HyperLogLog union = sketch(0, 100_000);
+
+        left.merge(right);
+
+        assertThat(left.registers()).isEqualTo(union.registers());
+        assertThat(left.estimate()).isEqualTo(union.estimate());
+        assertThat((double) left.estimate()).isCloseTo(100_000, within(100_000 * MAX_RELATIVE_ERROR));
+    }
+
+    @Test
+    void mergeRejectsDifferentPrecision() {
+        HyperLogLog sketch = new HyperLogLog(PRECISION);
+
+        assertThatThrownBy(() -> sketch.merge(new HyperLogLog(PRECISION - 1)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new HyperLogLog(HyperLogLog.MAX_PRECISION + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void serdeRoundTripKeepsRegisters() {
+        HyperLogLog sketch = sketch(0, 20_000);
+        HyperLogLogSerde serde = new HyperLogLogSerde();
+
+        byte[] bytes = serde.serializer().serialize("topic", sketch);
+        HyperLogLog restored = serde.deserializer().deserialize("topic", bytes);
+
+        assertThat(bytes).hasSize(2 + (1 << PRECISION));
+        assertThat(restored.precision()).isEqualTo(PRECISION);
+        assertThat(restored.registers()).isEqualTo(sketch.registers());
+        assertThat(restored.estimate()).isEqualTo(sketch.estimate());
+        assertThat(serde.serializer().serialize("topic", null)).isNull();
+        assertThat(serde.deserializer().deserialize("topic", null)).isNull();
+    }
+
+    @Test
+    void serdeRejectsMalformedBytes() {
+        byte[] bytes = HyperLogLogSerde.toBytes(new HyperLogLog(PRECISION));
+
+        byte[] wrongVersion = bytes.clone();
+        wrongVersion[0] = 9;
+        assertThatThrownBy(() -> HyperLogLogSerde.fromBytes(wrongVersion))
+                .isInstanceOf(SerializationException.class);
+        assertThatThrownBy(() -> HyperLogLogSerde.fromBytes(Arrays.copyOf(bytes, bytes.length - 1)))
+                .isInstanceOf(SerializationException.class);
+    }
+
+    private static HyperLogLog sketch(int fromInclusive, int toExclusive) {
+        HyperLogLog sketch = new HyperLogLog(PRECISION);
+        for (int i = fromInclusive; i < toExclusive; i++) {
+            sketch.add("user-" + i);
+        }
+        return sketch;
+    }
+}
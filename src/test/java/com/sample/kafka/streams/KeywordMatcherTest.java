@@ -0,0 +1,71 @@
+package com.sample.kafka.streams;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KeywordMatcherTest {
+
+    @Test
+    void overlappingPatternsAreAllMatchedThroughFailureLinks() {
+        // "ushers" 를 훑는 동안 "she" 끝에서 실패 링크의 "he" 출력, 이어서 "hers" 까지 나와야 한다
+        KeywordMatcher matcher = KeywordMatcher.compile(rules("he", "she", "his", "hers"));
+
+        assertThat(matcher.match("ushers")).containsExactly("he", "she", "hers");
+    }
+
+    @Test
+    void mismatchInDeepBranchFallsBackToLongestSuffix() {
+        // "abc" 다음 'x' 에서 "abcd" 가지가 끊기면 실패 링크로 "bc" 로 옮겨 "bcx" 를 이어서 찾는다
+        KeywordMatcher matcher = KeywordMatcher.compile(rules("abcd", "bcx", "c"));
+
+        assertThat(matcher.match("abcx")).containsExactly("bcx", "c");
+        assertThat(matcher.match("abcd")).containsExactly("abcd", "c");
+    }
+
+    @Test
+    void repeatedPrefixDoesNotLoseMatch() {
+        // "aa" 에서 'a' 가 또 오면 실패 링크로 "a" 의 자식 "aa" 로 돌아가야 "aab" 를 찾는다
+        KeywordMatcher matcher = KeywordMatcher.compile(rules("aab"));
+
+        assertThat(matcher.match("aaab")).containsExactly("aab");
+        assertThat(matcher.match("abab")).isEmpty();
+    }
+
+    @Test
+    void matchesIgnoreCaseInRegistrationOrderWithoutDuplicates() {
+        Map<String, String> rules = new LinkedHashMap<>();
+        rules.put("kafka-rule", "Kafka");
+        rules.put("streams-rule", "Streams");
+        rules.put("empty-rule", "");
+        rules.put("kafka-lower-rule", "kafka");
+        KeywordMatcher matcher = KeywordMatcher.compile(rules);
+
+        assertThat(matcher.size()).isEqualTo(3);
+        assertThat(matcher.rules()).doesNotContainKey("empty-rule");
+        assertThat(matcher.match("streaMS on APACHE KAFKA, kafka again"))
+                .containsExactly("kafka-rule", "streams-rule", "kafka-lower-rule");
+        assertThat(matcher.match("kafk")).isEmpty();
+        assertThat(matcher.match(null)).isEmpty();
+    }
+
+    @Test
+    void emptyRuleSetMatchesNothing() {
+        KeywordMatcher matcher = KeywordMatcher.compile(Map.of());
+
+        assertThat(matcher.size()).isZero();
+        assertThat(matcher.match("anything")).isEmpty();
+    }
+
+    // 규칙 ID 를 키워드와 같게 등록 순서대로
+    private static Map<String, String> rules(String... keywords) {
+        Map<String, String> rules = new LinkedHashMap<>();
+        for (String keyword : keywords) {
+            rules.put(keyword, keyword);
+        }
+        return rules;
+    }
+}
@@ -0,0 +1,72 @@
+package com.sample.kafka.streams;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SalesStatsSerdeTest {
+
+    private final SalesStatsSerde serde = new SalesStatsSerde();
+
+    @Test
+    void roundTripKeepsAllFields() {
+        SalesStats stats = new SalesStats().add(1_500).add(-200).add(Long.MAX_VALUE / 4);
+
+        byte[] bytes = serde.serializer().serialize("topic", stats);
+        SalesStats restored = serde.deserializer().deserialize("topic", bytes);
+
+        assertThat(bytes).hasSize(SalesStatsSerde.SIZE);
+        assertThat(restored.count()).isEqualTo(3);
+        assertThat(restored.sum()).isEqualTo(stats.sum());
+        assertThat(restored.min()).isEqualTo(-200);
+        assertThat(restored.max()).isEqualTo(Long.MAX_VALUE / 4);
+    }
+
+    @Test
+    void emptyStatsKeepMinMaxSentinels() {
+        // 센티널이 0 으로 바뀌면 복원 후 첫 금액의 min/max 가 틀어진다
+        SalesStats restored = serde.deserializer().deserialize("topic",
+                serde.serializer().serialize("topic", new SalesStats()));
+
+        assertThat(restored.count()).isZero();
+        restored.add(700);
+        assertThat(restored.min()).isEqualTo(700);
+        assertThat(restored.max()).isEqualTo(700);
+    }
+
+    @Test
+    void restoredStatsMergeLikeOriginal() {
+        SalesStats left = new SalesStats().add(10).add(30);
+        SalesStats right = new SalesStats().add(5).add(50);
+
+        SalesStats merged = serde.deserializer().deserialize("topic", serde.serializer().serialize("topic", left))
+                .merge(serde.deserializer().deserialize("topic", serde.serializer().serialize("topic", right)));
+
+        assertThat(merged.count()).isEqualTo(4);
+        assertThat(merged.sum()).isEqualTo(95);
+        assertThat(merged.min()).isEqualTo(5);
+        assertThat(merged.max()).isEqualTo(50);
+    }
+
+    @Test
+    void nullPassesThrough() {
+        assertThat(serde.serializer().serialize("topic", null)).isNull();
+        assertThat(serde.deserializer().deserialize("topic", null)).isNull();
+    }
+
+    @Test
+    void rejectsMalformedBytes() {
+        byte[] bytes = serde.serializer().serialize("topic", new SalesStats().add(1));
+
+        byte[] wrongVersion = bytes.clone();
+        wrongVersion[0] = 2;
+        assertThatThrownBy(() -> serde.deserializer().deserialize("topic", wrongVersion))
+                .isInstanceOf(SerializationException.class);
+        assertThatThrownBy(() -> serde.deserializer().deserialize("topic", Arrays.copyOf(bytes, bytes.length + 1)))
+                .isInstanceOf(SerializationException.class);
+    }
+}
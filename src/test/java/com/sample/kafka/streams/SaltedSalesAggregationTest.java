@@ -0,0 +1,146 @@
+package com.sample.kafka.streams;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.common.utils.Bytes;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.TestInputTopic;
+import org.apache.kafka.streams.TopologyTestDriver;
+import org.apache.kafka.streams.kstream.Consumed;
+import org.apache.kafka.streams.kstream.Grouped;
+import org.apache.kafka.streams.kstream.KStream;
+import org.apache.kafka.streams.kstream.KTable;
+import org.apache.kafka.streams.kstream.Materialized;
+import org.apache.kafka.streams.kstream.Produced;
+import org.apache.kafka.streams.kstream.Suppressed;
+import org.apache.kafka.streams.kstream.TimeWindows;
+import org.apache.kafka.streams.kstream.Windowed;
+import org.apache.kafka.streams.state.WindowStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 핫 키 2단계 집계가 같은 입력의 단일 단계 집계와 같은 확정 결과를 내는지 확인
+ */
+class SaltedSalesAggregationTest {
+
+    private static final String INPUT_TOPIC = "hourly-sales-topic";
+    private static final String UNSALTED_TOPIC = "unsalted-output-topic";
+    private static final String SALTED_TOPIC = "salted-output-topic";
+
+    private static final Duration WINDOW_SIZE = Duration.ofMinutes(1);
+    private static final Duration GRACE = Duration.ofSeconds(10);
+    private static final Duration FLUSH_INTERVAL = Duration.ofSeconds(5);
+    private static final Duration MERGE_GRACE = Duration.ofSeconds(10);
+    private static final int SALTS = 4;
+    private static final double THRESHOLD = 5;
+
+    private static final Instant START = Instant.parse("2026-01-01T00:00:00Z");
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final Counter saltedRecords = registry.counter("salted");
+    private final Counter droppedPartials = registry.counter("dropped");
+
+    private TopologyTestDriver driver;
+    private TestInputTopic<String, String> input;
+
+    @BeforeEach
+    void setUp() {
+        StreamsBuilder builder = new StreamsBuilder();
+        KStream<String, String> sales = builder.stream(INPUT_TOPIC, Consumed.with(Serdes.String(), Serdes.String()));
+
+        KTable<Windowed<String>, SalesStats> unsalted = sales
+                .groupByKey(Grouped.with(Serdes.String(), Serdes.String()))
+                .windowedBy(TimeWindows.ofSizeAndGrace(WINDOW_SIZE, GRACE))
+                .aggregate(SalesStats::new, (key, value, stats) -> stats.add(Long.parseLong(value)),
+                        Materialized.<String, SalesStats, WindowStore<Bytes, byte[]>>as("unsalted-store")
+                                .withKeySerde(Serdes.String())
+                                .withValueSerde(new SalesStatsSerde()));
+        emitFinal(unsalted, UNSALTED_TOPIC);
+
+        KStream<String, SalesStats> partials = SaltedSalesAggregation.preAggregate(builder, sales, "hourly-sales",
+                WINDOW_SIZE, SALTS, THRESHOLD, FLUSH_INTERVAL, saltedRecords, false, Map.of());
+        emitFinal(SaltedSalesAggregation.merge(partials, "hourly-sales", WINDOW_SIZE, GRACE, MERGE_GRACE,
+                "salted-store", droppedPartials, false, Map.of()), SALTED_TOPIC);
+
+        Properties props = new Properties();
+        props.put(StreamsConfig.APPLICATION_ID_CONFIG, "salted-sales-test");
+        props.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, "dummy:9092");
+        props.put(StreamsConfig.DEFAULT_KEY_SERDE_CLASS_CONFIG, Serdes.String().getClass());
+        props.put(StreamsConfig.DEFAULT_VALUE_SERDE_CLASS_CONFIG, Serdes.String().getClass());
+        driver = new TopologyTestDriver(builder.build(), props, START);
+        input = driver.createInputTopic(INPUT_TOPIC, new StringSerializer(), new StringSerializer());
+    }
+
+    @AfterEach
+    void tearDown() {
+        driver.close();
+    }
+
+    @Test
+    void saltedTotalsMatchUnsaltedTotals() {
+        // "hot" 을 핫 키로 만든 뒤 (초당 40건 > threshold) 5분 동안 키 세 개의 매출을 흘린다
+        for (int i = 0; i < 40; i++) {
+            input.pipeInput("hot", "1", START);
+        }
+        driver.advanceWallClockTime(Duration.ofSeconds(1));
+
+        for (int i = 0; i < 600; i++) {
+            String key = i % 5 == 0 ? "warm" : i % 7 == 0 ? "cold" : "hot";
+            // 일부는 grace 안에서 순서가 뒤바뀌어 도착
+            Instant timestamp = START.plusMillis(i * 500L).minusSeconds(i % 9 == 0 ? 3 : 0);
+            input.pipeInput(key, String.valueOf(i * 37 % 1000 + 1), timestamp);
+        }
+        closeWindows();
+
+        Map<String, String> unsalted = read(UNSALTED_TOPIC);
+        Map<String, String> salted = read(SALTED_TOPIC);
+
+        assertThat(saltedRecords.count()).isPositive();
+        assertThat(droppedPartials.count()).isZero();
+        assertThat(unsalted).containsKey("hot@" + START.toEpochMilli()).hasSizeGreaterThanOrEqualTo(15);
+        assertThat(salted).isEqualTo(unsalted);
+    }
+
+    @Test
+    void partialArrivingAfterMergeWindowClosesIsCounted() {
+        input.pipeInput("hot", "100", START);
+        closeWindows();
+        // 병합 윈도우 종료 + grace 가 지난 뒤 같은 윈도우의 매출 (운영에서는 splitLateArrivals 가 먼저 걸러냄)
+        input.pipeInput("hot", "50", START.plusSeconds(1));
+        driver.advanceWallClockTime(FLUSH_INTERVAL);
+
+        assertThat(droppedPartials.count()).isEqualTo(1.0);
+        assertThat(read(SALTED_TOPIC)).containsEntry("hot@" + START.toEpochMilli(), "1/100/100/100");
+    }
+
+    // 모든 윈도우가 병합 grace 까지 지나도록 스트림 시간을 한참 뒤로 민다
+    private void closeWindows() {
+        input.pipeInput("end", "0", START.plus(Duration.ofHours(1)));
+    }
+
+    private static void emitFinal(KTable<Windowed<String>, SalesStats> totals, String topic) {
+        totals.suppress(Suppressed.untilWindowCloses(Suppressed.BufferConfig.unbounded()))
+                .toStream()
+                .map((windowedKey, stats) -> KeyValue.pair(windowedKey.key() + "@" + windowedKey.window().start(),
+                        stats.count() + "/" + stats.sum() + "/" + stats.min() + "/" + stats.max()))
+                .to(topic, Produced.with(Serdes.String(), Serdes.String()));
+    }
+
+    private Map<String, String> read(String topic) {
+        return driver.createOutputTopic(topic, new StringDeserializer(), new StringDeserializer()).readKeyValuesToMap();
+    }
+}
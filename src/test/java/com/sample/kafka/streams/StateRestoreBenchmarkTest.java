@@ -0,0 +1,159 @@
+package com.sample.kafka.streams;
+
+import com.sample.kafka.metrics.PipelineMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.config.TopicConfig;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.StoreQueryParameters;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.Topology;
+import org.apache.kafka.streams.kstream.Consumed;
+import org.apache.kafka.streams.processor.api.Processor;
+import org.apache.kafka.streams.processor.api.ProcessorContext;
+import org.apache.kafka.streams.processor.api.Record;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.apache.kafka.streams.state.QueryableStoreTypes;
+import org.apache.kafka.streams.state.ReadOnlyKeyValueStore;
+import org.apache.kafka.streams.state.Stores;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.condition.EmbeddedKafkaCondition;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 상태 저장소 changelog 복원 벤치마크 (복원 처리량, 시작 -> RUNNING 시간)
+ *
+ * 기본 test 태스크에서는 제외되며 ./gradlew benchmark 로 실행한다.
+ * 임베디드 브로커의 changelog 토픽에 레코드를 미리 넣어 두고, 빈 state.dir 로 스트림즈를 띄워
+ * 장애 후 재시작처럼 저장소 전체를 복원시킨다. 복원 전용 컨슈머의 max.poll.records 별로
+ * StateRestoreProgress 가 기록한 복원 건수/소요 시간과 RUNNING 까지 걸린 시간을 비교한다.
+ */
+@Tag("benchmark")
+@EmbeddedKafka(partitions = 1, topics = StateRestoreBenchmarkTest.INPUT_TOPIC)
+class StateRestoreBenchmarkTest {
+
+    static final String INPUT_TOPIC = "restore-benchmark-input";
+    private static final String STORE = "restore-benchmark-store";
+
+    // changelog 레코드 수 (키당 10번 갱신, compaction 전이라 모두 복원된다)
+    private static final int KEYS = 50_000;
+    private static final int CHANGELOG_RECORDS = 500_000;
+    private static final int VALUE_BYTES = 100;
+    private static final Duration READY_TIMEOUT = Duration.ofMinutes(3);
+
+    @TempDir
+    Path stateDir;
+
+    @ParameterizedTest(name = "복원 max.poll.records {0}")
+    @ValueSource(ints = {1000, 10000})
+    void benchmarkRestore(int maxPollRecords) throws Exception {
+        EmbeddedKafkaBroker broker = EmbeddedKafkaCondition.getBroker();
+        String applicationId = "restore-benchmark-" + maxPollRecords;
+        fillChangelog(broker, applicationId + "-" + STORE + "-changelog");
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        StateRestoreProgress restoreProgress = new StateRestoreProgress(new PipelineMetrics(registry), Duration.ofSeconds(1));
+
+        Properties props = new Properties();
+        props.put(StreamsConfig.APPLICATION_ID_CONFIG, applicationId);
+        props.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        props.put(StreamsConfig.STATE_DIR_CONFIG, stateDir.toString());
+        props.put(StreamsConfig.restoreConsumerPrefix(ConsumerConfig.MAX_POLL_RECORDS_CONFIG), maxPollRecords);
+
+        CountDownLatch running = new CountDownLatch(1);
+        try (KafkaStreams streams = new KafkaStreams(topology(), props)) {
+            streams.setStateRestoreListener(restoreProgress);
+            streams.setStateListener((newState, oldState) -> {
+                if (newState == KafkaStreams.State.RUNNING) {
+                    running.countDown();
+                }
+            });
+
+            long startNanos = System.nanoTime();
+            streams.start();
+            assertThat(running.await(READY_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)).isTrue();
+            long readyMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+
+            double restored = registry.get("kafka.sample.streams.restore.records").tag("store", STORE).counter().count();
+            double restoreMs = registry.get("kafka.sample.streams.restore").tag("store", STORE).timer()
+                    .totalTime(TimeUnit.MILLISECONDS);
+
+            System.out.printf("[복원 max.poll.records %d] %.0f건 복원 %.0fms (%.0f건/초) | 시작 -> RUNNING %dms%n",
+                    maxPollRecords, restored, restoreMs, restored * 1000 / Math.max(restoreMs, 1), readyMs);
+
+            assertThat(restored).isEqualTo(CHANGELOG_RECORDS);
+            assertThat(restoreProgress.inProgress()).isEmpty();
+            ReadOnlyKeyValueStore<String, String> store = streams.store(
+                    StoreQueryParameters.fromNameAndType(STORE, QueryableStoreTypes.keyValueStore()));
+            assertThat(store.get("key-0")).isEqualTo(value(CHANGELOG_RECORDS - KEYS));
+        } finally {
+            registry.close();
+        }
+    }
+
+    /**
+     * 입력을 키별 마지막 값으로 저장하는 토폴로지 (changelog 가 켜진 영속 KV 저장소 하나)
+     */
+    private static Topology topology() {
+        StreamsBuilder builder = new StreamsBuilder();
+        builder.addStateStore(Stores.keyValueStoreBuilder(
+                Stores.persistentKeyValueStore(STORE), Serdes.String(), Serdes.String()));
+        builder.stream(INPUT_TOPIC, Consumed.with(Serdes.String(), Serdes.String()))
+                .process(() -> new Processor<String, String, Void, Void>() {
+                    private KeyValueStore<String, String> store;
+
+                    @Override
+                    public void init(ProcessorContext<Void, Void> context) {
+                        store = context.getStateStore(STORE);
+                    }
+
+                    @Override
+                    public void process(Record<String, String> record) {
+                        store.put(record.key(), record.value());
+                    }
+                }, STORE);
+        return builder.build();
+    }
+
+    private static void fillChangelog(EmbeddedKafkaBroker broker, String changelog) {
+        broker.addTopics(new NewTopic(changelog, 1, (short) 1)
+                .configs(Map.of(TopicConfig.CLEANUP_POLICY_CONFIG, TopicConfig.CLEANUP_POLICY_COMPACT)));
+
+        Map<String, Object> producerProps = KafkaTestUtils.producerProps(broker);
+        producerProps.put(ProducerConfig.LINGER_MS_CONFIG, 20);
+        producerProps.put(ProducerConfig.BATCH_SIZE_CONFIG, 256 * 1024);
+        try (KafkaProducer<String, String> producer =
+                     new KafkaProducer<>(producerProps, new StringSerializer(), new StringSerializer())) {
+            for (int i = 0; i < CHANGELOG_RECORDS; i++) {
+                producer.send(new ProducerRecord<>(changelog, "key-" + (i % KEYS), value(i)));
+            }
+            producer.flush();
+        }
+    }
+
+    private static String value(int sequence) {
+        String prefix = "v" + sequence + "-";
+        return prefix + "x".repeat(VALUE_BYTES - prefix.length());
+    }
+}
@@ -0,0 +1,114 @@
+package com.sample.kafka.streams;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class TDigestTest {
+
+    @Test
+    void dailyMergeOfHourlyDigestsMatchesExactQuantiles() {
+        Random random = new Random(7);
+        List<Double> exact = new ArrayList<>();
+        TDigest daily = new TDigest(100);
+
+        // SalePercentilesQueryService 의 일별 조회처럼 DB 에 저장된 24개 시간별 다이제스트를 병합
+        for (int hour = 0; hour < 24; hour++) {
+            TDigest hourly = new TDigest(100);
+            int sales = 500 + random.nextInt(4500);
+            for (int i = 0; i < sales; i++) {
+                double amount = Math.exp(10 + random.nextGaussian());
+                hourly.add(amount);
+                exact.add(amount);
+            }
+            daily.merge(TDigestSerde.fromBytes(TDigestSerde.toBytes(hourly)));
+        }
+        Collections.sort(exact);
+
+        assertThat(daily.count()).isEqualTo(exact.size());
+        assertThat(daily.min()).isEqualTo(exact.get(0));
+        assertThat(daily.max()).isEqualTo(exact.get(exact.size() - 1));
+        assertThat(rank(exact, daily.quantile(0.5))).isCloseTo(0.5, within(0.005));
+        assertThat(rank(exact, daily.quantile(0.95))).isCloseTo(0.95, within(0.002));
+        assertThat(rank(exact, daily.quantile(0.99))).isCloseTo(0.99, within(0.002));
+    }
+
+    @Test
+    void mergeIntoEmptyDigestCompressesWithMergedWeight() {
+        Random random = new Random(11);
+        List<Double> exact = new ArrayList<>();
+        // 버퍼(compression x 5)를 거의 채운 다이제스트라 병합 중간에 compress() 가 일어난다
+        TDigest other = new TDigest(10);
+        for (int i = 0; i < 249; i++) {
+            double value = random.nextDouble() * 1000;
+            other.add(value);
+            exact.add(value);
+        }
+        Collections.sort(exact);
+
+        TDigest merged = new TDigest(10);
+        merged.merge(other);
+
+        assertThat(merged.count()).isEqualTo(249);
+        assertThat(merged.max()).isEqualTo(exact.get(exact.size() - 1));
+        assertThat(rank(exact, merged.quantile(0.5))).isCloseTo(0.5, within(0.02));
+        assertThat(rank(exact, merged.quantile(0.9))).isCloseTo(0.9, within(0.02));
+        assertThat(rank(exact, merged.quantile(0.99))).isCloseTo(0.99, within(0.02));
+    }
+
+    @Test
+    void serdeRoundTripKeepsCentroids() {
+        TDigest digest = new TDigest(100);
+        for (int i = 1; i <= 10_000; i++) {
+            digest.add(i);
+        }
+
+        TDigest restored = TDigestSerde.fromBytes(TDigestSerde.toBytes(digest));
+
+        assertThat(restored.count()).isEqualTo(digest.count());
+        assertThat(restored.compression()).isEqualTo(digest.compression());
+        assertThat(restored.min()).isEqualTo(1.0);
+        assertThat(restored.max()).isEqualTo(10_000.0);
+        assertThat(restored.centroidCount()).isEqualTo(digest.centroidCount());
+        assertThat(restored.quantile(0.99)).isEqualTo(digest.quantile(0.99));
+    }
+
+    @Test
+    void storeUpdatePathKeepsAccuracy() {
+        Random random = new Random(13);
+        List<Double> exact = new ArrayList<>();
+        byte[] stored = TDigestSerde.toBytes(new TDigest(100));
+
+        // 윈도우 저장소 갱신처럼 값마다 복원 -> 추가 -> 직렬화
+        for (int i = 0; i < 3_000; i++) {
+            double amount = Math.exp(10 + random.nextGaussian());
+            TDigest digest = TDigestSerde.fromBytes(stored);
+            digest.add(amount);
+            stored = TDigestSerde.toBytes(digest);
+            exact.add(amount);
+        }
+        Collections.sort(exact);
+
+        TDigest restored = TDigestSerde.fromBytes(stored);
+        assertThat(restored.count()).isEqualTo(exact.size());
+        assertThat(rank(exact, restored.quantile(0.5))).isCloseTo(0.5, within(0.01));
+        assertThat(rank(exact, restored.quantile(0.99))).isCloseTo(0.99, within(0.005));
+    }
+
+    /**
+     * 추정값 이하인 실제 값의 비율 (정렬된 목록)
+     */
+    private static double rank(List<Double> sorted, double estimate) {
+        int count = 0;
+        while (count < sorted.size() && sorted.get(count) <= estimate) {
+            count++;
+        }
+        return (double) count / sorted.size();
+    }
+}
@@ -0,0 +1,92 @@
+package com.sample.kafka.streams;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.common.serialization.LongSerializer;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.TestInputTopic;
+import org.apache.kafka.streams.TestOutputTopic;
+import org.apache.kafka.streams.TopologyTestDriver;
+import org.apache.kafka.streams.kstream.Consumed;
+import org.apache.kafka.streams.kstream.Produced;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.apache.kafka.streams.state.Stores;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 열린 윈도우 스케치는 메모리에서 갱신하고 주기적으로만 저장하며, 윈도우가 닫히면 상위 K 를 내보내고 지우는지 확인
+ */
+class TopKProcessorTest {
+
+    private static final String INPUT_TOPIC = "top-k-input-topic";
+    private static final String OUTPUT_TOPIC = "top-k-output-topic";
+    private static final String STORE = "top-k-store";
+
+    private static final Duration WINDOW_SIZE = Duration.ofMinutes(5);
+    private static final Duration GRACE = Duration.ofSeconds(10);
+
+    private static final Instant START = Instant.parse("2026-01-01T00:00:00Z");
+
+    private final Counter windowEmits = new SimpleMeterRegistry().counter("emits");
+
+    private TopologyTestDriver driver;
+    private TestInputTopic<String, Long> input;
+    private TestOutputTopic<String, String> output;
+
+    @BeforeEach
+    void setUp() {
+        StreamsBuilder builder = new StreamsBuilder();
+        builder.addStateStore(Stores.keyValueStoreBuilder(Stores.persistentKeyValueStore(STORE),
+                Serdes.Long(), new TopKSketchSerde()).withCachingEnabled());
+        builder.stream(INPUT_TOPIC, Consumed.with(Serdes.String(), Serdes.Long()))
+                .process(TopKProcessor.supplier(STORE, "words", WINDOW_SIZE, GRACE, 2, 4, 512, windowEmits), STORE)
+                .to(OUTPUT_TOPIC, Produced.with(Serdes.String(), Serdes.String()));
+
+        Properties props = new Properties();
+        props.put(StreamsConfig.APPLICATION_ID_CONFIG, "top-k-processor-test");
+        props.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, "dummy:9092");
+        driver = new TopologyTestDriver(builder.build(), props, START);
+        input = driver.createInputTopic(INPUT_TOPIC, new StringSerializer(), new LongSerializer());
+        output = driver.createOutputTopic(OUTPUT_TOPIC, new StringDeserializer(), new StringDeserializer());
+    }
+
+    @AfterEach
+    void tearDown() {
+        driver.close();
+    }
+
+    @Test
+    void persistsOpenWindowsPeriodicallyAndEmitsOnClose() {
+        input.pipeInput("kafka", 3L, START.plusSeconds(1));
+        input.pipeInput("hello", 1L, START.plusSeconds(2));
+        input.pipeInput("kafka", 2L, START.plusSeconds(3));
+        input.pipeInput("world", 2L, START.plusSeconds(4));
+
+        KeyValueStore<Long, TopKSketch> store = driver.getKeyValueStore(STORE);
+        assertThat(store.get(START.toEpochMilli())).isNull();
+
+        driver.advanceWallClockTime(Duration.ofSeconds(1));
+        assertThat(store.get(START.toEpochMilli()).top()).hasSize(2)
+                .first().satisfies(top -> assertThat(top.getKey()).isEqualTo("kafka"));
+
+        // 스트림 시간이 윈도우 종료 + grace 에 닿으면 방출하고 저장소에서도 지운다
+        input.pipeInput("kafka", 1L, START.plus(WINDOW_SIZE).plus(GRACE));
+
+        assertThat(output.readValuesToList()).containsExactly(String.format("대상:words, 윈도우:%d~%d, 상위:kafka=5,world=2",
+                START.toEpochMilli(), START.plus(WINDOW_SIZE).toEpochMilli()));
+        assertThat(store.get(START.toEpochMilli())).isNull();
+        assertThat(windowEmits.count()).isEqualTo(1.0);
+    }
+}
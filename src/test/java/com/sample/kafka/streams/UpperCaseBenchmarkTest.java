@@ -0,0 +1,121 @@
+package com.sample.kafka.streams;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 대문자 변환 문자열 경로와 바이트 경로 벤치마크 (레코드당 처리 시간, 할당량)
+ *
+ * 기본 test 태스크에서는 제외되며 ./gradlew benchmark 로 실행한다.
+ * 두 경로 모두 역직렬화 직후의 byte[] 를 받아 직렬화할 byte[] 를 돌려주는 구간만 잰다.
+ * 문자열 경로는 StringDeserializer -> toUpperCase() -> StringSerializer 와 같은 작업이다.
+ */
+@Tag("benchmark")
+class UpperCaseBenchmarkTest {
+
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 10;
+    private static final int RECORDS_PER_ROUND = 100_000;
+
+    private static final String[] ENGLISH = {
+            "hello kafka streams",
+            "order 1024 shipped to warehouse b",
+            "user login from mobile app version 3.2.1",
+            "the quick brown fox jumps over the lazy dog",
+    };
+    private static final String[] KOREAN = {
+            "안녕하세요 kafka streams",
+            "주문 1024 배송 시작",
+            "노트북 구매 완료 - 결제 금액 1500000원",
+            "중요한 메시지입니다",
+    };
+
+    @ParameterizedTest(name = "한글 비율 {0}")
+    @ValueSource(doubles = {0.0, 0.1, 0.5, 1.0})
+    void benchmarkUpperCase(double koreanRatio) {
+        byte[][] payloads = payloads(koreanRatio);
+
+        for (int i = 0; i < payloads.length; i++) {
+            assertThat(AsciiUpperCase.apply(payloads[i].clone())).isEqualTo(stringPath(payloads[i]));
+        }
+
+        Result string = measure(payloads, false);
+        Result bytes = measure(payloads, true);
+
+        System.out.printf("[한글 %.0f%%] 문자열 경로 %.1f ns/건, %.1f B/건 | 바이트 경로 %.1f ns/건, %.1f B/건 (처리량 %.2f배)%n",
+                koreanRatio * 100,
+                string.nanosPerRecord, string.bytesPerRecord,
+                bytes.nanosPerRecord, bytes.bytesPerRecord,
+                string.nanosPerRecord / bytes.nanosPerRecord);
+
+        assertThat(bytes.checksum).isEqualTo(string.checksum);
+    }
+
+    private static Result measure(byte[][] payloads, boolean bytePath) {
+        long checksum = 0;
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            checksum = run(copy(payloads), bytePath);
+        }
+
+        long elapsedNanos = 0;
+        long allocatedBytes = 0;
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            // 역직렬화기가 레코드마다 새 배열을 주는 것과 같게, 측정 전에 복사본을 만들어 둔다
+            byte[][] input = copy(payloads);
+            long allocatedBefore = allocatedBytes();
+            long startNanos = System.nanoTime();
+            checksum = run(input, bytePath);
+            elapsedNanos += System.nanoTime() - startNanos;
+            allocatedBytes += allocatedBytes() - allocatedBefore;
+        }
+
+        long records = (long) MEASURED_ROUNDS * payloads.length;
+        return new Result((double) elapsedNanos / records, (double) allocatedBytes / records, checksum);
+    }
+
+    private static long run(byte[][] input, boolean bytePath) {
+        long checksum = 0;
+        for (byte[] value : input) {
+            byte[] upperCase = bytePath ? AsciiUpperCase.apply(value) : stringPath(value);
+            checksum += upperCase.length + upperCase[0];
+        }
+        return checksum;
+    }
+
+    private static byte[] stringPath(byte[] value) {
+        return new String(value, StandardCharsets.UTF_8).toUpperCase().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[][] payloads(double koreanRatio) {
+        Random random = new Random(42);
+        byte[][] payloads = new byte[RECORDS_PER_ROUND][];
+        for (int i = 0; i < payloads.length; i++) {
+            String[] source = random.nextDouble() < koreanRatio ? KOREAN : ENGLISH;
+            String value = source[random.nextInt(source.length)] + " #" + i;
+            payloads[i] = value.getBytes(StandardCharsets.UTF_8);
+        }
+        return payloads;
+    }
+
+    private static byte[][] copy(byte[][] payloads) {
+        byte[][] copy = new byte[payloads.length][];
+        for (int i = 0; i < payloads.length; i++) {
+            copy[i] = payloads[i].clone();
+        }
+        return copy;
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+    }
+
+    private record Result(double nanosPerRecord, double bytesPerRecord, long checksum) {
+    }
+}